@@ -0,0 +1,210 @@
+package application;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Headless Monte Carlo simulator of battles between two {@link CardStack}s, used for balancing.
+ * <p>
+ * In a match both decks are shuffled, then the top Cards of both sides hit each other simultaneously every
+ * round with their effective dmg, doubled when the attacker's {@link CardType} has the advantage. A Card whose
+ * hp drops to zero is discarded, and the side that still has Cards when the other runs out wins. Matches
+ * lasting {@value #MAX_ROUNDS} rounds are draws.
+ * <p>
+ * Matches are split over a fork-join pool in a fixed binary tree of tasks, each task splitting its own
+ * {@link SplittableRandom} for its subtasks, so the same seed always gives the same {@link BattleStatistics}
+ * regardless of the amount of threads.
+ */
+public class BattleSimulator {
+
+    public static final int MAX_ROUNDS = 1_000;
+    private static final int MATCHES_PER_TASK = 4_096;
+    private static final int[] BEATS = new int[CardType.values().length];
+
+    static {
+        Arrays.fill(BEATS, -1);
+        BEATS[CardType.HEARTS.ordinal()] = CardType.SPADES.ordinal();
+        BEATS[CardType.SPADES.ordinal()] = CardType.DIAMONDS.ordinal();
+        BEATS[CardType.DIAMONDS.ordinal()] = CardType.CLUBS.ordinal();
+        BEATS[CardType.CLUBS.ordinal()] = CardType.HEARTS.ordinal();
+    }
+
+    private final int[] hpA, dmgA, hpB, dmgB;
+    private final byte[] typeA, typeB;
+
+    /**
+     * Creates a new instance of a {@link BattleSimulator}, copying the effective stats of both decks, so later
+     * changes to the CardStacks do not affect it.
+     *
+     * @param a deck of side A, cannot be null or empty.
+     * @param b deck of side B, cannot be null or empty.
+     * @throws IllegalArgumentException if a provided CardStack is {@code null} or empty.
+     */
+    public BattleSimulator(CardStack a, CardStack b) {
+        checkDeck(a);
+        checkDeck(b);
+        this.hpA = new int[a.size()];
+        this.dmgA = new int[a.size()];
+        this.typeA = new byte[a.size()];
+        this.hpB = new int[b.size()];
+        this.dmgB = new int[b.size()];
+        this.typeB = new byte[b.size()];
+        copyStats(a, hpA, dmgA, typeA);
+        copyStats(b, hpB, dmgB, typeB);
+    }
+
+    private static void checkDeck(CardStack deck) {
+        if (deck == null) throw new IllegalArgumentException("CardStack cannot be null");
+        if (deck.isEmpty()) throw new IllegalArgumentException("CardStack cannot be empty");
+    }
+
+    private static void copyStats(CardStack deck, int[] hp, int[] dmg, byte[] type) {
+        for (int i = 0; i < deck.size(); i++) {
+            hp[i] = deck.getEffectiveHp(i);
+            dmg[i] = deck.getEffectiveDmg(i);
+            type[i] = (byte) deck.get(i).getType().ordinal();
+        }
+    }
+
+    /**
+     * Checks whether a {@link CardType} deals double damage to another: hearts beat spades, spades beat
+     * diamonds, diamonds beat clubs and clubs beat hearts.
+     *
+     * @return {@code true} if the attacker has the advantage.
+     */
+    public static boolean hasAdvantage(CardType attacker, CardType defender) {
+        return advantage(attacker.ordinal(), defender.ordinal());
+    }
+
+    private static boolean advantage(int attacker, int defender) {
+        return BEATS[attacker] == defender;
+    }
+
+
+    // ------------------------ Simulation ------------------------ //
+    /**
+     * Simulates matches on the common fork-join pool.
+     *
+     * @param matches amount of matches, cannot be negative.
+     * @param seed seed of the simulation.
+     * @return the aggregated statistics of all matches.
+     * @throws IllegalArgumentException if provided amount is negative.
+     */
+    public BattleStatistics run(long matches, long seed) {
+        return run(matches, seed, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Simulates matches on a fork-join pool.
+     *
+     * @param matches amount of matches, cannot be negative.
+     * @param seed seed of the simulation.
+     * @param pool the pool to run on.
+     * @return the aggregated statistics of all matches.
+     * @throws IllegalArgumentException if provided amount is negative.
+     */
+    public BattleStatistics run(long matches, long seed, ForkJoinPool pool) {
+        if (matches < 0) throw new IllegalArgumentException("Amount of matches cannot be negative: " + matches);
+        return pool.invoke(new MatchTask(matches, new SplittableRandom(seed)));
+    }
+
+    private final class MatchTask extends RecursiveTask<BattleStatistics> {
+        private final long matches;
+        private final SplittableRandom random;
+
+        MatchTask(long matches, SplittableRandom random) {
+            this.matches = matches;
+            this.random = random;
+        }
+
+        @Override
+        protected BattleStatistics compute() {
+            if (matches <= MATCHES_PER_TASK) return simulate(matches, random);
+            long half = matches / 2;
+            MatchTask left = new MatchTask(half, random.split());
+            MatchTask right = new MatchTask(matches - half, random.split());
+            left.fork();
+            BattleStatistics statistics = right.compute();
+            statistics.merge(left.join());
+            return statistics;
+        }
+    }
+
+    private BattleStatistics simulate(long matches, SplittableRandom random) {
+        BattleStatistics statistics = new BattleStatistics();
+        int[] orderA = identity(hpA.length), orderB = identity(hpB.length);
+        int[] currentA = new int[hpA.length], currentB = new int[hpB.length];
+        for (long match = 0; match < matches; match++) {
+            shuffle(orderA, random);
+            shuffle(orderB, random);
+            System.arraycopy(hpA, 0, currentA, 0, hpA.length);
+            System.arraycopy(hpB, 0, currentB, 0, hpB.length);
+
+            int nextA = 0, nextB = 0, rounds = 0;
+            long damageA = 0, damageB = 0;
+            while (nextA < orderA.length && nextB < orderB.length && rounds < MAX_ROUNDS) {
+                int a = orderA[nextA], b = orderB[nextB];
+                int hitA = advantage(typeA[a], typeB[b]) ? dmgA[a] * 2 : dmgA[a];
+                int hitB = advantage(typeB[b], typeA[a]) ? dmgB[b] * 2 : dmgB[b];
+                damageA += Math.min(hitA, currentB[b]);
+                damageB += Math.min(hitB, currentA[a]);
+                currentB[b] -= hitA;
+                currentA[a] -= hitB;
+                if (currentA[a] <= 0) nextA++;
+                if (currentB[b] <= 0) nextB++;
+                rounds++;
+            }
+            boolean aLeft = nextA < orderA.length, bLeft = nextB < orderB.length;
+            statistics.record(aLeft == bLeft ? 0 : aLeft ? 1 : -1, rounds, damageA, damageB);
+        }
+        return statistics;
+    }
+
+    private static int[] identity(int size) {
+        int[] order = new int[size];
+        for (int i = 0; i < size; i++) order[i] = i;
+        return order;
+    }
+
+    private static void shuffle(int[] order, SplittableRandom random) {
+        for (int i = order.length - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int swap = order[i];
+            order[i] = order[j];
+            order[j] = swap;
+        }
+    }
+
+
+    // ------------------------ Command Line ------------------------ //
+    /**
+     * Simulates a standard 52 Card deck against a deck with one extra point of dmg on clubs and reports the
+     * statistics and throughput. Usage: {@code BattleSimulator [matches] [seed]}.
+     */
+    public static void main(String[] args) {
+        long matches = args.length > 0 ? Long.parseLong(args[0]) : 10_000_000;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+
+        CardStack.Builder a = new CardStack.Builder(), b = new CardStack.Builder();
+        CardType[] suits = {CardType.HEARTS, CardType.DIAMONDS, CardType.SPADES, CardType.CLUBS};
+        long id = 0;
+        for (CardType suit : suits) {
+            for (int rank = 1; rank <= 13; rank++) {
+                a.addCard(new Card.Builder(id++).setType(suit).setHp(rank + 5).setDmg(rank).build());
+                b.addCard(new Card.Builder(id++).setType(suit).setHp(rank + 5)
+                        .setDmg(suit == CardType.CLUBS ? rank + 1 : rank).build());
+            }
+        }
+        BattleSimulator simulator = new BattleSimulator(a.build(), b.build());
+        simulator.run(Math.min(matches, 100_000), seed);
+
+        long start = System.nanoTime();
+        BattleStatistics statistics = simulator.run(matches, seed);
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println(statistics);
+        System.out.printf("%d matches in %.2f s on %d threads: %.0f matches/s%n", matches, seconds,
+                ForkJoinPool.commonPool().getParallelism(), matches / seconds);
+    }
+}
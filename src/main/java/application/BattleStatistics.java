@@ -0,0 +1,102 @@
+package application;
+
+/**
+ * Aggregated results of many simulated battles between two {@link CardStack}s, A and B.
+ * <p>
+ * Only sums are kept, so statistics of any amount of matches take constant memory, and merging the statistics
+ * of parallel tasks gives the same result regardless of the order they finish in.
+ */
+public final class BattleStatistics {
+
+    private long matches;
+    private long winsA;
+    private long winsB;
+    private long rounds;
+    private long damageA;
+    private long damageB;
+
+    void record(int winner, int rounds, long damageA, long damageB) {
+        this.matches++;
+        if (winner > 0) this.winsA++;
+        else if (winner < 0) this.winsB++;
+        this.rounds += rounds;
+        this.damageA += damageA;
+        this.damageB += damageB;
+    }
+
+    void merge(BattleStatistics other) {
+        this.matches += other.matches;
+        this.winsA += other.winsA;
+        this.winsB += other.winsB;
+        this.rounds += other.rounds;
+        this.damageA += other.damageA;
+        this.damageB += other.damageB;
+    }
+
+
+    // ------------------------ Getters & Setters ------------------------ //
+    public long getMatches() {
+        return matches;
+    }
+
+    public long getWinsA() {
+        return winsA;
+    }
+
+    public long getWinsB() {
+        return winsB;
+    }
+
+    public long getDraws() {
+        return matches - winsA - winsB;
+    }
+
+    public double getWinRateA() {
+        return matches == 0 ? 0 : (double) winsA / matches;
+    }
+
+    public double getWinRateB() {
+        return matches == 0 ? 0 : (double) winsB / matches;
+    }
+
+    public double getAverageRounds() {
+        return matches == 0 ? 0 : (double) rounds / matches;
+    }
+
+    /**
+     * @return the average damage dealt by the Cards of A per match.
+     */
+    public double getAverageDamageA() {
+        return matches == 0 ? 0 : (double) damageA / matches;
+    }
+
+    /**
+     * @return the average damage dealt by the Cards of B per match.
+     */
+    public double getAverageDamageB() {
+        return matches == 0 ? 0 : (double) damageB / matches;
+    }
+
+
+    // ------------------------ Default Object Methods ------------------------ //
+    @Override
+    public boolean equals(Object o) {
+        if (o == null || getClass() != o.getClass()) return false;
+        BattleStatistics that = (BattleStatistics) o;
+        return matches == that.matches && winsA == that.winsA && winsB == that.winsB
+                && rounds == that.rounds && damageA == that.damageA && damageB == that.damageB;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(matches) * 31 + Long.hashCode(winsA ^ winsB ^ rounds ^ damageA ^ damageB);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BattleStatistics(matches=%d, winRateA=%.4f, winRateB=%.4f, draws=%d, " +
+                        "avgRounds=%.2f, avgDamageA=%.2f, avgDamageB=%.2f)",
+                matches, getWinRateA(), getWinRateB(), getDraws(), getAverageRounds(),
+                getAverageDamageA(), getAverageDamageB());
+    }
+}
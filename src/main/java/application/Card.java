@@ -1,7 +1,5 @@
 package application;
 
-import java.util.Objects;
-
 public class Card {
 
     private final long id;
@@ -108,6 +106,10 @@ public class Card {
         return id;
     }
 
+    public CardType getType() {
+        return type;
+    }
+
     public int getHp() {
         return hp;
     }
@@ -127,7 +129,7 @@ public class Card {
 
     @Override
     public int hashCode() {
-        return Objects.hashCode(id);
+        return Long.hashCode(id);
     }
 
     @Override
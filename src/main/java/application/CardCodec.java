@@ -0,0 +1,297 @@
+package application;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Compact binary format for {@link Card}s and {@link CardStack}s, for save games, replays and network sync.
+ * <p>
+ * A Card is encoded as its id, hp and dmg as unsigned LEB128 varints and its {@link CardType} as one ordinal
+ * byte. A CardStack is its Card count followed by the Cards from bottom to top, and its {@link Modifier} count
+ * followed by the ascending Modifier ids. Modifier ids are only meaningful for a {@link ModifierRegistry} that
+ * registered the same Modifiers in the same order. A stream starts with a header holding {@link #MAGIC} and
+ * {@link #VERSION}, written with {@link #writeHeader(ByteBuffer)}.
+ * <p>
+ * Encoding writes straight into the buffer and fails with a {@link java.nio.BufferOverflowException} when it
+ * is too small; {@link #encodedSize(CardStack)} gives the exact size up front. For channels, {@link Writer}
+ * and {@link Reader} frame every CardStack with its byte length.
+ */
+public final class CardCodec {
+
+    public static final int MAGIC = 0x4A435244; // "JCRD"
+    public static final int VERSION = 1;
+    /**
+     * Largest encoded CardStack a {@link Writer} writes and a {@link Reader} accepts, in bytes. Bounds the
+     * buffer a corrupt or hostile stream can make a Reader allocate.
+     */
+    public static final int MAX_FRAME = 1 << 24;
+    private static final CardType[] TYPES = CardType.values();
+
+    private CardCodec() {}
+
+
+    // ------------------------ Header ------------------------ //
+    public static void writeHeader(ByteBuffer buffer) {
+        buffer.putInt(MAGIC);
+        putVarLong(buffer, VERSION);
+    }
+
+    /**
+     * Reads and validates a stream header.
+     *
+     * @return the format version of the stream.
+     * @throws IllegalArgumentException if the buffer does not start with a header of a supported version.
+     */
+    public static int readHeader(ByteBuffer buffer) {
+        int magic = buffer.getInt();
+        if (magic != MAGIC) throw new IllegalArgumentException("Not a card stream: " + Integer.toHexString(magic));
+        int version = (int) getVarLong(buffer);
+        if (version < 1 || version > VERSION) throw new IllegalArgumentException("Unsupported card stream version: " + version);
+        return version;
+    }
+
+
+    // ------------------------ Encoding ------------------------ //
+    public static void writeCard(ByteBuffer buffer, Card card) {
+        putVarLong(buffer, card.getId());
+        buffer.put((byte) card.getType().ordinal());
+        putVarLong(buffer, card.getHp());
+        putVarLong(buffer, card.getDmg());
+    }
+
+    public static void writeStack(ByteBuffer buffer, CardStack stack) {
+        int size = stack.size();
+        putVarLong(buffer, size);
+        for (int i = 0; i < size; i++) writeCard(buffer, stack.get(i));
+        putVarLong(buffer, stack.getModifierCount());
+        for (int id = stack.nextModifierId(0); id >= 0; id = stack.nextModifierId(id + 1)) putVarLong(buffer, id);
+    }
+
+    /**
+     * Encodes a {@link CardStack} into native or heap memory.
+     *
+     * @param segment the segment to write to.
+     * @param offset the offset in the segment to start at.
+     * @return the offset after the encoded CardStack.
+     */
+    public static long writeStack(MemorySegment segment, long offset, CardStack stack) {
+        ByteBuffer buffer = segment.asSlice(offset).asByteBuffer();
+        writeStack(buffer, stack);
+        return offset + buffer.position();
+    }
+
+    public static int encodedSize(Card card) {
+        return varLongSize(card.getId()) + 1 + varLongSize(card.getHp()) + varLongSize(card.getDmg());
+    }
+
+    public static int encodedSize(CardStack stack) {
+        int size = varLongSize(stack.size());
+        for (int i = 0; i < stack.size(); i++) size += encodedSize(stack.get(i));
+        size += varLongSize(stack.getModifierCount());
+        for (int id = stack.nextModifierId(0); id >= 0; id = stack.nextModifierId(id + 1)) size += varLongSize(id);
+        return size;
+    }
+
+
+    // ------------------------ Decoding ------------------------ //
+    /**
+     * @throws IllegalArgumentException if the encoded Card is invalid.
+     * @throws BufferUnderflowException if the buffer ends within the Card.
+     */
+    public static Card readCard(ByteBuffer buffer) {
+        long id = getVarLong(buffer);
+        int type = buffer.get();
+        if (type < 0 || type >= TYPES.length) throw new IllegalArgumentException("Invalid CardType ordinal: " + type);
+        return new Card.Builder(id).setType(TYPES[type]).setHp(getVarInt(buffer)).setDmg(getVarInt(buffer)).build();
+    }
+
+    /**
+     * Decodes a {@link CardStack}.
+     *
+     * @param registry registry to resolve Modifier ids with, may be null if the stack has no Modifiers.
+     * @return the decoded CardStack.
+     * @throws IllegalArgumentException if the encoded CardStack is invalid or has unknown Modifiers.
+     * @throws BufferUnderflowException if the buffer ends within the CardStack.
+     */
+    public static CardStack readStack(ByteBuffer buffer, ModifierRegistry registry) {
+        CardStack stack = new CardStack();
+        readStack(buffer, registry, stack);
+        return stack;
+    }
+
+    /**
+     * Decodes a {@link CardStack} into an existing one, replacing its Cards and Modifiers, so a reused target
+     * only allocates the decoded Cards.
+     *
+     * @see #readStack(ByteBuffer, ModifierRegistry)
+     */
+    public static void readStack(ByteBuffer buffer, ModifierRegistry registry, CardStack target) {
+        target.clear();
+        target.clearModifiers();
+        int size = getVarInt(buffer);
+        for (int i = 0; i < size; i++) target.pushTop(readCard(buffer));
+        int modifiers = getVarInt(buffer);
+        for (int i = 0; i < modifiers; i++) {
+            int id = getVarInt(buffer);
+            if (registry == null || id >= registry.size())
+                throw new IllegalArgumentException("Unknown Modifier id: " + id);
+            target.addModifier(registry.get(id));
+        }
+    }
+
+    public static CardStack readStack(MemorySegment segment, long offset, ModifierRegistry registry) {
+        return readStack(segment.asSlice(offset).asByteBuffer(), registry);
+    }
+
+
+    // ------------------------ Varints ------------------------ //
+    static void putVarLong(ByteBuffer buffer, long value) {
+        while ((value & ~0x7FL) != 0) {
+            buffer.put((byte) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        buffer.put((byte) value);
+    }
+
+    static long getVarLong(ByteBuffer buffer) {
+        long value = 0;
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            byte b = buffer.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IllegalArgumentException("Varint is too long");
+    }
+
+    private static int getVarInt(ByteBuffer buffer) {
+        long value = getVarLong(buffer);
+        if (value < 0 || value > Integer.MAX_VALUE) throw new IllegalArgumentException("Varint out of range: " + value);
+        return (int) value;
+    }
+
+    static int varLongSize(long value) {
+        return value == 0 ? 1 : (Long.SIZE - Long.numberOfLeadingZeros(value) + 6) / 7;
+    }
+
+
+    // ------------------------ Streaming ------------------------ //
+    /**
+     * Writes a header followed by length-framed {@link CardStack}s to a channel through a reusable buffer.
+     */
+    public static final class Writer implements AutoCloseable {
+
+        private final WritableByteChannel channel;
+        private ByteBuffer buffer;
+
+        public Writer(WritableByteChannel channel, int bufferSize) throws IOException {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(Math.max(64, bufferSize));
+            writeHeader(buffer);
+        }
+
+        /**
+         * @throws IllegalArgumentException if the CardStack encodes to more than {@link #MAX_FRAME} bytes.
+         */
+        public void write(CardStack stack) throws IOException {
+            int size = encodedSize(stack);
+            if (size > MAX_FRAME) throw new IllegalArgumentException("CardStack exceeds the frame limit: " + size);
+            int frame = varLongSize(size) + size;
+            if (buffer.remaining() < frame) flush();
+            if (buffer.capacity() < frame) buffer = ByteBuffer.allocateDirect(frame);
+            putVarLong(buffer, size);
+            writeStack(buffer, stack);
+        }
+
+        public void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) channel.write(buffer);
+            buffer.clear();
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+            channel.close();
+        }
+    }
+
+    /**
+     * Reads length-framed {@link CardStack}s written by a {@link Writer} from a channel.
+     */
+    public static final class Reader implements AutoCloseable {
+
+        private final ReadableByteChannel channel;
+        private final ModifierRegistry registry;
+        private ByteBuffer buffer;
+        private boolean eof;
+
+        /**
+         * @throws IllegalArgumentException if the channel does not start with a supported header.
+         */
+        public Reader(ReadableByteChannel channel, ModifierRegistry registry, int bufferSize) throws IOException {
+            this.channel = channel;
+            this.registry = registry;
+            this.buffer = ByteBuffer.allocateDirect(Math.max(64, bufferSize)).flip();
+            if (!fill(Integer.BYTES + 1)) throw new IllegalArgumentException("Missing card stream header");
+            readHeader(buffer);
+        }
+
+        /**
+         * Reads the next {@link CardStack} into a reused target.
+         *
+         * @return {@code false} if the stream ended.
+         * @throws IllegalArgumentException if the stream is truncated or invalid, or a frame exceeds
+         * {@link #MAX_FRAME}.
+         */
+        public boolean next(CardStack target) throws IOException {
+            if (!fill(1)) return false;
+            fill(10);
+            long length;
+            try {
+                length = getVarLong(buffer);
+            } catch (BufferUnderflowException e) {
+                throw new IllegalArgumentException("Truncated card stream", e);
+            }
+            // Validated before growing, the length is untrusted.
+            if (length < 0 || length > MAX_FRAME) throw new IllegalArgumentException("Invalid frame length: " + length);
+            int size = (int) length;
+            if (size > buffer.capacity()) {
+                ByteBuffer grown = ByteBuffer.allocateDirect(size);
+                grown.put(buffer).flip();
+                buffer = grown;
+            }
+            if (!fill(size)) throw new IllegalArgumentException("Truncated card stream");
+            int end = buffer.position() + size;
+            ByteBuffer frame = buffer.slice(buffer.position(), size);
+            try {
+                readStack(frame, registry, target);
+            } catch (BufferUnderflowException e) {
+                throw new IllegalArgumentException("CardStack exceeds its frame", e);
+            }
+            buffer.position(end);
+            return true;
+        }
+
+        /**
+         * Ensures at least {@code bytes} bytes are buffered, unless the stream ends first.
+         */
+        private boolean fill(int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) return true;
+            buffer.compact();
+            while (!eof && buffer.position() < bytes) {
+                if (channel.read(buffer) < 0) eof = true;
+            }
+            buffer.flip();
+            return buffer.remaining() >= bytes;
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package application;
+
+import framework.util.IntList;
+import framework.util.LongIntHashMap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry of {@link Card} instances by id.
+ * <p>
+ * Instances are split into an interned, immutable {@link CardTemplate} and per-instance state: the id, the
+ * index of the template and the current hp, kept in flat arrays. An instance therefore costs a few array
+ * slots instead of a Card object and a boxed {@code Long} key, and ids are resolved through a
+ * {@link LongIntHashMap} without boxing. Removed slots are reused by later registrations.
+ */
+public class CardRegistry {
+
+    public static final int NOT_FOUND = -1;
+
+    private final Map<CardTemplate, Integer> templateIndices = new HashMap<>();
+    private final List<CardTemplate> templates = new ArrayList<>();
+    private final LongIntHashMap slots;
+    private final IntList freeSlots = new IntList();
+
+    private long[] ids;
+    private int[] templateOf;
+    private int[] hp;
+    private int slotCount;
+
+    public CardRegistry() {
+        this(16);
+    }
+
+    /**
+     * Creates a new instance of a {@link CardRegistry}.
+     *
+     * @param expectedCards amount of Cards the registry can hold before growing, cannot be negative.
+     * @throws IllegalArgumentException if provided amount is negative.
+     */
+    public CardRegistry(int expectedCards) {
+        this.slots = new LongIntHashMap(expectedCards, NOT_FOUND);
+        this.ids = new long[Math.max(16, expectedCards)];
+        this.templateOf = new int[ids.length];
+        this.hp = new int[ids.length];
+    }
+
+
+    // ------------------------ Templates ------------------------ //
+    /**
+     * Getter for the shared {@link CardTemplate} with the given stats, creating it on first use.
+     *
+     * @return the interned CardTemplate.
+     * @throws IllegalArgumentException if provided type is {@code null}, or hp or dmg is negative.
+     */
+    public CardTemplate intern(CardType type, int baseHp, int baseDmg) {
+        return templates.get(templateIndex(new CardTemplate(type, baseHp, baseDmg)));
+    }
+
+    private int templateIndex(CardTemplate template) {
+        Integer index = templateIndices.get(template);
+        if (index == null) {
+            index = templates.size();
+            templates.add(template);
+            templateIndices.put(template, index);
+        }
+        return index;
+    }
+
+    public int getTemplateCount() {
+        return templates.size();
+    }
+
+
+    // ------------------------ Registration ------------------------ //
+    /**
+     * Registers a {@link Card} instance with full hp.
+     *
+     * @param id identifier of the instance, cannot be negative or already registered.
+     * @param template {@link CardTemplate} of the instance, cannot be null.
+     * @return the slot of the instance.
+     * @throws IllegalArgumentException if provided id is negative or registered, or template is {@code null}.
+     */
+    public int register(long id, CardTemplate template) {
+        if (template == null) throw new IllegalArgumentException("CardTemplate cannot be null");
+        if (id < 0) throw new IllegalArgumentException("Card identifier cannot be negative: " + id);
+        if (slots.containsKey(id)) throw new IllegalArgumentException("Card already registered: " + id);
+
+        int slot;
+        if (!freeSlots.isEmpty()) {
+            slot = freeSlots.removeLast();
+        } else {
+            slot = slotCount++;
+            if (slot == ids.length) {
+                ids = Arrays.copyOf(ids, slot * 2);
+                templateOf = Arrays.copyOf(templateOf, slot * 2);
+                hp = Arrays.copyOf(hp, slot * 2);
+            }
+        }
+        ids[slot] = id;
+        templateOf[slot] = templateIndex(template);
+        hp[slot] = template.baseHp();
+        slots.put(id, slot);
+        return slot;
+    }
+
+    /**
+     * Registers a {@link Card}, interning its stats as template.
+     *
+     * @param card {@link Card} to register, cannot be null.
+     * @return the slot of the instance.
+     * @throws IllegalArgumentException if provided Card is {@code null} or its id is already registered.
+     */
+    public int register(Card card) {
+        if (card == null) throw new IllegalArgumentException("Card cannot be null");
+        return register(card.getId(), intern(card.getType(), card.getHp(), card.getDmg()));
+    }
+
+    /**
+     * Removes a {@link Card} instance.
+     *
+     * @return {@code true} if the id was registered.
+     */
+    public boolean remove(long id) {
+        int slot = slots.remove(id);
+        if (slot == NOT_FOUND) return false;
+        ids[slot] = NOT_FOUND;
+        freeSlots.add(slot);
+        return true;
+    }
+
+    public boolean contains(long id) {
+        return slots.containsKey(id);
+    }
+
+    public int size() {
+        return slots.size();
+    }
+
+
+    // ------------------------ Lookups ------------------------ //
+    /**
+     * Getter for the slot of an instance, valid until the instance is removed.
+     *
+     * @return the slot, or {@link #NOT_FOUND} if the id is not registered.
+     */
+    public int indexOf(long id) {
+        return slots.get(id);
+    }
+
+    /**
+     * Resolves many ids at once.
+     *
+     * @param ids identifiers to resolve.
+     * @param dest array receiving the slot of every id, or {@link #NOT_FOUND}; at least as long as ids.
+     * @return the amount of ids that were found.
+     */
+    public int indicesOf(long[] ids, int[] dest) {
+        if (dest.length < ids.length) throw new IllegalArgumentException("Destination array is too small");
+        int found = 0;
+        for (int i = 0; i < ids.length; i++) {
+            int slot = slots.get(ids[i]);
+            dest[i] = slot;
+            if (slot != NOT_FOUND) found++;
+        }
+        return found;
+    }
+
+    /**
+     * Resolves the current hp of many ids at once.
+     *
+     * @param ids identifiers to resolve.
+     * @param dest array receiving the hp of every id, or {@link #NOT_FOUND}; at least as long as ids.
+     * @return the amount of ids that were found.
+     */
+    public int hpOf(long[] ids, int[] dest) {
+        int found = indicesOf(ids, dest);
+        for (int i = 0; i < ids.length; i++)
+            if (dest[i] != NOT_FOUND) dest[i] = hp[dest[i]];
+        return found;
+    }
+
+    public long getId(int slot) {
+        return ids[slot];
+    }
+
+    public CardTemplate getTemplate(int slot) {
+        return templates.get(templateOf[slot]);
+    }
+
+    public int getHp(int slot) {
+        return hp[slot];
+    }
+
+    /**
+     * Sets the current hp of an instance.
+     *
+     * @param slot slot of the instance.
+     * @param hp the new hp, cannot be negative.
+     * @throws IllegalArgumentException if provided hp is negative.
+     */
+    public void setHp(int slot, int hp) {
+        if (hp < 0) throw new IllegalArgumentException("New hp cannot be set to a negative value: " + hp);
+        this.hp[slot] = hp;
+    }
+
+    public int getDmg(int slot) {
+        return templates.get(templateOf[slot]).baseDmg();
+    }
+
+    /**
+     * Creates a {@link Card} with the current state of an instance.
+     *
+     * @return a new Card, or {@code null} if the id is not registered.
+     */
+    public Card get(long id) {
+        int slot = slots.get(id);
+        if (slot == NOT_FOUND) return null;
+        CardTemplate template = getTemplate(slot);
+        return new Card.Builder(id).setType(template.type()).setHp(hp[slot]).setDmg(template.baseDmg()).build();
+    }
+}
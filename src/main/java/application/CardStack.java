@@ -1,20 +1,42 @@
 package application;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.random.RandomGenerator;
 
-public class CardStack {
+/**
+ * Ordered stack of {@link Card}s backed by a growable circular array.
+ * <p>
+ * Positions are counted from the bottom: index {@code 0} is the bottom card and {@code size() - 1} the top card.
+ * Pushing and popping at either end is O(1); bulk operations move whole ranges with {@link System#arraycopy}.
+ * The CardStack itself can be iterated with {@link #forEach(Consumer)}, which does not allocate.
+ */
+public class CardStack implements Iterable<Card> {
 
-    private final LinkedList<Card> cards;
-    // TODO: Implement a Modifier class to replace the String, to have actual functionality
-    private final Set<String> modifiers;
+    private static final int MIN_CAPACITY = 8;
+
+    private Card[] cards;
+    private int head;
+    private int size;
+    private int modCount;
+
+    private ModifierRegistry registry;
+    private long[] modifierBits = new long[1];
+    private int modifierVersion;
+
+    private ModifierPipeline pipeline = ModifierPipeline.EMPTY;
+    private int pipelineVersion;
+    private int[] effectiveHp = new int[0];
+    private int[] effectiveDmg = new int[0];
+    private int statsModCount = -1;
+    private int statsModifierVersion = -1;
 
     // ------------------------ Object Initialization ------------------------ //
     /**
      * Creates a new instance of a {@link CardStack} without any {@link Card}s.
      */
     public CardStack() {
-        this.cards = new LinkedList<>();
-        this.modifiers = new HashSet<>();
+        this.cards = new Card[MIN_CAPACITY];
     }
 
     /**
@@ -23,8 +45,10 @@ public class CardStack {
      * @param builder builder with customized CardStack attributes.
      */
     private CardStack(Builder builder) {
-        this.cards = builder.cards;
-        this.modifiers = builder.modifiers;
+        this.cards = new Card[capacityFor(builder.size)];
+        System.arraycopy(builder.cards, 0, this.cards, 0, builder.size);
+        this.size = builder.size;
+        for (Modifier modifier : builder.modifiers) addModifier(modifier);
     }
 
     /**
@@ -32,8 +56,9 @@ public class CardStack {
      */
     public static class Builder {
 
-        private final LinkedList<Card> cards;
-        private final Set<String> modifiers;
+        private Card[] cards;
+        private int size;
+        private final List<Modifier> modifiers;
 
         /**
          * Creates a new instance of a {@link CardStack.Builder} for the creation of
@@ -43,12 +68,12 @@ public class CardStack {
          * Modifying the CardStack attributes can be done using methods like:
          * <ul>
          *     <li>{@link #addCard(Card)} - for adding a new Card to the CardStack;</li>
-         *     <li>{@link #addModifier(String)} - for adding a new Modifier to the CardStack;</li>
+         *     <li>{@link #addModifier(Modifier)} - for adding a new Modifier to the CardStack;</li>
          * </ul>
          */
         public Builder() {
-            this.cards = new LinkedList<>();
-            this.modifiers = new HashSet<>();
+            this.cards = new Card[MIN_CAPACITY];
+            this.modifiers = new ArrayList<>();
         }
 
         /**
@@ -61,22 +86,27 @@ public class CardStack {
          */
         public Builder addCard(Card card) {
             if (card == null) throw new IllegalArgumentException("New Card cannot be null");
-            this.cards.add(card);
+            if (this.size == this.cards.length) this.cards = Arrays.copyOf(this.cards, this.size * 2);
+            this.cards[this.size++] = card;
             return this;
         }
 
         /**
-         * Adds a new {@code Modifier} to the {@link CardStack} being built with the {@link CardStack.Builder}.
+         * Adds a new {@link Modifier} to the {@link CardStack} being built with the {@link CardStack.Builder}.
          *
-         * @param modifier {@code Modifier} added to the CardStack, cannot be null.
+         * @param modifier {@link Modifier} added to the CardStack, cannot be null.
          * @return Current Builder class for the new CardStack being built.
          *
-         * @throws IllegalArgumentException if provided modifier is {@code null}, or already present.
+         * @throws IllegalArgumentException if provided Modifier is {@code null}, already present, or from another
+         *                                  {@link ModifierRegistry} than the other Modifiers.
          */
-        public Builder addModifier(String modifier) {
+        public Builder addModifier(Modifier modifier) {
             if (modifier == null) throw new IllegalArgumentException("New Modifier cannot be null");
-            if (!this.modifiers.add(modifier))
+            if (!this.modifiers.isEmpty() && this.modifiers.getFirst().getRegistry() != modifier.getRegistry())
+                throw new IllegalArgumentException("Modifier belongs to another ModifierRegistry: " + modifier);
+            if (this.modifiers.contains(modifier))
                 throw new IllegalArgumentException("Modifier already present on CardStack: " + modifier);
+            this.modifiers.add(modifier);
             return this;
         }
 
@@ -91,71 +121,549 @@ public class CardStack {
 
 
     // ------------------------ Getters & Setters ------------------------ //
+    public int size() {
+        return this.size;
+    }
+
+    public boolean isEmpty() {
+        return this.size == 0;
+    }
+
+    /**
+     * Getter for the {@link Card} at a position of the {@link CardStack}.
+     *
+     * @param index position of the Card, {@code 0} being the bottom Card.
+     * @return the Card at the position.
+     *
+     * @throws IndexOutOfBoundsException if provided index is not in {@code [0, size())}.
+     */
+    public Card get(int index) {
+        Objects.checkIndex(index, this.size);
+        return this.cards[physical(index)];
+    }
+
+    /**
+     * Getter for the top {@link Card} of the {@link CardStack}, without removing it.
+     *
+     * @return the top Card.
+     *
+     * @throws IllegalStateException if the CardStack is empty.
+     */
+    public Card peekTop() {
+        checkNotEmpty();
+        return this.cards[physical(this.size - 1)];
+    }
+
+    /**
+     * Getter for the bottom {@link Card} of the {@link CardStack}, without removing it.
+     *
+     * @return the bottom Card.
+     *
+     * @throws IllegalStateException if the CardStack is empty.
+     */
+    public Card peekBottom() {
+        checkNotEmpty();
+        return this.cards[this.head];
+    }
+
+    /**
+     * Getter for the {@link Modifier}s present on the {@link CardStack}, in the order they are applied.
+     *
+     * @return a new {@code List<Modifier>} with all Modifiers on the CardStack.
+     */
+    public List<Modifier> getModifiers() {
+        ModifierPipeline pipeline = compiledPipeline();
+        List<Modifier> modifiers = new ArrayList<>(pipeline.size());
+        for (int i = 0; i < pipeline.size(); i++) modifiers.add(pipeline.get(i));
+        return modifiers;
+    }
+
+    /**
+     * Getter for the next {@link Modifier} id present on the {@link CardStack}, for iterating the Modifiers
+     * without allocating: {@code for (int id = nextModifierId(0); id >= 0; id = nextModifierId(id + 1))}.
+     *
+     * @param from the smallest id to return, cannot be negative.
+     * @return the smallest present id that is at least {@code from}, or {@code -1} if there is none.
+     */
+    public int nextModifierId(int from) {
+        int word = from >>> 6;
+        if (word >= this.modifierBits.length) return -1;
+        long bits = this.modifierBits[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == this.modifierBits.length) return -1;
+            bits = this.modifierBits[word];
+        }
+        return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+    }
+
+    public int getModifierCount() {
+        int count = 0;
+        for (long word : this.modifierBits) count += Long.bitCount(word);
+        return count;
+    }
+
+
+    // ------------------------ Card Operations ------------------------ //
+    /**
+     * Pushes a {@link Card} on top of the {@link CardStack}.
+     *
+     * @param card {@link Card} pushed on the CardStack, cannot be null.
+     *
+     * @throws IllegalArgumentException if provided Card is {@code null}.
+     */
+    public void pushTop(Card card) {
+        if (card == null) throw new IllegalArgumentException("New Card cannot be null");
+        ensureCapacity(this.size + 1);
+        this.cards[physical(this.size)] = card;
+        this.size++;
+        this.modCount++;
+    }
+
+    /**
+     * Pushes a {@link Card} below the bottom of the {@link CardStack}.
+     *
+     * @param card {@link Card} pushed under the CardStack, cannot be null.
+     *
+     * @throws IllegalArgumentException if provided Card is {@code null}.
+     */
+    public void pushBottom(Card card) {
+        if (card == null) throw new IllegalArgumentException("New Card cannot be null");
+        ensureCapacity(this.size + 1);
+        this.head = (this.head - 1) & (this.cards.length - 1);
+        this.cards[this.head] = card;
+        this.size++;
+        this.modCount++;
+    }
+
+    /**
+     * Removes the top {@link Card} of the {@link CardStack}.
+     *
+     * @return the removed Card.
+     *
+     * @throws IllegalStateException if the CardStack is empty.
+     */
+    public Card popTop() {
+        checkNotEmpty();
+        int slot = physical(--this.size);
+        Card card = this.cards[slot];
+        this.cards[slot] = null;
+        this.modCount++;
+        return card;
+    }
+
+    /**
+     * Removes the bottom {@link Card} of the {@link CardStack}.
+     *
+     * @return the removed Card.
+     *
+     * @throws IllegalStateException if the CardStack is empty.
+     */
+    public Card popBottom() {
+        checkNotEmpty();
+        Card card = this.cards[this.head];
+        this.cards[this.head] = null;
+        this.head = (this.head + 1) & (this.cards.length - 1);
+        this.size--;
+        this.modCount++;
+        return card;
+    }
+
+    /**
+     * Shuffles the {@link CardStack} in place with the Fisher-Yates algorithm. The same generator state always
+     * results in the same order, so seeded generators give reproducible shuffles.
+     *
+     * @param random the source of randomness, cannot be null.
+     *
+     * @throws IllegalArgumentException if provided RandomGenerator is {@code null}.
+     */
+    public void shuffle(RandomGenerator random) {
+        if (random == null) throw new IllegalArgumentException("RandomGenerator cannot be null");
+        for (int i = this.size - 1; i > 0; i--) {
+            int a = physical(i), b = physical(random.nextInt(i + 1));
+            Card card = this.cards[a];
+            this.cards[a] = this.cards[b];
+            this.cards[b] = card;
+        }
+        this.modCount++;
+    }
+
+    /**
+     * Moves the top {@code count} {@link Card}s onto the top of another {@link CardStack}, keeping their order.
+     *
+     * @param count amount of Cards to draw, cannot be negative or more than {@link #size()}.
+     * @param target CardStack receiving the Cards, cannot be null or this CardStack.
+     *
+     * @throws IllegalArgumentException if provided count is out of range, or target is {@code null} or this.
+     */
+    public void drawN(int count, CardStack target) {
+        if (count < 0 || count > this.size)
+            throw new IllegalArgumentException("Cannot draw " + count + " Cards from a CardStack of " + this.size);
+        checkOther(target);
+        target.ensureCapacity(target.size + count);
+        target.unwrapFor(target.size + count);
+        copyOut(this.size - count, target.cards, target.head + target.size, count);
+        target.size += count;
+        target.modCount++;
+        removeTop(count);
+    }
+
+    /**
+     * Moves the top {@code count} {@link Card}s into a new {@link CardStack}, keeping their order.
+     *
+     * @param count amount of Cards to draw, cannot be negative or more than {@link #size()}.
+     * @return a new CardStack with the drawn Cards and no modifiers.
+     *
+     * @throws IllegalArgumentException if provided count is out of range.
+     */
+    public CardStack drawN(int count) {
+        CardStack drawn = new CardStack();
+        drawN(count, drawn);
+        return drawn;
+    }
+
+    /**
+     * Cuts the {@link CardStack} at a position, moving every {@link Card} from that position to the top into a
+     * new CardStack.
+     *
+     * @param index position of the cut, the Card at this position becomes the bottom of the new CardStack.
+     * @return a new CardStack with the Cards above the cut and no modifiers.
+     *
+     * @throws IndexOutOfBoundsException if provided index is not in {@code [0, size()]}.
+     */
+    public CardStack split(int index) {
+        Objects.checkIndex(index, this.size + 1);
+        return drawN(this.size - index);
+    }
+
     /**
-     * Getter for the {@link Card}s present on the {@link CardStack}. Note that the LinkedList
-     * is unmodifiable. However, editing the Cards themselves will affect the CardStack.
+     * Moves all {@link Card}s of another {@link CardStack} onto the top of this CardStack, leaving the other
+     * CardStack empty. Modifiers are not merged.
      *
-     * @return Unmodifiable {@code List<Card>} with all Cards on the CardStack.
+     * @param other CardStack whose Cards are merged, cannot be null or this CardStack.
+     *
+     * @throws IllegalArgumentException if provided CardStack is {@code null} or this.
+     */
+    public void merge(CardStack other) {
+        checkOther(other);
+        other.drawN(other.size, this);
+    }
+
+    /**
+     * Inserts a {@link Card} at a position, moving the Cards from that position upwards by one.
+     *
+     * @param index position of the inserted Card, {@code 0} inserts at the bottom and {@code size()} on top.
+     * @param card {@link Card} to insert, cannot be null.
+     *
+     * @throws IndexOutOfBoundsException if provided index is not in {@code [0, size()]}.
+     * @throws IllegalArgumentException if provided Card is {@code null}.
+     */
+    public void insertAt(int index, Card card) {
+        Objects.checkIndex(index, this.size + 1);
+        if (card == null) throw new IllegalArgumentException("New Card cannot be null");
+        openGap(index, 1);
+        this.cards[this.head + index] = card;
+    }
+
+    /**
+     * Moves all {@link Card}s of another {@link CardStack} into this CardStack at a position, keeping their
+     * order and leaving the other CardStack empty.
+     *
+     * @param index position of the bottom inserted Card.
+     * @param other CardStack whose Cards are inserted, cannot be null or this CardStack.
+     *
+     * @throws IndexOutOfBoundsException if provided index is not in {@code [0, size()]}.
+     * @throws IllegalArgumentException if provided CardStack is {@code null} or this.
+     */
+    public void insertAt(int index, CardStack other) {
+        Objects.checkIndex(index, this.size + 1);
+        checkOther(other);
+        int count = other.size;
+        openGap(index, count);
+        other.copyOut(0, this.cards, this.head + index, count);
+        other.removeTop(count);
+    }
+
+    /**
+     * Replaces the {@link Card} at a position, e.g. with a damaged copy.
+     *
+     * @param index position of the replaced Card.
+     * @param card {@link Card} to store, cannot be null.
+     * @return the replaced Card.
+     *
+     * @throws IndexOutOfBoundsException if provided index is not in {@code [0, size())}.
+     * @throws IllegalArgumentException if provided Card is {@code null}.
+     */
+    public Card set(int index, Card card) {
+        Objects.checkIndex(index, this.size);
+        if (card == null) throw new IllegalArgumentException("New Card cannot be null");
+        int slot = physical(index);
+        Card replaced = this.cards[slot];
+        this.cards[slot] = card;
+        this.modCount++;
+        return replaced;
+    }
+
+    /**
+     * Removes the {@link Card} at a position, moving the Cards above it downwards by one.
+     *
+     * @param index position of the removed Card.
+     * @return the removed Card.
+     *
+     * @throws IndexOutOfBoundsException if provided index is not in {@code [0, size())}.
      */
-    public List<Card> getCards() {
-        return Collections.unmodifiableList(this.cards);
+    public Card removeAt(int index) {
+        Objects.checkIndex(index, this.size);
+        unwrapFor(this.size);
+        Card card = this.cards[this.head + index];
+        System.arraycopy(this.cards, this.head + index + 1, this.cards, this.head + index, this.size - index - 1);
+        this.cards[this.head + --this.size] = null;
+        this.modCount++;
+        return card;
     }
 
     /**
-     * Getter for the {@code Modifier}s present on the {@link CardStack}. Note that the Set is
-     * unmodifiable. However, editing the Modifiers themselves will affect the CardStack.
+     * Removes all {@link Card}s from the {@link CardStack}, keeping its capacity.
+     */
+    public void clear() {
+        removeTop(this.size);
+        this.head = 0;
+    }
+
+    /**
+     * Performs an action for every {@link Card} from the bottom to the top, without allocating.
+     *
+     * @param action the action to perform, cannot be null.
      *
-     * @return Unmodifiable {@code Set<String>} with all Modifiers on the CardStack.
+     * @throws ConcurrentModificationException if the CardStack is modified by the action.
+     */
+    @Override
+    public void forEach(Consumer<? super Card> action) {
+        if (action == null) throw new IllegalArgumentException("Action cannot be null");
+        int expected = this.modCount;
+        for (int i = 0; i < this.size; i++) {
+            action.accept(this.cards[physical(i)]);
+            if (this.modCount != expected) throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Iterator over the {@link Card}s from the bottom to the top. The iterator does not support removal.
+     */
+    @Override
+    public Iterator<Card> iterator() {
+        return new Iterator<>() {
+            private final int expected = modCount;
+            private int index;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Card next() {
+                if (modCount != expected) throw new ConcurrentModificationException();
+                if (index >= size) throw new NoSuchElementException();
+                return cards[physical(index++)];
+            }
+        };
+    }
+
+
+    // ------------------------ Backing Array ------------------------ //
+    private int physical(int index) {
+        return (this.head + index) & (this.cards.length - 1);
+    }
+
+    private static int capacityFor(int size) {
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, size - 1)) << 1);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= this.cards.length) return;
+        Card[] grown = new Card[capacityFor(required)];
+        copyOut(0, grown, 0, this.size);
+        this.cards = grown;
+        this.head = 0;
+    }
+
+    /**
+     * Copies a logical range into a flat array, in at most two {@link System#arraycopy} calls.
+     */
+    private void copyOut(int from, Card[] dest, int destPos, int count) {
+        int start = physical(from);
+        int first = Math.min(count, this.cards.length - start);
+        System.arraycopy(this.cards, start, dest, destPos, first);
+        System.arraycopy(this.cards, 0, dest, destPos + first, count - first);
+    }
+
+    /**
+     * Clears the top {@code count} slots.
+     */
+    private void removeTop(int count) {
+        int start = physical(this.size - count);
+        int first = Math.min(count, this.cards.length - start);
+        Arrays.fill(this.cards, start, start + first, null);
+        Arrays.fill(this.cards, 0, count - first, null);
+        this.size -= count;
+        this.modCount++;
+    }
+
+    /**
+     * Rotates the backing array in place so the first {@code required} slots from the head do not wrap.
      */
-    public Set<String> getModifiers() {
-        return Collections.unmodifiableSet(this.modifiers);
+    private void unwrapFor(int required) {
+        if (this.head + required <= this.cards.length) return;
+        reverse(0, this.head);
+        reverse(this.head, this.cards.length);
+        reverse(0, this.cards.length);
+        this.head = 0;
+    }
+
+    private void reverse(int from, int to) {
+        for (int i = from, j = to - 1; i < j; i++, j--) {
+            Card card = this.cards[i];
+            this.cards[i] = this.cards[j];
+            this.cards[j] = card;
+        }
+    }
+
+    /**
+     * Makes room for {@code count} Cards at a logical position, leaving the slots from {@code head + index}
+     * without wrapping.
+     */
+    private void openGap(int index, int count) {
+        ensureCapacity(this.size + count);
+        unwrapFor(this.size + count);
+        System.arraycopy(this.cards, this.head + index, this.cards, this.head + index + count, this.size - index);
+        this.size += count;
+        this.modCount++;
+    }
+
+    private void checkNotEmpty() {
+        if (this.size == 0) throw new IllegalStateException("CardStack is empty");
+    }
+
+    private void checkOther(CardStack other) {
+        if (other == null) throw new IllegalArgumentException("CardStack cannot be null");
+        if (other == this) throw new IllegalArgumentException("CardStack cannot be combined with itself");
     }
 
 
-    // ------------------------ Other Methods ------------------------ //
+    // ------------------------ Modifier Methods ------------------------ //
     /**
-     * Adds a new {@code Modifier} to the {@link CardStack} modifiers.
+     * Adds a new {@link Modifier} to the {@link CardStack} modifiers.
      *
-     * @param modifier {@code Modifier} added to the CardStack, cannot be null.
+     * @param modifier {@link Modifier} added to the CardStack, cannot be null.
      *
-     * @throws IllegalArgumentException if provided modifier is {@code null}, or already present.
+     * @throws IllegalArgumentException if provided Modifier is {@code null}, already present, or from another
+     *                                  {@link ModifierRegistry} than the other Modifiers.
      */
-    public void addModifier(String modifier) {
+    public void addModifier(Modifier modifier) {
         if (modifier == null) throw new IllegalArgumentException("New Modifier cannot be null");
-        if (!this.modifiers.add(modifier))
+        if (hasModifier(modifier))
             throw new IllegalArgumentException("Modifier already present on CardStack: " + modifier);
+        if (getModifierCount() == 0) this.registry = modifier.getRegistry();
+        else if (this.registry != modifier.getRegistry())
+            throw new IllegalArgumentException("Modifier belongs to another ModifierRegistry: " + modifier);
+
+        int word = modifier.getId() >>> 6;
+        if (word >= this.modifierBits.length)
+            this.modifierBits = Arrays.copyOf(this.modifierBits, Math.max(word + 1, this.modifierBits.length * 2));
+        this.modifierBits[word] |= 1L << modifier.getId();
+        this.modifierVersion++;
     }
 
     /**
-     * Removes a {@code Modifier} from the {@link CardStack} modifiers.
+     * Removes a {@link Modifier} from the {@link CardStack} modifiers.
      *
-     * @param modifier {@code Modifier} removed to the CardStack, cannot be null.
+     * @param modifier {@link Modifier} removed to the CardStack, cannot be null.
      * @return {@code true} if the modifiers changed as a result of this operation.
      *
-     * @throws IllegalArgumentException if provided modifier is {@code null}.
+     * @throws IllegalArgumentException if provided Modifier is {@code null}.
      */
-    public boolean removeModifier(String modifier) {
-        if (modifier == null) throw new IllegalArgumentException("Modifier cannot be null");
-        return this.modifiers.remove(modifier);
+    public boolean removeModifier(Modifier modifier) {
+        if (!hasModifier(modifier)) return false;
+        this.modifierBits[modifier.getId() >>> 6] &= ~(1L << modifier.getId());
+        this.modifierVersion++;
+        return true;
     }
 
     /**
-     * Checks whether a {@code Modifier} is present on the {@link CardStack}.
+     * Checks whether a {@link Modifier} is present on the {@link CardStack}.
      *
-     * @param modifier {@code Modifier} to check for on the CardStack, cannot be null.
-     * @return {@code true} if the modifier is present on the CardStack
+     * @param modifier {@link Modifier} to check for on the CardStack, cannot be null.
+     * @return {@code true} if the Modifier is present on the CardStack
      *
-     * @throws IllegalArgumentException if provided modifier is {@code null}.
+     * @throws IllegalArgumentException if provided Modifier is {@code null}.
      */
-    public boolean hasModifier(String modifier) {
+    public boolean hasModifier(Modifier modifier) {
         if (modifier == null) throw new IllegalArgumentException("Modifier cannot be null");
-        return this.modifiers.contains(modifier);
+        int word = modifier.getId() >>> 6;
+        return modifier.getRegistry() == this.registry && word < this.modifierBits.length
+                && (this.modifierBits[word] & 1L << modifier.getId()) != 0;
     }
 
     /**
-     * Removes all {@code Modifier} from the {@link CardStack}.
+     * Removes all {@link Modifier}s from the {@link CardStack}.
      */
     public void clearModifiers() {
-        this.modifiers.clear();
+        Arrays.fill(this.modifierBits, 0);
+        this.modifierVersion++;
+    }
+
+
+    // ------------------------ Effective Stats ------------------------ //
+    /**
+     * Getter for the hp of a {@link Card} after applying every {@link Modifier} of the {@link CardStack}.
+     * <p>
+     * Effective stats of all Cards are evaluated together on first access after the Cards or Modifiers changed,
+     * and served from a cache until the next change.
+     *
+     * @param index position of the Card, {@code 0} being the bottom Card.
+     * @return the effective hp of the Card.
+     *
+     * @throws IndexOutOfBoundsException if provided index is not in {@code [0, size())}.
+     */
+    public int getEffectiveHp(int index) {
+        Objects.checkIndex(index, this.size);
+        evaluateStats();
+        return this.effectiveHp[index];
+    }
+
+    /**
+     * Getter for the dmg of a {@link Card} after applying every {@link Modifier} of the {@link CardStack}.
+     *
+     * @param index position of the Card, {@code 0} being the bottom Card.
+     * @return the effective dmg of the Card.
+     *
+     * @throws IndexOutOfBoundsException if provided index is not in {@code [0, size())}.
+     * @see #getEffectiveHp(int)
+     */
+    public int getEffectiveDmg(int index) {
+        Objects.checkIndex(index, this.size);
+        evaluateStats();
+        return this.effectiveDmg[index];
+    }
+
+    private void evaluateStats() {
+        if (this.statsModCount == this.modCount && this.statsModifierVersion == this.modifierVersion) return;
+        if (this.effectiveHp.length < this.size) {
+            this.effectiveHp = new int[this.cards.length];
+            this.effectiveDmg = new int[this.cards.length];
+        }
+        compiledPipeline().evaluate(this.cards, this.head, this.size, this.effectiveHp, this.effectiveDmg);
+        this.statsModCount = this.modCount;
+        this.statsModifierVersion = this.modifierVersion;
+    }
+
+    private ModifierPipeline compiledPipeline() {
+        if (this.pipelineVersion != this.modifierVersion) {
+            this.pipeline = getModifierCount() == 0
+                    ? ModifierPipeline.EMPTY
+                    : ModifierPipeline.compile(this.registry, this.modifierBits);
+            this.pipelineVersion = this.modifierVersion;
+        }
+        return this.pipeline;
     }
 }
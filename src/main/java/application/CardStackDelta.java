@@ -0,0 +1,136 @@
+package application;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Compact change encoding of a {@link CardStack}, for syncing a stack that changes a little every tick.
+ * <p>
+ * A CardStackDelta remembers the Cards of the stack as they were last sent. {@link #write(ByteBuffer, CardStack)}
+ * compares the stack against that snapshot and encodes the changed range: the amount of unchanged Cards at the
+ * bottom and at the top as varints, then the amount of Cards between them followed by these Cards in the
+ * {@link CardCodec} format. Drawing, playing or damaging a single Card therefore costs a few bytes regardless of
+ * the size of the stack. Cards are compared by id, {@link CardType}, hp and dmg, as Cards are immutable and a
+ * damaged Card is a copy with the same id. Modifiers are not part of a delta.
+ * <p>
+ * The receiver mirrors the stack with {@link #apply(ByteBuffer, CardStack)}. Writing does not allocate once the
+ * snapshot has grown to the largest size of the stack.
+ */
+public final class CardStackDelta {
+
+    private long[] ids = new long[8];
+    private int[] hp = new int[8];
+    private int[] dmg = new int[8];
+    private byte[] types = new byte[8];
+    private int size;
+
+    /**
+     * Encodes the changes of a stack since the last write, or its whole content for the first write.
+     *
+     * @param buffer the buffer to write to.
+     * @param stack the stack to encode.
+     * @return {@code false} if the stack is unchanged and nothing was written.
+     * @throws java.nio.BufferOverflowException if the buffer is too small, see {@link #encodedSize(CardStack)}.
+     */
+    public boolean write(ByteBuffer buffer, CardStack stack) {
+        int bottom = unchangedBottom(stack);
+        if (bottom == size && bottom == stack.size()) return false;
+        int top = unchangedTop(stack, bottom);
+
+        int changed = stack.size() - bottom - top;
+        CardCodec.putVarLong(buffer, bottom);
+        CardCodec.putVarLong(buffer, top);
+        CardCodec.putVarLong(buffer, changed);
+        for (int i = bottom; i < bottom + changed; i++) CardCodec.writeCard(buffer, stack.get(i));
+        update(stack, bottom, top);
+        return true;
+    }
+
+    /**
+     * @return the size of the next {@link #write(ByteBuffer, CardStack)} in bytes, at most the size of a full
+     * encoding plus a few bytes.
+     */
+    public int encodedSize(CardStack stack) {
+        int bottom = unchangedBottom(stack);
+        if (bottom == size && bottom == stack.size()) return 0;
+        int top = unchangedTop(stack, bottom);
+        int changed = stack.size() - bottom - top;
+        int encoded = CardCodec.varLongSize(bottom) + CardCodec.varLongSize(top) + CardCodec.varLongSize(changed);
+        for (int i = bottom; i < bottom + changed; i++) encoded += CardCodec.encodedSize(stack.get(i));
+        return encoded;
+    }
+
+    private int unchangedBottom(CardStack stack) {
+        int common = Math.min(size, stack.size()), bottom = 0;
+        while (bottom < common && matches(bottom, stack.get(bottom))) bottom++;
+        return bottom;
+    }
+
+    /**
+     * Counts the unchanged Cards at the top, not overlapping the unchanged Cards at the bottom.
+     */
+    private int unchangedTop(CardStack stack, int bottom) {
+        int common = Math.min(size, stack.size()) - bottom, top = 0;
+        while (top < common && matches(size - 1 - top, stack.get(stack.size() - 1 - top))) top++;
+        return top;
+    }
+
+    private boolean matches(int index, Card card) {
+        return ids[index] == card.getId() && hp[index] == card.getHp() && dmg[index] == card.getDmg()
+                && types[index] == card.getType().ordinal();
+    }
+
+    private void update(CardStack stack, int bottom, int top) {
+        int newSize = stack.size();
+        if (newSize > ids.length) {
+            int capacity = Math.max(newSize, ids.length * 2);
+            ids = Arrays.copyOf(ids, capacity);
+            hp = Arrays.copyOf(hp, capacity);
+            dmg = Arrays.copyOf(dmg, capacity);
+            types = Arrays.copyOf(types, capacity);
+        }
+        if (newSize != size) {
+            System.arraycopy(ids, size - top, ids, newSize - top, top);
+            System.arraycopy(hp, size - top, hp, newSize - top, top);
+            System.arraycopy(dmg, size - top, dmg, newSize - top, top);
+            System.arraycopy(types, size - top, types, newSize - top, top);
+        }
+        for (int i = bottom; i < newSize - top; i++) {
+            Card card = stack.get(i);
+            ids[i] = card.getId();
+            hp[i] = card.getHp();
+            dmg[i] = card.getDmg();
+            types[i] = (byte) card.getType().ordinal();
+        }
+        size = newSize;
+    }
+
+    /**
+     * Forgets the snapshot, so the next write encodes the whole stack, e.g. for a receiver that reconnected.
+     */
+    public void reset() {
+        size = 0;
+    }
+
+    /**
+     * Applies a delta written by {@link #write(ByteBuffer, CardStack)} to the receiver's copy of the stack.
+     *
+     * @param buffer the buffer to read from.
+     * @param target the copy of the stack, equal to the stack at the previous write.
+     * @throws IllegalArgumentException if the delta is invalid or does not fit the target.
+     * @throws BufferUnderflowException if the buffer ends within the delta.
+     */
+    public static void apply(ByteBuffer buffer, CardStack target) {
+        long bottom = CardCodec.getVarLong(buffer), top = CardCodec.getVarLong(buffer);
+        long changed = CardCodec.getVarLong(buffer);
+        // Checked separately, the sum of two untrusted lengths may overflow.
+        if (bottom < 0 || top < 0 || changed < 0 || bottom > target.size() || top > target.size() - bottom
+                || changed > buffer.remaining())
+            throw new IllegalArgumentException("Delta does not fit a CardStack of " + target.size() + " Cards");
+        CardStack above = target.split(target.size() - (int) top);
+        while (target.size() > bottom) target.popTop();
+        for (long i = 0; i < changed; i++) target.pushTop(CardCodec.readCard(buffer));
+        target.merge(above);
+    }
+}
@@ -0,0 +1,66 @@
+package application;
+
+import framework.ecs.ComponentStore;
+
+import java.util.Arrays;
+
+/**
+ * Card stats component holding the values of a {@link Card} in flat columns, so battle systems can iterate
+ * the stats of every card in play without dereferencing a Card object per card.
+ */
+public class CardStatsStore extends ComponentStore {
+
+    private static final CardType[] TYPES = CardType.values();
+
+    public long[] id = new long[0];
+    public byte[] type = new byte[0];
+    public int[] hp = new int[0];
+    public int[] dmg = new int[0];
+
+    /**
+     * Adds the stats of a {@link Card} to an entity.
+     *
+     * @param card the card to copy the stats from, cannot be null.
+     * @return the dense index of the stats.
+     * @throws IllegalArgumentException if provided Card is {@code null}.
+     */
+    public int add(int entity, Card card) {
+        if (card == null) throw new IllegalArgumentException("Card cannot be null");
+        int i = add(entity);
+        id[i] = card.getId();
+        type[i] = (byte) card.getType().ordinal();
+        hp[i] = card.getHp();
+        dmg[i] = card.getDmg();
+        return i;
+    }
+
+    public CardType getType(int index) {
+        return TYPES[type[index]];
+    }
+
+    /**
+     * Creates a {@link Card} from the stats at a dense index.
+     *
+     * @param index the dense index of the stats.
+     * @return a new Card with the current stats.
+     */
+    public Card toCard(int index) {
+        return new Card.Builder(id[index]).setType(getType(index)).setHp(hp[index]).setDmg(dmg[index]).build();
+    }
+
+    @Override
+    protected void growColumns(int capacity) {
+        id = Arrays.copyOf(id, capacity);
+        type = Arrays.copyOf(type, capacity);
+        hp = Arrays.copyOf(hp, capacity);
+        dmg = Arrays.copyOf(dmg, capacity);
+    }
+
+    @Override
+    protected void moveColumns(int from, int to) {
+        id[to] = id[from];
+        type[to] = type[from];
+        hp[to] = hp[from];
+        dmg[to] = dmg[from];
+    }
+}
@@ -0,0 +1,21 @@
+package application;
+
+/**
+ * Immutable stats shared by every {@link Card} instance of the same kind. Templates are interned by a
+ * {@link CardRegistry}, so equal templates are the same object.
+ *
+ * @param type {@link CardType} of the Cards, cannot be null.
+ * @param baseHp hit points the Cards start with, cannot be negative.
+ * @param baseDmg damage the Cards deal, cannot be negative.
+ */
+public record CardTemplate(CardType type, int baseHp, int baseDmg) {
+
+    /**
+     * @throws IllegalArgumentException if provided type is {@code null}, or hp or dmg is negative.
+     */
+    public CardTemplate {
+        if (type == null) throw new IllegalArgumentException("CardType cannot be null");
+        if (baseHp < 0) throw new IllegalArgumentException("Base hp cannot be negative: " + baseHp);
+        if (baseDmg < 0) throw new IllegalArgumentException("Base dmg cannot be negative: " + baseDmg);
+    }
+}
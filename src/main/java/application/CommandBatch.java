@@ -0,0 +1,103 @@
+package application;
+
+import framework.network.Session;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Player commands received during one tick, stored as parallel arrays in arrival order.
+ * <p>
+ * The network thread decodes every incoming {@link MatchProtocol} command into the batch as it arrives, and the
+ * tick applies the whole batch at once and clears it. The arrays only grow, so a batch does not allocate once it
+ * has held the largest tick.
+ */
+public class CommandBatch {
+
+    private Session[] sessions = new Session[256];
+    private byte[] types = new byte[256];
+    private long[] sequences = new long[256];
+    private int[] attackers = new int[256];
+    private int[] defenders = new int[256];
+    private int size;
+
+    /**
+     * Decodes a command and appends it.
+     *
+     * @param session the session which sent the command.
+     * @param payload the encoded command.
+     * @throws IllegalArgumentException if the command is invalid.
+     */
+    public void read(Session session, ByteBuffer payload) {
+        try {
+            byte type = payload.get();
+            switch (type) {
+                case MatchProtocol.JOIN -> add(session, type, 0, 0, 0);
+                case MatchProtocol.DRAW -> add(session, type, CardCodec.getVarLong(payload), 0, 0);
+                case MatchProtocol.ATTACK -> add(session, type, CardCodec.getVarLong(payload),
+                        index(CardCodec.getVarLong(payload)), index(CardCodec.getVarLong(payload)));
+                default -> throw new IllegalArgumentException("Unknown command: " + type);
+            }
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated command", e);
+        }
+        if (payload.hasRemaining()) throw new IllegalArgumentException("Trailing bytes after command");
+    }
+
+    private static int index(long value) {
+        if (value < 0 || value > Integer.MAX_VALUE) throw new IllegalArgumentException("Invalid index: " + value);
+        return (int) value;
+    }
+
+    public void add(Session session, byte type, long sequence, int attacker, int defender) {
+        if (size == sessions.length) {
+            int capacity = size * 2;
+            sessions = Arrays.copyOf(sessions, capacity);
+            types = Arrays.copyOf(types, capacity);
+            sequences = Arrays.copyOf(sequences, capacity);
+            attackers = Arrays.copyOf(attackers, capacity);
+            defenders = Arrays.copyOf(defenders, capacity);
+        }
+        sessions[size] = session;
+        types[size] = type;
+        sequences[size] = sequence;
+        attackers[size] = attacker;
+        defenders[size] = defender;
+        size++;
+    }
+
+    /**
+     * Removes all commands, dropping the references to their sessions.
+     */
+    public void clear() {
+        Arrays.fill(sessions, 0, size, null);
+        size = 0;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public int size() {
+        return size;
+    }
+
+    public Session getSession(int command) {
+        return sessions[command];
+    }
+
+    public byte getType(int command) {
+        return types[command];
+    }
+
+    public long getSequence(int command) {
+        return sequences[command];
+    }
+
+    public int getAttacker(int command) {
+        return attackers[command];
+    }
+
+    public int getDefender(int command) {
+        return defenders[command];
+    }
+}
@@ -0,0 +1,199 @@
+package application;
+
+import framework.network.Session;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Server-authoritative state of a match between two players, each with a deck and a hand {@link CardStack}.
+ * <p>
+ * Players draw Cards from their deck into their hand, up to {@value #HAND_LIMIT} Cards, and attack a Card in
+ * the opponent's hand with a Card in their own. The attacker deals its effective dmg, doubled when its
+ * {@link CardType} has the advantage as in the {@link BattleSimulator}, and a Card whose hp drops to zero is
+ * discarded. A player without Cards in deck and hand loses. Invalid commands are ignored, the server state is
+ * the only truth.
+ * <p>
+ * After every tick the changes are encoded once with {@link #writeState(ByteBuffer, long)} and the same bytes
+ * are sent to both players, who mirror the match in a {@link MatchView}.
+ */
+public class Match {
+
+    public static final int HAND_LIMIT = 5;
+    public static final int NO_WINNER = -1;
+    public static final int DECK = 0;
+    public static final int HAND = 1;
+    /**
+     * Amount of synced stacks, indexed by {@link #stackIndex(int, int)}.
+     */
+    public static final int STACKS = 4;
+
+    private final int id;
+    private final Session[] players;
+    private final CardStack[] stacks = new CardStack[STACKS];
+    private final CardStackDelta[] deltas = new CardStackDelta[STACKS];
+    private final long[] acks = new long[2];
+    private final long[] sentAcks = {-1, -1};
+    private boolean ended;
+    private int winner = NO_WINNER;
+
+    /**
+     * Creates a new {@link Match}, taking ownership of both decks.
+     *
+     * @param id identifier of the match.
+     * @param first session of player 0, may be null when the match is not networked.
+     * @param second session of player 1, may be null when the match is not networked.
+     * @param firstDeck deck of player 0, cannot be null or empty.
+     * @param secondDeck deck of player 1, cannot be null or empty.
+     * @throws IllegalArgumentException if a provided deck is {@code null} or empty.
+     */
+    public Match(int id, Session first, Session second, CardStack firstDeck, CardStack secondDeck) {
+        if (firstDeck == null || secondDeck == null) throw new IllegalArgumentException("Deck cannot be null");
+        if (firstDeck.isEmpty() || secondDeck.isEmpty()) throw new IllegalArgumentException("Deck cannot be empty");
+        this.id = id;
+        this.players = new Session[]{first, second};
+        stacks[stackIndex(0, DECK)] = firstDeck;
+        stacks[stackIndex(1, DECK)] = secondDeck;
+        stacks[stackIndex(0, HAND)] = new CardStack();
+        stacks[stackIndex(1, HAND)] = new CardStack();
+        for (int i = 0; i < STACKS; i++) deltas[i] = new CardStackDelta();
+    }
+
+    /**
+     * @param player {@code 0} or {@code 1}.
+     * @param kind {@link #DECK} or {@link #HAND}.
+     * @return the index of a stack in state messages.
+     */
+    public static int stackIndex(int player, int kind) {
+        return player * 2 + kind;
+    }
+
+
+    // ------------------------ Commands ------------------------ //
+    /**
+     * Applies a command of a player and acknowledges its sequence number.
+     *
+     * @param player {@code 0} or {@code 1}.
+     * @param type a {@link MatchProtocol} command type.
+     */
+    public void apply(int player, byte type, long sequence, int attacker, int defender) {
+        acks[player] = Math.max(acks[player], sequence);
+        if (ended) return;
+        switch (type) {
+            case MatchProtocol.DRAW -> draw(player);
+            case MatchProtocol.ATTACK -> attack(player, attacker, defender);
+            default -> {
+                return;
+            }
+        }
+        boolean firstOut = isOut(0), secondOut = isOut(1);
+        if (firstOut || secondOut) {
+            ended = true;
+            winner = firstOut == secondOut ? NO_WINNER : firstOut ? 1 : 0;
+        }
+    }
+
+    private void draw(int player) {
+        CardStack deck = stacks[stackIndex(player, DECK)], hand = stacks[stackIndex(player, HAND)];
+        if (!deck.isEmpty() && hand.size() < HAND_LIMIT) deck.drawN(1, hand);
+    }
+
+    private void attack(int player, int attacker, int defender) {
+        CardStack hand = stacks[stackIndex(player, HAND)], target = stacks[stackIndex(1 - player, HAND)];
+        if (attacker >= hand.size() || defender >= target.size()) return;
+        Card defending = target.get(defender);
+        int damage = hand.getEffectiveDmg(attacker);
+        if (BattleSimulator.hasAdvantage(hand.get(attacker).getType(), defending.getType())) damage *= 2;
+        int hp = defending.getHp() - damage;
+        if (hp <= 0) target.removeAt(defender);
+        else target.set(defender, new Card.Builder(defending.getId()).setType(defending.getType())
+                .setHp(hp).setDmg(defending.getDmg()).build());
+    }
+
+    private boolean isOut(int player) {
+        return stacks[stackIndex(player, DECK)].isEmpty() && stacks[stackIndex(player, HAND)].isEmpty();
+    }
+
+    /**
+     * Ends the match in favor of the other player, e.g. when a player disconnected.
+     */
+    public void forfeit(int player) {
+        if (ended) return;
+        ended = true;
+        winner = 1 - player;
+    }
+
+
+    // ------------------------ Messages ------------------------ //
+    public void writeStart(ByteBuffer buffer, int player) {
+        buffer.put(MatchProtocol.START);
+        CardCodec.putVarLong(buffer, id);
+        CardCodec.putVarLong(buffer, player);
+    }
+
+    /**
+     * Encodes the changes since the last state message.
+     *
+     * @param tick the current tick of the server.
+     * @return {@code false} if nothing changed and nothing was written.
+     */
+    public boolean writeState(ByteBuffer buffer, long tick) {
+        int start = buffer.position();
+        buffer.put(MatchProtocol.STATE);
+        CardCodec.putVarLong(buffer, tick);
+        CardCodec.putVarLong(buffer, acks[0]);
+        CardCodec.putVarLong(buffer, acks[1]);
+        boolean changed = acks[0] != sentAcks[0] || acks[1] != sentAcks[1];
+        for (int i = 0; i < STACKS; i++) {
+            int stackStart = buffer.position();
+            buffer.put((byte) i);
+            if (deltas[i].write(buffer, stacks[i])) changed = true;
+            else buffer.position(stackStart);
+        }
+        if (!changed) {
+            buffer.position(start);
+            return false;
+        }
+        sentAcks[0] = acks[0];
+        sentAcks[1] = acks[1];
+        return true;
+    }
+
+    public void writeEnd(ByteBuffer buffer) {
+        buffer.put(MatchProtocol.END);
+        buffer.put((byte) winner);
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public int getId() {
+        return id;
+    }
+
+    public Session getPlayer(int player) {
+        return players[player];
+    }
+
+    public CardStack getStack(int player, int kind) {
+        return stacks[stackIndex(player, kind)];
+    }
+
+    public long getAck(int player) {
+        return acks[player];
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+
+    /**
+     * @return the index of the winning player, or {@link #NO_WINNER} for a draw or a running match.
+     */
+    public int getWinner() {
+        return winner;
+    }
+
+    @Override
+    public String toString() {
+        return "Match(id=" + id + ", ended=" + ended + ", winner=" + winner + ")";
+    }
+}
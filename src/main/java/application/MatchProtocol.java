@@ -0,0 +1,53 @@
+package application;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Messages exchanged between a {@link MatchServer} and its players, each sent as one network payload.
+ * <p>
+ * Every message starts with its type byte. Commands from players carry an increasing sequence number, which
+ * state messages acknowledge, so a client knows once the server has applied its command. Numbers are encoded as
+ * unsigned LEB128 varints like in the {@link CardCodec}.
+ * <pre>
+ * client JOIN   type
+ *        DRAW   type, sequence
+ *        ATTACK type, sequence, attacker hand index, defender hand index
+ * server START  type, match id, player index
+ *        STATE  type, tick, acknowledged sequence of both players, then per changed stack its index byte and
+ *               its {@link CardStackDelta}
+ *        END    type, winning player index or {@code -1} as a signed byte
+ * </pre>
+ */
+public final class MatchProtocol {
+
+    public static final byte JOIN = 1;
+    public static final byte DRAW = 2;
+    public static final byte ATTACK = 3;
+
+    public static final byte START = 1;
+    public static final byte STATE = 2;
+    public static final byte END = 3;
+
+    /**
+     * Largest encoded command in bytes.
+     */
+    public static final int MAX_COMMAND_SIZE = 1 + 10 + 5 + 5;
+
+    private MatchProtocol() {}
+
+    public static void writeJoin(ByteBuffer buffer) {
+        buffer.put(JOIN);
+    }
+
+    public static void writeDraw(ByteBuffer buffer, long sequence) {
+        buffer.put(DRAW);
+        CardCodec.putVarLong(buffer, sequence);
+    }
+
+    public static void writeAttack(ByteBuffer buffer, long sequence, int attacker, int defender) {
+        buffer.put(ATTACK);
+        CardCodec.putVarLong(buffer, sequence);
+        CardCodec.putVarLong(buffer, attacker);
+        CardCodec.putVarLong(buffer, defender);
+    }
+}
@@ -0,0 +1,267 @@
+package application;
+
+import framework.application.ServerApplication;
+import framework.network.NetworkServer;
+import framework.network.Session;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Headless server running {@link Match}es between networked players at a fixed tick rate.
+ * <p>
+ * Between ticks the server polls its {@link NetworkServer} and decodes incoming commands into a
+ * {@link CommandBatch}. Every tick applies the batch in arrival order, pairs joining players into new matches,
+ * then encodes the changes of every match once and sends the same message to both of its players, and finally
+ * flushes all sessions. A session sending more than {@link #MAX_COMMANDS_PER_TICK} commands in one tick is closed. A player disconnecting forfeits its match. Decks are random but reproducible from the
+ * seed of the server.
+ * <p>
+ * The server binds when it is created and runs on the thread calling {@link #run()}; {@link #stop()} may be
+ * called from any thread.
+ */
+public class MatchServer extends ServerApplication implements NetworkServer.Listener {
+
+    /**
+     * Size of the input and output buffer of every session, which bounds the memory of thousands of sessions.
+     */
+    public static final int BUFFER_SIZE = 8 * 1024;
+    public static final int DEFAULT_TICK_RATE = 30;
+    public static final int DEFAULT_DECK_SIZE = 20;
+    /**
+     * Largest deck whose complete state still fits a single message.
+     */
+    public static final int MAX_DECK_SIZE = 128;
+    /**
+     * Most commands a session may send per tick, a session sending more is closed so a single client cannot
+     * grow the batch of the tick.
+     */
+    public static final int MAX_COMMANDS_PER_TICK = 64;
+    private static final CardType[] SUITS = {CardType.HEARTS, CardType.DIAMONDS, CardType.SPADES, CardType.CLUBS};
+
+    private final NetworkServer network;
+    private final InetSocketAddress address;
+    private final CommandBatch commands = new CommandBatch();
+    private final ByteBuffer message;
+    private final List<Match> matches = new ArrayList<>();
+    private final SplittableRandom random;
+    private final int deckSize;
+    private Match[] matchBySession = new Match[64];
+    private byte[] playerBySession = new byte[64];
+    private int[] commandsBySession = new int[64];
+    private Session waiting;
+    private int nextMatchId;
+    private long nextCardId;
+    private long commandCount;
+    private long stateCount;
+    private volatile boolean stopping;
+
+    /**
+     * Creates a new {@link MatchServer} and binds it.
+     *
+     * @param address the local address, port {@code 0} picks a free port.
+     * @param tickRate amount of ticks per second, must be positive.
+     * @param deckSize amount of Cards in every deck, in {@code [1, MAX_DECK_SIZE]}.
+     * @param seed seed of the generated decks.
+     * @throws IllegalArgumentException if the tick rate or deck size is out of range.
+     * @throws IOException if the address could not be bound.
+     */
+    public MatchServer(InetSocketAddress address, int tickRate, int deckSize, long seed) throws IOException {
+        super(tickRate);
+        if (deckSize <= 0 || deckSize > MAX_DECK_SIZE) throw new IllegalArgumentException("Invalid deck size: " + deckSize);
+        this.deckSize = deckSize;
+        this.random = new SplittableRandom(seed);
+        this.network = new NetworkServer(this, BUFFER_SIZE);
+        this.message = ByteBuffer.allocateDirect(network.getMaxPayload());
+        try {
+            this.address = network.bind(address);
+        } catch (IOException e) {
+            network.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Stops the server after the current tick, also if it has not started running yet.
+     */
+    public void stop() {
+        stopping = true;
+        network.wakeup();
+    }
+
+
+    // ------------------------ Lifecycle ------------------------ //
+    @Override
+    protected void onStart() {
+        INJECTOR.bind(MatchServer.class, this);
+    }
+
+    @Override
+    protected void waitForTick(long nanos) {
+        if (stopping) {
+            quit();
+            return;
+        }
+        try {
+            long millis = nanos / 1_000_000;
+            network.poll(millis);
+            if (millis == 0) LockSupport.parkNanos(nanos);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    protected void onUpdate() {
+        for (int i = 0; i < commands.size(); i++) {
+            Session session = commands.getSession(i);
+            if (!session.isOpen()) continue;
+            commandCount++;
+            if (commands.getType(i) == MatchProtocol.JOIN) {
+                join(session);
+                continue;
+            }
+            Match match = matchBySession[session.getId()];
+            if (match != null) match.apply(playerBySession[session.getId()], commands.getType(i),
+                    commands.getSequence(i), commands.getAttacker(i), commands.getDefender(i));
+        }
+        commands.clear();
+        Arrays.fill(commandsBySession, 0);
+
+        for (int i = matches.size() - 1; i >= 0; i--) {
+            Match match = matches.get(i);
+            if (match.writeState(message.clear(), getTicks())) {
+                broadcast(match, message.flip());
+                stateCount++;
+            }
+            if (!match.isEnded()) continue;
+            match.writeEnd(message.clear());
+            broadcast(match, message.flip());
+            for (int player = 0; player < 2; player++) {
+                Session session = match.getPlayer(player);
+                if (matchBySession[session.getId()] == match) matchBySession[session.getId()] = null;
+            }
+            matches.set(i, matches.getLast());
+            matches.removeLast();
+        }
+        network.flush();
+    }
+
+    @Override
+    protected void onExit() {
+        try {
+            network.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void join(Session session) {
+        if (session == waiting || matchBySession[session.getId()] != null) return;
+        if (waiting == null) {
+            waiting = session;
+            return;
+        }
+        Match match = new Match(nextMatchId++, waiting, session, createDeck(), createDeck());
+        waiting = null;
+        matches.add(match);
+        for (int player = 0; player < 2; player++) {
+            Session joined = match.getPlayer(player);
+            matchBySession[joined.getId()] = match;
+            playerBySession[joined.getId()] = (byte) player;
+            match.writeStart(message.clear(), player);
+            network.send(joined, message.flip());
+        }
+    }
+
+    private CardStack createDeck() {
+        CardStack deck = new CardStack();
+        for (int i = 0; i < deckSize; i++) {
+            deck.pushTop(new Card.Builder(nextCardId++).setType(SUITS[random.nextInt(SUITS.length)])
+                    .setHp(1 + random.nextInt(20)).setDmg(1 + random.nextInt(8)).build());
+        }
+        return deck;
+    }
+
+    private void broadcast(Match match, ByteBuffer payload) {
+        network.send(match.getPlayer(0), payload);
+        network.send(match.getPlayer(1), payload);
+    }
+
+
+    // ------------------------ Network Events ------------------------ //
+    @Override
+    public void onConnect(Session session) {
+        int id = session.getId();
+        if (id >= matchBySession.length) {
+            matchBySession = Arrays.copyOf(matchBySession, Math.max(id + 1, matchBySession.length * 2));
+            playerBySession = Arrays.copyOf(playerBySession, matchBySession.length);
+            commandsBySession = Arrays.copyOf(commandsBySession, matchBySession.length);
+        }
+        commandsBySession[id] = 0;
+    }
+
+    @Override
+    public void onMessage(Session session, ByteBuffer payload) {
+        if (!session.isOpen()) return;
+        if (++commandsBySession[session.getId()] > MAX_COMMANDS_PER_TICK) {
+            network.close(session);
+            return;
+        }
+        try {
+            commands.read(session, payload);
+        } catch (IllegalArgumentException e) {
+            network.close(session);
+        }
+    }
+
+    @Override
+    public void onDisconnect(Session session) {
+        if (session == waiting) waiting = null;
+        Match match = matchBySession[session.getId()];
+        if (match == null) return;
+        match.forfeit(playerBySession[session.getId()]);
+        matchBySession[session.getId()] = null;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public InetSocketAddress getAddress() {
+        return address;
+    }
+
+    public NetworkServer getNetwork() {
+        return network;
+    }
+
+    public int getMatchCount() {
+        return matches.size();
+    }
+
+    /**
+     * @return the amount of commands applied so far.
+     */
+    public long getCommandCount() {
+        return commandCount;
+    }
+
+    /**
+     * @return the amount of state messages broadcast so far.
+     */
+    public long getStateCount() {
+        return stateCount;
+    }
+
+    @Override
+    public String toString() {
+        return "MatchServer(address=" + address + ", ticks=" + getTicks() + ", overruns=" + getOverruns() +
+                ", matches=" + matches.size() + ", commands=" + commandCount + ", states=" + stateCount +
+                ", " + network + ")";
+    }
+}
@@ -0,0 +1,101 @@
+package application;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Client-side mirror of a {@link Match}, updated from the messages of a {@link MatchServer}.
+ */
+public class MatchView {
+
+    private final CardStack[] stacks = new CardStack[Match.STACKS];
+    private final long[] acks = new long[2];
+    private int matchId = -1;
+    private int player = -1;
+    private int winner = Match.NO_WINNER;
+    private long tick;
+    private boolean started;
+    private boolean ended;
+
+    public MatchView() {
+        for (int i = 0; i < Match.STACKS; i++) stacks[i] = new CardStack();
+    }
+
+    /**
+     * Applies a message of the server.
+     *
+     * @return the {@link MatchProtocol} type of the message.
+     * @throws IllegalArgumentException if the message is invalid.
+     * @throws java.nio.BufferUnderflowException if the message is truncated.
+     */
+    public byte read(ByteBuffer payload) {
+        byte type = payload.get();
+        switch (type) {
+            case MatchProtocol.START -> {
+                matchId = (int) CardCodec.getVarLong(payload);
+                player = (int) CardCodec.getVarLong(payload);
+                if (player != 0 && player != 1) throw new IllegalArgumentException("Invalid player index: " + player);
+                for (CardStack stack : stacks) stack.clear();
+                acks[0] = acks[1] = tick = 0;
+                winner = Match.NO_WINNER;
+                started = true;
+                ended = false;
+            }
+            case MatchProtocol.STATE -> {
+                tick = CardCodec.getVarLong(payload);
+                acks[0] = CardCodec.getVarLong(payload);
+                acks[1] = CardCodec.getVarLong(payload);
+                while (payload.hasRemaining()) {
+                    int stack = payload.get();
+                    if (stack < 0 || stack >= Match.STACKS) throw new IllegalArgumentException("Invalid stack index: " + stack);
+                    CardStackDelta.apply(payload, stacks[stack]);
+                }
+            }
+            case MatchProtocol.END -> {
+                winner = payload.get();
+                ended = true;
+            }
+            default -> throw new IllegalArgumentException("Unknown message: " + type);
+        }
+        return type;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public CardStack getStack(int player, int kind) {
+        return stacks[Match.stackIndex(player, kind)];
+    }
+
+    public int getMatchId() {
+        return matchId;
+    }
+
+    /**
+     * @return the index of the local player in the match, or {@code -1} before the match started.
+     */
+    public int getPlayer() {
+        return player;
+    }
+
+    /**
+     * @return the last command sequence number of a player applied by the server.
+     */
+    public long getAck(int player) {
+        return acks[player];
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public boolean isStarted() {
+        return started;
+    }
+
+    public boolean isEnded() {
+        return ended;
+    }
+
+    public int getWinner() {
+        return winner;
+    }
+}
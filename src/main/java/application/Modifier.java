@@ -0,0 +1,207 @@
+package application;
+
+/**
+ * Immutable effect on the hp and dmg of the {@link Card}s in a {@link CardStack}.
+ * <p>
+ * A Modifier first scales a stat by a percentage and then adds a flat amount, for every Card whose
+ * {@link CardType} it targets. Modifiers are created through a {@link ModifierRegistry}, which assigns each of
+ * them a dense id used for the modifier bitset of a CardStack. Modifiers of a stack are applied by ascending
+ * priority, and by ascending id for equal priorities.
+ */
+public class Modifier {
+
+    private final ModifierRegistry registry;
+    private final int id;
+    private final String name;
+    private final CardType target;
+    private final int priority;
+    private final int hpPercent;
+    private final int hpAdd;
+    private final int dmgPercent;
+    private final int dmgAdd;
+
+    // ------------------------ Object Initialization ------------------------ //
+    /**
+     * Creates a new instance of a {@link Modifier} using a provided {@link Modifier.Builder}.
+     *
+     * @param builder builder with customized Modifier attributes.
+     * @param registry the registry creating the Modifier.
+     * @param id the dense id assigned by the registry.
+     */
+    Modifier(Builder builder, ModifierRegistry registry, int id) {
+        this.registry = registry;
+        this.id = id;
+        this.name = builder.name;
+        this.target = builder.target;
+        this.priority = builder.priority;
+        this.hpPercent = builder.hpPercent;
+        this.hpAdd = builder.hpAdd;
+        this.dmgPercent = builder.dmgPercent;
+        this.dmgAdd = builder.dmgAdd;
+    }
+
+    /**
+     * Builder class for the creation of a new {@link Modifier}.
+     */
+    public static class Builder {
+
+        private final String name;
+        private CardType target = CardType.ALL;
+        private int priority;
+        private int hpPercent = 100;
+        private int hpAdd;
+        private int dmgPercent = 100;
+        private int dmgAdd;
+
+        /**
+         * Creates a new instance of a {@link Modifier.Builder} for the creation of a {@link Modifier}.
+         * To finalize the creation of the new Modifier, register it with {@link ModifierRegistry#register(Builder)}.
+         * <p>
+         * Modifying the Modifier attributes can be done using methods like:
+         * <ul>
+         *     <li>{@link #setTarget(CardType)} - for limiting the Modifier to one CardType;</li>
+         *     <li>{@link #setPriority(int)} - for ordering the Modifier relative to others;</li>
+         *     <li>{@link #addHp(int)} and {@link #addDmg(int)} - for flat changes;</li>
+         *     <li>{@link #scaleHp(int)} and {@link #scaleDmg(int)} - for percentage changes;</li>
+         * </ul>
+         *
+         * @param name unique name of the new Modifier, cannot be null or blank.
+         * @throws IllegalArgumentException if provided name is {@code null} or blank.
+         */
+        public Builder(String name) {
+            if (name == null || name.isBlank()) throw new IllegalArgumentException("Modifier name cannot be blank");
+            this.name = name;
+        }
+
+        /**
+         * Sets the {@link CardType} affected by the new {@link Modifier}, {@link CardType#ALL} affecting every Card.
+         *
+         * @param target {@link CardType} affected by the new Modifier, cannot be null.
+         * @return Current Builder class for the new Modifier being built.
+         *
+         * @throws IllegalArgumentException if provided CardType is {@code null}.
+         */
+        public Builder setTarget(CardType target) {
+            if (target == null) throw new IllegalArgumentException("Target CardType cannot be null");
+            this.target = target;
+            return this;
+        }
+
+        /**
+         * Sets the priority of the new {@link Modifier}, lower priorities being applied first.
+         *
+         * @param priority priority of the new Modifier.
+         * @return Current Builder class for the new Modifier being built.
+         */
+        public Builder setPriority(int priority) {
+            this.priority = priority;
+            return this;
+        }
+
+        /**
+         * Sets the flat hp change of the new {@link Modifier}, applied after scaling.
+         *
+         * @param amount hp added to every targeted Card, may be negative.
+         * @return Current Builder class for the new Modifier being built.
+         */
+        public Builder addHp(int amount) {
+            this.hpAdd = amount;
+            return this;
+        }
+
+        /**
+         * Sets the flat dmg change of the new {@link Modifier}, applied after scaling.
+         *
+         * @param amount dmg added to every targeted Card, may be negative.
+         * @return Current Builder class for the new Modifier being built.
+         */
+        public Builder addDmg(int amount) {
+            this.dmgAdd = amount;
+            return this;
+        }
+
+        /**
+         * Sets the hp scale of the new {@link Modifier}.
+         *
+         * @param percent percentage of the hp kept, {@code 100} leaving it unchanged; cannot be negative.
+         * @return Current Builder class for the new Modifier being built.
+         *
+         * @throws IllegalArgumentException if provided percentage is negative.
+         */
+        public Builder scaleHp(int percent) {
+            if (percent < 0) throw new IllegalArgumentException("Hp scale cannot be negative: " + percent);
+            this.hpPercent = percent;
+            return this;
+        }
+
+        /**
+         * Sets the dmg scale of the new {@link Modifier}.
+         *
+         * @param percent percentage of the dmg kept, {@code 100} leaving it unchanged; cannot be negative.
+         * @return Current Builder class for the new Modifier being built.
+         *
+         * @throws IllegalArgumentException if provided percentage is negative.
+         */
+        public Builder scaleDmg(int percent) {
+            if (percent < 0) throw new IllegalArgumentException("Dmg scale cannot be negative: " + percent);
+            this.dmgPercent = percent;
+            return this;
+        }
+
+        String getName() {
+            return name;
+        }
+    }
+
+
+    // ------------------------ Getters & Setters ------------------------ //
+    public ModifierRegistry getRegistry() {
+        return registry;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CardType getTarget() {
+        return target;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public int getHpPercent() {
+        return hpPercent;
+    }
+
+    public int getHpAdd() {
+        return hpAdd;
+    }
+
+    public int getDmgPercent() {
+        return dmgPercent;
+    }
+
+    public int getDmgAdd() {
+        return dmgAdd;
+    }
+
+    public boolean appliesTo(CardType type) {
+        return target == CardType.ALL || target == type;
+    }
+
+
+    // ------------------------ Default Object Methods ------------------------ //
+    @Override
+    public String toString() {
+        return "Modifier(id=" + id +
+                ", name=" + name +
+                ", target=" + target +
+                ", priority=" + priority + ")";
+    }
+}
@@ -0,0 +1,92 @@
+package application;
+
+import java.util.Arrays;
+
+/**
+ * Modifiers of a {@link CardStack} compiled into flat arrays in application order, so evaluating the effective
+ * stats of a Card is a branch per stage on a type mask instead of a lookup per Modifier.
+ */
+final class ModifierPipeline {
+
+    static final ModifierPipeline EMPTY = new ModifierPipeline(new Modifier[0]);
+
+    private final Modifier[] modifiers;
+    private final int[] typeMasks;
+    private final int[] hpPercent;
+    private final int[] hpAdd;
+    private final int[] dmgPercent;
+    private final int[] dmgAdd;
+
+    private ModifierPipeline(Modifier[] modifiers) {
+        this.modifiers = modifiers;
+        int stages = modifiers.length;
+        typeMasks = new int[stages];
+        hpPercent = new int[stages];
+        hpAdd = new int[stages];
+        dmgPercent = new int[stages];
+        dmgAdd = new int[stages];
+        for (int s = 0; s < stages; s++) {
+            Modifier modifier = modifiers[s];
+            typeMasks[s] = modifier.getTarget() == CardType.ALL ? -1 : 1 << modifier.getTarget().ordinal();
+            hpPercent[s] = modifier.getHpPercent();
+            hpAdd[s] = modifier.getHpAdd();
+            dmgPercent[s] = modifier.getDmgPercent();
+            dmgAdd[s] = modifier.getDmgAdd();
+        }
+    }
+
+    /**
+     * Compiles the Modifiers whose ids are set in a bitset.
+     *
+     * @param registry the registry of the ids.
+     * @param bits bitset of Modifier ids.
+     * @return the compiled pipeline.
+     */
+    static ModifierPipeline compile(ModifierRegistry registry, long[] bits) {
+        int count = 0;
+        for (long word : bits) count += Long.bitCount(word);
+        if (count == 0) return EMPTY;
+
+        Modifier[] modifiers = new Modifier[count];
+        int i = 0;
+        for (int w = 0; w < bits.length; w++)
+            for (long word = bits[w]; word != 0; word &= word - 1)
+                modifiers[i++] = registry.get(w * Long.SIZE + Long.numberOfTrailingZeros(word));
+        // Ids are already ascending, so a stable sort by priority gives the application order.
+        Arrays.sort(modifiers, (a, b) -> Integer.compare(a.getPriority(), b.getPriority()));
+        return new ModifierPipeline(modifiers);
+    }
+
+    int size() {
+        return modifiers.length;
+    }
+
+    Modifier get(int stage) {
+        return modifiers[stage];
+    }
+
+    /**
+     * Evaluates the effective stats of Cards into two arrays.
+     *
+     * @param cards circular array of Cards with a power-of-two length.
+     * @param head index of the first Card in the array.
+     * @param count the amount of Cards.
+     * @param hp array receiving the effective hp of every Card.
+     * @param dmg array receiving the effective dmg of every Card.
+     */
+    void evaluate(Card[] cards, int head, int count, int[] hp, int[] dmg) {
+        int stages = modifiers.length, mask = cards.length - 1;
+        for (int c = 0; c < count; c++) {
+            Card card = cards[(head + c) & mask];
+            int typeBit = 1 << card.getType().ordinal();
+            int h = card.getHp(), d = card.getDmg();
+            for (int s = 0; s < stages; s++) {
+                if ((typeMasks[s] & typeBit) == 0) continue;
+                h = Math.max(0, h * hpPercent[s] / 100 + hpAdd[s]);
+                d = Math.max(0, d * dmgPercent[s] / 100 + dmgAdd[s]);
+            }
+            hp[c] = h;
+            dmg[c] = d;
+        }
+    }
+}
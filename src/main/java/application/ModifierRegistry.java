@@ -0,0 +1,53 @@
+package application;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Registry creating {@link Modifier}s and assigning them dense ids, starting at {@code 0}.
+ */
+public class ModifierRegistry {
+
+    private final List<Modifier> modifiers = new ArrayList<>();
+    private final Map<String, Modifier> byName = new HashMap<>();
+
+    /**
+     * Creates and registers a new {@link Modifier}.
+     *
+     * @param builder builder with the attributes of the Modifier, cannot be null.
+     * @return the new Modifier.
+     * @throws IllegalArgumentException if provided builder is {@code null}, or its name is already registered.
+     */
+    public Modifier register(Modifier.Builder builder) {
+        if (builder == null) throw new IllegalArgumentException("Modifier.Builder cannot be null");
+        if (byName.containsKey(builder.getName()))
+            throw new IllegalArgumentException("Modifier already registered: " + builder.getName());
+        Modifier modifier = new Modifier(builder, this, modifiers.size());
+        modifiers.add(modifier);
+        byName.put(modifier.getName(), modifier);
+        return modifier;
+    }
+
+    /**
+     * @param id the dense id of the Modifier.
+     * @return the Modifier with the id.
+     * @throws IndexOutOfBoundsException if no Modifier has the id.
+     */
+    public Modifier get(int id) {
+        return modifiers.get(id);
+    }
+
+    /**
+     * @param name the name of the Modifier.
+     * @return the Modifier with the name, or {@code null} if none is registered.
+     */
+    public Modifier get(String name) {
+        return byName.get(name);
+    }
+
+    public int size() {
+        return modifiers.size();
+    }
+}
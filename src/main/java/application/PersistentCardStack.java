@@ -0,0 +1,490 @@
+package application;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * Immutable {@link CardStack} variant whose versions share structure, for game-state snapshots in AI search and
+ * undo history.
+ * <p>
+ * Cards are stored in a 32-way persistent vector trie with a separate tail holding the top Cards: changes copy
+ * only the path from the root to the changed leaf, so {@link #pushTop(Card)}, {@link #popTop()},
+ * {@link #drawN(int)} and {@link #set(int, Card)} return a new version in O(log32 n) and keep every previous
+ * version valid. Modifier changes share the whole trie. Positions are counted from the bottom like in a
+ * CardStack; Cards can only be added and removed at the top. Batches of edits are cheaper through a
+ * {@link Transient}, which edits nodes it created in place.
+ */
+public final class PersistentCardStack implements Iterable<Card> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+    private static final Node EMPTY_NODE = new Node(null, new Object[WIDTH]);
+    private static final PersistentCardStack EMPTY =
+            new PersistentCardStack(0, BITS, EMPTY_NODE, new Object[0], null, new long[0]);
+
+    /**
+     * Trie node; {@code owner} is the {@link Transient} allowed to edit the node in place, if any.
+     */
+    private static final class Node {
+        final Object owner;
+        final Object[] array;
+
+        Node(Object owner, Object[] array) {
+            this.owner = owner;
+            this.array = array;
+        }
+    }
+
+    private final int size;
+    private final int shift;
+    private final Node root;
+    private final Object[] tail;
+    private final ModifierRegistry registry;
+    private final long[] modifierBits;
+
+    private PersistentCardStack(int size, int shift, Node root, Object[] tail,
+                                ModifierRegistry registry, long[] modifierBits) {
+        this.size = size;
+        this.shift = shift;
+        this.root = root;
+        this.tail = tail;
+        this.registry = registry;
+        this.modifierBits = modifierBits;
+    }
+
+    // ------------------------ Object Initialization ------------------------ //
+    /**
+     * @return the empty PersistentCardStack without Modifiers.
+     */
+    public static PersistentCardStack empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a {@link PersistentCardStack} with the Cards and Modifiers of a {@link CardStack}.
+     *
+     * @param stack the CardStack to copy, cannot be null.
+     * @return the new PersistentCardStack.
+     * @throws IllegalArgumentException if provided CardStack is {@code null}.
+     */
+    public static PersistentCardStack of(CardStack stack) {
+        if (stack == null) throw new IllegalArgumentException("CardStack cannot be null");
+        Transient builder = EMPTY.asTransient();
+        for (int i = 0; i < stack.size(); i++) builder.pushTop(stack.get(i));
+        PersistentCardStack result = builder.persistent();
+        for (Modifier modifier : stack.getModifiers()) result = result.withModifier(modifier);
+        return result;
+    }
+
+    /**
+     * Creates a mutable {@link CardStack} with the Cards and Modifiers of this version.
+     *
+     * @return the new CardStack.
+     */
+    public CardStack toCardStack() {
+        CardStack stack = new CardStack();
+        forEach(stack::pushTop);
+        for (int id = nextModifierId(0); id >= 0; id = nextModifierId(id + 1)) stack.addModifier(registry.get(id));
+        return stack;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @param index position of the Card, {@code 0} being the bottom Card.
+     * @throws IndexOutOfBoundsException if provided index is not in {@code [0, size())}.
+     */
+    public Card get(int index) {
+        Objects.checkIndex(index, size);
+        return (Card) leafFor(index)[index & MASK];
+    }
+
+    /**
+     * @throws IllegalStateException if the PersistentCardStack is empty.
+     */
+    public Card peekTop() {
+        if (size == 0) throw new IllegalStateException("CardStack is empty");
+        return (Card) tail[tail.length - 1];
+    }
+
+    private int tailOffset() {
+        return size < WIDTH ? 0 : ((size - 1) >>> BITS) << BITS;
+    }
+
+    private Object[] leafFor(int index) {
+        if (index >= tailOffset()) return tail;
+        Node node = root;
+        for (int level = shift; level > 0; level -= BITS) node = (Node) node.array[(index >>> level) & MASK];
+        return node.array;
+    }
+
+
+    // ------------------------ Versions ------------------------ //
+    /**
+     * @param card {@link Card} pushed on the new version, cannot be null.
+     * @return a new version with the Card on top.
+     * @throws IllegalArgumentException if provided Card is {@code null}.
+     */
+    public PersistentCardStack pushTop(Card card) {
+        if (card == null) throw new IllegalArgumentException("New Card cannot be null");
+        if (size - tailOffset() < WIDTH) {
+            Object[] newTail = Arrays.copyOf(tail, tail.length + 1);
+            newTail[tail.length] = card;
+            return new PersistentCardStack(size + 1, shift, root, newTail, registry, modifierBits);
+        }
+        Node tailNode = new Node(null, tail);
+        int newShift = shift;
+        Node newRoot;
+        if ((size >>> BITS) > (1 << shift)) {
+            newRoot = new Node(null, new Object[WIDTH]);
+            newRoot.array[0] = root;
+            newRoot.array[1] = newPath(null, shift, tailNode);
+            newShift += BITS;
+        } else {
+            newRoot = pushTail(null, size, shift, root, tailNode);
+        }
+        return new PersistentCardStack(size + 1, newShift, newRoot, new Object[]{card}, registry, modifierBits);
+    }
+
+    /**
+     * @return a new version without the top Card.
+     * @throws IllegalStateException if the PersistentCardStack is empty.
+     */
+    public PersistentCardStack popTop() {
+        if (size == 0) throw new IllegalStateException("CardStack is empty");
+        return truncate(size - 1);
+    }
+
+    /**
+     * @param count amount of Cards drawn from the top, cannot be negative or more than {@link #size()}.
+     * @return a new version without the top {@code count} Cards.
+     * @throws IllegalArgumentException if provided count is out of range.
+     */
+    public PersistentCardStack drawN(int count) {
+        if (count < 0 || count > size)
+            throw new IllegalArgumentException("Cannot draw " + count + " Cards from a CardStack of " + size);
+        return truncate(size - count);
+    }
+
+    /**
+     * @param index position of the replaced Card.
+     * @param card the new {@link Card}, cannot be null.
+     * @return a new version with the Card at the position replaced.
+     * @throws IndexOutOfBoundsException if provided index is not in {@code [0, size())}.
+     * @throws IllegalArgumentException if provided Card is {@code null}.
+     */
+    public PersistentCardStack set(int index, Card card) {
+        Objects.checkIndex(index, size);
+        if (card == null) throw new IllegalArgumentException("New Card cannot be null");
+        if (index >= tailOffset()) {
+            Object[] newTail = tail.clone();
+            newTail[index & MASK] = card;
+            return new PersistentCardStack(size, shift, root, newTail, registry, modifierBits);
+        }
+        return new PersistentCardStack(size, shift, assoc(null, shift, root, index, card), tail, registry, modifierBits);
+    }
+
+    private PersistentCardStack truncate(int newSize) {
+        if (newSize == size) return this;
+        if (newSize == 0) return new PersistentCardStack(0, BITS, EMPTY_NODE, new Object[0], registry, modifierBits);
+        int tailOffset = tailOffset();
+        if (newSize > tailOffset)
+            return new PersistentCardStack(newSize, shift, root, Arrays.copyOf(tail, newSize - tailOffset),
+                    registry, modifierBits);
+
+        int newTailOffset = ((newSize - 1) >>> BITS) << BITS;
+        Object[] newTail = Arrays.copyOf(leafFor(newSize - 1), newSize - newTailOffset);
+        if (newTailOffset == 0)
+            return new PersistentCardStack(newSize, BITS, EMPTY_NODE, newTail, registry, modifierBits);
+
+        Node newRoot = trim(shift, root, newTailOffset - 1);
+        int newShift = shift;
+        while (newShift > BITS && newRoot.array[1] == null) {
+            newRoot = (Node) newRoot.array[0];
+            newShift -= BITS;
+        }
+        return new PersistentCardStack(newSize, newShift, newRoot, newTail, registry, modifierBits);
+    }
+
+
+    // ------------------------ Modifiers ------------------------ //
+    /**
+     * @param modifier {@link Modifier} added to the new version, cannot be null.
+     * @return a new version with the Modifier, sharing all Cards.
+     * @throws IllegalArgumentException if provided Modifier is {@code null}, already present, or from another
+     *                                  {@link ModifierRegistry} than the other Modifiers.
+     */
+    public PersistentCardStack withModifier(Modifier modifier) {
+        if (modifier == null) throw new IllegalArgumentException("New Modifier cannot be null");
+        if (hasModifier(modifier))
+            throw new IllegalArgumentException("Modifier already present on CardStack: " + modifier);
+        if (getModifierCount() > 0 && registry != modifier.getRegistry())
+            throw new IllegalArgumentException("Modifier belongs to another ModifierRegistry: " + modifier);
+        long[] bits = Arrays.copyOf(modifierBits, Math.max(modifierBits.length, (modifier.getId() >>> 6) + 1));
+        bits[modifier.getId() >>> 6] |= 1L << modifier.getId();
+        return new PersistentCardStack(size, shift, root, tail, modifier.getRegistry(), bits);
+    }
+
+    /**
+     * @param modifier {@link Modifier} removed from the new version, cannot be null.
+     * @return a new version without the Modifier, or this version if it is not present.
+     * @throws IllegalArgumentException if provided Modifier is {@code null}.
+     */
+    public PersistentCardStack withoutModifier(Modifier modifier) {
+        if (!hasModifier(modifier)) return this;
+        long[] bits = modifierBits.clone();
+        bits[modifier.getId() >>> 6] &= ~(1L << modifier.getId());
+        return new PersistentCardStack(size, shift, root, tail, registry, bits);
+    }
+
+    public boolean hasModifier(Modifier modifier) {
+        if (modifier == null) throw new IllegalArgumentException("Modifier cannot be null");
+        int word = modifier.getId() >>> 6;
+        return modifier.getRegistry() == registry && word < modifierBits.length
+                && (modifierBits[word] & 1L << modifier.getId()) != 0;
+    }
+
+    public int getModifierCount() {
+        int count = 0;
+        for (long word : modifierBits) count += Long.bitCount(word);
+        return count;
+    }
+
+    /**
+     * @see CardStack#nextModifierId(int)
+     */
+    public int nextModifierId(int from) {
+        int word = from >>> 6;
+        if (word >= modifierBits.length) return -1;
+        long bits = modifierBits[word] & (-1L << from);
+        while (bits == 0) {
+            if (++word == modifierBits.length) return -1;
+            bits = modifierBits[word];
+        }
+        return word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+    }
+
+
+    // ------------------------ Iteration ------------------------ //
+    /**
+     * Performs an action for every {@link Card} from the bottom to the top, one leaf at a time.
+     */
+    @Override
+    public void forEach(Consumer<? super Card> action) {
+        if (action == null) throw new IllegalArgumentException("Action cannot be null");
+        int tailOffset = tailOffset();
+        for (int leaf = 0; leaf < tailOffset; leaf += WIDTH) {
+            Object[] cards = leafFor(leaf);
+            for (Object card : cards) action.accept((Card) card);
+        }
+        for (Object card : tail) action.accept((Card) card);
+    }
+
+    @Override
+    public Iterator<Card> iterator() {
+        return new Iterator<>() {
+            private int index;
+            private Object[] leaf;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public Card next() {
+                if (index >= size) throw new NoSuchElementException();
+                if ((index & MASK) == 0 || leaf == null) leaf = leafFor(index);
+                return (Card) leaf[index++ & MASK];
+            }
+        };
+    }
+
+
+    // ------------------------ Trie Operations ------------------------ //
+    private static Node editable(Object owner, Node node) {
+        return owner != null && node.owner == owner ? node : new Node(owner, node.array.clone());
+    }
+
+    private static Node newPath(Object owner, int level, Node node) {
+        if (level == 0) return node;
+        Node path = new Node(owner, new Object[WIDTH]);
+        path.array[0] = newPath(owner, level - BITS, node);
+        return path;
+    }
+
+    private static Node pushTail(Object owner, int size, int level, Node parent, Node tailNode) {
+        int index = ((size - 1) >>> level) & MASK;
+        Node result = editable(owner, parent);
+        if (level == BITS) {
+            result.array[index] = tailNode;
+        } else {
+            Node child = (Node) parent.array[index];
+            result.array[index] = child != null
+                    ? pushTail(owner, size, level - BITS, child, tailNode)
+                    : newPath(owner, level - BITS, tailNode);
+        }
+        return result;
+    }
+
+    private static Node assoc(Object owner, int level, Node node, int index, Card card) {
+        Node result = editable(owner, node);
+        if (level == 0) {
+            result.array[index & MASK] = card;
+        } else {
+            int child = (index >>> level) & MASK;
+            result.array[child] = assoc(owner, level - BITS, (Node) node.array[child], index, card);
+        }
+        return result;
+    }
+
+    /**
+     * Copies the right edge of a subtree so it holds exactly the leaves up to the one containing {@code last}.
+     */
+    private static Node trim(int level, Node node, int last) {
+        int index = (last >>> level) & MASK;
+        Object[] array = new Object[WIDTH];
+        System.arraycopy(node.array, 0, array, 0, index + 1);
+        if (level > BITS) array[index] = trim(level - BITS, (Node) node.array[index], last);
+        return new Node(null, array);
+    }
+
+
+    // ------------------------ Transient ------------------------ //
+    /**
+     * @return a {@link Transient} starting from this version.
+     */
+    public Transient asTransient() {
+        return new Transient(this);
+    }
+
+    /**
+     * Mutable builder over a {@link PersistentCardStack} for batches of edits. Nodes created by the builder are
+     * edited in place, so pushing many Cards copies each path once instead of once per Card. The builder is
+     * confined to one thread and cannot be used after {@link #persistent()}.
+     */
+    public static final class Transient {
+
+        private Object owner = new Object();
+        private int size;
+        private int shift;
+        private Node root;
+        private Object[] tail;
+        private int tailSize;
+        private final ModifierRegistry registry;
+        private final long[] modifierBits;
+
+        private Transient(PersistentCardStack stack) {
+            this.size = stack.size;
+            this.shift = stack.shift;
+            this.root = stack.root;
+            this.tail = Arrays.copyOf(stack.tail, WIDTH);
+            this.tailSize = stack.tail.length;
+            this.registry = stack.registry;
+            this.modifierBits = stack.modifierBits;
+        }
+
+        public int size() {
+            checkActive();
+            return size;
+        }
+
+        /**
+         * @param card {@link Card} pushed on top, cannot be null.
+         * @return this builder.
+         * @throws IllegalArgumentException if provided Card is {@code null}.
+         * @throws ConcurrentModificationException if the builder was already made persistent.
+         */
+        public Transient pushTop(Card card) {
+            checkActive();
+            if (card == null) throw new IllegalArgumentException("New Card cannot be null");
+            if (tailSize == WIDTH) {
+                Node tailNode = new Node(owner, tail);
+                if ((size >>> BITS) > (1 << shift)) {
+                    Node newRoot = new Node(owner, new Object[WIDTH]);
+                    newRoot.array[0] = root;
+                    newRoot.array[1] = newPath(owner, shift, tailNode);
+                    root = newRoot;
+                    shift += BITS;
+                } else {
+                    root = pushTail(owner, size, shift, root, tailNode);
+                }
+                tail = new Object[WIDTH];
+                tailSize = 0;
+            }
+            tail[tailSize++] = card;
+            size++;
+            return this;
+        }
+
+        /**
+         * @return the removed top Card.
+         * @throws IllegalStateException if the builder is empty.
+         * @throws ConcurrentModificationException if the builder was already made persistent.
+         */
+        public Card popTop() {
+            checkActive();
+            if (size == 0) throw new IllegalStateException("CardStack is empty");
+            Card card = (Card) tail[--tailSize];
+            tail[tailSize] = null;
+            size--;
+            if (tailSize == 0 && size > 0) {
+                // Move the last leaf of the trie back into the tail.
+                PersistentCardStack current = new PersistentCardStack(size + 1, shift, root,
+                        new Object[]{card}, registry, modifierBits).truncate(size);
+                root = current.root;
+                shift = current.shift;
+                tail = Arrays.copyOf(current.tail, WIDTH);
+                tailSize = current.tail.length;
+            }
+            return card;
+        }
+
+        /**
+         * @param index position of the replaced Card.
+         * @param card the new {@link Card}, cannot be null.
+         * @return this builder.
+         * @throws IndexOutOfBoundsException if provided index is not in {@code [0, size())}.
+         * @throws IllegalArgumentException if provided Card is {@code null}.
+         * @throws ConcurrentModificationException if the builder was already made persistent.
+         */
+        public Transient set(int index, Card card) {
+            checkActive();
+            Objects.checkIndex(index, size);
+            if (card == null) throw new IllegalArgumentException("New Card cannot be null");
+            if (index >= size - tailSize) tail[index & MASK] = card;
+            else root = assoc(owner, shift, root, index, card);
+            return this;
+        }
+
+        /**
+         * Ends the batch and returns the edited version. Its nodes are never edited again.
+         *
+         * @return the new PersistentCardStack.
+         * @throws ConcurrentModificationException if the builder was already made persistent.
+         */
+        public PersistentCardStack persistent() {
+            checkActive();
+            owner = null;
+            return new PersistentCardStack(size, shift, size <= WIDTH ? EMPTY_NODE : root,
+                    Arrays.copyOf(tail, tailSize), registry, modifierBits);
+        }
+
+        private void checkActive() {
+            if (owner == null) throw new ConcurrentModificationException("Transient used after persistent()");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package framework.application;
 
+import framework.injection.InjectionPlan;
 import framework.injection.Injector;
 import framework.injection.annotations.Singleton;
 
@@ -14,9 +15,10 @@ import framework.injection.annotations.Singleton;
  *     <li>{@link #onExit()} - called at the end of execution</li>
  * </ul>
  * @see GraphicApplication
+ * @see ServerApplication
  */
 @Singleton
-public sealed abstract class Application permits GraphicApplication {
+public sealed abstract class Application permits GraphicApplication, ServerApplication {
 
     /**
      * Injector of the {@link Application} managing injection and Singletons.
@@ -24,9 +26,10 @@ public sealed abstract class Application permits GraphicApplication {
     public final Injector INJECTOR = new Injector();
 
     /**
-     * Package private boolean storing {@link Application} execution status.
+     * Package private boolean storing {@link Application} execution status, volatile so {@link #quit()} may be
+     * called from another thread.
      */
-    boolean isRunning;
+    volatile boolean isRunning;
 
 
     /**
@@ -49,11 +52,21 @@ public sealed abstract class Application permits GraphicApplication {
      * Package private start which handles start logic and calls {@link #onStart()}.
      */
     void start() {
+        loadInjectionPlan();
         INJECTOR.bind(Application.class, this);
         onStart();
         isRunning = true;
     }
 
+    /**
+     * Package private helper letting the {@link #INJECTOR} use the {@link InjectionPlan} on the classpath, if the
+     * build produced one with a training run.
+     */
+    void loadInjectionPlan() {
+        InjectionPlan plan = InjectionPlan.loadResource();
+        if (plan != null) INJECTOR.usePlan(plan);
+    }
+
     /**
      * Package private update which handles update logic and calls {@link #onUpdate()}.
      */
@@ -1,10 +1,30 @@
 package framework.application;
 
+import framework.assets.AssetHandler;
+import framework.graphics.DynamicResolution;
+import framework.graphics.Framebuffer;
 import framework.graphics.MeshHandler;
+import framework.graphics.ResolutionController;
 import framework.graphics.TextureHandler;
+import framework.graphics.capture.FrameCapture;
+import framework.graphics.capture.FrameWriter;
+import framework.graphics.particles.ParticleRenderer;
+import framework.graphics.text.TextRenderer;
 import framework.injection.annotations.Singleton;
+import framework.profiling.GpuProfiler;
+import framework.profiling.RollingStatistics;
+import framework.profiling.jfr.FrameEvent;
+import org.lwjgl.BufferUtils;
 import org.lwjgl.glfw.GLFWErrorCallback;
 import org.lwjgl.opengl.GL;
+import org.lwjgl.system.Configuration;
+import org.lwjgl.system.Platform;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
 
 import static org.lwjgl.glfw.GLFW.*;
 import static org.lwjgl.glfw.GLFW.glfwSetErrorCallback;
@@ -20,15 +40,60 @@ import static org.lwjgl.opengl.GL11.GL_DEPTH_BUFFER_BIT;
  * <ul>
  *     <li>{@link #onRender()} - called before refreshing the {@link Window}.</li>
  * </ul>
+ * A GraphicApplication can also be run headless using {@link #runHeadless(int)}, rendering a fixed amount
+ * of frames into an offscreen {@link Framebuffer} of an invisible Window, and trained with
+ * {@link #runTraining(int, Path)} to produce the startup artifacts of a build. The time to the first frame is
+ * reported by {@link #getStartupReport()}.
  */
 @Singleton
 public abstract non-sealed class GraphicApplication extends Application {
 
+    private static final long CAPTURE_POLL_NANOS = 1_000_000;
+
     /**
      * Main Window of the {@link GraphicApplication}.
      */
     public Window window;
 
+    /**
+     * GPU profiler measuring the frames of the {@link GraphicApplication}, available after start.
+     */
+    public GpuProfiler gpuProfiler;
+
+    private WindowSettings settings;
+    private Framebuffer offscreen;
+    private DynamicResolution dynamicResolution;
+    private FrameCapture frameCapture;
+    private int headlessFrames;
+    private RollingStatistics headlessFrameTimes;
+    private HeadlessReport headlessReport;
+    private long frames;
+    private long presentStart;
+    private final RenderScheduler renderScheduler = new RenderScheduler();
+    private boolean onDemand;
+    private volatile Thread renderThread;
+    private long startTime, platformTime, startedTime;
+    private StartupReport startupReport;
+
+
+    /**
+     * Creates a new {@link GraphicApplication} with the {@link WindowSettings#DEFAULT} settings.
+     */
+    protected GraphicApplication() {
+        this(WindowSettings.DEFAULT);
+    }
+
+    /**
+     * Creates a new {@link GraphicApplication} with custom {@link WindowSettings}.
+     *
+     * @param settings settings used to create the {@link Window}, cannot be null.
+     * @throws IllegalArgumentException if provided settings are {@code null}.
+     */
+    protected GraphicApplication(WindowSettings settings) {
+        if (settings == null) throw new IllegalArgumentException("WindowSettings cannot be null");
+        this.settings = settings;
+    }
+
 
     /**
      * Executed before refreshing the {@link Window}.
@@ -41,18 +106,34 @@ public abstract non-sealed class GraphicApplication extends Application {
      */
     @Override
     void start() {
+        startTime = System.nanoTime();
+        loadInjectionPlan();
         GLFWErrorCallback.createPrint(System.err).set();
+        if (settings.headless() && Platform.get() == Platform.LINUX
+                && System.getenv("DISPLAY") == null && System.getenv("WAYLAND_DISPLAY") == null) {
+            // No display server (CI): use the GLFW null platform with an OSMesa context (e.g. Mesa llvmpipe).
+            glfwInitHint(GLFW_PLATFORM, GLFW_PLATFORM_NULL);
+            Configuration.OPENGL_LIBRARY_NAME.set("libOSMesa.so.8");
+        }
         if (!glfwInit()) throw new IllegalStateException("Unable to initialize GLFW");
+        // Published once GLFW is up, other threads only post empty events from here on.
+        renderThread = Thread.currentThread();
 
         INJECTOR.bind(GraphicApplication.class, this);
+        INJECTOR.bind(WindowSettings.class, settings);
         this.window = INJECTOR.create(Window.class);
+        INJECTOR.create(AssetHandler.class);
         INJECTOR.create(MeshHandler.class);
         INJECTOR.create(TextureHandler.class);
 
         GL.createCapabilities();
         glClearColor(0.1f, 0.1f, 0.1f, 0.0f);
+        this.gpuProfiler = INJECTOR.create(GpuProfiler.class);
+        if (settings.headless()) offscreen = new Framebuffer(settings.width(), settings.height());
 
+        platformTime = System.nanoTime();
         onStart();
+        startedTime = System.nanoTime();
         isRunning = true;
     }
 
@@ -61,10 +142,64 @@ public abstract non-sealed class GraphicApplication extends Application {
      */
     @Override
     void update() {
+        FrameEvent event = new FrameEvent();
+        event.begin();
         if (window.shouldClose())
             quit();
+        long updateStart = System.nanoTime();
         super.update();
+        long renderStart = System.nanoTime();
+        if (onDemand && !settings.headless() && !renderScheduler.poll(renderStart)) {
+            waitForEvents(renderStart);
+            return;
+        }
         render();
+        event.end();
+        if (event.shouldCommit()) {
+            event.frame = frames;
+            event.updateTime = renderStart - updateStart;
+            event.renderTime = presentStart - renderStart;
+            event.presentTime = System.nanoTime() - presentStart;
+            event.commit();
+        }
+        if (frames++ == 0) startupReport = createStartupReport();
+    }
+
+    /**
+     * Blocks until an input event arrives or the next scheduled frame is due. Events are handled by the
+     * {@link Window} callbacks, which request a render.
+     */
+    private void waitForEvents(long now) {
+        long timeout = renderScheduler.timeUntilDue(now);
+        // Captured frames still in flight are handed over without rendering.
+        if (frameCapture != null && frameCapture.poll()) timeout = Math.min(timeout, CAPTURE_POLL_NANOS);
+        if (timeout == Long.MAX_VALUE) glfwWaitEvents();
+        else if (timeout > 0) glfwWaitEventsTimeout(timeout / 1_000_000_000.0);
+        else glfwPollEvents();
+    }
+
+    /**
+     * Creates the {@link StartupReport} at the end of the first frame. The management beans are only loaded now,
+     * so they do not count towards the startup they measure.
+     */
+    private StartupReport createStartupReport() {
+        long now = System.nanoTime();
+        double uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        return new StartupReport(uptime - (now - startTime) / 1_000_000.0, (platformTime - startTime) / 1_000_000.0,
+                (startedTime - platformTime) / 1_000_000.0, (now - startedTime) / 1_000_000.0,
+                INJECTOR.getCreateTime() / 1_000_000.0, vmOption("SharedArchiveFile"), INJECTOR.hasPlan());
+    }
+
+    /**
+     * @return the value of a HotSpot VM option, or an empty String if the JVM does not have the option.
+     */
+    private static String vmOption(String name) {
+        try {
+            return ManagementFactory.getPlatformMXBean(com.sun.management.HotSpotDiagnosticMXBean.class)
+                    .getVMOption(name).getValue();
+        } catch (IllegalArgumentException e) {
+            return "";
+        }
     }
 
     /**
@@ -72,7 +207,25 @@ public abstract non-sealed class GraphicApplication extends Application {
      */
     @Override
     void exit() {
+        if (frameCapture != null) {
+            try {
+                frameCapture.destroy();
+            } catch (IOException e) {
+                System.err.println("Unable to write captured frames");
+                e.printStackTrace();
+            }
+        }
+        gpuProfiler.destroy();
+        if (dynamicResolution != null) dynamicResolution.destroy();
+        if (offscreen != null) offscreen.destroy();
+        // Only renderers the application used hold GL objects, getBound does not create the others.
+        TextRenderer textRenderer = INJECTOR.getBound(TextRenderer.class);
+        if (textRenderer != null) textRenderer.destroy();
+        ParticleRenderer particleRenderer = INJECTOR.getBound(ParticleRenderer.class);
+        if (particleRenderer != null) particleRenderer.destroy();
+        INJECTOR.get(AssetHandler.class).destroy();
         window.destroy();
+        renderThread = null;
         glfwTerminate();
         glfwSetErrorCallback(null).free();
         super.exit();
@@ -82,9 +235,233 @@ public abstract non-sealed class GraphicApplication extends Application {
      * Package private render which handles render logic, refreshes the {@link Window} and calls {@link #onRender()}.
      */
     void render() {
+        long frameStart = System.nanoTime();
+        gpuProfiler.beginFrame();
+        if (offscreen != null) offscreen.bind();
+        if (dynamicResolution != null) dynamicResolution.bind();
         glClear(GL_COLOR_BUFFER_BIT | GL_DEPTH_BUFFER_BIT);
+        gpuProfiler.begin("onRender");
         onRender();
+        gpuProfiler.end();
+        if (dynamicResolution != null) {
+            gpuProfiler.begin("upscale");
+            dynamicResolution.blitTo(offscreen == null ? 0 : offscreen.getFboID());
+            gpuProfiler.end();
+        }
+        if (frameCapture != null) {
+            gpuProfiler.begin("capture");
+            frameCapture.capture(offscreen == null ? 0 : offscreen.getFboID());
+            gpuProfiler.end();
+        }
+        gpuProfiler.endFrame();
+        presentStart = System.nanoTime();
+        if (dynamicResolution != null) {
+            // GPU time reflects the fill cost; the CPU time until present is the fallback, as it excludes vsync waits.
+            dynamicResolution.update(gpuProfiler.isSupported() && gpuProfiler.getGpuFrameStatistics().getCount() > 0
+                    ? gpuProfiler.getGpuFrameStatistics().getLast()
+                    : (presentStart - frameStart) / 1_000_000.0);
+        }
         window.render();
         glfwPollEvents();
+        if (offscreen != null) renderedHeadless(frameStart);
+    }
+
+    /**
+     * Records the timing of a headless frame and captures the last frame before quitting.
+     * Headless settings started by {@link #run()} instead of {@link #runHeadless(int)} have no frame count,
+     * those keep rendering offscreen until the application quits itself.
+     *
+     * @param frameStart {@link System#nanoTime()} at the start of the frame.
+     */
+    private void renderedHeadless(long frameStart) {
+        if (headlessFrames == 0) return;
+        headlessFrameTimes.add((System.nanoTime() - frameStart) / 1_000_000.0);
+        if (headlessFrameTimes.getCount() < headlessFrames) return;
+
+        int width = offscreen.getWidth();
+        int height = offscreen.getHeight();
+        ByteBuffer bottomUp = BufferUtils.createByteBuffer(width * height * 4);
+        offscreen.readPixels(bottomUp);
+        ByteBuffer topDown = BufferUtils.createByteBuffer(width * height * 4);
+        int stride = width * 4;
+        for (int row = 0; row < height; row++)
+            topDown.put((height - 1 - row) * stride, bottomUp, row * stride, stride);
+
+        headlessReport = new HeadlessReport(width, height, topDown,
+                headlessFrameTimes, gpuProfiler.getGpuFrameStatistics());
+        quit();
+    }
+
+    /**
+     * Runs the {@link GraphicApplication} without a visible {@link Window}, rendering a fixed amount of frames
+     * into an offscreen {@link Framebuffer}. This works without a display server, which makes it usable for
+     * benchmarks and golden-image tests on CI machines.
+     * <p>
+     * Running {@link WindowSettings#headless() headless} settings with {@link #run()} also renders offscreen,
+     * but without a frame count or report, until the application calls {@link #quit()}.
+     *
+     * @param frames the amount of frames to render, must be positive.
+     * @return the {@link HeadlessReport} with the pixels of the last frame and the frame timings.
+     * @throws IllegalArgumentException if the provided amount of frames is not positive.
+     */
+    public final HeadlessReport runHeadless(int frames) {
+        if (frames <= 0) throw new IllegalArgumentException("Amount of frames must be positive: " + frames);
+        this.settings = settings.asHeadless();
+        this.headlessFrames = frames;
+        this.headlessFrameTimes = new RollingStatistics(frames);
+        try {
+            run();
+        } finally {
+            this.headlessFrames = 0;
+            this.headlessFrameTimes = null;
+        }
+        return headlessReport;
+    }
+
+    /**
+     * Runs a training run headless, recording what later runs can use to start faster:
+     * <ul>
+     *     <li>the resolved injection graph, written as {@link framework.injection.InjectionPlan} to {@code plan},
+     *     to be packaged as the plan resource on the classpath.</li>
+     *     <li>when the JVM runs with {@code -XX:ArchiveClassesAtExit=<name>.jsa}, the JVM records all loaded classes
+     *     into that AppCDS archive at exit. An argument file {@code <name>.args} is written next to it, holding the
+     *     archive and the classpath it is only valid for, to start later runs with {@code java @<name>.args}.</li>
+     * </ul>
+     *
+     * @param frames the amount of frames to render, must be positive.
+     * @param plan the file to write the injection plan to, or {@code null} to not write it.
+     * @return the {@link StartupReport} of the training run.
+     * @throws IOException if the plan or the argument file could not be written.
+     * @throws IllegalArgumentException if the provided amount of frames is not positive.
+     */
+    public final StartupReport runTraining(int frames, Path plan) throws IOException {
+        runHeadless(frames);
+        if (plan != null) INJECTOR.getPlan().write(plan);
+        String archive = vmOption("ArchiveClassesAtExit");
+        if (!archive.isEmpty()) {
+            Path archivePath = Path.of(archive).toAbsolutePath();
+            String name = archivePath.getFileName().toString().replaceFirst("\\.jsa$", "");
+            Files.writeString(archivePath.resolveSibling(name + ".args"),
+                    "-XX:SharedArchiveFile=" + quote(archivePath.toString()) + "\n" +
+                    "-cp " + quote(System.getProperty("java.class.path")) + "\n");
+        }
+        return startupReport;
+    }
+
+    private static String quote(String argument) {
+        return '"' + argument.replace("\\", "\\\\") + '"';
+    }
+
+    /**
+     * Renders all following frames into an offscreen target whose resolution scales with the measured frame time,
+     * upscaled to the Window in a final blit. Must be called once the OpenGL context exists, e.g. in
+     * {@link #onStart()}.
+     *
+     * @param controller controller choosing the render scale, or {@code null} to render at full resolution again.
+     * @throws IllegalStateException if the {@link GraphicApplication} has not been started yet.
+     */
+    public final void setDynamicResolution(ResolutionController controller) {
+        if (gpuProfiler == null) throw new IllegalStateException("Dynamic resolution requires a started GraphicApplication");
+        if (dynamicResolution != null) dynamicResolution.destroy();
+        dynamicResolution = controller == null ? null
+                : new DynamicResolution(settings.width(), settings.height(), controller);
+        if (dynamicResolution == null) glViewport(0, 0, settings.width(), settings.height());
+    }
+
+    /**
+     * @return the active {@link DynamicResolution}, or {@code null} if frames render at full resolution.
+     */
+    public DynamicResolution getDynamicResolution() {
+        return dynamicResolution;
+    }
+
+    /**
+     * Enables or disables on-demand rendering. When enabled, {@link #onUpdate()} still runs every iteration of the
+     * loop, but a frame is only cleared, rendered and swapped when it is dirty: after input on the {@link Window},
+     * {@link #requestRender()}, during {@link #requestAnimation(double)} or at a {@link #scheduleRender(double)}
+     * deadline. Otherwise the loop sleeps in {@code glfwWaitEventsTimeout} until one of these happens, so an idle
+     * application uses next to no CPU or GPU time. Headless runs always render every frame.
+     *
+     * @param onDemand whether frames are only rendered when dirty.
+     */
+    public final void setOnDemandRendering(boolean onDemand) {
+        this.onDemand = onDemand;
+        requestRender();
+    }
+
+    public final boolean isOnDemandRendering() {
+        return onDemand;
+    }
+
+    /**
+     * Marks the next frame dirty in on-demand rendering. May be called from any thread, waking up the loop.
+     */
+    public final void requestRender() {
+        renderScheduler.requestRender();
+        if (onDemand && renderThread != null && Thread.currentThread() != renderThread) glfwPostEmptyEvent();
+    }
+
+    /**
+     * Renders every frame for a duration in on-demand rendering, e.g. while an animation plays.
+     *
+     * @param seconds the duration of the animation, cannot be negative.
+     * @throws IllegalArgumentException if provided duration is negative.
+     */
+    public final void requestAnimation(double seconds) {
+        renderScheduler.animate(System.nanoTime(), (long) (seconds * 1_000_000_000L));
+    }
+
+    /**
+     * Renders a frame once a delay passed in on-demand rendering, e.g. when a timer runs out.
+     *
+     * @param seconds the delay until the frame is due.
+     */
+    public final void scheduleRender(double seconds) {
+        renderScheduler.schedule(System.nanoTime() + (long) (seconds * 1_000_000_000L));
+    }
+
+    /**
+     * Getter for the time to the first frame of this run.
+     *
+     * @return the {@link StartupReport}, or {@code null} if no frame was rendered yet.
+     */
+    public StartupReport getStartupReport() {
+        return startupReport;
+    }
+
+    /**
+     * Writes the next rendered frame to a PNG file, read back asynchronously by the {@link FrameCapture}.
+     *
+     * @throws IllegalStateException if the {@link GraphicApplication} has not been started yet.
+     */
+    public final void takeScreenshot(Path png) {
+        getFrameCapture().screenshot(png);
+        requestRender();
+    }
+
+    /**
+     * Starts writing every rendered frame, read back asynchronously by the {@link FrameCapture}. Frames are dropped
+     * rather than slowing down rendering when writing falls behind.
+     *
+     * @param output the directory for PNG frames, or the file for RAW frames.
+     * @param format how to store the frames.
+     * @throws IllegalStateException if the {@link GraphicApplication} has not been started yet.
+     */
+    public final void startRecording(Path output, FrameWriter.Format format) {
+        getFrameCapture().startRecording(output, format);
+    }
+
+    public final void stopRecording() {
+        if (frameCapture != null) frameCapture.stopRecording();
+    }
+
+    /**
+     * @return the {@link FrameCapture} of the Window, created on first use.
+     * @throws IllegalStateException if the {@link GraphicApplication} has not been started yet.
+     */
+    public final FrameCapture getFrameCapture() {
+        if (gpuProfiler == null) throw new IllegalStateException("Frame capture requires a started GraphicApplication");
+        if (frameCapture == null) frameCapture = new FrameCapture(settings.width(), settings.height());
+        return frameCapture;
     }
 }
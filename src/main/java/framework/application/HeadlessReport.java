@@ -0,0 +1,113 @@
+package framework.application;
+
+import framework.profiling.RollingStatistics;
+import org.lwjgl.stb.STBImage;
+import org.lwjgl.stb.STBImageWrite;
+import org.lwjgl.system.MemoryStack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Path;
+
+/**
+ * Result of a headless run of a {@link GraphicApplication}: the pixels of the last frame and the
+ * timings of all frames.
+ *
+ * @param width width of the captured frame in pixels.
+ * @param height height of the captured frame in pixels.
+ * @param pixels tightly packed RGBA pixels of the last frame, top row first.
+ * @param cpuFrameTime CPU time in milliseconds of every rendered frame.
+ * @param gpuFrameTime GPU time in milliseconds of the frames read back by the {@code GpuProfiler}.
+ */
+public record HeadlessReport(int width, int height, ByteBuffer pixels,
+                             RollingStatistics cpuFrameTime, RollingStatistics gpuFrameTime) {
+
+    /**
+     * Writes the captured frame to a PNG file, for example to create or update a golden image.
+     *
+     * @param path the path of the PNG file to write.
+     * @throws IOException if the file could not be written.
+     */
+    public void writePng(Path path) throws IOException {
+        if (!STBImageWrite.stbi_write_png(path.toAbsolutePath().toString(), width, height, 4, pixels, width * 4))
+            throw new IOException("Unable to write image " + path);
+    }
+
+    /**
+     * Counts the pixels of the captured frame that differ from a golden image by more than a tolerance
+     * in any channel.
+     *
+     * @param golden the path of the golden PNG image.
+     * @param tolerance the maximum allowed difference per channel.
+     * @return the amount of mismatching pixels.
+     * @throws IOException if the golden image could not be loaded.
+     * @throws IllegalArgumentException if the golden image has a different size than the captured frame, or
+     * the tolerance is negative.
+     */
+    public int countMismatches(Path golden, int tolerance) throws IOException {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer w = stack.mallocInt(1);
+            IntBuffer h = stack.mallocInt(1);
+            IntBuffer channels = stack.mallocInt(1);
+            ByteBuffer expected = STBImage.stbi_load(golden.toAbsolutePath().toString(), w, h, channels, 4);
+            if (expected == null)
+                throw new IOException("Unable to load golden image " + golden + " " + STBImage.stbi_failure_reason());
+            try {
+                if (w.get(0) != width || h.get(0) != height)
+                    throw new IllegalArgumentException("Golden image size " + w.get(0) + "x" + h.get(0) +
+                            " does not match " + width + "x" + height);
+                return countMismatches(expected, pixels, tolerance);
+            } finally {
+                STBImage.stbi_image_free(expected);
+            }
+        }
+    }
+
+    /**
+     * Compares two RGBA images of the same size pixel by pixel, from the position to the limit of the buffers.
+     *
+     * @param expected tightly packed RGBA pixels of the reference image.
+     * @param actual tightly packed RGBA pixels of the image to check.
+     * @param tolerance the maximum allowed difference per channel, cannot be negative.
+     * @return the amount of pixels which differ by more than the tolerance in any channel.
+     * @throws IllegalArgumentException if the images differ in size or the tolerance is negative.
+     */
+    public static int countMismatches(ByteBuffer expected, ByteBuffer actual, int tolerance) {
+        if (tolerance < 0) throw new IllegalArgumentException("Tolerance cannot be negative: " + tolerance);
+        if (expected.remaining() != actual.remaining() || expected.remaining() % 4 != 0)
+            throw new IllegalArgumentException("Images of " + expected.remaining() + " and " + actual.remaining()
+                    + " bytes are not RGBA images of the same size");
+        int e = expected.position(), a = actual.position();
+        int mismatches = 0;
+        for (int i = 0; i < expected.remaining(); i += 4) {
+            for (int c = 0; c < 4; c++) {
+                if (Math.abs((expected.get(e + i + c) & 0xFF) - (actual.get(a + i + c) & 0xFF)) > tolerance) {
+                    mismatches++;
+                    break;
+                }
+            }
+        }
+        return mismatches;
+    }
+
+    /**
+     * Checks whether the captured frame matches a golden image within a tolerance per channel.
+     *
+     * @param golden the path of the golden PNG image.
+     * @param tolerance the maximum allowed difference per channel.
+     * @return {@code true} if no pixel differs by more than the tolerance.
+     * @throws IOException if the golden image could not be loaded.
+     */
+    public boolean matchesGolden(Path golden, int tolerance) throws IOException {
+        return countMismatches(golden, tolerance) == 0;
+    }
+
+    @Override
+    public String toString() {
+        return "HeadlessReport(size=" + width + "x" + height +
+                ", frames=" + cpuFrameTime.getCount() +
+                ", cpu frame ms: " + cpuFrameTime +
+                ", gpu frame ms: " + gpuFrameTime + ")";
+    }
+}
@@ -0,0 +1,93 @@
+package framework.application;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Dirty tracking for on-demand rendering: decides whether a frame has to be rendered, and how long the
+ * application may sleep otherwise.
+ * <p>
+ * A frame is due when a render was requested, while an animation is running, or once a scheduled deadline
+ * has passed. All times are {@link System#nanoTime()} values, passed in so the scheduler stays testable.
+ * {@link #requestRender()} may be called from any thread; everything else belongs to the render thread.
+ */
+public class RenderScheduler {
+
+    private final AtomicBoolean dirty = new AtomicBoolean(true);
+    private boolean animation;
+    private long animationEnd;
+    private long[] deadlines = new long[8];
+    private int deadlineCount;
+
+    /**
+     * Marks the next frame dirty.
+     */
+    public void requestRender() {
+        dirty.set(true);
+    }
+
+    /**
+     * Keeps every frame dirty until the end of an animation, extending a running animation if it ends earlier.
+     *
+     * @param now the current time in nanoseconds.
+     * @param durationNanos the duration of the animation, cannot be negative.
+     * @throws IllegalArgumentException if provided duration is negative.
+     */
+    public void animate(long now, long durationNanos) {
+        if (durationNanos < 0) throw new IllegalArgumentException("Animation duration cannot be negative: " + durationNanos);
+        if (!animation || now + durationNanos - animationEnd > 0) animationEnd = now + durationNanos;
+        animation = true;
+    }
+
+    /**
+     * Marks the first frame after a deadline dirty, e.g. for a timer running out.
+     *
+     * @param deadline the time in nanoseconds the frame is due at.
+     */
+    public void schedule(long deadline) {
+        if (deadlineCount == deadlines.length) deadlines = Arrays.copyOf(deadlines, deadlineCount * 2);
+        // Sorted insertion, there are only a few timers pending at once.
+        int i = deadlineCount++;
+        for (; i > 0 && deadlines[i - 1] - deadline > 0; i--) deadlines[i] = deadlines[i - 1];
+        deadlines[i] = deadline;
+    }
+
+    /**
+     * Checks whether a frame is due and consumes the dirty flag and the passed deadlines if so. Requests made
+     * while that frame renders mark the next frame dirty.
+     *
+     * @param now the current time in nanoseconds.
+     * @return {@code true} if a frame has to be rendered.
+     */
+    public boolean poll(long now) {
+        int passed = 0;
+        while (passed < deadlineCount && deadlines[passed] - now <= 0) passed++;
+        if (passed > 0) {
+            System.arraycopy(deadlines, passed, deadlines, 0, deadlineCount - passed);
+            deadlineCount -= passed;
+        }
+        // Consumes the flag atomically, a request racing this poll is either seen now or kept for the next one.
+        return dirty.getAndSet(false) | passed > 0 | isAnimating(now);
+    }
+
+    /**
+     * Getter for how long the application may wait for events before the next frame is due by itself.
+     *
+     * @param now the current time in nanoseconds.
+     * @return the nanoseconds until the next deadline or {@code 0} if a frame is due, or {@link Long#MAX_VALUE}
+     * if no frame is due until a render is requested.
+     */
+    public long timeUntilDue(long now) {
+        if (dirty.get() || isAnimating(now)) return 0;
+        if (deadlineCount == 0) return Long.MAX_VALUE;
+        return Math.max(0, deadlines[0] - now);
+    }
+
+    public boolean isAnimating(long now) {
+        return animation && animationEnd - now > 0;
+    }
+
+    public int getPendingDeadlines() {
+        return deadlineCount;
+    }
+}
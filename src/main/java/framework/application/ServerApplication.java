@@ -0,0 +1,95 @@
+package framework.application;
+
+import framework.injection.annotations.Singleton;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Extension of {@link Application} class for a headless server running its logic at a fixed tick rate.
+ * <p>
+ * {@link #onUpdate()} is called once per tick. The time until the next tick is spent in
+ * {@link #waitForTick(long)}, which servers override to handle network events while waiting. When a tick
+ * overruns so far that the next one is already late, the schedule restarts from now instead of running the
+ * missed ticks back to back; such ticks are counted by {@link #getOverruns()}.
+ */
+@Singleton
+public abstract non-sealed class ServerApplication extends Application {
+
+    private final int tickRate;
+    private final long tickNanos;
+    private long nextTick;
+    private long ticks;
+    private long overruns;
+
+
+    /**
+     * Creates a new {@link ServerApplication}.
+     *
+     * @param tickRate amount of ticks per second, must be positive.
+     * @throws IllegalArgumentException if provided tick rate is not positive.
+     */
+    protected ServerApplication(int tickRate) {
+        if (tickRate <= 0) throw new IllegalArgumentException("Tick rate must be positive: " + tickRate);
+        this.tickRate = tickRate;
+        this.tickNanos = 1_000_000_000L / tickRate;
+    }
+
+
+    /**
+     * Executed while waiting for the next tick, possibly several times. Implementations may return early, but
+     * should not block longer than the provided time.
+     *
+     * @param nanos the time until the next tick in nanoseconds.
+     */
+    protected void waitForTick(long nanos) {
+        LockSupport.parkNanos(nanos);
+    }
+
+
+    /**
+     * Package private start which handles start logic and schedules the first tick.
+     */
+    @Override
+    void start() {
+        INJECTOR.bind(ServerApplication.class, this);
+        super.start();
+        nextTick = System.nanoTime();
+    }
+
+    /**
+     * Package private update which waits for the next tick and calls {@link #onUpdate()}.
+     */
+    @Override
+    void update() {
+        for (long remaining; isRunning && (remaining = nextTick - System.nanoTime()) > 0; ) waitForTick(remaining);
+        if (!isRunning) return;
+        onUpdate();
+        ticks++;
+        nextTick += tickNanos;
+        long now = System.nanoTime();
+        if (now - nextTick > tickNanos) {
+            overruns++;
+            nextTick = now;
+        }
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * @return the amount of ticks run so far.
+     */
+    public long getTicks() {
+        return ticks;
+    }
+
+    /**
+     * @return the amount of ticks that ran so late that the schedule had to restart.
+     */
+    public long getOverruns() {
+        return overruns;
+    }
+}
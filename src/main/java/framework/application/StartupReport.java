@@ -0,0 +1,32 @@
+package framework.application;
+
+/**
+ * Time-to-first-frame of a {@link GraphicApplication}, split into the layers of a cold start, together with the
+ * startup optimizations which were active, so runs with and without them can be compared.
+ *
+ * @param jvmMillis time from the start of the JVM until the application started, including class loading of
+ *                  {@code main}.
+ * @param platformMillis time to initialize GLFW, the {@link Window}, the OpenGL context and the handlers.
+ * @param startMillis time spent in {@code onStart}, e.g. loading assets and compiling shaders.
+ * @param firstFrameMillis time of the first update and render.
+ * @param injectionMillis time spent creating instances in the {@code Injector}, part of the other layers.
+ * @param cdsArchive the AppCDS archive the JVM was started with, or an empty String if none.
+ * @param injectionPlan whether the {@code Injector} used a pre-resolved {@code InjectionPlan}.
+ */
+public record StartupReport(double jvmMillis, double platformMillis, double startMillis, double firstFrameMillis,
+                            double injectionMillis, String cdsArchive, boolean injectionPlan) {
+
+    /**
+     * @return the time from the start of the JVM until the end of the first frame in milliseconds.
+     */
+    public double timeToFirstFrameMillis() {
+        return jvmMillis + platformMillis + startMillis + firstFrameMillis;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StartupReport(first frame=%.1f ms: jvm=%.1f, platform=%.1f, start=%.1f, frame=%.1f, " +
+                        "injection=%.1f, cds=%s, plan=%b)", timeToFirstFrameMillis(), jvmMillis, platformMillis,
+                startMillis, firstFrameMillis, injectionMillis, cdsArchive.isEmpty() ? "none" : cdsArchive, injectionPlan);
+    }
+}
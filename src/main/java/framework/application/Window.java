@@ -14,27 +14,50 @@ public class Window {
     @Inject
     private GraphicApplication application;
 
+    private final WindowSettings settings;
     private final long window;
 
-    public Window() {
-        this.window = glfwCreateWindow(1920, 1080, "GraphicApplication", NULL, NULL);
+    @Inject
+    public Window(WindowSettings settings) {
+        this.settings = settings;
+        glfwDefaultWindowHints();
+        if (settings.headless()) {
+            glfwWindowHint(GLFW_VISIBLE, GLFW_FALSE);
+            if (glfwGetPlatform() == GLFW_PLATFORM_NULL)
+                glfwWindowHint(GLFW_CONTEXT_CREATION_API, GLFW_OSMESA_CONTEXT_API);
+        }
+        this.window = glfwCreateWindow(settings.width(), settings.height(), settings.title(), NULL, NULL);
         if (window == NULL) throw new RuntimeException("Failed to create the Window.");
     }
 
     @PostConstruct
     private void init() {
         glfwSetKeyCallback(window, (window, key, _, action, _) -> {
+            application.requestRender();
             if (key == GLFW_KEY_Q && action == GLFW_RELEASE) {
                 glfwSetWindowShouldClose(window, true);
                 application.quit();
             }
         });
+        // Any input or window change makes the next frame dirty for on-demand rendering.
+        glfwSetCharCallback(window, (_, _) -> application.requestRender());
+        glfwSetCursorPosCallback(window, (_, _, _) -> application.requestRender());
+        glfwSetMouseButtonCallback(window, (_, _, _, _) -> application.requestRender());
+        glfwSetScrollCallback(window, (_, _, _) -> application.requestRender());
+        glfwSetFramebufferSizeCallback(window, (_, _, _) -> application.requestRender());
+        glfwSetWindowRefreshCallback(window, _ -> application.requestRender());
+        glfwSetWindowFocusCallback(window, (_, _) -> application.requestRender());
 
         glfwMakeContextCurrent(window);
+        if (settings.headless()) return;
         glfwSwapInterval(1);
         glfwShowWindow(window);
     }
 
+    public WindowSettings getSettings() {
+        return settings;
+    }
+
     void render() {
         glfwSwapBuffers(window);
     }
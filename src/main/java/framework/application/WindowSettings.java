@@ -0,0 +1,33 @@
+package framework.application;
+
+/**
+ * Immutable settings used to create the {@link Window} of a {@link GraphicApplication}.
+ *
+ * @param width width of the Window and its framebuffer in pixels, must be positive.
+ * @param height height of the Window and its framebuffer in pixels, must be positive.
+ * @param title title of the Window, cannot be null.
+ * @param headless whether the Window is invisible and rendered into an offscreen framebuffer.
+ */
+public record WindowSettings(int width, int height, String title, boolean headless) {
+
+    /**
+     * Default settings: a visible 1920x1080 Window.
+     */
+    public static final WindowSettings DEFAULT = new WindowSettings(1920, 1080, "GraphicApplication", false);
+
+    /**
+     * @throws IllegalArgumentException if the provided size is not positive or the title is {@code null}.
+     */
+    public WindowSettings {
+        if (width <= 0 || height <= 0)
+            throw new IllegalArgumentException("Window size must be positive: " + width + "x" + height);
+        if (title == null) throw new IllegalArgumentException("Window title cannot be null");
+    }
+
+    /**
+     * @return a copy of these settings with headless rendering enabled.
+     */
+    public WindowSettings asHeadless() {
+        return new WindowSettings(width, height, title, true);
+    }
+}
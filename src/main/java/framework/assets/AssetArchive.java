@@ -0,0 +1,195 @@
+package framework.assets;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of a packed asset archive written by the {@link AssetPacker}.
+ * <p>
+ * The archive is memory-mapped as a whole and assets are returned as slices of the mapping, so serving an
+ * asset neither copies nor decodes it. Layout (little-endian):
+ * <pre>
+ * header   magic "JPAK", version, entry count, string table size        (4 ints)
+ * index    name offset, name length, type, width, height, mip levels,
+ *          data offset, data length                                      (6 ints, 2 longs per entry)
+ * strings  UTF-8 names, the index is sorted by their unsigned bytes
+ * data     asset data, every block aligned to {@link #ALIGNMENT} bytes
+ * </pre>
+ */
+public final class AssetArchive implements AutoCloseable {
+
+    public static final int MAGIC = 0x4B41504A; // "JPAK" in little-endian
+    public static final int VERSION = 1;
+    public static final int ALIGNMENT = 16;
+    static final int HEADER_SIZE = 16;
+    static final int ENTRY_SIZE = 40;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer mapping;
+    private final int entryCount;
+    private final int stringsOffset;
+
+    private AssetArchive(FileChannel channel, MappedByteBuffer mapping) throws IOException {
+        this.channel = channel;
+        this.mapping = mapping;
+        mapping.order(ByteOrder.LITTLE_ENDIAN);
+        if (mapping.capacity() < HEADER_SIZE || mapping.getInt(0) != MAGIC) throw new IOException("Not an asset archive");
+        if (mapping.getInt(4) != VERSION) throw new IOException("Unsupported asset archive version: " + mapping.getInt(4));
+        int count = mapping.getInt(8);
+        long strings = HEADER_SIZE + (long) count * ENTRY_SIZE;
+        if (count < 0 || strings + Integer.toUnsignedLong(mapping.getInt(12)) > mapping.capacity())
+            throw new IOException("Corrupt asset archive: index exceeds the file");
+        this.entryCount = count;
+        this.stringsOffset = (int) strings;
+        for (int i = 0; i < entryCount; i++) checkEntry(i, mapping.getInt(12));
+    }
+
+    /**
+     * Checks that an entry only refers to the string table and file it lies in, so the getters never read out
+     * of bounds of the mapping.
+     *
+     * @throws IOException if the entry is corrupt.
+     */
+    private void checkEntry(int index, int stringsSize) throws IOException {
+        int entry = entry(index);
+        int nameOffset = mapping.getInt(entry), nameLength = mapping.getInt(entry + 4), type = mapping.getInt(entry + 8);
+        long offset = mapping.getLong(entry + 24), length = mapping.getLong(entry + 32);
+        if (nameOffset < 0 || nameLength < 0 || (long) nameOffset + nameLength > Integer.toUnsignedLong(stringsSize)
+                || type < 0 || type >= AssetType.values().length
+                || offset < 0 || length < 0 || offset > mapping.capacity() - length)
+            throw new IOException("Corrupt asset archive: entry " + index + " exceeds the file");
+        if (type != AssetType.TEXTURE.ordinal()) return;
+        long width = getWidth(index), height = getHeight(index), required = 0;
+        int levels = getMipLevels(index);
+        if (width <= 0 || height <= 0 || levels <= 0 || levels > 32)
+            throw new IOException("Corrupt asset archive: invalid texture entry " + index);
+        for (int level = 0; level < levels; level++) {
+            required += width * height * 4;
+            width = Math.max(1, width / 2);
+            height = Math.max(1, height / 2);
+        }
+        if (required > length) throw new IOException("Corrupt asset archive: mip levels of entry " + index + " exceed its data");
+    }
+
+    /**
+     * Opens and memory-maps an asset archive.
+     *
+     * @param path the path of the archive.
+     * @return the opened archive, which must be closed to release the file.
+     * @throws IOException if the file could not be mapped or is not a valid archive, including corrupt or
+     *                     truncated ones.
+     */
+    public static AssetArchive open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Asset archive exceeds 2 GB: " + path);
+            return new AssetArchive(channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Looks up an asset using a binary search over the sorted index.
+     *
+     * @param name the name of the asset relative to the packed directory, using {@code /} separators.
+     * @return the index of the asset, or {@code -1} if the archive does not contain it.
+     */
+    public int find(String name) {
+        byte[] key = name.getBytes(StandardCharsets.UTF_8);
+        int low = 0, high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareName(mid, key);
+            if (cmp < 0) low = mid + 1;
+            else if (cmp > 0) high = mid - 1;
+            else return mid;
+        }
+        return -1;
+    }
+
+    private int compareName(int index, byte[] key) {
+        int offset = stringsOffset + mapping.getInt(entry(index));
+        int length = mapping.getInt(entry(index) + 4);
+        int common = Math.min(length, key.length);
+        for (int i = 0; i < common; i++) {
+            int cmp = Integer.compare(mapping.get(offset + i) & 0xFF, key[i] & 0xFF);
+            if (cmp != 0) return cmp;
+        }
+        return Integer.compare(length, key.length);
+    }
+
+    private static int entry(int index) {
+        return HEADER_SIZE + index * ENTRY_SIZE;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public int size() {
+        return entryCount;
+    }
+
+    public String getName(int index) {
+        byte[] name = new byte[mapping.getInt(entry(index) + 4)];
+        mapping.get(stringsOffset + mapping.getInt(entry(index)), name);
+        return new String(name, StandardCharsets.UTF_8);
+    }
+
+    public AssetType getType(int index) {
+        return AssetType.values()[mapping.getInt(entry(index) + 8)];
+    }
+
+    public int getWidth(int index) {
+        return mapping.getInt(entry(index) + 12);
+    }
+
+    public int getHeight(int index) {
+        return mapping.getInt(entry(index) + 16);
+    }
+
+    public int getMipLevels(int index) {
+        return mapping.getInt(entry(index) + 20);
+    }
+
+    /**
+     * Getter for the data of an asset, without copying it out of the mapping.
+     *
+     * @param index the index of the asset.
+     * @return a read-only little-endian slice of the mapping containing the asset data.
+     */
+    public ByteBuffer getData(int index) {
+        long offset = mapping.getLong(entry(index) + 24);
+        long length = mapping.getLong(entry(index) + 32);
+        return mapping.slice((int) offset, (int) length).order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Getter for a single mip level of a texture asset, without copying it out of the mapping.
+     *
+     * @param index the index of a {@link AssetType#TEXTURE} asset.
+     * @param level the mip level, where 0 is the full resolution image.
+     * @return a slice of the mapping containing the RGBA8 pixels of the level.
+     */
+    public ByteBuffer getMipLevel(int index, int level) {
+        long offset = mapping.getLong(entry(index) + 24);
+        int width = getWidth(index), height = getHeight(index);
+        for (int l = 0; l < level; l++) {
+            offset += (long) width * height * 4;
+            width = Math.max(1, width / 2);
+            height = Math.max(1, height / 2);
+        }
+        return mapping.slice((int) offset, width * height * 4);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
@@ -0,0 +1,148 @@
+package framework.assets;
+
+import framework.application.IHandler;
+import framework.injection.annotations.PostConstruct;
+import framework.injection.annotations.Singleton;
+import org.lwjgl.BufferUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Serves assets from the packed {@link AssetArchive} when one is present, and falls back to loose files
+ * below the resource directory otherwise, which is the normal situation during development.
+ * <p>
+ * The archive is looked up at the {@code jengine.assets} system property if set, else as the {@link #ARCHIVE_RESOURCE}
+ * on the classpath, where the {@code pack-assets} build profile writes it, and else at {@link #DEFAULT_ARCHIVE}
+ * next to the loose files. An archive packaged into a jar cannot be memory-mapped and is ignored, distributions
+ * ship it next to the loose files instead.
+ */
+@Singleton
+public class AssetHandler implements IHandler {
+
+    public static final String RESOURCE_ROOT = "resources";
+    public static final String ARCHIVE_RESOURCE = "/assets.pak";
+    public static final String DEFAULT_ARCHIVE = RESOURCE_ROOT + ARCHIVE_RESOURCE;
+
+    private AssetArchive archive;
+
+    @PostConstruct
+    private void init() {
+        Path path = locateArchive();
+        if (!Files.isRegularFile(path)) return;
+        try {
+            archive = AssetArchive.open(path);
+        } catch (IOException e) {
+            System.err.println("Unable to open asset archive " + path + ", using loose files");
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Getter for the path the archive is looked up at, in the order described in {@link AssetHandler}.
+     *
+     * @return the path of the archive, which does not have to exist.
+     */
+    public static Path locateArchive() {
+        String property = System.getProperty("jengine.assets");
+        if (property != null) return Path.of(property);
+        URL resource = AssetHandler.class.getResource(ARCHIVE_RESOURCE);
+        if (resource != null && "file".equals(resource.getProtocol())) {
+            try {
+                return Path.of(resource.toURI());
+            } catch (URISyntaxException ignored) {
+                // Not a valid file URI, use the default location.
+            }
+        }
+        return Path.of(DEFAULT_ARCHIVE);
+    }
+
+    /**
+     * Converts a loose file path into the name of the asset within the archive.
+     *
+     * @param path a path like {@code ./resources/shaders/shader.vert}.
+     * @return the archive name like {@code shaders/shader.vert}, or {@code null} if the path is outside the
+     * resource directory.
+     */
+    public static String toAssetName(String path) {
+        Path normalized = Path.of(path).normalize();
+        Path root = Path.of(RESOURCE_ROOT);
+        if (!normalized.startsWith(root)) return null;
+        return root.relativize(normalized).toString().replace('\\', '/');
+    }
+
+    /**
+     * Finds a packed asset of a given type.
+     *
+     * @param path the loose file path of the asset.
+     * @param type the expected {@link AssetType}.
+     * @return the index of the asset in {@link #getArchive()}, or {@code -1} if it is not packed.
+     */
+    public int find(String path, AssetType type) {
+        if (archive == null) return -1;
+        String name = toAssetName(path);
+        if (name == null) return -1;
+        int index = archive.find(name);
+        return index >= 0 && archive.getType(index) == type ? index : -1;
+    }
+
+    /**
+     * Loads the contents of an asset, served zero-copy from the archive or read from the loose file.
+     *
+     * @param path the loose file path of the asset.
+     * @return a direct buffer with the asset contents.
+     * @throws UncheckedIOException if the asset is not packed and the loose file could not be read.
+     */
+    public ByteBuffer load(String path) {
+        if (archive != null) {
+            String name = toAssetName(path);
+            int index = name == null ? -1 : archive.find(name);
+            if (index >= 0) return archive.getData(index);
+        }
+        return readLoose(path);
+    }
+
+    /**
+     * Reads a loose file into a direct buffer with a single bulk read.
+     *
+     * @param path the path of the file.
+     * @return a direct buffer with the file contents.
+     * @throws UncheckedIOException if the file could not be read.
+     */
+    public static ByteBuffer readLoose(String path) {
+        try (FileChannel channel = FileChannel.open(Path.of(path), StandardOpenOption.READ)) {
+            ByteBuffer buffer = BufferUtils.createByteBuffer((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) break;
+            }
+            return buffer.flip();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read file with path " + path, e);
+        }
+    }
+
+    public AssetArchive getArchive() {
+        return archive;
+    }
+
+    public boolean hasArchive() {
+        return archive != null;
+    }
+
+    public void destroy() {
+        if (archive == null) return;
+        try {
+            archive.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        archive = null;
+    }
+}
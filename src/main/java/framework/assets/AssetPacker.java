@@ -0,0 +1,174 @@
+package framework.assets;
+
+import framework.graphics.mesh.MeshFormat;
+import framework.graphics.mesh.MeshOptimizer;
+import framework.graphics.mesh.ObjLoader;
+import org.lwjgl.stb.STBImage;
+import org.lwjgl.system.MemoryStack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Build-time tool packing a directory of loose assets into a single {@link AssetArchive}.
+ * <p>
+ * Images are decoded once to RGBA8 and stored with a full box-filtered mip chain, Wavefront OBJ files are
+ * optimized with the {@link MeshOptimizer} and converted to the binary {@link MeshFormat}, shader sources and
+ * meshes are stored as-is. Usage: {@code AssetPacker <source directory> <archive>}.
+ */
+public final class AssetPacker {
+
+    private record Asset(byte[] name, AssetType type, int width, int height, int levels, ByteBuffer data) {}
+
+    private AssetPacker() {}
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Usage: AssetPacker <source directory> <archive>");
+            System.exit(-1);
+        }
+        int count = pack(Path.of(args[0]), Path.of(args[1]));
+        System.out.println("Packed " + count + " assets into " + args[1]);
+    }
+
+    /**
+     * Packs every file below a directory into an archive, skipping the archive itself.
+     *
+     * @param source the directory to pack.
+     * @param archive the path of the archive to write.
+     * @return the amount of packed assets.
+     * @throws IOException if a file could not be read or decoded, or the archive could not be written.
+     */
+    public static int pack(Path source, Path archive) throws IOException {
+        List<Asset> assets = new ArrayList<>();
+        try (Stream<Path> files = Files.walk(source)) {
+            for (Path file : files.filter(Files::isRegularFile).toList()) {
+                if (file.toAbsolutePath().normalize().equals(archive.toAbsolutePath().normalize())) continue;
+                String name = source.relativize(file).toString().replace('\\', '/');
+                assets.add(load(name.getBytes(StandardCharsets.UTF_8), file));
+            }
+        }
+        assets.sort((a, b) -> Arrays.compareUnsigned(a.name(), b.name()));
+        write(assets, archive);
+        return assets.size();
+    }
+
+    private static Asset load(byte[] name, Path file) throws IOException {
+        String fileName = file.getFileName().toString().toLowerCase();
+        if (fileName.endsWith(".png") || fileName.endsWith(".jpg") || fileName.endsWith(".tga"))
+            return loadTexture(name, file);
+        if (fileName.endsWith(".obj")) {
+            MeshOptimizer.Result result = MeshOptimizer.optimize(ObjLoader.load(file));
+            System.out.println(file + ": " + result);
+            return new Asset(name, AssetType.MESH, 0, 0, 0, MeshFormat.encode(result.mesh()));
+        }
+        AssetType type = fileName.endsWith(".vert") || fileName.endsWith(".frag") || fileName.endsWith(".glsl")
+                ? AssetType.SHADER
+                : fileName.endsWith(".mesh") ? AssetType.MESH : AssetType.RAW;
+        return new Asset(name, type, 0, 0, 0, ByteBuffer.wrap(Files.readAllBytes(file)));
+    }
+
+    private static Asset loadTexture(byte[] name, Path file) throws IOException {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer w = stack.mallocInt(1);
+            IntBuffer h = stack.mallocInt(1);
+            IntBuffer channels = stack.mallocInt(1);
+            ByteBuffer pixels = STBImage.stbi_load(file.toAbsolutePath().toString(), w, h, channels, 4);
+            if (pixels == null)
+                throw new IOException("Unable to load file " + file + " " + STBImage.stbi_failure_reason());
+            try {
+                int width = w.get(0), height = h.get(0);
+                ByteBuffer mips = ByteBuffer.allocate(mipChainSize(width, height));
+                // Absolute put, stbi_image_free takes the address at the position of the buffer.
+                mips.put(0, pixels, 0, pixels.remaining());
+                int levels = 1;
+                for (int lw = width, lh = height, offset = 0; lw > 1 || lh > 1; levels++) {
+                    int nw = Math.max(1, lw / 2), nh = Math.max(1, lh / 2);
+                    downsample(mips, offset, lw, lh, offset + lw * lh * 4, nw, nh);
+                    offset += lw * lh * 4;
+                    lw = nw;
+                    lh = nh;
+                }
+                return new Asset(name, AssetType.TEXTURE, width, height, levels, mips.clear());
+            } finally {
+                STBImage.stbi_image_free(pixels);
+            }
+        }
+    }
+
+    private static int mipChainSize(int width, int height) {
+        int size = width * height * 4;
+        while (width > 1 || height > 1) {
+            width = Math.max(1, width / 2);
+            height = Math.max(1, height / 2);
+            size += width * height * 4;
+        }
+        return size;
+    }
+
+    /**
+     * Box-filters a level into the next, smaller level.
+     */
+    private static void downsample(ByteBuffer mips, int src, int sw, int sh, int dst, int dw, int dh) {
+        for (int y = 0; y < dh; y++) {
+            int y0 = Math.min(y * 2, sh - 1), y1 = Math.min(y * 2 + 1, sh - 1);
+            for (int x = 0; x < dw; x++) {
+                int x0 = Math.min(x * 2, sw - 1), x1 = Math.min(x * 2 + 1, sw - 1);
+                for (int c = 0; c < 4; c++) {
+                    int sum = (mips.get(src + (y0 * sw + x0) * 4 + c) & 0xFF)
+                            + (mips.get(src + (y0 * sw + x1) * 4 + c) & 0xFF)
+                            + (mips.get(src + (y1 * sw + x0) * 4 + c) & 0xFF)
+                            + (mips.get(src + (y1 * sw + x1) * 4 + c) & 0xFF);
+                    mips.put(dst + (y * dw + x) * 4 + c, (byte) ((sum + 2) / 4));
+                }
+            }
+        }
+    }
+
+    private static void write(List<Asset> assets, Path archive) throws IOException {
+        int stringsSize = 0;
+        for (Asset asset : assets) stringsSize += asset.name().length;
+        long dataOffset = align(AssetArchive.HEADER_SIZE + (long) assets.size() * AssetArchive.ENTRY_SIZE + stringsSize);
+
+        ByteBuffer head = ByteBuffer.allocate((int) dataOffset).order(ByteOrder.LITTLE_ENDIAN);
+        head.putInt(AssetArchive.MAGIC).putInt(AssetArchive.VERSION).putInt(assets.size()).putInt(stringsSize);
+        int nameOffset = 0;
+        long offset = dataOffset;
+        for (Asset asset : assets) {
+            head.putInt(nameOffset).putInt(asset.name().length).putInt(asset.type().ordinal())
+                    .putInt(asset.width()).putInt(asset.height()).putInt(asset.levels())
+                    .putLong(offset).putLong(asset.data().remaining());
+            nameOffset += asset.name().length;
+            offset = align(offset + asset.data().remaining());
+        }
+        for (Asset asset : assets) head.put(asset.name());
+        head.clear();
+
+        try (FileChannel channel = FileChannel.open(archive, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (head.hasRemaining()) channel.write(head);
+            offset = dataOffset;
+            for (Asset asset : assets) {
+                ByteBuffer data = asset.data();
+                long position = offset;
+                while (data.hasRemaining()) position += channel.write(data, position);
+                offset = align(position);
+            }
+        }
+    }
+
+    private static long align(long offset) {
+        return (offset + AssetArchive.ALIGNMENT - 1) & -AssetArchive.ALIGNMENT;
+    }
+}
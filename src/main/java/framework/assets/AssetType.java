@@ -0,0 +1,23 @@
+package framework.assets;
+
+/**
+ * Type of an asset stored in an {@link AssetArchive}, stored in the archive by ordinal.
+ */
+public enum AssetType {
+    /**
+     * Raw file contents.
+     */
+    RAW,
+    /**
+     * GLSL source code.
+     */
+    SHADER,
+    /**
+     * Pre-decoded RGBA8 pixels with a full mip chain, largest level first.
+     */
+    TEXTURE,
+    /**
+     * Mesh data in the engine's binary mesh format.
+     */
+    MESH
+}
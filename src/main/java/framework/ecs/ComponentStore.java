@@ -0,0 +1,115 @@
+package framework.ecs;
+
+import java.util.Arrays;
+
+/**
+ * Sparse-set storage of a single component type, with the component data kept in dense struct-of-arrays
+ * columns defined by subclasses.
+ * <p>
+ * The dense index of an entity is stable until another entity is removed from the store: removal moves the
+ * last element into the gap, so the columns always stay contiguous. Subclasses declare one primitive array
+ * per component field and implement {@link #growColumns(int)} and {@link #moveColumns(int, int)}.
+ */
+public abstract class ComponentStore {
+
+    private static final int ABSENT = -1;
+
+    private int[] sparse = new int[0];
+    private int[] dense = new int[0];
+    private int size;
+
+    /**
+     * Adds the component to an entity, or returns the existing dense index if the entity already has it.
+     * The column values of a new component are left at their defaults or previous contents.
+     *
+     * @param entity a live entity.
+     * @return the dense index of the component of the entity.
+     */
+    public final int add(int entity) {
+        int existing = indexOf(entity);
+        if (existing != ABSENT) return existing;
+
+        int index = World.index(entity);
+        if (index >= sparse.length) {
+            int old = sparse.length;
+            sparse = Arrays.copyOf(sparse, Math.max(index + 1, old * 2));
+            Arrays.fill(sparse, old, sparse.length, ABSENT);
+        }
+        if (size == dense.length) {
+            int capacity = Math.max(16, size * 2);
+            dense = Arrays.copyOf(dense, capacity);
+            growColumns(capacity);
+        }
+        dense[size] = entity;
+        sparse[index] = size;
+        return size++;
+    }
+
+    /**
+     * Removes the component from an entity, moving the last component into its place.
+     *
+     * @param entity the entity to remove the component from.
+     * @return {@code true} if the entity had the component.
+     */
+    public final boolean remove(int entity) {
+        int removed = indexOf(entity);
+        if (removed == ABSENT) return false;
+        int last = --size;
+        if (removed != last) {
+            int moved = dense[last];
+            dense[removed] = moved;
+            sparse[World.index(moved)] = removed;
+            moveColumns(last, removed);
+        }
+        sparse[World.index(entity)] = ABSENT;
+        return true;
+    }
+
+    /**
+     * Getter for the dense index of the component of an entity.
+     *
+     * @param entity the entity, including its generation.
+     * @return the dense index, or {@code -1} if the entity does not have the component.
+     */
+    public final int indexOf(int entity) {
+        int index = World.index(entity);
+        if (index >= sparse.length) return ABSENT;
+        int position = sparse[index];
+        return position != ABSENT && dense[position] == entity ? position : ABSENT;
+    }
+
+    public final boolean has(int entity) {
+        return indexOf(entity) != ABSENT;
+    }
+
+    /**
+     * @return the amount of entities with this component, the valid dense indices are {@code [0, size)}.
+     */
+    public final int size() {
+        return size;
+    }
+
+    public final int entityAt(int index) {
+        return dense[index];
+    }
+
+    public final void clear() {
+        for (int i = 0; i < size; i++) sparse[World.index(dense[i])] = ABSENT;
+        size = 0;
+    }
+
+    /**
+     * Grows every column to a new capacity, keeping the existing values.
+     *
+     * @param capacity the new capacity of the columns.
+     */
+    protected abstract void growColumns(int capacity);
+
+    /**
+     * Copies the values of every column from one dense index to another.
+     *
+     * @param from the dense index to copy from.
+     * @param to the dense index to copy to.
+     */
+    protected abstract void moveColumns(int from, int to);
+}
@@ -0,0 +1,15 @@
+package framework.ecs;
+
+/**
+ * Action performed for every entity matched by a {@link Query}.
+ */
+@FunctionalInterface
+public interface EntityConsumer {
+
+    /**
+     * @param entity the matched entity.
+     * @param indices the dense index of the entity in every store of the query, in the order the stores were
+     *                given. The array is reused between calls and must not be kept.
+     */
+    void accept(int entity, int[] indices);
+}
@@ -0,0 +1,131 @@
+package framework.ecs;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Iterates all entities present in every one of a set of {@link ComponentStore}s.
+ * <p>
+ * Iteration walks the dense array of the smallest store in order, so at least that store's columns are
+ * read sequentially; the other stores are resolved through their sparse arrays. Components must not be
+ * added or removed while a query is running.
+ */
+public class Query {
+
+    private static final int MIN_PARALLEL_CHUNK = 1024;
+
+    private final ComponentStore[] stores;
+    private final int[] indices;
+
+    Query(ComponentStore... stores) {
+        if (stores.length == 0) throw new IllegalArgumentException("Query requires at least one ComponentStore");
+        for (ComponentStore store : stores)
+            if (store == null) throw new IllegalArgumentException("ComponentStore cannot be null");
+        this.stores = stores.clone();
+        this.indices = new int[stores.length];
+    }
+
+    private ComponentStore driver() {
+        ComponentStore driver = stores[0];
+        for (ComponentStore store : stores)
+            if (store.size() < driver.size()) driver = store;
+        return driver;
+    }
+
+    /**
+     * Performs an action for every matched entity on the calling thread, without allocating.
+     *
+     * @param action the action to perform.
+     */
+    public void forEach(EntityConsumer action) {
+        ComponentStore driver = driver();
+        run(driver, 0, driver.size(), action, indices);
+    }
+
+    /**
+     * Performs an action for every matched entity, splitting the entities over the common fork-join pool.
+     * The action is called concurrently and may only write to the components of the entity it is given.
+     *
+     * @param action the action to perform.
+     */
+    public void parallelForEach(EntityConsumer action) {
+        parallelForEach(action, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Performs an action for every matched entity, splitting the entities over a fork-join pool.
+     *
+     * @param action the action to perform.
+     * @param pool the pool to run on.
+     */
+    public void parallelForEach(EntityConsumer action, ForkJoinPool pool) {
+        ComponentStore driver = driver();
+        int size = driver.size();
+        int chunk = Math.max(MIN_PARALLEL_CHUNK, size / (pool.getParallelism() * 4));
+        if (size <= chunk) run(driver, 0, size, action, indices);
+        else pool.invoke(new RangeTask(driver, 0, size, chunk, action));
+    }
+
+    /**
+     * Counts the matched entities without allocating.
+     *
+     * @return the amount of matched entities.
+     */
+    public int count() {
+        ComponentStore driver = driver();
+        if (stores.length == 1) return driver.size();
+        int count = 0;
+        outer:
+        for (int i = 0; i < driver.size(); i++) {
+            int entity = driver.entityAt(i);
+            for (ComponentStore store : stores)
+                if (store != driver && store.indexOf(entity) < 0) continue outer;
+            count++;
+        }
+        return count;
+    }
+
+    private void run(ComponentStore driver, int from, int to, EntityConsumer action, int[] indices) {
+        if (stores.length == 1) {
+            for (int i = from; i < to; i++) {
+                indices[0] = i;
+                action.accept(driver.entityAt(i), indices);
+            }
+            return;
+        }
+        outer:
+        for (int i = from; i < to; i++) {
+            int entity = driver.entityAt(i);
+            for (int s = 0; s < stores.length; s++) {
+                int index = stores[s] == driver ? i : stores[s].indexOf(entity);
+                if (index < 0) continue outer;
+                indices[s] = index;
+            }
+            action.accept(entity, indices);
+        }
+    }
+
+    private final class RangeTask extends RecursiveAction {
+        private final ComponentStore driver;
+        private final int from, to, chunk;
+        private final EntityConsumer action;
+
+        RangeTask(ComponentStore driver, int from, int to, int chunk, EntityConsumer action) {
+            this.driver = driver;
+            this.from = from;
+            this.to = to;
+            this.chunk = chunk;
+            this.action = action;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= chunk) {
+                run(driver, from, to, action, new int[stores.length]);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(driver, from, mid, chunk, action), new RangeTask(driver, mid, to, chunk, action));
+        }
+    }
+}
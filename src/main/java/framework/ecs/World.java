@@ -0,0 +1,111 @@
+package framework.ecs;
+
+import framework.util.IntList;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Creates and destroys entities and keeps track of the {@link ComponentStore}s that hold their data.
+ * <p>
+ * An entity is a plain {@code int}: the lower {@value #INDEX_BITS} bits are a recycled index and the upper bits
+ * a generation counter, so stale ids of destroyed entities are never mistaken for the entity that reused
+ * their index.
+ */
+public class World {
+
+    public static final int INDEX_BITS = 24;
+    public static final int MAX_ENTITIES = 1 << INDEX_BITS;
+    private static final int INDEX_MASK = MAX_ENTITIES - 1;
+    private static final int GENERATION_MASK = (1 << (Integer.SIZE - INDEX_BITS)) - 1;
+
+    private final List<ComponentStore> stores = new ArrayList<>();
+    private final IntList freeIndices = new IntList();
+    private int[] generations = new int[64];
+    private boolean[] alive = new boolean[64];
+    private int nextIndex;
+    private int aliveCount;
+
+    public static int index(int entity) {
+        return entity & INDEX_MASK;
+    }
+
+    public static int generation(int entity) {
+        return entity >>> INDEX_BITS;
+    }
+
+    /**
+     * Registers a {@link ComponentStore}, so destroyed entities are removed from it.
+     *
+     * @param store the store to register, cannot be null.
+     * @return the registered store.
+     * @param <T> the type of the store.
+     * @throws IllegalArgumentException if provided store is {@code null}.
+     */
+    public <T extends ComponentStore> T register(T store) {
+        if (store == null) throw new IllegalArgumentException("ComponentStore cannot be null");
+        stores.add(store);
+        return store;
+    }
+
+    /**
+     * Creates a new entity, reusing the index of a destroyed entity if possible.
+     *
+     * @return the id of the new entity.
+     * @throws IllegalStateException if {@link #MAX_ENTITIES} entities are alive.
+     */
+    public int create() {
+        int index;
+        if (!freeIndices.isEmpty()) {
+            index = freeIndices.removeLast();
+        } else {
+            if (nextIndex == MAX_ENTITIES) throw new IllegalStateException("Too many entities");
+            index = nextIndex++;
+            if (index == alive.length) {
+                generations = Arrays.copyOf(generations, index * 2);
+                alive = Arrays.copyOf(alive, index * 2);
+            }
+        }
+        alive[index] = true;
+        aliveCount++;
+        return (generations[index] << INDEX_BITS) | index;
+    }
+
+    /**
+     * Destroys an entity and removes all of its components from the registered stores.
+     *
+     * @param entity the entity to destroy.
+     * @return {@code true} if the entity was alive.
+     */
+    public boolean destroy(int entity) {
+        if (!isAlive(entity)) return false;
+        for (int i = 0; i < stores.size(); i++) stores.get(i).remove(entity);
+        int index = index(entity);
+        alive[index] = false;
+        generations[index] = (generations[index] + 1) & GENERATION_MASK;
+        freeIndices.add(index);
+        aliveCount--;
+        return true;
+    }
+
+    public boolean isAlive(int entity) {
+        int index = index(entity);
+        return index < nextIndex && alive[index] && generations[index] == generation(entity);
+    }
+
+    public int size() {
+        return aliveCount;
+    }
+
+    /**
+     * Creates a {@link Query} over all entities having every given component. Queries are cheap to keep and
+     * should be created once and reused.
+     *
+     * @param stores the stores every matched entity must be present in.
+     * @return the query.
+     */
+    public Query query(ComponentStore... stores) {
+        return new Query(stores);
+    }
+}
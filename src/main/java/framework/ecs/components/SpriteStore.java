@@ -0,0 +1,50 @@
+package framework.ecs.components;
+
+import framework.ecs.ComponentStore;
+
+import java.util.Arrays;
+
+/**
+ * Sprite component: mesh vao, texture, draw layer and size, one column per field.
+ */
+public class SpriteStore extends ComponentStore {
+
+    public int[] vao = new int[0];
+    public int[] texture = new int[0];
+    public int[] layer = new int[0];
+    public float[] width = new float[0];
+    public float[] height = new float[0];
+
+    /**
+     * Adds a sprite to an entity.
+     *
+     * @return the dense index of the sprite.
+     */
+    public int add(int entity, int vao, int texture, float width, float height) {
+        int i = add(entity);
+        this.vao[i] = vao;
+        this.texture[i] = texture;
+        this.layer[i] = 0;
+        this.width[i] = width;
+        this.height[i] = height;
+        return i;
+    }
+
+    @Override
+    protected void growColumns(int capacity) {
+        vao = Arrays.copyOf(vao, capacity);
+        texture = Arrays.copyOf(texture, capacity);
+        layer = Arrays.copyOf(layer, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+    }
+
+    @Override
+    protected void moveColumns(int from, int to) {
+        vao[to] = vao[from];
+        texture[to] = texture[from];
+        layer[to] = layer[from];
+        width[to] = width[from];
+        height[to] = height[from];
+    }
+}
@@ -0,0 +1,50 @@
+package framework.ecs.components;
+
+import framework.ecs.ComponentStore;
+
+import java.util.Arrays;
+
+/**
+ * 2D transform component: position, rotation in radians and scale, one column per field.
+ */
+public class TransformStore extends ComponentStore {
+
+    public float[] x = new float[0];
+    public float[] y = new float[0];
+    public float[] rotation = new float[0];
+    public float[] scaleX = new float[0];
+    public float[] scaleY = new float[0];
+
+    /**
+     * Adds a transform to an entity.
+     *
+     * @return the dense index of the transform.
+     */
+    public int add(int entity, float x, float y) {
+        int i = add(entity);
+        this.x[i] = x;
+        this.y[i] = y;
+        rotation[i] = 0;
+        scaleX[i] = 1;
+        scaleY[i] = 1;
+        return i;
+    }
+
+    @Override
+    protected void growColumns(int capacity) {
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+        scaleX = Arrays.copyOf(scaleX, capacity);
+        scaleY = Arrays.copyOf(scaleY, capacity);
+    }
+
+    @Override
+    protected void moveColumns(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        rotation[to] = rotation[from];
+        scaleX[to] = scaleX[from];
+        scaleY[to] = scaleY[from];
+    }
+}
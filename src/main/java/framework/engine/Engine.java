@@ -1,17 +1,25 @@
 package framework.engine;
 
 import framework.application.GraphicApplication;
+import framework.application.HeadlessReport;
 import framework.graphics.Mesh;
 import framework.graphics.MeshHandler;
+import framework.graphics.ResolutionController;
 import framework.graphics.ShaderTextured;
+import framework.graphics.Texture;
 import framework.graphics.TextureHandler;
+import framework.graphics.capture.FrameWriter;
 import org.lwjgl.opengl.GL11;
-import org.lwjgl.opengl.GL13;
 import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL30;
 
+import java.io.IOException;
+import java.nio.file.Path;
+
 public class Engine extends GraphicApplication {
 
+    private static final int TRAINING_FRAMES = 60;
+
     float[] vertices = {-0.5f,-0.5f,0f,
             0.5f, -0.5f, 0f,
             0f,0.5f,0f};
@@ -22,15 +30,25 @@ public class Engine extends GraphicApplication {
     };
     int[] indices = {0,1,2};
     Mesh mesh;
-    int texture;
+    Texture texture;
+    double targetFrameMillis;
+    Path recording;
 
     @Override
     protected void onStart() {
         System.out.println("Starting Application...");
         mesh = INJECTOR.get(MeshHandler.class).createMesh(vertices, texCoords, indices);
-        texture = INJECTOR.get(TextureHandler.class).loadTexture("./resources/texture2.png");
+        try {
+            texture = INJECTOR.get(TextureHandler.class).loadTexture("./resources/texture2.png");
+        } catch (IllegalArgumentException e) {
+            // Renders the mesh untextured instead of refusing to start.
+            System.err.println(e.getMessage());
+        }
 
-        new ShaderTextured().use();
+        INJECTOR.create(ShaderTextured.class).use();
+        if (targetFrameMillis > 0) setDynamicResolution(new ResolutionController.Builder(targetFrameMillis).build());
+        if (recording != null) startRecording(recording, recording.toString().endsWith(".rgba")
+                ? FrameWriter.Format.RAW : FrameWriter.Format.PNG);
     }
 
     @Override
@@ -41,6 +59,9 @@ public class Engine extends GraphicApplication {
     @Override
     protected void onExit() {
         System.out.println("Exiting Application...");
+        System.out.println(gpuProfiler);
+        System.out.println(getStartupReport());
+        if (recording != null) System.out.println(getFrameCapture());
     }
 
     @Override
@@ -48,15 +69,41 @@ public class Engine extends GraphicApplication {
         GL30.glBindVertexArray(mesh.getVaoID());
         GL20.glEnableVertexAttribArray(0);
         GL20.glEnableVertexAttribArray(1);
-        GL13.glActiveTexture(GL13.GL_TEXTURE0);
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
-        GL11.glDrawElements(GL11.GL_TRIANGLES, mesh.getVertexCount(), GL11.GL_UNSIGNED_INT,0);
+        if (texture != null) texture.bind(0);
+        GL11.glDrawElements(GL11.GL_TRIANGLES, mesh.getVertexCount(), mesh.getIndexType(), 0);
         GL20.glDisableVertexAttribArray(0);
         GL20.glDisableVertexAttribArray(1);
         GL30.glBindVertexArray(0);
     }
 
-    public static void main(String[] args) {
-        new Engine().run();
+    /**
+     * Runs the Engine, or with {@code --headless <frames> [golden.png]} renders a fixed amount of frames
+     * offscreen, prints the frame timings and writes the last frame to the given PNG. With
+     * {@code --train [injection.plan]} it does a headless training run, see {@link #runTraining(int, Path)}.
+     * {@code --dynamic-resolution <target ms>} scales the render resolution to meet the target frame time, and
+     * {@code --on-demand} only renders frames after input. {@code --record <directory|file.rgba>} writes every frame
+     * as PNG into the directory, or as raw RGBA frames into the file.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length >= 2 && args[0].equals("--headless")) {
+            Engine engine = new Engine();
+            HeadlessReport report = engine.runHeadless(Integer.parseInt(args[1]));
+            System.out.println(report);
+            System.out.println(engine.getStartupReport());
+            if (args.length >= 3) report.writePng(Path.of(args[2]));
+            return;
+        }
+        if (args.length >= 1 && args[0].equals("--train")) {
+            System.out.println(new Engine().runTraining(TRAINING_FRAMES, args.length >= 2 ? Path.of(args[1]) : null));
+            return;
+        }
+        Engine engine = new Engine();
+        if (args.length >= 2 && args[0].equals("--dynamic-resolution"))
+            engine.targetFrameMillis = Double.parseDouble(args[1]);
+        if (args.length >= 1 && args[0].equals("--on-demand"))
+            engine.setOnDemandRendering(true);
+        if (args.length >= 2 && args[0].equals("--record"))
+            engine.recording = Path.of(args[1]);
+        engine.run();
     }
 }
@@ -0,0 +1,112 @@
+package framework.graphics;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+
+/**
+ * Offscreen render target whose resolution follows a {@link ResolutionController}, upscaled to the output in a
+ * final blit.
+ * <p>
+ * The {@link Framebuffer} is allocated once at the maximum scale and scenes render into its lower left corner
+ * through the viewport, so scale changes never reallocate GPU memory.
+ */
+public class DynamicResolution {
+
+    private final int width;
+    private final int height;
+    private final ResolutionController controller;
+    private final Framebuffer framebuffer;
+    private int renderWidth;
+    private int renderHeight;
+
+    /**
+     * @param width width of the output in pixels, must be positive.
+     * @param height height of the output in pixels, must be positive.
+     * @param controller controller choosing the render scale, cannot be null.
+     * @throws IllegalArgumentException if the size is not positive or the controller is {@code null}.
+     */
+    public DynamicResolution(int width, int height, ResolutionController controller) {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("Output size must be positive: " + width + "x" + height);
+        if (controller == null) throw new IllegalArgumentException("ResolutionController cannot be null");
+        this.width = width;
+        this.height = height;
+        this.controller = controller;
+        this.framebuffer = new Framebuffer(scaled(width, controller.getScale()), scaled(height, controller.getScale()));
+        resize();
+    }
+
+    private static int scaled(int size, float scale) {
+        return Math.max(1, Math.round(size * scale));
+    }
+
+    private void resize() {
+        renderWidth = Math.min(framebuffer.getWidth(), scaled(width, controller.getScale()));
+        renderHeight = Math.min(framebuffer.getHeight(), scaled(height, controller.getScale()));
+    }
+
+    /**
+     * Binds the render target with a viewport of the current render size.
+     */
+    public void bind() {
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, framebuffer.getFboID());
+        GL11.glViewport(0, 0, renderWidth, renderHeight);
+    }
+
+    /**
+     * Upscales the rendered image with linear filtering into a framebuffer of the output size, and leaves that
+     * framebuffer bound with a full viewport.
+     *
+     * @param target the framebuffer to blit to, {@code 0} for the default framebuffer of the Window.
+     */
+    public void blitTo(int target) {
+        GL30.glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, framebuffer.getFboID());
+        GL30.glBindFramebuffer(GL30.GL_DRAW_FRAMEBUFFER, target);
+        GL30.glBlitFramebuffer(0, 0, renderWidth, renderHeight, 0, 0, width, height,
+                GL11.GL_COLOR_BUFFER_BIT, GL11.GL_LINEAR);
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, target);
+        GL11.glViewport(0, 0, width, height);
+    }
+
+    /**
+     * Passes the frame time of the last frame to the {@link ResolutionController}, resizing the render area
+     * when the scale changed.
+     *
+     * @param frameMillis the measured frame time in milliseconds.
+     * @return {@code true} if the render size changed.
+     */
+    public boolean update(double frameMillis) {
+        if (!controller.update(frameMillis)) return false;
+        resize();
+        return true;
+    }
+
+    public void destroy() {
+        framebuffer.destroy();
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public ResolutionController getController() {
+        return controller;
+    }
+
+    public float getScale() {
+        return controller.getScale();
+    }
+
+    public int getRenderWidth() {
+        return renderWidth;
+    }
+
+    public int getRenderHeight() {
+        return renderHeight;
+    }
+
+    /**
+     * @return the texture holding the rendered image, valid within {@link #getRenderWidth()} x
+     * {@link #getRenderHeight()}.
+     */
+    public int getTextureID() {
+        return framebuffer.getTextureID();
+    }
+}
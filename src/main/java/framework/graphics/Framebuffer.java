@@ -0,0 +1,88 @@
+package framework.graphics;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Offscreen render target with an RGBA8 color texture and a depth-stencil renderbuffer.
+ */
+public class Framebuffer {
+
+    private final int fbo;
+    private final int colorTexture;
+    private final int depthBuffer;
+    private final int width;
+    private final int height;
+
+    public Framebuffer(int width, int height) {
+        this.width = width;
+        this.height = height;
+
+        fbo = GL30.glGenFramebuffers();
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, fbo);
+
+        colorTexture = GL11.glGenTextures();
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, colorTexture);
+        GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA8, width, height, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        GL30.glFramebufferTexture2D(GL30.GL_FRAMEBUFFER, GL30.GL_COLOR_ATTACHMENT0, GL11.GL_TEXTURE_2D, colorTexture, 0);
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+
+        depthBuffer = GL30.glGenRenderbuffers();
+        GL30.glBindRenderbuffer(GL30.GL_RENDERBUFFER, depthBuffer);
+        GL30.glRenderbufferStorage(GL30.GL_RENDERBUFFER, GL30.GL_DEPTH24_STENCIL8, width, height);
+        GL30.glFramebufferRenderbuffer(GL30.GL_FRAMEBUFFER, GL30.GL_DEPTH_STENCIL_ATTACHMENT, GL30.GL_RENDERBUFFER, depthBuffer);
+        GL30.glBindRenderbuffer(GL30.GL_RENDERBUFFER, 0);
+
+        int status = GL30.glCheckFramebufferStatus(GL30.GL_FRAMEBUFFER);
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+        if (status != GL30.GL_FRAMEBUFFER_COMPLETE)
+            throw new RuntimeException("Incomplete framebuffer: 0x" + Integer.toHexString(status));
+    }
+
+    public void bind() {
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, fbo);
+        GL11.glViewport(0, 0, width, height);
+    }
+
+    public void unbind() {
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+    }
+
+    /**
+     * Reads the color attachment as tightly packed RGBA rows, bottom row first.
+     *
+     * @param target buffer receiving {@code width * height * 4} bytes.
+     */
+    public void readPixels(ByteBuffer target) {
+        GL30.glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, fbo);
+        GL11.glPixelStorei(GL11.GL_PACK_ALIGNMENT, 1);
+        GL11.glReadPixels(0, 0, width, height, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, target);
+        GL30.glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, 0);
+    }
+
+    public void destroy() {
+        GL30.glDeleteFramebuffers(fbo);
+        GL11.glDeleteTextures(colorTexture);
+        GL30.glDeleteRenderbuffers(depthBuffer);
+    }
+
+    public int getFboID() {
+        return fbo;
+    }
+
+    public int getTextureID() {
+        return colorTexture;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
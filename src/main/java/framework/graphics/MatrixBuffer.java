@@ -0,0 +1,93 @@
+package framework.graphics;
+
+import framework.scene.TransformHierarchy;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL33;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Instance buffer holding the world matrices of a {@link TransformHierarchy}, one {@code mat4} per slot.
+ * <p>
+ * {@link #upload(TransformHierarchy)} only transfers the slot range changed by the last update, with a single
+ * {@code glBufferSubData} call, and reallocates the buffer when the hierarchy outgrows it.
+ */
+public class MatrixBuffer {
+
+    private static final int MATRIX_BYTES = TransformHierarchy.MATRIX_FLOATS * Float.BYTES;
+
+    private final int vbo;
+    private FloatBuffer staging;
+    private int capacity;
+
+    public MatrixBuffer(int capacity) {
+        if (capacity <= 0) throw new IllegalArgumentException("MatrixBuffer capacity must be positive: " + capacity);
+        vbo = GL15.glGenBuffers();
+        allocate(capacity);
+    }
+
+    private void allocate(int capacity) {
+        this.capacity = capacity;
+        staging = BufferUtils.createFloatBuffer(capacity * TransformHierarchy.MATRIX_FLOATS);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) capacity * MATRIX_BYTES, GL15.GL_DYNAMIC_DRAW);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Uploads the world matrices changed by the last {@link TransformHierarchy#update()}.
+     *
+     * @param hierarchy the updated hierarchy.
+     * @return the amount of uploaded matrices.
+     */
+    public int upload(TransformHierarchy hierarchy) {
+        int from = hierarchy.getChangedFrom(), to = hierarchy.getChangedTo();
+        if (hierarchy.size() > capacity) {
+            allocate(Math.max(hierarchy.size(), capacity * 2));
+            from = 0;
+            to = hierarchy.size();
+        }
+        if (from == to) return 0;
+
+        staging.clear();
+        staging.put(hierarchy.worldMatrices(), from * TransformHierarchy.MATRIX_FLOATS,
+                (to - from) * TransformHierarchy.MATRIX_FLOATS).flip();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, (long) from * MATRIX_BYTES, staging);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        return to - from;
+    }
+
+    /**
+     * Binds the matrices as a per-instance {@code mat4} attribute to the currently bound vertex array, using the
+     * four consecutive attribute locations starting at {@code location}.
+     *
+     * @param location the first attribute location of the matrix.
+     * @param firstSlot the slot of the matrix used by instance 0.
+     */
+    public void bindInstanceAttribute(int location, int firstSlot) {
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        for (int column = 0; column < 4; column++) {
+            GL20.glVertexAttribPointer(location + column, 4, GL11.GL_FLOAT, false, MATRIX_BYTES,
+                    (long) firstSlot * MATRIX_BYTES + (long) column * 4 * Float.BYTES);
+            GL20.glEnableVertexAttribArray(location + column);
+            GL33.glVertexAttribDivisor(location + column, 1);
+        }
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getBufferID() {
+        return vbo;
+    }
+
+    public void destroy() {
+        GL15.glDeleteBuffers(vbo);
+    }
+}
@@ -1,13 +1,25 @@
 package framework.graphics;
 
+import org.lwjgl.opengl.GL11;
+
 public class Mesh {
 
     private int vao;
     private int vertices;
+    private int indexType;
 
     public Mesh(int vao, int vertex) {
+        this(vao, vertex, GL11.GL_UNSIGNED_INT);
+    }
+
+    /**
+     * @param indexType the type of the indices, {@code GL_UNSIGNED_BYTE}, {@code GL_UNSIGNED_SHORT} or
+     *                  {@code GL_UNSIGNED_INT}.
+     */
+    public Mesh(int vao, int vertex, int indexType) {
         this.vao = vao;
         this.vertices = vertex;
+        this.indexType = indexType;
     }
 
     public int getVaoID() {
@@ -17,4 +29,11 @@ public class Mesh {
     public int getVertexCount() {
         return vertices;
     }
+
+    /**
+     * @return the type to pass to {@code glDrawElements}.
+     */
+    public int getIndexType() {
+        return indexType;
+    }
 }
@@ -1,29 +1,48 @@
 package framework.graphics;
 
 import framework.application.IHandler;
+import framework.assets.AssetHandler;
+import framework.assets.AssetType;
+import framework.graphics.mesh.MeshData;
+import framework.graphics.mesh.MeshFormat;
+import framework.graphics.mesh.MeshOptimizer;
+import framework.graphics.mesh.ObjLoader;
+import framework.injection.annotations.Inject;
 import framework.injection.annotations.Singleton;
+import framework.profiling.jfr.MeshUploadEvent;
+import framework.util.IntList;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL15;
 import org.lwjgl.opengl.GL20;
 import org.lwjgl.opengl.GL30;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
-import java.nio.IntBuffer;
-import java.util.ArrayList;
-import java.util.List;
+import java.nio.file.Path;
 
 @Singleton
 public class MeshHandler implements IHandler {
 
-    public final List<Integer> vaos = new ArrayList<>();
-    public final List<Integer> vbos = new ArrayList<>();
+    public final IntList vaos = new IntList();
+    public final IntList vbos = new IntList();
 
-    private static IntBuffer createIntBuffer(int[] data) {
-        IntBuffer buffer = BufferUtils.createIntBuffer(data.length);
-        buffer.put(data);
-        buffer.flip();
-        return buffer;
+    @Inject
+    private AssetHandler assets;
+
+    /**
+     * @param indexSize size of an index in bytes, 1, 2 or 4.
+     * @return the matching type for {@code glDrawElements}.
+     */
+    public static int getIndexType(int indexSize) {
+        return switch (indexSize) {
+            case 1 -> GL11.GL_UNSIGNED_BYTE;
+            case 2 -> GL11.GL_UNSIGNED_SHORT;
+            case 4 -> GL11.GL_UNSIGNED_INT;
+            default -> throw new IllegalArgumentException("Index size must be 1, 2 or 4: " + indexSize);
+        };
     }
 
     private static FloatBuffer createFloatBuffer(float[] data) {
@@ -42,11 +61,24 @@ public class MeshHandler implements IHandler {
         GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
     }
 
-    private void bindIndices(int[] indices) {
+    /**
+     * Stores the indices in the smallest size all of them fit in.
+     *
+     * @return the size of an index in bytes.
+     */
+    private int bindIndices(int[] indices) {
+        int max = 0;
+        for (int index : indices) max = Math.max(max, index);
+        int indexSize = MeshData.indexSizeFor(max + 1);
+        bindIndices(MeshData.encodeIndices(indices, indices.length, indexSize));
+        return indexSize;
+    }
+
+    private void bindIndices(ByteBuffer indices) {
         int vbo = GL15.glGenBuffers();
         vbos.add(vbo);
         GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, vbo);
-        GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, createIntBuffer(indices), GL15.GL_STATIC_DRAW);
+        GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, indices, GL15.GL_STATIC_DRAW);
     }
 
     private int genVAO() {
@@ -57,11 +89,74 @@ public class MeshHandler implements IHandler {
     }
 
     public Mesh createMesh(float[] positions, float[] UVs, int[] indices) {
+        MeshUploadEvent event = new MeshUploadEvent();
+        event.begin();
         int vao = genVAO();
         storeData(0, 3, positions);
         storeData(1, 2, UVs);
+        int indexSize = bindIndices(indices);
+        GL30.glBindVertexArray(0);
+        event.end();
+        if (event.shouldCommit()) {
+            event.vertices = positions.length / 3;
+            event.indices = indices.length;
+            event.vertexBytes = (long) (positions.length + UVs.length) * Float.BYTES;
+            event.indexBytes = (long) indices.length * indexSize;
+            event.commit();
+        }
+        return new Mesh(vao, indices.length, getIndexType(indexSize));
+    }
+
+    /**
+     * Uploads a mesh in the interleaved layout of {@link MeshData} directly from its buffers. Run
+     * {@link MeshOptimizer} on meshes which are not optimized yet.
+     */
+    public Mesh createMesh(MeshData data) {
+        MeshUploadEvent event = new MeshUploadEvent();
+        event.begin();
+        int vao = genVAO();
+        ByteBuffer vertices = data.vertices().slice(0, data.vertexCount() * MeshData.VERTEX_BYTES);
+        ByteBuffer indices = data.indices().slice(0, data.indexCount() * data.indexSize());
+
+        int vbo = GL15.glGenBuffers();
+        vbos.add(vbo);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, vertices, GL15.GL_STATIC_DRAW);
+        GL20.glVertexAttribPointer(0, 3, GL11.GL_FLOAT, false, MeshData.VERTEX_BYTES, MeshData.POSITION_OFFSET * Float.BYTES);
+        GL20.glVertexAttribPointer(1, 2, GL11.GL_FLOAT, false, MeshData.VERTEX_BYTES, MeshData.UV_OFFSET * Float.BYTES);
+        GL20.glVertexAttribPointer(2, 3, GL11.GL_FLOAT, false, MeshData.VERTEX_BYTES, MeshData.NORMAL_OFFSET * Float.BYTES);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+
         bindIndices(indices);
         GL30.glBindVertexArray(0);
-        return new Mesh(vao, indices.length);
+        event.end();
+        if (event.shouldCommit()) {
+            event.vertices = data.vertexCount();
+            event.indices = data.indexCount();
+            event.vertexBytes = vertices.remaining();
+            event.indexBytes = indices.remaining();
+            event.commit();
+        }
+        return new Mesh(vao, data.indexCount(), getIndexType(data.indexSize()));
+    }
+
+    /**
+     * Loads and uploads a mesh, served zero-copy from the asset archive when packed, and otherwise read from a
+     * loose {@code .mesh} file or parsed from a Wavefront {@code .obj} file and optimized. Packed meshes are
+     * optimized by the {@code AssetPacker} already.
+     *
+     * @param path the loose file path of the mesh.
+     * @throws UncheckedIOException if the mesh is not packed and the loose file could not be read.
+     * @throws IllegalArgumentException if the file is not a valid mesh.
+     */
+    public Mesh loadMesh(String path) {
+        int index = assets.find(path, AssetType.MESH);
+        if (index >= 0) return createMesh(MeshFormat.read(assets.getArchive().getData(index)));
+        if (!path.toLowerCase().endsWith(".obj")) return createMesh(MeshFormat.read(AssetHandler.readLoose(path)));
+        try {
+            return createMesh(MeshOptimizer.optimize(ObjLoader.load(Path.of(path))).mesh());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to read file with path " + path, e);
+        }
     }
 }
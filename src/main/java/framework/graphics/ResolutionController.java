@@ -0,0 +1,188 @@
+package framework.graphics;
+
+/**
+ * Chooses the render scale of a {@link DynamicResolution} from measured frame times.
+ * <p>
+ * Frame times are smoothed with an exponential moving average and compared against a target. Because the
+ * fill cost grows with the pixel count, the frame time is predicted to scale with {@code scale²}. The controller
+ * drops straight to the scale predicted to meet the target once the smoothed time exceeds the target by more
+ * than the hysteresis band, but only raises the scale by one step when the predicted time at that step stays
+ * below the band. After every change it waits a cooldown, so the new scale is measured before acting again.
+ * Together this keeps the scale from oscillating between two steps.
+ */
+public class ResolutionController {
+
+    private final double targetMillis;
+    private final float minScale;
+    private final float maxScale;
+    private final float step;
+    private final double smoothing;
+    private final double hysteresis;
+    private final int cooldown;
+
+    private float scale;
+    private double smoothedMillis;
+    private boolean measured;
+    private int cooldownLeft;
+
+    private ResolutionController(Builder builder) {
+        this.targetMillis = builder.targetMillis;
+        this.minScale = builder.minScale;
+        this.maxScale = builder.maxScale;
+        this.step = builder.step;
+        this.smoothing = builder.smoothing;
+        this.hysteresis = builder.hysteresis;
+        this.cooldown = builder.cooldown;
+        this.scale = builder.maxScale;
+        this.cooldownLeft = builder.cooldown;
+    }
+
+    /**
+     * Builder class for the creation of a new {@link ResolutionController}.
+     */
+    public static class Builder {
+
+        private final double targetMillis;
+        private float minScale = 0.5f;
+        private float maxScale = 1f;
+        private float step = 0.05f;
+        private double smoothing = 0.1;
+        private double hysteresis = 0.1;
+        private int cooldown = 30;
+
+        /**
+         * Creates a new instance of a {@link ResolutionController.Builder}.
+         *
+         * @param targetMillis frame time to aim for in milliseconds, must be positive. Leave some headroom
+         *                     below the vsync interval, e.g. 14 ms for 60 Hz.
+         * @throws IllegalArgumentException if provided target is not positive.
+         */
+        public Builder(double targetMillis) {
+            if (!(targetMillis > 0)) throw new IllegalArgumentException("Target frame time must be positive: " + targetMillis);
+            this.targetMillis = targetMillis;
+        }
+
+        /**
+         * Sets the range of the render scale, relative to the output size. The controller starts at the maximum.
+         *
+         * @throws IllegalArgumentException if the range is empty, the minimum is not positive or the maximum
+         *                                  is above 2.
+         */
+        public Builder setScaleRange(float minScale, float maxScale) {
+            if (!(minScale > 0) || minScale > maxScale || maxScale > 2)
+                throw new IllegalArgumentException("Invalid scale range: " + minScale + " - " + maxScale);
+            this.minScale = minScale;
+            this.maxScale = maxScale;
+            return this;
+        }
+
+        /**
+         * Sets the granularity of the render scale. Scales are multiples of the step from the maximum down.
+         *
+         * @throws IllegalArgumentException if provided step is not positive.
+         */
+        public Builder setStep(float step) {
+            if (!(step > 0)) throw new IllegalArgumentException("Scale step must be positive: " + step);
+            this.step = step;
+            return this;
+        }
+
+        /**
+         * Sets the weight of a new frame time in the moving average, {@code 1} disabling smoothing.
+         *
+         * @throws IllegalArgumentException if provided smoothing is not within {@code (0, 1]}.
+         */
+        public Builder setSmoothing(double smoothing) {
+            if (!(smoothing > 0) || smoothing > 1) throw new IllegalArgumentException("Smoothing must be within (0, 1]: " + smoothing);
+            this.smoothing = smoothing;
+            return this;
+        }
+
+        /**
+         * Sets the relative band around the target within which the scale does not change.
+         *
+         * @throws IllegalArgumentException if provided hysteresis is not within {@code [0, 1)}.
+         */
+        public Builder setHysteresis(double hysteresis) {
+            if (!(hysteresis >= 0) || hysteresis >= 1) throw new IllegalArgumentException("Hysteresis must be within [0, 1): " + hysteresis);
+            this.hysteresis = hysteresis;
+            return this;
+        }
+
+        /**
+         * Sets the amount of frames to wait after a scale change, and at the start, before changing again.
+         *
+         * @throws IllegalArgumentException if provided cooldown is negative.
+         */
+        public Builder setCooldown(int frames) {
+            if (frames < 0) throw new IllegalArgumentException("Cooldown cannot be negative: " + frames);
+            this.cooldown = frames;
+            return this;
+        }
+
+        public ResolutionController build() {
+            return new ResolutionController(this);
+        }
+    }
+
+    /**
+     * Adds the frame time of the last frame, rendered at the current scale.
+     *
+     * @param frameMillis the measured frame time in milliseconds.
+     * @return {@code true} if the scale changed.
+     */
+    public boolean update(double frameMillis) {
+        smoothedMillis = measured ? smoothedMillis + smoothing * (frameMillis - smoothedMillis) : frameMillis;
+        measured = true;
+        if (cooldownLeft > 0) {
+            cooldownLeft--;
+            return false;
+        }
+
+        float next = scale;
+        if (smoothedMillis > targetMillis * (1 + hysteresis)) {
+            next = quantize((float) (scale * Math.sqrt(targetMillis / smoothedMillis)));
+            if (next >= scale) next = quantize(scale - step);
+        } else if (scale < maxScale) {
+            float up = quantize(scale + step);
+            if (predict(up) < targetMillis * (1 - hysteresis)) next = up;
+        }
+        next = Math.clamp(next, minScale, maxScale);
+        if (next == scale) return false;
+
+        smoothedMillis = predict(next);
+        scale = next;
+        cooldownLeft = cooldown;
+        return true;
+    }
+
+    /**
+     * @return the predicted frame time at another scale, with the fill cost growing with the pixel count.
+     */
+    private double predict(float other) {
+        double ratio = other / scale;
+        return smoothedMillis * ratio * ratio;
+    }
+
+    /**
+     * Rounds a scale down to a multiple of the step below the maximum.
+     */
+    private float quantize(float value) {
+        int steps = (int) Math.ceil((maxScale - value) / step - 1e-4);
+        return maxScale - steps * step;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public float getScale() {
+        return scale;
+    }
+
+    public double getSmoothedMillis() {
+        return smoothedMillis;
+    }
+
+    public double getTargetMillis() {
+        return targetMillis;
+    }
+}
@@ -1,14 +1,17 @@
 package framework.graphics;
 
+import framework.assets.AssetHandler;
+import framework.profiling.jfr.ShaderCompileEvent;
 import org.joml.Matrix4f;
+import org.joml.Vector2f;
 import org.joml.Vector3f;
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL20;
+import org.lwjgl.system.MemoryStack;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
-import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
 import java.nio.FloatBuffer;
 
 public abstract class Shader {
@@ -20,8 +23,12 @@ public abstract class Shader {
     private FloatBuffer matrix = BufferUtils.createFloatBuffer(16);
 
     public Shader(String vertPath, String fragPath) {
-        vertID = loadShader(vertPath, GL20.GL_VERTEX_SHADER);
-        fragID = loadShader(fragPath, GL20.GL_FRAGMENT_SHADER);
+        this(null, vertPath, fragPath);
+    }
+
+    public Shader(AssetHandler assets, String vertPath, String fragPath) {
+        vertID = loadShader(assets, vertPath, GL20.GL_VERTEX_SHADER);
+        fragID = loadShader(assets, fragPath, GL20.GL_FRAGMENT_SHADER);
         programID = GL20.glCreateProgram();
         GL20.glAttachShader(programID, vertID);
         GL20.glAttachShader(programID, fragID);
@@ -39,24 +46,35 @@ public abstract class Shader {
         GL20.glUseProgram(0);
     }
 
-    private static int loadShader(String path, int type) {
-        StringBuilder shaderSource = new StringBuilder();
+    private static int loadShader(AssetHandler assets, String path, int type) {
+        ByteBuffer source = null;
         try {
-            BufferedReader reader = new BufferedReader(new FileReader(path));
-            String line;
-            while ((line = reader.readLine()) != null)
-                shaderSource.append(line).append("\n");
-            reader.close();
-        } catch (IOException e){
+            source = assets != null ? assets.load(path) : AssetHandler.readLoose(path);
+        } catch (UncheckedIOException e){
             System.err.println("Unable to read file with path " + path);
             e.printStackTrace();
             System.exit(-1);
         }
 
+        ShaderCompileEvent event = new ShaderCompileEvent();
+        event.begin();
         int shader = GL20.glCreateShader(type);
-        GL20.glShaderSource(shader, shaderSource);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            // Pass the (possibly memory-mapped) source straight to the driver, without decoding it to a String.
+            GL20.glShaderSource(shader, stack.pointers(source), stack.ints(source.remaining()));
+        }
         GL20.glCompileShader(shader);
-        if (GL20.glGetShaderi(shader, GL20.GL_COMPILE_STATUS) == GL11.GL_FALSE) {
+        // Querying the status waits for the driver, so the event covers the actual compilation.
+        boolean compiled = GL20.glGetShaderi(shader, GL20.GL_COMPILE_STATUS) != GL11.GL_FALSE;
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = path;
+            event.stage = type == GL20.GL_VERTEX_SHADER ? "vertex" : "fragment";
+            event.sourceBytes = source.remaining();
+            event.success = compiled;
+            event.commit();
+        }
+        if (!compiled) {
             System.out.println(GL20.glGetShaderInfoLog(shader, 512));
             System.err.println("Unable to compile the shader");
             System.exit(-1);
@@ -76,6 +94,14 @@ public abstract class Shader {
         GL20.glUniform1f(location, value);
     }
 
+    protected void loadInt(int location, int value) {
+        GL20.glUniform1i(location, value);
+    }
+
+    protected void loadVector(int location, Vector2f vector) {
+        GL20.glUniform2f(location, vector.x, vector.y);
+    }
+
     protected void loadVector(int location, Vector3f vector) {
         GL20.glUniform3f(location, vector.x, vector.y, vector.z);
     }
@@ -0,0 +1,32 @@
+package framework.graphics;
+
+import framework.assets.AssetHandler;
+import framework.injection.annotations.Inject;
+import org.joml.Vector2f;
+
+public class ShaderParticle extends Shader {
+
+    private final Vector2f scale = new Vector2f();
+    private int screenScale;
+
+    @Inject
+    public ShaderParticle(AssetHandler assets) {
+        super(assets, "resources/shaders/particle.vert", "resources/shaders/particle.frag");
+    }
+
+    @Override
+    protected void bindAttributes() {
+        super.bindAttribute(0, "corner");
+        super.bindAttribute(1, "center");
+        super.bindAttribute(2, "color");
+    }
+
+    @Override
+    protected void getAllUniformLocations() {
+        screenScale = super.getUniformLocation("screenScale");
+    }
+
+    public void loadScreenSize(int width, int height) {
+        super.loadVector(screenScale, scale.set(2f / width, 2f / height));
+    }
+}
@@ -0,0 +1,35 @@
+package framework.graphics;
+
+import framework.assets.AssetHandler;
+import framework.injection.annotations.Inject;
+import org.joml.Vector2f;
+
+public class ShaderText extends Shader {
+
+    private final Vector2f scale = new Vector2f();
+    private int screenScale;
+    private int atlas;
+
+    @Inject
+    public ShaderText(AssetHandler assets) {
+        super(assets, "resources/shaders/text.vert", "resources/shaders/text.frag");
+    }
+
+    @Override
+    protected void bindAttributes() {
+        super.bindAttribute(0, "position");
+        super.bindAttribute(1, "uvs");
+        super.bindAttribute(2, "color");
+    }
+
+    @Override
+    protected void getAllUniformLocations() {
+        screenScale = super.getUniformLocation("screenScale");
+        atlas = super.getUniformLocation("atlas");
+    }
+
+    public void loadScreenSize(int width, int height) {
+        super.loadVector(screenScale, scale.set(2f / width, 2f / height));
+        super.loadInt(atlas, 0);
+    }
+}
@@ -0,0 +1,40 @@
+package framework.graphics;
+
+import framework.assets.AssetHandler;
+import framework.injection.annotations.Inject;
+
+/**
+ * Textured shader sampling a {@code GL_TEXTURE_2D_ARRAY}, with the layer selected per instance through the
+ * {@code layer} attribute. The attribute is either a constant set with {@code glVertexAttrib1f}, as done by the
+ * {@code SceneLayer}, or a per-instance buffer with a divisor of 1 for instanced draws.
+ */
+public class ShaderTextureArray extends Shader {
+
+    public static final int LAYER_LOCATION = 3;
+
+    private int textures;
+
+    @Inject
+    public ShaderTextureArray(AssetHandler assets) {
+        super(assets, "resources/shaders/texture_array.vert", "resources/shaders/texture_array.frag");
+    }
+
+    @Override
+    protected void bindAttributes() {
+        super.bindAttribute(0, "position");
+        super.bindAttribute(1, "uvs");
+        super.bindAttribute(LAYER_LOCATION, "layer");
+    }
+
+    @Override
+    protected void getAllUniformLocations() {
+        textures = super.getUniformLocation("textures");
+    }
+
+    /**
+     * Samples the array texture bound to a texture unit.
+     */
+    public void loadTextureUnit(int unit) {
+        super.loadInt(textures, unit);
+    }
+}
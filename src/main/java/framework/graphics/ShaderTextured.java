@@ -1,9 +1,17 @@
 package framework.graphics;
 
+import framework.assets.AssetHandler;
+import framework.injection.annotations.Inject;
+
 public class ShaderTextured extends Shader {
 
     public ShaderTextured() {
-        super("resources/shaders/shader.vert", "resources/shaders/shader.frag");
+        this(null);
+    }
+
+    @Inject
+    public ShaderTextured(AssetHandler assets) {
+        super(assets, "resources/shaders/shader.vert", "resources/shaders/shader.frag");
     }
 
     @Override
@@ -1,6 +1,155 @@
 package framework.graphics;
 
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL12;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL30;
+
+/**
+ * OpenGL texture with its dimensions, format, mip count and sampler state.
+ * <p>
+ * A texture is either a plain {@code GL_TEXTURE_2D} or a {@code GL_TEXTURE_2D_ARRAY} holding same-sized images
+ * as layers. Shaders select the layer per instance, so objects using different layers of one array draw
+ * without rebinding, and unlike an atlas, filtering and mipmapping never bleed between neighbouring images.
+ */
 public class Texture {
 
+    /**
+     * Filtering and wrapping applied when sampling a {@link Texture}.
+     *
+     * @param minFilter minification filter, e.g. {@code GL_LINEAR_MIPMAP_LINEAR}.
+     * @param magFilter magnification filter, {@code GL_LINEAR} or {@code GL_NEAREST}.
+     * @param wrap wrap mode for both axes, e.g. {@code GL_REPEAT}.
+     */
+    public record Sampler(int minFilter, int magFilter, int wrap) {
+
+        /**
+         * Trilinear filtering, repeating.
+         */
+        public static final Sampler DEFAULT = new Sampler(GL11.GL_LINEAR_MIPMAP_LINEAR, GL11.GL_LINEAR, GL11.GL_REPEAT);
+        /**
+         * Trilinear filtering, clamped to the edge, e.g. for card faces.
+         */
+        public static final Sampler CLAMPED = new Sampler(GL11.GL_LINEAR_MIPMAP_LINEAR, GL11.GL_LINEAR, GL12.GL_CLAMP_TO_EDGE);
+        /**
+         * Nearest filtering without mipmaps, clamped to the edge, e.g. for pixel art.
+         */
+        public static final Sampler PIXEL = new Sampler(GL11.GL_NEAREST, GL11.GL_NEAREST, GL12.GL_CLAMP_TO_EDGE);
+
+        /**
+         * @return {@code true} if the minification filter samples mip levels.
+         */
+        public boolean usesMipmaps() {
+            return minFilter != GL11.GL_NEAREST && minFilter != GL11.GL_LINEAR;
+        }
+    }
+
+    private final int id;
+    private final int target;
+    private final int width;
+    private final int height;
+    private final int layers;
+    private final int mipLevels;
+    private final int internalFormat;
+    private Sampler sampler;
+
+    /**
+     * Wraps an existing texture object, usually created by the {@link TextureHandler}, and applies the sampler.
+     *
+     * @param target {@code GL_TEXTURE_2D} or {@code GL_TEXTURE_2D_ARRAY}.
+     * @param layers amount of layers, {@code 1} for a {@code GL_TEXTURE_2D}.
+     * @param internalFormat the sized internal format, e.g. {@code GL_RGBA8}.
+     * @throws IllegalArgumentException if the target is not supported or a dimension is not positive.
+     */
+    public Texture(int id, int target, int width, int height, int layers, int mipLevels, int internalFormat, Sampler sampler) {
+        if (target != GL11.GL_TEXTURE_2D && target != GL30.GL_TEXTURE_2D_ARRAY)
+            throw new IllegalArgumentException("Unsupported texture target: " + target);
+        if (width <= 0 || height <= 0 || layers <= 0 || mipLevels <= 0)
+            throw new IllegalArgumentException("Invalid texture size: " + width + "x" + height + "x" + layers + ", " + mipLevels + " levels");
+        if (target == GL11.GL_TEXTURE_2D && layers != 1)
+            throw new IllegalArgumentException("A 2D texture has exactly one layer: " + layers);
+        this.id = id;
+        this.target = target;
+        this.width = width;
+        this.height = height;
+        this.layers = layers;
+        this.mipLevels = mipLevels;
+        this.internalFormat = internalFormat;
+        setSampler(sampler);
+    }
+
+    /**
+     * @return the amount of levels of a full mip chain down to 1x1.
+     */
+    public static int mipLevelsFor(int width, int height) {
+        return 32 - Integer.numberOfLeadingZeros(Math.max(1, Math.max(width, height)));
+    }
+
+    /**
+     * Binds the texture to a texture unit.
+     *
+     * @param unit the index of the texture unit, {@code 0} for {@code GL_TEXTURE0}.
+     */
+    public void bind(int unit) {
+        GL13.glActiveTexture(GL13.GL_TEXTURE0 + unit);
+        GL11.glBindTexture(target, id);
+    }
+
+    /**
+     * Changes the sampler state, which binds the texture to the active texture unit.
+     *
+     * @throws IllegalArgumentException if provided sampler is {@code null}.
+     */
+    public void setSampler(Sampler sampler) {
+        if (sampler == null) throw new IllegalArgumentException("Sampler cannot be null");
+        this.sampler = sampler;
+        GL11.glBindTexture(target, id);
+        GL11.glTexParameteri(target, GL11.GL_TEXTURE_MIN_FILTER, mipLevels > 1 || !sampler.usesMipmaps()
+                ? sampler.minFilter() : GL11.GL_LINEAR);
+        GL11.glTexParameteri(target, GL11.GL_TEXTURE_MAG_FILTER, sampler.magFilter());
+        GL11.glTexParameteri(target, GL11.GL_TEXTURE_WRAP_S, sampler.wrap());
+        GL11.glTexParameteri(target, GL11.GL_TEXTURE_WRAP_T, sampler.wrap());
+    }
+
+    public void destroy() {
+        GL11.glDeleteTextures(id);
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public int getID() {
+        return id;
+    }
+
+    public int getTarget() {
+        return target;
+    }
+
+    public boolean isArray() {
+        return target == GL30.GL_TEXTURE_2D_ARRAY;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getLayers() {
+        return layers;
+    }
+
+    public int getMipLevels() {
+        return mipLevels;
+    }
+
+    public int getInternalFormat() {
+        return internalFormat;
+    }
 
+    public Sampler getSampler() {
+        return sampler;
+    }
 }
@@ -1,8 +1,14 @@
 package framework.graphics;
 
 import framework.application.IHandler;
+import framework.assets.AssetArchive;
+import framework.assets.AssetHandler;
+import framework.assets.AssetType;
+import framework.injection.annotations.Inject;
 import framework.injection.annotations.Singleton;
+import framework.profiling.jfr.TextureLoadEvent;
 import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL12;
 import org.lwjgl.opengl.GL30;
 import org.lwjgl.stb.STBImage;
 import org.lwjgl.system.MemoryStack;
@@ -15,34 +21,202 @@ import java.util.HashMap;
 @Singleton
 public class TextureHandler implements IHandler{
 
-    private final HashMap<String, Integer> textureMap = new HashMap<>();
+    @Inject
+    private AssetHandler assets;
 
+    private final HashMap<String, Texture> textureMap = new HashMap<>();
+    private final HashMap<String, Texture> arrayMap = new HashMap<>();
 
-    public int loadTexture(String path) {
+
+    /**
+     * Loads a {@code GL_TEXTURE_2D} with a full mip chain and the {@link Texture.Sampler#DEFAULT} sampler.
+     *
+     * @param path the loose file path of the image.
+     * @return the texture, cached by its path.
+     * @throws IllegalArgumentException if the image could not be loaded.
+     */
+    public Texture loadTexture(String path) {
         if (textureMap.containsKey(path))
             return textureMap.get(path);
 
-        ByteBuffer buffer;
+        TextureLoadEvent event = new TextureLoadEvent();
+        event.begin();
+        int packed = assets.find(path, AssetType.TEXTURE);
+        if (packed >= 0) {
+            long uploadStart = System.nanoTime();
+            Texture texture = uploadPacked(assets.getArchive(), packed);
+            textureMap.put(path, texture);
+            event.end();
+            if (event.shouldCommit()) {
+                AssetArchive archive = assets.getArchive();
+                event.path = path;
+                event.packed = true;
+                event.width = archive.getWidth(packed);
+                event.height = archive.getHeight(packed);
+                for (int level = 0; level < archive.getMipLevels(packed); level++)
+                    event.bytes += archive.getMipLevel(packed, level).remaining();
+                event.uploadTime = System.nanoTime() - uploadStart;
+                event.commit();
+            }
+            return texture;
+        }
+
         try (MemoryStack stack = MemoryStack.stackPush()) {
             IntBuffer w = stack.mallocInt(1);
             IntBuffer h = stack.mallocInt(1);
             IntBuffer channels = stack.mallocInt(1);
 
-            buffer = STBImage.stbi_load(new File(path).getAbsolutePath(), w, h, channels, 4);
+            long decodeStart = System.nanoTime();
+            ByteBuffer buffer = STBImage.stbi_load(new File(path).getAbsolutePath(), w, h, channels, 4);
             if (buffer == null)
-                throw new Exception("Unable to load file " + path + " " + STBImage.stbi_failure_reason());
+                throw new IllegalArgumentException("Unable to load file " + path + " " + STBImage.stbi_failure_reason());
 
-            int texture = GL11.glGenTextures();
-            textureMap.put(path, texture);
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
+            long uploadStart = System.nanoTime();
+            int id = GL11.glGenTextures();
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, id);
             GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
-            GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, w.get(), h.get(), 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buffer);
+            GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA8, w.get(0), h.get(0), 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buffer);
             GL30.glGenerateMipmap(GL11.GL_TEXTURE_2D);
             STBImage.stbi_image_free(buffer);
+            Texture texture = new Texture(id, GL11.GL_TEXTURE_2D, w.get(0), h.get(0), 1,
+                    Texture.mipLevelsFor(w.get(0), h.get(0)), GL11.GL_RGBA8, Texture.Sampler.DEFAULT);
+            textureMap.put(path, texture);
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = path;
+                event.width = w.get(0);
+                event.height = h.get(0);
+                event.bytes = (long) w.get(0) * h.get(0) * 4;
+                event.decodeTime = uploadStart - decodeStart;
+                event.uploadTime = System.nanoTime() - uploadStart;
+                event.commit();
+            }
             return texture;
-        } catch(Exception e) {
-            e.printStackTrace();
-        } return 0;
+        }
+    }
+
+    /**
+     * Uploads a pre-decoded texture with its full mip chain straight from the memory-mapped archive.
+     */
+    private Texture uploadPacked(AssetArchive archive, int index) {
+        int texture = GL11.glGenTextures();
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
+        GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+        int levels = archive.getMipLevels(index);
+        for (int level = 0, w = archive.getWidth(index), h = archive.getHeight(index); level < levels; level++) {
+            GL11.glTexImage2D(GL11.GL_TEXTURE_2D, level, GL11.GL_RGBA8, w, h, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE,
+                    archive.getMipLevel(index, level));
+            w = Math.max(1, w / 2);
+            h = Math.max(1, h / 2);
+        }
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL12.GL_TEXTURE_MAX_LEVEL, levels - 1);
+        return new Texture(texture, GL11.GL_TEXTURE_2D, archive.getWidth(index), archive.getHeight(index), 1, levels,
+                GL11.GL_RGBA8, Texture.Sampler.DEFAULT);
+    }
+
+    /**
+     * Loads same-sized images as the layers of one {@code GL_TEXTURE_2D_ARRAY} with a full mip chain and the
+     * {@link Texture.Sampler#CLAMPED} sampler. Layer {@code i} holds {@code paths[i]}.
+     * <p>
+     * When every image is packed, the mip levels are uploaded straight from the archive, as many as every layer
+     * has packed. Otherwise the images are decoded and the mip chain is generated once for the whole array.
+     *
+     * @param paths the loose file paths of the images, at least one.
+     * @return the array texture, cached by the list of paths.
+     * @throws IllegalArgumentException if no path is given, an image could not be loaded, or the images differ
+     *                                  in size.
+     */
+    public Texture loadTextureArray(String... paths) {
+        if (paths.length == 0) throw new IllegalArgumentException("A texture array needs at least one layer");
+        String key = String.join("\n", paths);
+        Texture cached = arrayMap.get(key);
+        if (cached != null) return cached;
+
+        TextureLoadEvent event = new TextureLoadEvent();
+        event.begin();
+        long start = System.nanoTime();
+        int[] packed = new int[paths.length];
+        boolean allPacked = true;
+        for (int layer = 0; layer < paths.length; layer++) {
+            packed[layer] = assets.find(paths[layer], AssetType.TEXTURE);
+            allPacked &= packed[layer] >= 0;
+        }
+        AssetArchive archive = assets.getArchive();
+
+        int id = GL11.glGenTextures();
+        int width = 0, height = 0, levels = 0;
+        long decodeTime = 0, bytes = 0;
+        GL11.glBindTexture(GL30.GL_TEXTURE_2D_ARRAY, id);
+        GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer w = stack.mallocInt(1);
+            IntBuffer h = stack.mallocInt(1);
+            IntBuffer channels = stack.mallocInt(1);
+            for (int layer = 0; layer < paths.length; layer++) {
+                ByteBuffer pixels;
+                if (packed[layer] >= 0) {
+                    w.put(0, archive.getWidth(packed[layer]));
+                    h.put(0, archive.getHeight(packed[layer]));
+                    pixels = archive.getMipLevel(packed[layer], 0);
+                } else {
+                    long decodeStart = System.nanoTime();
+                    pixels = STBImage.stbi_load(new File(paths[layer]).getAbsolutePath(), w, h, channels, 4);
+                    decodeTime += System.nanoTime() - decodeStart;
+                    if (pixels == null) throw new IllegalArgumentException("Unable to load file " + paths[layer]
+                            + " " + STBImage.stbi_failure_reason());
+                }
+                try {
+                    if (layer == 0) {
+                        width = w.get(0);
+                        height = h.get(0);
+                        levels = Texture.mipLevelsFor(width, height);
+                        // Like a single packed texture, the array only has the levels its archive entries provide.
+                        if (allPacked) for (int index : packed) levels = Math.min(levels, archive.getMipLevels(index));
+                        for (int level = 0, lw = width, lh = height; level < levels; level++) {
+                            GL12.glTexImage3D(GL30.GL_TEXTURE_2D_ARRAY, level, GL11.GL_RGBA8, lw, lh, paths.length, 0,
+                                    GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, (ByteBuffer) null);
+                            lw = Math.max(1, lw / 2);
+                            lh = Math.max(1, lh / 2);
+                        }
+                    } else if (w.get(0) != width || h.get(0) != height) {
+                        throw new IllegalArgumentException("Layer " + paths[layer] + " is " + w.get(0) + "x" + h.get(0)
+                                + ", expected " + width + "x" + height);
+                    }
+                    int uploadLevels = allPacked ? levels : 1;
+                    for (int level = 0, lw = width, lh = height; level < uploadLevels; level++) {
+                        ByteBuffer data = level == 0 ? pixels : archive.getMipLevel(packed[layer], level);
+                        GL12.glTexSubImage3D(GL30.GL_TEXTURE_2D_ARRAY, level, 0, 0, layer, lw, lh, 1,
+                                GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, data);
+                        bytes += data.remaining();
+                        lw = Math.max(1, lw / 2);
+                        lh = Math.max(1, lh / 2);
+                    }
+                } finally {
+                    if (packed[layer] < 0) STBImage.stbi_image_free(pixels);
+                }
+            }
+        } catch (RuntimeException e) {
+            GL11.glDeleteTextures(id);
+            throw e;
+        }
+        if (!allPacked) GL30.glGenerateMipmap(GL30.GL_TEXTURE_2D_ARRAY);
+        GL11.glTexParameteri(GL30.GL_TEXTURE_2D_ARRAY, GL12.GL_TEXTURE_MAX_LEVEL, levels - 1);
+
+        Texture texture = new Texture(id, GL30.GL_TEXTURE_2D_ARRAY, width, height, paths.length, levels,
+                GL11.GL_RGBA8, Texture.Sampler.CLAMPED);
+        arrayMap.put(key, texture);
+        event.end();
+        if (event.shouldCommit()) {
+            event.path = key.replace('\n', ',');
+            event.packed = allPacked;
+            event.width = width;
+            event.height = height;
+            event.bytes = bytes;
+            event.decodeTime = decodeTime;
+            event.uploadTime = System.nanoTime() - start - decodeTime;
+            event.commit();
+        }
+        return texture;
     }
 
 }
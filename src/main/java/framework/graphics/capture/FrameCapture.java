@@ -0,0 +1,285 @@
+package framework.graphics.capture;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL21;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL32;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+
+/**
+ * Asynchronous frame capture for screenshots and recorded clips.
+ * <p>
+ * {@code glReadPixels} into client memory waits for the GPU to finish the frame. Instead, every captured frame
+ * is read into the next pixel pack buffer of a ring, which returns immediately, and a fence is placed behind it.
+ * Only once the fence has signaled, usually a frame or two later, is the buffer mapped and handed to the
+ * {@link FrameWriter}, whose thread copies the pixels out of the mapping before encoding them, so the render
+ * thread never copies a frame. The buffer is unmapped once the writer released it. The ring only waits for the
+ * GPU when all its buffers are still being read, and drops frames rather than waiting for a writer falling behind.
+ */
+public class FrameCapture {
+
+    private static final String FRAME_NAME = "frame_%06d.png";
+    private static final int FREE = 0, READING = 1, MAPPED = 2;
+
+    private final int width;
+    private final int height;
+    private final int[] pbos;
+    private final int[] states;
+    private final long[] fences;
+    private final ByteBuffer[] mappings;
+    private final Path[] targets;
+    private final FrameWriter.Format[] formats;
+    private final FrameWriter writer;
+    private int next;
+
+    private Path screenshot;
+    private Path recording;
+    private FrameWriter.Format recordingFormat;
+    private long recordedFrames;
+    private long capturedFrames;
+    private long droppedFrames;
+    private long gpuWaits;
+
+    /**
+     * Creates a new {@link FrameCapture} with a ring of 4 buffers.
+     *
+     * @see #FrameCapture(int, int, int)
+     */
+    public FrameCapture(int width, int height) {
+        this(width, height, 4);
+    }
+
+    /**
+     * Creates a new {@link FrameCapture}.
+     *
+     * @param width width of the captured frames in pixels, must be positive.
+     * @param height height of the captured frames in pixels, must be positive.
+     * @param ringSize amount of pixel pack buffers, at least 2. Frames being read by the GPU and frames being
+     *                 copied by the {@link FrameWriter} share the ring.
+     * @throws IllegalArgumentException if a size is invalid.
+     */
+    public FrameCapture(int width, int height, int ringSize) {
+        if (ringSize < 2) throw new IllegalArgumentException("Ring needs at least 2 buffers: " + ringSize);
+        this.writer = new FrameWriter(width, height, ringSize);
+        this.width = width;
+        this.height = height;
+        this.pbos = new int[ringSize];
+        this.states = new int[ringSize];
+        this.fences = new long[ringSize];
+        this.mappings = new ByteBuffer[ringSize];
+        this.targets = new Path[ringSize];
+        this.formats = new FrameWriter.Format[ringSize];
+        GL15.glGenBuffers(pbos);
+        for (int pbo : pbos) {
+            GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, pbo);
+            GL15.glBufferData(GL21.GL_PIXEL_PACK_BUFFER, writer.getFrameBytes(), GL15.GL_STREAM_READ);
+        }
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, 0);
+    }
+
+    /**
+     * Writes the next captured frame to a PNG file.
+     */
+    public void screenshot(Path png) {
+        this.screenshot = png;
+    }
+
+    /**
+     * Starts writing every frame, replacing a running recording.
+     *
+     * @param output for {@link FrameWriter.Format#PNG} the directory receiving {@code frame_000000.png} and so on,
+     *               for {@link FrameWriter.Format#RAW} the file receiving the frames.
+     * @param format how to store the frames.
+     */
+    public void startRecording(Path output, FrameWriter.Format format) {
+        this.recording = output;
+        this.recordingFormat = format;
+        this.recordedFrames = 0;
+    }
+
+    public void stopRecording() {
+        this.recording = null;
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Advances the ring and starts reading the current frame when a screenshot or a recording needs it. Call
+     * once per frame after rendering and before swapping buffers.
+     *
+     * @param framebuffer the framebuffer to read, {@code 0} for the back buffer of the Window.
+     */
+    public void capture(int framebuffer) {
+        poll();
+        if (screenshot == null && recording == null) return;
+
+        int slot = next;
+        if (states[slot] == READING) {
+            // The GPU is a whole ring behind, wait for the oldest read.
+            gpuWaits++;
+            handOver(slot, true);
+            unmapReleased();
+        }
+        if (states[slot] != FREE) {
+            droppedFrames++;
+            return;
+        }
+        next = (next + 1) % pbos.length;
+        if (screenshot != null) {
+            targets[slot] = screenshot;
+            formats[slot] = FrameWriter.Format.PNG;
+            screenshot = null;
+        } else {
+            targets[slot] = recordingFormat == FrameWriter.Format.PNG
+                    ? recording.resolve(FRAME_NAME.formatted(recordedFrames)) : recording;
+            formats[slot] = recordingFormat;
+            recordedFrames++;
+        }
+        capturedFrames++;
+
+        GL30.glBindFramebuffer(GL30.GL_READ_FRAMEBUFFER, framebuffer);
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, pbos[slot]);
+        GL11.glPixelStorei(GL11.GL_PACK_ALIGNMENT, 1);
+        GL11.glReadPixels(0, 0, width, height, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, 0);
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, 0);
+        fences[slot] = GL32.glFenceSync(GL32.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        states[slot] = READING;
+    }
+
+    /**
+     * Hands finished reads to the {@link FrameWriter} and unmaps released buffers, without starting a read.
+     * {@link #capture(int)} polls by itself, this is for frames which are not rendered.
+     *
+     * @return {@code true} if reads or writes are still in flight.
+     */
+    public boolean poll() {
+        unmapReleased();
+        // Oldest first, which keeps recorded frames in order; reads finish in order as well.
+        for (int i = 0; i < pbos.length; i++) if (!handOver((next + i) % pbos.length, false)) break;
+        for (int state : states) if (state != FREE) return true;
+        return false;
+    }
+
+    /**
+     * Maps a buffer whose read has finished and submits it to the {@link FrameWriter}. A failed wait drops
+     * the frame.
+     *
+     * @param wait whether to wait for the read to finish.
+     * @return {@code false} if the read has not finished yet.
+     */
+    private boolean handOver(int slot, boolean wait) {
+        if (states[slot] != READING) return true;
+        int status = GL32.glClientWaitSync(fences[slot], wait ? GL32.GL_SYNC_FLUSH_COMMANDS_BIT : 0,
+                wait ? Long.MAX_VALUE : 0);
+        if (status == GL32.GL_TIMEOUT_EXPIRED) return false;
+        GL32.glDeleteSync(fences[slot]);
+        if (status == GL32.GL_WAIT_FAILED) {
+            // The read may not have finished, mapping the buffer could hand over a torn frame.
+            droppedFrames++;
+            states[slot] = FREE;
+            return true;
+        }
+
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, pbos[slot]);
+        ByteBuffer mapped = GL30.glMapBufferRange(GL21.GL_PIXEL_PACK_BUFFER, 0, writer.getFrameBytes(),
+                GL30.GL_MAP_READ_BIT, mappings[slot]);
+        if (mapped != null && writer.submit(mapped, targets[slot], formats[slot])) {
+            mappings[slot] = mapped;
+            states[slot] = MAPPED;
+        } else {
+            if (mapped != null) GL15.glUnmapBuffer(GL21.GL_PIXEL_PACK_BUFFER);
+            droppedFrames++;
+            states[slot] = FREE;
+        }
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, 0);
+        return true;
+    }
+
+    /**
+     * Unmaps the buffers the {@link FrameWriter} has finished copying.
+     */
+    private void unmapReleased() {
+        for (ByteBuffer buffer; (buffer = writer.pollReleased()) != null; ) {
+            for (int slot = 0; slot < pbos.length; slot++) {
+                if (states[slot] != MAPPED || mappings[slot] != buffer) continue;
+                GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, pbos[slot]);
+                GL15.glUnmapBuffer(GL21.GL_PIXEL_PACK_BUFFER);
+                GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, 0);
+                states[slot] = FREE;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Waits until every started read is written.
+     *
+     * @throws IOException if a frame could not be written.
+     */
+    public void flush() throws IOException {
+        for (int i = 0; i < pbos.length; i++) handOver((next + i) % pbos.length, true);
+        writer.flush();
+        unmapReleased();
+    }
+
+    /**
+     * Writes every started read, stops the {@link FrameWriter} and deletes the buffers.
+     *
+     * @throws IOException if a frame could not be written.
+     */
+    public void destroy() throws IOException {
+        try {
+            flush();
+            writer.close();
+        } finally {
+            GL15.glDeleteBuffers(pbos);
+        }
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * @return the amount of frames whose read was started.
+     */
+    public long getCapturedFrames() {
+        return capturedFrames;
+    }
+
+    /**
+     * @return the amount of captured frames dropped because the {@link FrameWriter} fell behind.
+     */
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * @return how often the render thread had to wait for the GPU because every buffer was still being read.
+     */
+    public long getGpuWaits() {
+        return gpuWaits;
+    }
+
+    public FrameWriter getWriter() {
+        return writer;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("FrameCapture(%dx%d, captured=%d, dropped=%d, written=%d, gpu waits=%d)", width, height,
+                capturedFrames, droppedFrames, writer.getWrittenFrames(), gpuWaits);
+    }
+}
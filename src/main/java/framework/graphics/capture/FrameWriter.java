@@ -0,0 +1,233 @@
+package framework.graphics.capture;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.stb.STBImageWrite;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background thread encoding and writing captured frames, so the render thread never touches their pixels.
+ * <p>
+ * The render thread {@link #submit submits} buffers of bottom-up RGBA pixels, typically mapped pixel pack
+ * buffers. The writer thread flips each frame into its own buffer and immediately {@link #pollReleased()
+ * releases} the submitted buffer, so the render thread can unmap it, before encoding and writing the frame.
+ * When the writer falls behind, the queue fills up and submitting fails instead of waiting, so the frame is
+ * dropped. Errors are reported by {@link #flush()} and {@link #close()}.
+ */
+public class FrameWriter implements AutoCloseable {
+
+    /**
+     * How a frame is stored.
+     */
+    public enum Format {
+        /**
+         * A PNG image per frame.
+         */
+        PNG,
+        /**
+         * Headerless RGBA frames appended to one file, top row first, e.g. for
+         * {@code ffmpeg -f rawvideo -pixel_format rgba -video_size <w>x<h> -i capture.rgba clip.mp4}.
+         */
+        RAW
+    }
+
+    private record Job(ByteBuffer pixels, Path path, Format format) {}
+
+    private static final Job STOP = new Job(null, null, null);
+
+    private final int width;
+    private final int height;
+    private final int queueSize;
+    private final BlockingQueue<Job> jobs;
+    private final BlockingQueue<ByteBuffer> released;
+    private final Thread thread;
+    private final ByteBuffer flipped;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private long submitted;
+    private int outstanding;
+    private FileChannel rawChannel;
+    private Path rawPath;
+    private volatile IOException error;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new {@link FrameWriter} and starts its thread.
+     *
+     * @param width width of the frames in pixels, must be positive.
+     * @param height height of the frames in pixels, must be positive.
+     * @param queueSize amount of submitted buffers not yet released before submitting fails, must be positive.
+     * @throws IllegalArgumentException if a size is not positive.
+     */
+    public FrameWriter(int width, int height, int queueSize) {
+        if (width <= 0 || height <= 0) throw new IllegalArgumentException("Frame size must be positive: " + width + "x" + height);
+        if (queueSize <= 0) throw new IllegalArgumentException("Queue size must be positive: " + queueSize);
+        this.width = width;
+        this.height = height;
+        this.queueSize = queueSize;
+        // One more job for STOP, the amount of outstanding buffers keeps both queues from overflowing.
+        this.jobs = new ArrayBlockingQueue<>(queueSize + 1);
+        this.released = new ArrayBlockingQueue<>(queueSize);
+        this.flipped = BufferUtils.createByteBuffer(getFrameBytes());
+        this.thread = Thread.ofPlatform().name("frame-writer").daemon().start(this::run);
+    }
+
+    /**
+     * Queues a frame without blocking. The buffer is read by the writer thread until {@link #pollReleased()}
+     * returns it.
+     *
+     * @param pixels {@link #getFrameBytes()} bytes of bottom-up RGBA pixels from position 0.
+     * @param path the PNG file, or for {@link Format#RAW} the file the frame is appended to.
+     * @param format how to store the frame.
+     * @return {@code false} if too many buffers are outstanding and the frame has to be dropped.
+     * @throws IllegalStateException if the writer is closed.
+     * @throws IllegalArgumentException if the buffer is too small.
+     */
+    public boolean submit(ByteBuffer pixels, Path path, Format format) {
+        if (closed) throw new IllegalStateException("FrameWriter is closed");
+        if (pixels.capacity() < getFrameBytes()) throw new IllegalArgumentException("Frame buffer too small: " + pixels.capacity());
+        if (outstanding == queueSize) return false;
+        jobs.add(new Job(pixels, path, format));
+        outstanding++;
+        submitted++;
+        return true;
+    }
+
+    /**
+     * @return a submitted buffer the writer thread has finished reading, or {@code null} if there is none.
+     */
+    public ByteBuffer pollReleased() {
+        ByteBuffer buffer = released.poll();
+        if (buffer != null) outstanding--;
+        return buffer;
+    }
+
+    private void run() {
+        while (true) {
+            Job job;
+            try {
+                job = jobs.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (job == STOP) break;
+            // Frames are read bottom-up, both formats store them top row first.
+            int stride = width * 4;
+            for (int row = 0; row < height; row++)
+                flipped.put((height - 1 - row) * stride, job.pixels(), row * stride, stride);
+            released.add(job.pixels());
+            try {
+                if (error == null) write(job.path(), job.format());
+            } catch (IOException e) {
+                error = e;
+            } finally {
+                processed.incrementAndGet();
+            }
+        }
+        closeRaw();
+    }
+
+    private void write(Path path, Format format) throws IOException {
+        if (format == Format.PNG) {
+            Path parent = path.toAbsolutePath().getParent();
+            if (parent != null) Files.createDirectories(parent);
+            if (!STBImageWrite.stbi_write_png(path.toAbsolutePath().toString(), width, height, 4, flipped, width * 4))
+                throw new IOException("Unable to write image " + path);
+        } else {
+            if (!path.equals(rawPath)) {
+                closeRaw();
+                rawChannel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+                rawPath = path;
+            }
+            ByteBuffer data = flipped.clear();
+            while (data.hasRemaining()) rawChannel.write(data);
+        }
+        written.incrementAndGet();
+    }
+
+    private void closeRaw() {
+        if (rawChannel == null) return;
+        try {
+            rawChannel.close();
+        } catch (IOException e) {
+            if (error == null) error = e;
+        }
+        rawChannel = null;
+        rawPath = null;
+    }
+
+    /**
+     * Waits until every submitted frame is written.
+     *
+     * @throws IOException if a frame could not be written.
+     */
+    public void flush() throws IOException {
+        try {
+            while (processed.get() < submitted && thread.isAlive()) TimeUnit.MILLISECONDS.sleep(1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (error != null) throw error;
+    }
+
+    /**
+     * Writes all submitted frames and stops the thread.
+     *
+     * @throws IOException if a frame could not be written.
+     */
+    @Override
+    public void close() throws IOException {
+        closed = true;
+        if (thread.isAlive()) {
+            jobs.add(STOP);
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (error != null) throw error;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public int getFrameBytes() {
+        return width * height * 4;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    /**
+     * @return the amount of submitted buffers not returned by {@link #pollReleased()} yet.
+     */
+    public int getOutstanding() {
+        return outstanding;
+    }
+
+    /**
+     * @return the amount of frames written so far.
+     */
+    public long getWrittenFrames() {
+        return written.get();
+    }
+}
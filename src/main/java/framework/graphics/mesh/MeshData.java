@@ -0,0 +1,151 @@
+package framework.graphics.mesh;
+
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * GPU-ready mesh in the engine's fixed vertex layout, held in direct buffers which upload without a copy.
+ * <p>
+ * Every vertex is {@link #VERTEX_FLOATS} interleaved floats: position (x, y, z), texture coordinates (u, v)
+ * and normal (x, y, z), bound to the attribute locations 0, 1 and 2. Attributes a source does not provide
+ * are zero. Indices are unsigned and three per triangle, stored in the smallest of 1, 2 or 4 bytes a mesh
+ * was compacted to, see {@link #indexSizeFor(int)}.
+ *
+ * @param vertices interleaved vertex data, {@code vertexCount * VERTEX_BYTES} bytes from position 0.
+ * @param vertexCount amount of vertices.
+ * @param indices index data, {@code indexCount * indexSize} bytes from position 0.
+ * @param indexCount amount of indices.
+ * @param indexSize size of an index in bytes, 1, 2 or 4.
+ */
+public record MeshData(ByteBuffer vertices, int vertexCount, ByteBuffer indices, int indexCount, int indexSize) {
+
+    public static final int POSITION_OFFSET = 0;
+    public static final int UV_OFFSET = 3;
+    public static final int NORMAL_OFFSET = 5;
+    public static final int VERTEX_FLOATS = 8;
+    public static final int VERTEX_BYTES = VERTEX_FLOATS * Float.BYTES;
+
+    /**
+     * @throws IllegalArgumentException if a count is negative, the index size is invalid or a buffer is too
+     *                                  small for its count.
+     */
+    public MeshData {
+        if (vertexCount < 0 || indexCount < 0)
+            throw new IllegalArgumentException("Counts cannot be negative: " + vertexCount + ", " + indexCount);
+        if (indexSize != 1 && indexSize != 2 && indexSize != 4)
+            throw new IllegalArgumentException("Index size must be 1, 2 or 4: " + indexSize);
+        if (vertices.capacity() < (long) vertexCount * VERTEX_BYTES)
+            throw new IllegalArgumentException("Vertex buffer too small for " + vertexCount + " vertices");
+        if (indices.capacity() < (long) indexCount * indexSize)
+            throw new IllegalArgumentException("Index buffer too small for " + indexCount + " indices");
+        vertices = vertices.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        indices = indices.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    /**
+     * Creates a mesh with 4 byte indices.
+     */
+    public MeshData(ByteBuffer vertices, int vertexCount, ByteBuffer indices, int indexCount) {
+        this(vertices, vertexCount, indices, indexCount, Integer.BYTES);
+    }
+
+    /**
+     * Copies interleaved vertices and indices into direct buffers, with 4 byte indices.
+     *
+     * @param vertices interleaved vertices, a multiple of {@link #VERTEX_FLOATS} floats.
+     * @param vertexCount amount of vertices to copy.
+     * @param indices indices of the triangles.
+     * @param indexCount amount of indices to copy.
+     */
+    public static MeshData of(float[] vertices, int vertexCount, int[] indices, int indexCount) {
+        return of(vertices, vertexCount, indices, indexCount, Integer.BYTES);
+    }
+
+    /**
+     * Copies interleaved vertices and indices into direct buffers.
+     *
+     * @param indexSize size of an index in bytes, 1, 2 or 4. Every index must fit.
+     * @see #of(float[], int, int[], int)
+     */
+    public static MeshData of(float[] vertices, int vertexCount, int[] indices, int indexCount, int indexSize) {
+        ByteBuffer vertexBuffer = BufferUtils.createByteBuffer(vertexCount * VERTEX_BYTES);
+        vertexBuffer.order(ByteOrder.LITTLE_ENDIAN).asFloatBuffer().put(vertices, 0, vertexCount * VERTEX_FLOATS);
+        return new MeshData(vertexBuffer, vertexCount, encodeIndices(indices, indexCount, indexSize), indexCount, indexSize);
+    }
+
+    /**
+     * Stores indices in a direct buffer with a given size per index.
+     *
+     * @param indexSize size of an index in bytes, 1, 2 or 4. Every index must fit.
+     */
+    public static ByteBuffer encodeIndices(int[] indices, int indexCount, int indexSize) {
+        ByteBuffer buffer = BufferUtils.createByteBuffer(indexCount * indexSize).order(ByteOrder.LITTLE_ENDIAN);
+        switch (indexSize) {
+            case 1 -> {
+                for (int i = 0; i < indexCount; i++) buffer.put(i, (byte) indices[i]);
+            }
+            case 2 -> {
+                for (int i = 0; i < indexCount; i++) buffer.putShort(i * 2, (short) indices[i]);
+            }
+            case 4 -> buffer.asIntBuffer().put(indices, 0, indexCount);
+            default -> throw new IllegalArgumentException("Index size must be 1, 2 or 4: " + indexSize);
+        }
+        return buffer;
+    }
+
+    /**
+     * @return the smallest index size in bytes able to address a given amount of vertices.
+     */
+    public static int indexSizeFor(int vertexCount) {
+        if (vertexCount <= 1 << 8) return 1;
+        if (vertexCount <= 1 << 16) return 2;
+        return Integer.BYTES;
+    }
+
+    /**
+     * @param vertex index of the vertex.
+     * @param component float within the vertex, e.g. {@link #UV_OFFSET} + 1 for v.
+     */
+    public float get(int vertex, int component) {
+        return vertices.getFloat((vertex * VERTEX_FLOATS + component) * Float.BYTES);
+    }
+
+    public int getIndex(int index) {
+        return switch (indexSize) {
+            case 1 -> indices.get(index) & 0xFF;
+            case 2 -> indices.getShort(index * 2) & 0xFFFF;
+            default -> indices.getInt(index * Integer.BYTES);
+        };
+    }
+
+    /**
+     * Copies the indices into an array.
+     */
+    public int[] getIndices() {
+        int[] result = new int[indexCount];
+        for (int i = 0; i < indexCount; i++) result[i] = getIndex(i);
+        return result;
+    }
+
+    /**
+     * Copies the interleaved vertices into an array.
+     */
+    public float[] getVertices() {
+        float[] result = new float[vertexCount * VERTEX_FLOATS];
+        vertices.asFloatBuffer().get(0, result);
+        return result;
+    }
+
+    /**
+     * @return the size of the vertex and index data in bytes.
+     */
+    public long getByteSize() {
+        return (long) vertexCount * VERTEX_BYTES + (long) indexCount * indexSize;
+    }
+
+    public int getTriangleCount() {
+        return indexCount / 3;
+    }
+}
@@ -0,0 +1,128 @@
+package framework.graphics.mesh;
+
+import org.lwjgl.BufferUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The engine's binary mesh format ({@code .mesh}), a {@link MeshData} laid out exactly as it is uploaded.
+ * <p>
+ * Layout, all values little-endian:
+ * <pre>
+ * header   32 bytes: magic "JMSH", version, vertex count, index count, index size (1, 2 or 4), vertex size,
+ *          2 reserved ints
+ * vertices vertex count * vertex size bytes, see {@link MeshData}
+ * indices  index count * index size bytes
+ * </pre>
+ * Reading validates the header and that every index refers to a vertex, and slices the vertex and index blocks
+ * out of the buffer without copying.
+ */
+public final class MeshFormat {
+
+    public static final int MAGIC = 'J' | 'M' << 8 | 'S' << 16 | 'H' << 24;
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 32;
+
+    private MeshFormat() {}
+
+    /**
+     * @return the size of a mesh in this format in bytes.
+     */
+    public static long size(MeshData mesh) {
+        return HEADER_SIZE + mesh.getByteSize();
+    }
+
+    /**
+     * Encodes a mesh into a heap buffer.
+     *
+     * @throws IllegalArgumentException if the mesh is too large for a single buffer.
+     */
+    public static ByteBuffer encode(MeshData mesh) {
+        long size = size(mesh);
+        if (size > Integer.MAX_VALUE) throw new IllegalArgumentException("Mesh too large to encode: " + size + " bytes");
+        ByteBuffer buffer = ByteBuffer.allocate((int) size).order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader(buffer, mesh);
+        buffer.put(mesh.vertices().slice(0, mesh.vertexCount() * MeshData.VERTEX_BYTES));
+        buffer.put(mesh.indices().slice(0, mesh.indexCount() * mesh.indexSize()));
+        return buffer.flip();
+    }
+
+    /**
+     * Writes a mesh to a file, replacing it if it exists.
+     *
+     * @throws IOException if the file could not be written.
+     */
+    public static void write(MeshData mesh, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader(header, mesh);
+        ByteBuffer[] blocks = {header.flip(),
+                mesh.vertices().slice(0, mesh.vertexCount() * MeshData.VERTEX_BYTES),
+                mesh.indices().slice(0, mesh.indexCount() * mesh.indexSize())};
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            // Loops on the total, a mesh without indices has an empty last block from the start.
+            long remaining = HEADER_SIZE + (long) blocks[1].remaining() + blocks[2].remaining();
+            while (remaining > 0) remaining -= channel.write(blocks);
+        }
+    }
+
+    private static void writeHeader(ByteBuffer buffer, MeshData mesh) {
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(mesh.vertexCount()).putInt(mesh.indexCount())
+                .putInt(mesh.indexSize()).putInt(MeshData.VERTEX_BYTES).putInt(0).putInt(0);
+    }
+
+    /**
+     * Reads a mesh from a file with a single bulk read into a direct buffer.
+     *
+     * @throws IOException if the file could not be read or is not a valid mesh.
+     */
+    public static MeshData read(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) throw new IOException("Mesh file too large: " + path);
+            ByteBuffer buffer = BufferUtils.createByteBuffer((int) channel.size());
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer) < 0) break;
+            }
+            return read(buffer.flip());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid mesh file " + path + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reads a mesh from the remaining bytes of a buffer, whose vertex and index buffers share its memory.
+     *
+     * @throws IllegalArgumentException if the buffer does not hold a valid mesh, including indices outside of
+     *                                  the vertices.
+     */
+    public static MeshData read(ByteBuffer buffer) {
+        ByteBuffer data = buffer.slice().order(ByteOrder.LITTLE_ENDIAN);
+        if (data.remaining() < HEADER_SIZE || data.getInt(0) != MAGIC)
+            throw new IllegalArgumentException("Not a mesh file");
+        if (data.getInt(4) != VERSION) throw new IllegalArgumentException("Unsupported mesh version: " + data.getInt(4));
+        int vertexCount = data.getInt(8), indexCount = data.getInt(12);
+        int indexSize = data.getInt(16), vertexSize = data.getInt(20);
+        if (indexSize != 1 && indexSize != 2 && indexSize != 4)
+            throw new IllegalArgumentException("Unsupported index size: " + indexSize);
+        if (vertexSize != MeshData.VERTEX_BYTES) throw new IllegalArgumentException("Unsupported vertex size: " + vertexSize);
+        if (vertexCount < 0 || indexCount < 0) throw new IllegalArgumentException("Corrupted mesh header");
+
+        long vertexBytes = (long) vertexCount * vertexSize, indexBytes = (long) indexCount * indexSize;
+        if (HEADER_SIZE + vertexBytes + indexBytes > data.remaining())
+            throw new IllegalArgumentException("Truncated mesh: " + data.remaining() + " bytes");
+        MeshData mesh = new MeshData(data.slice(HEADER_SIZE, (int) vertexBytes), vertexCount,
+                data.slice(HEADER_SIZE + (int) vertexBytes, (int) indexBytes), indexCount, indexSize);
+        for (int i = 0; i < indexCount; i++) {
+            // Unsigned, 4 byte indices above the int range read as negative.
+            if (Integer.compareUnsigned(mesh.getIndex(i), vertexCount) >= 0)
+                throw new IllegalArgumentException("Index " + i + " refers to vertex " + Integer.toUnsignedString(mesh.getIndex(i))
+                        + " of " + vertexCount);
+        }
+        return mesh;
+    }
+}
@@ -0,0 +1,244 @@
+package framework.graphics.mesh;
+
+import java.util.Arrays;
+
+/**
+ * Optimization pass run on a {@link MeshData} before it is uploaded.
+ * <p>
+ * The pass welds vertices with identical attributes, reorders triangles for the post-transform vertex cache
+ * using Tom Forsyth's linear-speed algorithm, reorders vertices into the order they are first fetched, and
+ * finally stores the indices in the smallest size they fit in. The winding of every triangle is kept.
+ */
+public final class MeshOptimizer {
+
+    /**
+     * Size of the LRU cache the triangle order is optimized for.
+     */
+    public static final int CACHE_SIZE = 32;
+    /**
+     * Size of the FIFO cache used to report the ACMR, a conservative model of the post-transform cache.
+     */
+    public static final int REPORT_CACHE_SIZE = 16;
+
+    private static final float LAST_TRIANGLE_SCORE = 0.75f;
+    private static final float CACHE_DECAY_POWER = 1.5f;
+    private static final float VALENCE_BOOST_SCALE = 2f;
+    private static final float VALENCE_BOOST_POWER = 0.5f;
+
+    /**
+     * Result of an optimization, with the average cache miss ratio (transformed vertices per triangle) and
+     * the size of vertex and index data before and after.
+     */
+    public record Result(MeshData mesh, int verticesBefore, int verticesAfter, double acmrBefore, double acmrAfter,
+                         long bytesBefore, long bytesAfter) {
+
+        @Override
+        public String toString() {
+            return String.format("MeshOptimizer(vertices=%d -> %d, acmr=%.3f -> %.3f, bytes=%d -> %d, %.1f%% saved)",
+                    verticesBefore, verticesAfter, acmrBefore, acmrAfter, bytesBefore, bytesAfter,
+                    bytesBefore == 0 ? 0 : 100.0 * (bytesBefore - bytesAfter) / bytesBefore);
+        }
+    }
+
+    private MeshOptimizer() {}
+
+    /**
+     * Runs the whole optimization pass.
+     *
+     * @param mesh the mesh to optimize, left unchanged.
+     * @return the optimized mesh and its statistics.
+     */
+    public static Result optimize(MeshData mesh) {
+        float[] vertices = mesh.getVertices();
+        int[] indices = mesh.getIndices();
+        double acmrBefore = acmr(indices, mesh.vertexCount(), REPORT_CACHE_SIZE);
+
+        int vertexCount = weld(vertices, mesh.vertexCount(), indices);
+        indices = optimizeVertexCache(indices, vertexCount);
+        vertexCount = optimizeVertexFetch(vertices, vertexCount, indices);
+
+        MeshData optimized = MeshData.of(vertices, vertexCount, indices, indices.length, MeshData.indexSizeFor(vertexCount));
+        return new Result(optimized, mesh.vertexCount(), vertexCount, acmrBefore,
+                acmr(indices, vertexCount, REPORT_CACHE_SIZE), mesh.getByteSize(), optimized.getByteSize());
+    }
+
+    /**
+     * Merges vertices with bitwise identical attributes, keeping the first occurrence of each.
+     *
+     * @param vertices interleaved vertices, compacted in place.
+     * @param vertexCount amount of vertices.
+     * @param indices indices, remapped in place.
+     * @return the new amount of vertices.
+     */
+    public static int weld(float[] vertices, int vertexCount, int[] indices) {
+        int capacity = Integer.highestOneBit(Math.max(1, vertexCount) * 2 - 1) << 1;
+        int[] table = new int[capacity];
+        Arrays.fill(table, -1);
+        int[] remap = new int[vertexCount];
+        int unique = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            int slot = hash(vertices, v) & capacity - 1;
+            while (table[slot] >= 0 && !equal(vertices, table[slot], v)) slot = slot + 1 & capacity - 1;
+            if (table[slot] < 0) {
+                if (unique != v) System.arraycopy(vertices, v * MeshData.VERTEX_FLOATS, vertices,
+                        unique * MeshData.VERTEX_FLOATS, MeshData.VERTEX_FLOATS);
+                table[slot] = unique++;
+            }
+            remap[v] = table[slot];
+        }
+        for (int i = 0; i < indices.length; i++) indices[i] = remap[indices[i]];
+        return unique;
+    }
+
+    private static int hash(float[] vertices, int vertex) {
+        int h = 0;
+        for (int i = vertex * MeshData.VERTEX_FLOATS, end = i + MeshData.VERTEX_FLOATS; i < end; i++)
+            h = h * 31 + Float.floatToRawIntBits(vertices[i]);
+        return h ^ h >>> 16;
+    }
+
+    private static boolean equal(float[] vertices, int a, int b) {
+        return Arrays.equals(vertices, a * MeshData.VERTEX_FLOATS, (a + 1) * MeshData.VERTEX_FLOATS,
+                vertices, b * MeshData.VERTEX_FLOATS, (b + 1) * MeshData.VERTEX_FLOATS);
+    }
+
+    /**
+     * Reorders triangles so vertices are reused while still in the post-transform cache.
+     * <p>
+     * Every vertex is scored by its position in a simulated LRU cache of {@link #CACHE_SIZE} entries and by
+     * the amount of triangles still using it, so lone vertices are finished early. The triangle with the highest
+     * score among those touching the cache is emitted next; when the cache holds no pending triangle, the next
+     * unemitted triangle in source order is taken.
+     *
+     * @param indices indices of the triangles.
+     * @param vertexCount amount of vertices.
+     * @return the reordered indices.
+     */
+    public static int[] optimizeVertexCache(int[] indices, int vertexCount) {
+        int triangleCount = indices.length / 3;
+        // Triangles per vertex as a compressed list, the first pending[v] of which are not emitted yet.
+        int[] offsets = new int[vertexCount + 1];
+        for (int index : indices) offsets[index + 1]++;
+        for (int v = 0; v < vertexCount; v++) offsets[v + 1] += offsets[v];
+        int[] pending = new int[vertexCount];
+        int[] adjacency = new int[indices.length];
+        for (int i = 0; i < indices.length; i++) adjacency[offsets[indices[i]] + pending[indices[i]]++] = i / 3;
+
+        int[] cachePosition = new int[vertexCount];
+        Arrays.fill(cachePosition, -1);
+        float[] vertexScore = new float[vertexCount];
+        for (int v = 0; v < vertexCount; v++) vertexScore[v] = score(-1, pending[v]);
+
+        boolean[] emitted = new boolean[triangleCount];
+        int[] cache = new int[CACHE_SIZE + 3], next = new int[CACHE_SIZE + 3];
+        int cacheCount = 0, cursor = 0;
+        int[] result = new int[triangleCount * 3];
+        int best = -1;
+        for (int out = 0; out < triangleCount; out++) {
+            if (best < 0) {
+                while (emitted[cursor]) cursor++;
+                best = cursor;
+            }
+            emitted[best] = true;
+            System.arraycopy(indices, best * 3, result, out * 3, 3);
+
+            // The emitted vertices move to the front of the cache and lose the emitted triangle.
+            int nextCount = 0;
+            for (int k = 0; k < 3; k++) {
+                int v = indices[best * 3 + k];
+                int start = offsets[v], last = start + --pending[v];
+                for (int i = start; i <= last; i++) {
+                    if (adjacency[i] == best) {
+                        adjacency[i] = adjacency[last];
+                        adjacency[last] = best;
+                        break;
+                    }
+                }
+                if (cachePosition[v] != -2) {
+                    cachePosition[v] = -2;
+                    next[nextCount++] = v;
+                }
+            }
+            for (int i = 0; i < cacheCount; i++) if (cachePosition[cache[i]] != -2) next[nextCount++] = cache[i];
+            int[] swap = cache;
+            cache = next;
+            next = swap;
+            cacheCount = nextCount;
+
+            for (int i = 0; i < cacheCount; i++) {
+                int v = cache[i];
+                cachePosition[v] = i < CACHE_SIZE ? i : -1;
+                vertexScore[v] = score(cachePosition[v], pending[v]);
+            }
+            best = -1;
+            float bestScore = -1;
+            for (int i = 0; i < cacheCount; i++) {
+                int v = cache[i];
+                for (int a = offsets[v], end = a + pending[v]; a < end; a++) {
+                    int t = adjacency[a];
+                    float score = vertexScore[indices[t * 3]] + vertexScore[indices[t * 3 + 1]] + vertexScore[indices[t * 3 + 2]];
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best = t;
+                    }
+                }
+            }
+            cacheCount = Math.min(cacheCount, CACHE_SIZE);
+        }
+        return result;
+    }
+
+    private static float score(int cachePosition, int pendingTriangles) {
+        if (pendingTriangles == 0) return -1;
+        float score = 0;
+        if (cachePosition >= 0) {
+            if (cachePosition < 3) score = LAST_TRIANGLE_SCORE;
+            else score = (float) Math.pow(1 - (cachePosition - 3) / (float) (CACHE_SIZE - 3), CACHE_DECAY_POWER);
+        }
+        return score + VALENCE_BOOST_SCALE * (float) Math.pow(pendingTriangles, -VALENCE_BOOST_POWER);
+    }
+
+    /**
+     * Reorders vertices into the order the indices first reference them, and drops unreferenced vertices.
+     *
+     * @param vertices interleaved vertices, reordered in place.
+     * @param vertexCount amount of vertices.
+     * @param indices indices, remapped in place.
+     * @return the new amount of vertices.
+     */
+    public static int optimizeVertexFetch(float[] vertices, int vertexCount, int[] indices) {
+        int[] remap = new int[vertexCount];
+        Arrays.fill(remap, -1);
+        int next = 0;
+        for (int i = 0; i < indices.length; i++) {
+            int v = indices[i];
+            if (remap[v] < 0) remap[v] = next++;
+            indices[i] = remap[v];
+        }
+        float[] source = Arrays.copyOf(vertices, vertexCount * MeshData.VERTEX_FLOATS);
+        for (int v = 0; v < vertexCount; v++) {
+            if (remap[v] >= 0) System.arraycopy(source, v * MeshData.VERTEX_FLOATS, vertices,
+                    remap[v] * MeshData.VERTEX_FLOATS, MeshData.VERTEX_FLOATS);
+        }
+        return next;
+    }
+
+    /**
+     * Simulates a FIFO post-transform cache.
+     *
+     * @param indices indices of the triangles.
+     * @param vertexCount amount of vertices.
+     * @param cacheSize amount of vertices in the cache.
+     * @return the average amount of vertices transformed per triangle, between 0.5 for an ideal grid and 3.
+     */
+    public static double acmr(int[] indices, int vertexCount, int cacheSize) {
+        if (indices.length < 3) return 0;
+        int[] insertedAt = new int[vertexCount];
+        Arrays.fill(insertedAt, -cacheSize - 1);
+        int misses = 0;
+        for (int index : indices) {
+            if (misses - insertedAt[index] > cacheSize) insertedAt[index] = misses++;
+        }
+        return misses / (double) (indices.length / 3);
+    }
+}
@@ -0,0 +1,257 @@
+package framework.graphics.mesh;
+
+import framework.util.LongIntHashMap;
+
+import java.io.IOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Streaming Wavefront OBJ parser producing {@link MeshData}.
+ * <p>
+ * The file is memory-mapped and parsed byte by byte, numbers included, so no {@code String} is created per
+ * line. Only {@code v}, {@code vt}, {@code vn} and {@code f} statements are read, everything else is skipped.
+ * Polygons are triangulated as fans, negative (relative) indices are supported, and every distinct
+ * position/uv/normal combination becomes one vertex, deduplicated through a {@link LongIntHashMap}.
+ */
+public final class ObjLoader {
+
+    /**
+     * Maximum amount of positions, texture coordinates or normals, as their indices are packed into 21 bits
+     * each of a deduplication key.
+     */
+    public static final int MAX_ATTRIBUTES = (1 << 21) - 2;
+    private static final double[] POW10 = {1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+    private final MemorySegment source;
+    private final long end;
+    private long position;
+    private int line = 1;
+
+    private float[] positions = new float[3 * 1024];
+    private float[] uvs = new float[2 * 1024];
+    private float[] normals = new float[3 * 1024];
+    private int positionCount, uvCount, normalCount;
+
+    private float[] vertices = new float[MeshData.VERTEX_FLOATS * 1024];
+    private int[] indices = new int[3 * 1024];
+    private int vertexCount, indexCount;
+    private final LongIntHashMap vertexOf = new LongIntHashMap(1024, -1);
+
+    private ObjLoader(MemorySegment source) {
+        this.source = source;
+        this.end = source.byteSize();
+    }
+
+    /**
+     * Loads an OBJ file through a memory mapping.
+     *
+     * @throws IOException if the file could not be read.
+     * @throws IllegalArgumentException if the file is not a valid OBJ file.
+     */
+    public static MeshData load(Path path) throws IOException {
+        try (Arena arena = Arena.ofConfined();
+             FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return parse(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size(), arena));
+        }
+    }
+
+    /**
+     * Parses OBJ text from native or heap memory.
+     *
+     * @throws IllegalArgumentException if the text is not a valid OBJ file.
+     */
+    public static MeshData parse(MemorySegment source) {
+        return new ObjLoader(source).parse();
+    }
+
+    private MeshData parse() {
+        while (position < end) {
+            skipBlanks();
+            if (position >= end) break;
+            byte first = peek();
+            byte second = position + 1 < end ? source.get(ValueLayout.JAVA_BYTE, position + 1) : 0;
+            if (first == 'v' && isBlank(second)) {
+                position += 2;
+                positions = ensure(positions, positionCount * 3 + 3);
+                for (int i = 0; i < 3; i++) positions[positionCount * 3 + i] = parseFloat();
+                positionCount = checkCount(positionCount + 1);
+            } else if (first == 'v' && second == 't') {
+                position += 2;
+                uvs = ensure(uvs, uvCount * 2 + 2);
+                for (int i = 0; i < 2; i++) uvs[uvCount * 2 + i] = parseFloat();
+                uvCount = checkCount(uvCount + 1);
+            } else if (first == 'v' && second == 'n') {
+                position += 2;
+                normals = ensure(normals, normalCount * 3 + 3);
+                for (int i = 0; i < 3; i++) normals[normalCount * 3 + i] = parseFloat();
+                normalCount = checkCount(normalCount + 1);
+            } else if (first == 'f' && isBlank(second)) {
+                position += 2;
+                parseFace();
+            }
+            skipLine();
+        }
+        return MeshData.of(vertices, vertexCount, indices, indexCount);
+    }
+
+    /**
+     * Parses the vertices of a face and triangulates it as a fan around its first vertex.
+     */
+    private void parseFace() {
+        int first = -1, previous = -1, count = 0;
+        while (true) {
+            skipBlanks();
+            if (position >= end || isLineEnd(peek()) || peek() == '#') break;
+            int vertex = parseFaceVertex();
+            if (count == 0) first = vertex;
+            else if (count >= 2) {
+                indices = ensure(indices, indexCount + 3);
+                indices[indexCount++] = first;
+                indices[indexCount++] = previous;
+                indices[indexCount++] = vertex;
+            }
+            previous = vertex;
+            count++;
+        }
+        if (count < 3) throw error("Face needs at least 3 vertices");
+    }
+
+    /**
+     * Parses one {@code v}, {@code v/vt}, {@code v//vn} or {@code v/vt/vn} reference.
+     *
+     * @return the index of the deduplicated vertex.
+     */
+    private int parseFaceVertex() {
+        int p = resolve(parseInt(), positionCount), t = -1, n = -1;
+        if (position < end && peek() == '/') {
+            position++;
+            if (position < end && peek() != '/') t =resolve(parseInt(), uvCount);
+            if (position < end && peek() == '/') {
+                position++;
+                n = resolve(parseInt(), normalCount);
+            }
+        }
+        long key = (p + 1L) | (t + 1L) << 21 | (n + 1L) << 42;
+        int vertex = vertexOf.get(key);
+        if (vertex >= 0) return vertex;
+
+        vertex = vertexCount++;
+        vertices = ensure(vertices, vertexCount * MeshData.VERTEX_FLOATS);
+        int base = vertex * MeshData.VERTEX_FLOATS;
+        System.arraycopy(positions, p * 3, vertices, base + MeshData.POSITION_OFFSET, 3);
+        if (t >= 0) System.arraycopy(uvs, t * 2, vertices, base + MeshData.UV_OFFSET, 2);
+        if (n >= 0) System.arraycopy(normals, n * 3, vertices, base + MeshData.NORMAL_OFFSET, 3);
+        vertexOf.put(key, vertex);
+        return vertex;
+    }
+
+    /**
+     * Converts a 1-based or negative relative OBJ index into a 0-based index.
+     */
+    private int resolve(int index, int count) {
+        int resolved = index < 0 ? count + index : index - 1;
+        if (index == 0 || resolved < 0 || resolved >= count) throw error("Index out of range: " + index);
+        return resolved;
+    }
+
+
+    // ------------------------ Lexing ------------------------ //
+    private byte peek() {
+        return source.get(ValueLayout.JAVA_BYTE, position);
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t';
+    }
+
+    private static boolean isLineEnd(byte b) {
+        return b == '\n' || b == '\r';
+    }
+
+    private void skipBlanks() {
+        while (position < end && isBlank(peek())) position++;
+    }
+
+    private void skipLine() {
+        while (position < end && peek() != '\n') position++;
+        if (position < end) {
+            position++;
+            line++;
+        }
+    }
+
+    private int parseInt() {
+        boolean negative = position < end && peek() == '-';
+        if (negative || position < end && peek() == '+') position++;
+        long value = 0;
+        long start = position;
+        while (position < end) {
+            int digit = peek() - '0';
+            if (digit < 0 || digit > 9) break;
+            value = value * 10 + digit;
+            if (value > Integer.MAX_VALUE) throw error("Index too large");
+            position++;
+        }
+        if (position == start) throw error("Expected an index");
+        return (int) (negative ? -value : value);
+    }
+
+    /**
+     * Parses a decimal floating point number, keeping the first 18 significant digits.
+     */
+    private float parseFloat() {
+        skipBlanks();
+        boolean negative = position < end && peek() == '-';
+        if (negative || position < end && peek() == '+') position++;
+        long mantissa = 0;
+        int digits = 0, exponent = 0;
+        long start = position;
+        boolean fraction = false;
+        while (position < end) {
+            byte b = peek();
+            if (b == '.' && !fraction) {
+                fraction = true;
+            } else if (b >= '0' && b <= '9') {
+                if (digits < 18) {
+                    mantissa = mantissa * 10 + (b - '0');
+                    if (mantissa != 0) digits++;
+                    if (fraction) exponent--;
+                } else if (!fraction) exponent++;
+            } else break;
+            position++;
+        }
+        if (position == start) throw error("Expected a number");
+        if (position < end && (peek() == 'e' || peek() == 'E')) {
+            position++;
+            exponent += parseInt();
+        }
+        double value = mantissa;
+        if (exponent < 0) value = -exponent < POW10.length ? value / POW10[-exponent] : value * Math.pow(10, exponent);
+        else if (exponent > 0) value = exponent < POW10.length ? value * POW10[exponent] : value * Math.pow(10, exponent);
+        return (float) (negative ? -value : value);
+    }
+
+    private int checkCount(int count) {
+        if (count > MAX_ATTRIBUTES) throw error("More than " + MAX_ATTRIBUTES + " attributes of one kind");
+        return count;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException("Invalid OBJ at line " + line + ": " + message);
+    }
+
+    private static float[] ensure(float[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+
+    private static int[] ensure(int[] array, int size) {
+        return size <= array.length ? array : Arrays.copyOf(array, Math.max(size, array.length * 2));
+    }
+}
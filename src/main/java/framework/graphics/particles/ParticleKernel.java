@@ -0,0 +1,43 @@
+package framework.graphics.particles;
+
+/**
+ * Update step of a {@link ParticleSystem}: integrates velocity and position, ages the particles and fades their
+ * color. Implementations must produce the same results up to floating point rounding.
+ */
+interface ParticleKernel {
+
+    /**
+     * Updates the particles {@code [from, to)}.
+     */
+    void update(ParticleSystem particles, int from, int to, float dt);
+
+    /**
+     * @return whether the {@code jdk.incubator.vector} module is present, e.g. through
+     * {@code --add-modules jdk.incubator.vector}, so the vectorized kernel can be loaded.
+     */
+    static boolean isVectorSupported() {
+        return Holder.VECTOR != null;
+    }
+
+    static ParticleKernel scalar() {
+        return Holder.SCALAR;
+    }
+
+    /**
+     * @throws IllegalStateException if the vectorized kernel is not supported.
+     */
+    static ParticleKernel vectorized() {
+        if (Holder.VECTOR == null) throw new IllegalStateException("jdk.incubator.vector is not available");
+        return Holder.VECTOR;
+    }
+
+    final class Holder {
+
+        static final ParticleKernel SCALAR = new ScalarParticleKernel();
+        // Only touch the vector kernel when its module exists, it cannot even be loaded otherwise.
+        static final ParticleKernel VECTOR = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+                ? new VectorParticleKernel() : null;
+
+        private Holder() {}
+    }
+}
@@ -0,0 +1,108 @@
+package framework.graphics.particles;
+
+import framework.application.IHandler;
+import framework.graphics.ShaderParticle;
+import framework.injection.annotations.Inject;
+import framework.injection.annotations.PostConstruct;
+import framework.injection.annotations.Singleton;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL33;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Draws a {@link ParticleSystem} as soft round sprites with a single instanced draw call.
+ * <p>
+ * A unit quad is shared by every particle, the per-particle position, size and color are streamed into an
+ * instance buffer each frame. Coordinates are screen pixels with the origin in the top-left corner, like the
+ * {@link framework.graphics.text.TextRenderer}, and the size of a particle is its diameter. The instance buffer
+ * only grows, so drawing does not allocate once the largest system has been drawn.
+ */
+@Singleton
+public class ParticleRenderer implements IHandler {
+
+    private static final int INSTANCE_SIZE = ParticleSystem.INSTANCE_FLOATS * Float.BYTES;
+
+    @Inject
+    private ShaderParticle shader;
+
+    private FloatBuffer instances = BufferUtils.createFloatBuffer(0);
+    private int vao;
+    private int quad;
+    private int vbo;
+    private boolean additive = true;
+
+    @PostConstruct
+    private void init() {
+        vao = GL30.glGenVertexArrays();
+        GL30.glBindVertexArray(vao);
+
+        quad = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, quad);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, new float[]{-0.5f, -0.5f, 0.5f, -0.5f, -0.5f, 0.5f, 0.5f, 0.5f},
+                GL15.GL_STATIC_DRAW);
+        GL20.glVertexAttribPointer(0, 2, GL11.GL_FLOAT, false, 0, 0);
+        GL20.glEnableVertexAttribArray(0);
+
+        vbo = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GL20.glVertexAttribPointer(1, 3, GL11.GL_FLOAT, false, INSTANCE_SIZE, 0);
+        GL20.glVertexAttribPointer(2, 4, GL11.GL_FLOAT, false, INSTANCE_SIZE, 3 * Float.BYTES);
+        GL33.glVertexAttribDivisor(1, 1);
+        GL33.glVertexAttribDivisor(2, 1);
+        GL20.glEnableVertexAttribArray(1);
+        GL20.glEnableVertexAttribArray(2);
+
+        GL30.glBindVertexArray(0);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Chooses additive blending, which makes overlapping particles glow, or regular alpha blending.
+     */
+    public void setAdditive(boolean additive) {
+        this.additive = additive;
+    }
+
+    /**
+     * Draws all live particles of a system.
+     *
+     * @param width the width of the render target in pixels.
+     * @param height the height of the render target in pixels.
+     */
+    public void draw(ParticleSystem particles, int width, int height) {
+        int count = particles.getCount();
+        if (count == 0) return;
+        if (instances.capacity() < count * ParticleSystem.INSTANCE_FLOATS)
+            instances = BufferUtils.createFloatBuffer(particles.getCapacity() * ParticleSystem.INSTANCE_FLOATS);
+        particles.writeInstances(instances.clear());
+
+        shader.use();
+        shader.loadScreenSize(width, height);
+        GL11.glEnable(GL11.GL_BLEND);
+        GL11.glBlendFunc(GL11.GL_SRC_ALPHA, additive ? GL11.GL_ONE : GL11.GL_ONE_MINUS_SRC_ALPHA);
+
+        GL30.glBindVertexArray(vao);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        // Orphan the previous frame's storage instead of waiting for draws still reading it.
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) instances.capacity() * Float.BYTES, GL15.GL_STREAM_DRAW);
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, instances.flip());
+        GL31.glDrawArraysInstanced(GL11.GL_TRIANGLE_STRIP, 0, 4, count);
+
+        GL30.glBindVertexArray(0);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GL11.glDisable(GL11.GL_BLEND);
+        shader.disable();
+    }
+
+    public void destroy() {
+        GL15.glDeleteBuffers(quad);
+        GL15.glDeleteBuffers(vbo);
+        GL30.glDeleteVertexArrays(vao);
+    }
+}
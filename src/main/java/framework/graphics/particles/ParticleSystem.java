@@ -0,0 +1,240 @@
+package framework.graphics.particles;
+
+import java.nio.FloatBuffer;
+
+/**
+ * Fixed-capacity pool of short-lived 2D particles, e.g. for card hits, deals and victory effects.
+ * <p>
+ * Particle state is stored as a struct of arrays, one float array per attribute, so {@link #update(float)} streams
+ * through memory linearly. Integration, aging and the color fade run in a {@link ParticleKernel}, vectorized with
+ * the {@code jdk.incubator.vector} module when it is available and scalar otherwise. Dead particles are then
+ * compacted by moving the last live particle into their place, which keeps the live particles dense in
+ * {@code [0, count)} without allocating. The order of particles is therefore not stable.
+ */
+public class ParticleSystem {
+
+    /**
+     * Floats per particle written by {@link #writeInstances(FloatBuffer)}: x, y, size, r, g, b, a.
+     */
+    public static final int INSTANCE_FLOATS = 7;
+
+    final float[] x, y, vx, vy;
+    final float[] age, inverseLifetime, size;
+    final float[] startR, startG, startB, startA;
+    final float[] deltaR, deltaG, deltaB, deltaA;
+    final float[] r, g, b, a;
+    final float gravityX, gravityY;
+    final float drag;
+
+    private final int capacity;
+    private final ParticleKernel kernel;
+    private int count;
+
+    private ParticleSystem(Builder builder) {
+        this.capacity = builder.capacity;
+        this.gravityX = builder.gravityX;
+        this.gravityY = builder.gravityY;
+        this.drag = builder.drag;
+        this.kernel = builder.vectorized ? ParticleKernel.vectorized() : ParticleKernel.scalar();
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        age = new float[capacity];
+        inverseLifetime = new float[capacity];
+        size = new float[capacity];
+        startR = new float[capacity];
+        startG = new float[capacity];
+        startB = new float[capacity];
+        startA = new float[capacity];
+        deltaR = new float[capacity];
+        deltaG = new float[capacity];
+        deltaB = new float[capacity];
+        deltaA = new float[capacity];
+        r = new float[capacity];
+        g = new float[capacity];
+        b = new float[capacity];
+        a = new float[capacity];
+    }
+
+    /**
+     * Builder class for the creation of a new {@link ParticleSystem}.
+     */
+    public static class Builder {
+
+        private final int capacity;
+        private float gravityX;
+        private float gravityY;
+        private float drag;
+        private boolean vectorized = ParticleKernel.isVectorSupported();
+
+        /**
+         * Creates a new instance of a {@link ParticleSystem.Builder}.
+         *
+         * @param capacity maximum amount of live particles, must be positive.
+         * @throws IllegalArgumentException if provided capacity is not positive.
+         */
+        public Builder(int capacity) {
+            if (capacity <= 0) throw new IllegalArgumentException("Particle capacity must be positive: " + capacity);
+            this.capacity = capacity;
+        }
+
+        /**
+         * Sets the acceleration applied to every particle in units per second².
+         */
+        public Builder setGravity(float x, float y) {
+            this.gravityX = x;
+            this.gravityY = y;
+            return this;
+        }
+
+        /**
+         * Sets the fraction of velocity lost per second, applied linearly per update.
+         *
+         * @throws IllegalArgumentException if provided drag is negative.
+         */
+        public Builder setDrag(float drag) {
+            if (!(drag >= 0)) throw new IllegalArgumentException("Drag cannot be negative: " + drag);
+            this.drag = drag;
+            return this;
+        }
+
+        /**
+         * Chooses the vectorized or the scalar kernel. Defaults to vectorized when supported.
+         *
+         * @throws IllegalArgumentException if the vectorized kernel is requested but not supported.
+         */
+        public Builder setVectorized(boolean vectorized) {
+            if (vectorized && !ParticleKernel.isVectorSupported())
+                throw new IllegalArgumentException("Vectorized particles require the jdk.incubator.vector module");
+            this.vectorized = vectorized;
+            return this;
+        }
+
+        public ParticleSystem build() {
+            return new ParticleSystem(this);
+        }
+    }
+
+    /**
+     * Spawns a particle.
+     *
+     * @param lifetime lifetime in seconds, must be positive.
+     * @param startColor color at birth as {@code 0xRRGGBBAA}.
+     * @param endColor color at death as {@code 0xRRGGBBAA}, faded to linearly.
+     * @return {@code false} if the system is full and the particle was not spawned.
+     * @throws IllegalArgumentException if provided lifetime is not positive.
+     */
+    public boolean emit(float x, float y, float vx, float vy, float lifetime, float size, int startColor, int endColor) {
+        if (!(lifetime > 0)) throw new IllegalArgumentException("Lifetime must be positive: " + lifetime);
+        if (count == capacity) return false;
+        int i = count++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.vx[i] = vx;
+        this.vy[i] = vy;
+        this.age[i] = 0;
+        this.inverseLifetime[i] = 1 / lifetime;
+        this.size[i] = size;
+        startR[i] = r[i] = channel(startColor, 24);
+        startG[i] = g[i] = channel(startColor, 16);
+        startB[i] = b[i] = channel(startColor, 8);
+        startA[i] = a[i] = channel(startColor, 0);
+        deltaR[i] = channel(endColor, 24) - startR[i];
+        deltaG[i] = channel(endColor, 16) - startG[i];
+        deltaB[i] = channel(endColor, 8) - startB[i];
+        deltaA[i] = channel(endColor, 0) - startA[i];
+        return true;
+    }
+
+    private static float channel(int color, int shift) {
+        return (color >>> shift & 0xFF) / 255f;
+    }
+
+    /**
+     * Advances all particles and removes the ones which reached their lifetime.
+     *
+     * @param dt the elapsed time in seconds.
+     */
+    public void update(float dt) {
+        if (count == 0) return;
+        kernel.update(this, 0, count, dt);
+        compact();
+    }
+
+    /**
+     * Moves the last live particle into every dead slot, from the back so moved particles are live already.
+     */
+    private void compact() {
+        for (int i = count - 1; i >= 0; i--) {
+            if (age[i] * inverseLifetime[i] < 1) continue;
+            int last = --count;
+            if (i == last) continue;
+            x[i] = x[last];
+            y[i] = y[last];
+            vx[i] = vx[last];
+            vy[i] = vy[last];
+            age[i] = age[last];
+            inverseLifetime[i] = inverseLifetime[last];
+            size[i] = size[last];
+            startR[i] = startR[last];
+            startG[i] = startG[last];
+            startB[i] = startB[last];
+            startA[i] = startA[last];
+            deltaR[i] = deltaR[last];
+            deltaG[i] = deltaG[last];
+            deltaB[i] = deltaB[last];
+            deltaA[i] = deltaA[last];
+            r[i] = r[last];
+            g[i] = g[last];
+            b[i] = b[last];
+            a[i] = a[last];
+        }
+    }
+
+    /**
+     * Writes x, y, size and the current color of every live particle, {@link #INSTANCE_FLOATS} floats each.
+     *
+     * @param target buffer with room for {@link #getCount()} particles, written from its position.
+     * @return the amount of written particles.
+     */
+    public int writeInstances(FloatBuffer target) {
+        for (int i = 0; i < count; i++)
+            target.put(x[i]).put(y[i]).put(size[i]).put(r[i]).put(g[i]).put(b[i]).put(a[i]);
+        return count;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public int getCount() {
+        return count;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public boolean isVectorized() {
+        return kernel != ParticleKernel.scalar();
+    }
+
+    public float getX(int particle) {
+        return x[particle];
+    }
+
+    public float getY(int particle) {
+        return y[particle];
+    }
+
+    /**
+     * @return the current color of a particle as {@code 0xRRGGBBAA}.
+     */
+    public int getColor(int particle) {
+        return Math.round(r[particle] * 255) << 24 | Math.round(g[particle] * 255) << 16
+                | Math.round(b[particle] * 255) << 8 | Math.round(a[particle] * 255);
+    }
+}
@@ -0,0 +1,28 @@
+package framework.graphics.particles;
+
+/**
+ * Plain loop {@link ParticleKernel}, the fallback without the Vector API and for the tail of a vectorized update.
+ */
+final class ScalarParticleKernel implements ParticleKernel {
+
+    @Override
+    public void update(ParticleSystem p, int from, int to, float dt) {
+        float damping = Math.max(0, 1 - p.drag * dt);
+        float ax = p.gravityX * dt, ay = p.gravityY * dt;
+        for (int i = from; i < to; i++) {
+            float vx = (p.vx[i] + ax) * damping;
+            float vy = (p.vy[i] + ay) * damping;
+            p.vx[i] = vx;
+            p.vy[i] = vy;
+            p.x[i] += vx * dt;
+            p.y[i] += vy * dt;
+            float age = p.age[i] + dt;
+            p.age[i] = age;
+            float t = Math.min(age * p.inverseLifetime[i], 1);
+            p.r[i] = p.startR[i] + p.deltaR[i] * t;
+            p.g[i] = p.startG[i] + p.deltaG[i] * t;
+            p.b[i] = p.startB[i] + p.deltaB[i] * t;
+            p.a[i] = p.startA[i] + p.deltaA[i] * t;
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package framework.graphics.text;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL44;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.stb.STBTTFontinfo;
+import org.lwjgl.system.MemoryStack;
+
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.lwjgl.stb.STBTruetype.*;
+
+/**
+ * TrueType font at a fixed pixel height, rasterized with {@code stb_truetype} into a dynamic atlas texture.
+ * <p>
+ * Glyphs are baked on first use into a single-channel atlas using a shelf packer. When the atlas is full
+ * it is cleared and its generation is increased; text queued for the old atlas is drawn first, and
+ * {@link GlyphRun}s shaped for an older generation are reshaped the next time they are drawn. Fonts are
+ * created through {@link TextRenderer#loadFont(String, float)}.
+ */
+public class Font {
+
+    public static final int ATLAS_SIZE = 1024;
+    /**
+     * Amount of {@link GlyphRun}s cached by {@link #run(String)}, the least recently used run is evicted beyond.
+     */
+    public static final int MAX_RUNS = 1024;
+    private static final int PADDING = 1;
+    /**
+     * Per glyph: quad {@code x0, y0, x1, y1} relative to the pen on the baseline, atlas {@code s0, t0, s1, t1}
+     * and the horizontal advance.
+     */
+    static final int GLYPH_STRIDE = 9;
+    private static final int NO_GLYPH = -1;
+    // Zeros to clear atlases with when glClearTexImage is not supported, shared by all fonts.
+    private static ByteBuffer clearData;
+
+    // stb_truetype reads from the font data on demand, so it must stay reachable.
+    private final ByteBuffer ttf;
+    private final STBTTFontinfo info = STBTTFontinfo.create();
+    private final float scale;
+    private final float ascent;
+    private final float lineHeight;
+    private final int atlasTexture;
+    private final boolean clearTexImage;
+
+    private float[] glyphs = new float[128 * GLYPH_STRIDE];
+    private int glyphCount;
+    private int[] slotKeys = new int[256];
+    private int[] slotValues = new int[256];
+    private int penX = PADDING, penY = PADDING, rowHeight;
+    private int generation;
+    private ByteBuffer bitmap = BufferUtils.createByteBuffer(64 * 64);
+
+    // Access ordered, so the least recently drawn run is evicted first.
+    private final Map<String, GlyphRun> runs = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, GlyphRun> eldest) {
+            return size() > MAX_RUNS;
+        }
+    };
+
+    // Batch of glyph quads queued for this atlas by the TextRenderer, which draws them before the atlas is cleared.
+    TextRenderer renderer;
+    ByteBuffer vertices;
+    int quadCount;
+    boolean queued;
+
+    /**
+     * Creates a new instance of a {@link Font}, which requires a current OpenGL context.
+     *
+     * @param ttf contents of a TrueType file, which must stay unchanged for the lifetime of the Font.
+     * @param pixelHeight height of the font in pixels, must be positive.
+     * @throws IllegalArgumentException if provided height is not positive, or the data is not a valid font.
+     */
+    Font(ByteBuffer ttf, float pixelHeight) {
+        if (!(pixelHeight > 0)) throw new IllegalArgumentException("Font height must be positive: " + pixelHeight);
+        if (!stbtt_InitFont(info, ttf)) throw new IllegalArgumentException("Unable to initialize font");
+        this.ttf = ttf;
+        this.scale = stbtt_ScaleForPixelHeight(info, pixelHeight);
+
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer ascent = stack.mallocInt(1);
+            IntBuffer descent = stack.mallocInt(1);
+            IntBuffer lineGap = stack.mallocInt(1);
+            stbtt_GetFontVMetrics(info, ascent, descent, lineGap);
+            this.ascent = ascent.get(0) * scale;
+            this.lineHeight = (ascent.get(0) - descent.get(0) + lineGap.get(0)) * scale;
+        }
+
+        atlasTexture = GL11.glGenTextures();
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, atlasTexture);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL30.GL_R8, ATLAS_SIZE, ATLAS_SIZE, 0, GL11.GL_RED,
+                GL11.GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        GLCapabilities caps = GL.getCapabilities();
+        clearTexImage = caps.OpenGL44 || caps.GL_ARB_clear_texture;
+        clearAtlas();
+    }
+
+
+    // ------------------------ Glyph Cache ------------------------ //
+    /**
+     * Getter for the cache slot of a glyph, baking it into the atlas if it is not present yet.
+     *
+     * @param codepoint the unicode codepoint of the glyph.
+     * @return the slot of the glyph, to be used with {@link #glyphData()}.
+     * @throws IllegalStateException if the glyph is larger than the atlas.
+     */
+    int glyph(int codepoint) {
+        int mask = slotKeys.length - 1;
+        int i = mix(codepoint) & mask;
+        while (slotKeys[i] != NO_GLYPH) {
+            if (slotKeys[i] == codepoint) return slotValues[i];
+            i = (i + 1) & mask;
+        }
+        return bake(codepoint);
+    }
+
+    float[] glyphData() {
+        return glyphs;
+    }
+
+    private int bake(int codepoint) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer advance = stack.mallocInt(1);
+            IntBuffer bearing = stack.mallocInt(1);
+            IntBuffer x0 = stack.mallocInt(1), y0 = stack.mallocInt(1);
+            IntBuffer x1 = stack.mallocInt(1), y1 = stack.mallocInt(1);
+            stbtt_GetCodepointHMetrics(info, codepoint, advance, bearing);
+            stbtt_GetCodepointBitmapBox(info, codepoint, scale, scale, x0, y0, x1, y1);
+            int w = x1.get(0) - x0.get(0), h = y1.get(0) - y0.get(0);
+            if (w > ATLAS_SIZE - 2 * PADDING || h > ATLAS_SIZE - 2 * PADDING)
+                throw new IllegalStateException("Glyph U+" + Integer.toHexString(codepoint).toUpperCase()
+                        + " of " + w + "x" + h + " pixels does not fit into the Font atlas");
+
+            if (penX + w + PADDING > ATLAS_SIZE) {
+                penX = PADDING;
+                penY += rowHeight + PADDING;
+                rowHeight = 0;
+            }
+            if (penY + h + PADDING > ATLAS_SIZE) clearAtlas();
+
+            if (w > 0 && h > 0) {
+                if (bitmap.capacity() < w * h) bitmap = BufferUtils.createByteBuffer(w * h * 2);
+                stbtt_MakeCodepointBitmap(info, bitmap, w, h, w, scale, scale, codepoint);
+                GL11.glBindTexture(GL11.GL_TEXTURE_2D, atlasTexture);
+                GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+                GL11.glTexSubImage2D(GL11.GL_TEXTURE_2D, 0, penX, penY, w, h, GL11.GL_RED, GL11.GL_UNSIGNED_BYTE, bitmap);
+            }
+
+            int slot = glyphCount++;
+            if ((slot + 1) * GLYPH_STRIDE > glyphs.length) glyphs = Arrays.copyOf(glyphs, glyphs.length * 2);
+            int g = slot * GLYPH_STRIDE;
+            glyphs[g] = x0.get(0);
+            glyphs[g + 1] = y0.get(0);
+            glyphs[g + 2] = x1.get(0);
+            glyphs[g + 3] = y1.get(0);
+            glyphs[g + 4] = (float) penX / ATLAS_SIZE;
+            glyphs[g + 5] = (float) penY / ATLAS_SIZE;
+            glyphs[g + 6] = (float) (penX + w) / ATLAS_SIZE;
+            glyphs[g + 7] = (float) (penY + h) / ATLAS_SIZE;
+            glyphs[g + 8] = advance.get(0) * scale;
+
+            penX += w + PADDING;
+            rowHeight = Math.max(rowHeight, h);
+            putSlot(codepoint, slot);
+            return slot;
+        }
+    }
+
+    private void putSlot(int codepoint, int slot) {
+        if (glyphCount * 2 > slotKeys.length) {
+            int[] oldKeys = slotKeys, oldValues = slotValues;
+            slotKeys = new int[oldKeys.length * 2];
+            slotValues = new int[oldKeys.length * 2];
+            Arrays.fill(slotKeys, NO_GLYPH);
+            for (int i = 0; i < oldKeys.length; i++)
+                if (oldKeys[i] != NO_GLYPH) insertSlot(oldKeys[i], oldValues[i]);
+        }
+        insertSlot(codepoint, slot);
+    }
+
+    private void insertSlot(int codepoint, int slot) {
+        int mask = slotKeys.length - 1;
+        int i = mix(codepoint) & mask;
+        while (slotKeys[i] != NO_GLYPH) i = (i + 1) & mask;
+        slotKeys[i] = codepoint;
+        slotValues[i] = slot;
+    }
+
+    private static int mix(int codepoint) {
+        int h = codepoint * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Clears the atlas texture and all baked glyphs, invalidating every previously shaped {@link GlyphRun}.
+     * Quads queued for the old atlas are drawn first.
+     */
+    private void clearAtlas() {
+        if (renderer != null) renderer.flush(this);
+        if (clearTexImage) {
+            GL44.glClearTexImage(atlasTexture, 0, GL11.GL_RED, GL11.GL_UNSIGNED_BYTE, (ByteBuffer) null);
+        } else {
+            if (clearData == null) clearData = BufferUtils.createByteBuffer(ATLAS_SIZE * ATLAS_SIZE);
+            GL11.glBindTexture(GL11.GL_TEXTURE_2D, atlasTexture);
+            GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+            GL11.glTexSubImage2D(GL11.GL_TEXTURE_2D, 0, 0, 0, ATLAS_SIZE, ATLAS_SIZE, GL11.GL_RED,
+                    GL11.GL_UNSIGNED_BYTE, clearData);
+        }
+        Arrays.fill(slotKeys, NO_GLYPH);
+        glyphCount = 0;
+        penX = PADDING;
+        penY = PADDING;
+        rowHeight = 0;
+        generation++;
+    }
+
+
+    // ------------------------ Shaping ------------------------ //
+    /**
+     * Getter for the cached {@link GlyphRun} of a string that does not change between frames. At most
+     * {@link #MAX_RUNS} runs are cached, text which changes every frame is better drawn directly.
+     *
+     * @param text the text to shape, cannot be null.
+     * @return the shared GlyphRun of the text, shaped on first use.
+     * @throws IllegalArgumentException if provided text is {@code null}.
+     */
+    public GlyphRun run(String text) {
+        if (text == null) throw new IllegalArgumentException("Text cannot be null");
+        GlyphRun run = runs.get(text);
+        if (run == null) {
+            run = new GlyphRun(this, text);
+            runs.put(text, run);
+        }
+        return run;
+    }
+
+    /**
+     * Removes all cached {@link GlyphRun}s, for example after a scene change.
+     */
+    public void clearRuns() {
+        runs.clear();
+    }
+
+    /**
+     * Getter for the kerning between two consecutive codepoints.
+     *
+     * @return the horizontal adjustment in pixels.
+     */
+    float kerning(int previous, int codepoint) {
+        return previous < 0 ? 0 : stbtt_GetCodepointKernAdvance(info, previous, codepoint) * scale;
+    }
+
+    /**
+     * Measures the width of a single line of text.
+     *
+     * @param text the text to measure.
+     * @return the advance width in pixels.
+     */
+    public float measure(CharSequence text) {
+        float width = 0;
+        int previous = -1;
+        for (int i = 0; i < text.length(); ) {
+            int codepoint = Character.codePointAt(text, i);
+            i += Character.charCount(codepoint);
+            width += kerning(previous, codepoint) + glyphs[glyph(codepoint) * GLYPH_STRIDE + 8];
+            previous = codepoint;
+        }
+        return width;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public float getAscent() {
+        return ascent;
+    }
+
+    public float getLineHeight() {
+        return lineHeight;
+    }
+
+    public int getAtlasTexture() {
+        return atlasTexture;
+    }
+
+    int getGeneration() {
+        return generation;
+    }
+
+    void destroy() {
+        GL11.glDeleteTextures(atlasTexture);
+        runs.clear();
+    }
+}
@@ -0,0 +1,113 @@
+package framework.graphics.text;
+
+/**
+ * Pre-shaped line(s) of text for a {@link Font}: glyph quads relative to the origin, including kerning and
+ * line breaks. Drawing a GlyphRun only copies its quads into the batch, which makes it the cheap way to
+ * draw text that does not change every frame. Obtained through {@link Font#run(String)}.
+ */
+public class GlyphRun {
+
+    /**
+     * Per glyph: quad {@code x0, y0, x1, y1} relative to the origin and atlas {@code s0, t0, s1, t1}.
+     */
+    static final int QUAD_STRIDE = 8;
+
+    private final Font font;
+    private final String text;
+    private float[] quads = new float[0];
+    private int glyphCount;
+    private float width;
+    private int generation;
+
+    GlyphRun(Font font, String text) {
+        this.font = font;
+        this.text = text;
+        shape();
+    }
+
+    /**
+     * Shapes the text into quads, reusing the quad array when it is large enough. Shaping starts over once if
+     * the atlas is cleared while baking its glyphs, as the text then fits into the emptied atlas.
+     *
+     * @throws IllegalStateException if the glyphs of the text do not fit into a single atlas.
+     */
+    private void shape() {
+        if (!tryShape() && !tryShape())
+            throw new IllegalStateException("Glyphs of the text do not fit into the Font atlas: " + this);
+    }
+
+    /**
+     * @return {@code false} if the atlas was cleared while baking the glyphs, leaving the run shaped partially.
+     */
+    private boolean tryShape() {
+        generation = font.getGeneration();
+        if (quads.length < text.length() * QUAD_STRIDE) quads = new float[text.length() * QUAD_STRIDE];
+        glyphCount = 0;
+        width = 0;
+
+        float penX = 0, penY = 0;
+        int previous = -1;
+        for (int i = 0; i < text.length(); ) {
+            int codepoint = text.codePointAt(i);
+            i += Character.charCount(codepoint);
+            if (codepoint == '\n') {
+                penX = 0;
+                penY += font.getLineHeight();
+                previous = -1;
+                continue;
+            }
+            penX += font.kerning(previous, codepoint);
+            int slot = font.glyph(codepoint);
+            // The atlas was cleared while baking, the glyphs shaped so far are gone.
+            if (font.getGeneration() != generation) return false;
+            float[] glyphs = font.glyphData();
+            int g = slot * Font.GLYPH_STRIDE;
+            if (glyphs[g + 2] > glyphs[g]) {
+                int q = glyphCount++ * QUAD_STRIDE;
+                quads[q] = penX + glyphs[g];
+                quads[q + 1] = penY + glyphs[g + 1];
+                quads[q + 2] = penX + glyphs[g + 2];
+                quads[q + 3] = penY + glyphs[g + 3];
+                System.arraycopy(glyphs, g + 4, quads, q + 4, 4);
+            }
+            penX += glyphs[g + 8];
+            width = Math.max(width, penX);
+            previous = codepoint;
+        }
+        return true;
+    }
+
+    /**
+     * Reshapes the run if the atlas of its font was cleared since it was shaped.
+     *
+     * @throws IllegalStateException if the glyphs of the text do not fit into a single atlas.
+     */
+    void validate() {
+        if (generation != font.getGeneration()) shape();
+    }
+
+    float[] quads() {
+        return quads;
+    }
+
+    public Font getFont() {
+        return font;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public int getGlyphCount() {
+        return glyphCount;
+    }
+
+    public float getWidth() {
+        return width;
+    }
+
+    @Override
+    public String toString() {
+        return "GlyphRun(text=" + text + ", glyphs=" + glyphCount + ", width=" + width + ")";
+    }
+}
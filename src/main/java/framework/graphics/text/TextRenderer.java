@@ -0,0 +1,266 @@
+package framework.graphics.text;
+
+import framework.application.IHandler;
+import framework.assets.AssetHandler;
+import framework.graphics.ShaderText;
+import framework.injection.annotations.Inject;
+import framework.injection.annotations.PostConstruct;
+import framework.injection.annotations.Singleton;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL14;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+
+import java.nio.ByteBuffer;
+import java.nio.ShortBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batched text renderer drawing glyph quads of every {@link Font} with a single draw call per font atlas.
+ * <p>
+ * Text is queued between {@link #begin(int, int)} and {@link #end()} in screen pixels, with the origin in the
+ * top-left corner. Queuing text writes into preallocated buffers and does not allocate, including
+ * {@link #drawInt(Font, int, float, float, int)} for changing numbers like hp and dmg labels. Colors are
+ * packed as {@code 0xRRGGBBAA}.
+ * <p>
+ * Drawing enables alpha blending and restores the blend state of the caller afterwards. The shader program,
+ * vertex array and buffer bindings are reset to 0 like the other renderers do. The
+ * {@link framework.application.GraphicApplication} destroys the renderer and its fonts on exit.
+ */
+@Singleton
+public class TextRenderer implements IHandler {
+
+    public static final int MAX_GLYPHS_PER_DRAW = 4096;
+    private static final int VERTEX_SIZE = 2 * Float.BYTES + 2 * Float.BYTES + 4;
+    private static final int QUAD_SIZE = 4 * VERTEX_SIZE;
+
+    @Inject
+    private AssetHandler assets;
+
+    @Inject
+    private ShaderText shader;
+
+    private final List<Font> fonts = new ArrayList<>();
+    private final List<Font> queued = new ArrayList<>();
+    private final char[] digits = new char[11];
+    private int vao;
+    private int vbo;
+    private int ebo;
+    private int width;
+    private int height;
+
+    @PostConstruct
+    private void init() {
+        vao = GL30.glGenVertexArrays();
+        GL30.glBindVertexArray(vao);
+
+        vbo = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) MAX_GLYPHS_PER_DRAW * QUAD_SIZE, GL15.GL_STREAM_DRAW);
+        GL20.glVertexAttribPointer(0, 2, GL11.GL_FLOAT, false, VERTEX_SIZE, 0);
+        GL20.glVertexAttribPointer(1, 2, GL11.GL_FLOAT, false, VERTEX_SIZE, 2 * Float.BYTES);
+        GL20.glVertexAttribPointer(2, 4, GL11.GL_UNSIGNED_BYTE, true, VERTEX_SIZE, 4 * Float.BYTES);
+        GL20.glEnableVertexAttribArray(0);
+        GL20.glEnableVertexAttribArray(1);
+        GL20.glEnableVertexAttribArray(2);
+
+        ShortBuffer indices = BufferUtils.createShortBuffer(MAX_GLYPHS_PER_DRAW * 6);
+        for (int quad = 0; quad < MAX_GLYPHS_PER_DRAW; quad++) {
+            short first = (short) (quad * 4);
+            indices.put(first).put((short) (first + 1)).put((short) (first + 2))
+                    .put((short) (first + 2)).put((short) (first + 3)).put(first);
+        }
+        ebo = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ELEMENT_ARRAY_BUFFER, ebo);
+        GL15.glBufferData(GL15.GL_ELEMENT_ARRAY_BUFFER, indices.flip(), GL15.GL_STATIC_DRAW);
+
+        GL30.glBindVertexArray(0);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+    }
+
+    /**
+     * Loads a TrueType font, from the asset archive if it is packed.
+     *
+     * @param path the loose file path of the {@code .ttf} file.
+     * @param pixelHeight the height of the font in pixels.
+     * @return the loaded {@link Font}.
+     */
+    public Font loadFont(String path, float pixelHeight) {
+        Font font = new Font(assets.load(path), pixelHeight);
+        font.vertices = BufferUtils.createByteBuffer(MAX_GLYPHS_PER_DRAW * QUAD_SIZE);
+        font.renderer = this;
+        fonts.add(font);
+        return font;
+    }
+
+
+    // ------------------------ Batching ------------------------ //
+    /**
+     * Starts queuing text for a frame.
+     *
+     * @param width the width of the render target in pixels.
+     * @param height the height of the render target in pixels.
+     */
+    public void begin(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Queues a pre-shaped {@link GlyphRun}.
+     *
+     * @param x left of the text in pixels.
+     * @param y top of the first line in pixels.
+     * @param rgba color of the text as {@code 0xRRGGBBAA}.
+     * @return the width of the run in pixels.
+     */
+    public float draw(GlyphRun run, float x, float y, int rgba) {
+        run.validate();
+        Font font = run.getFont();
+        float[] quads = run.quads();
+        float baseline = y + font.getAscent();
+        for (int i = 0, count = run.getGlyphCount(); i < count; i++) {
+            int q = i * GlyphRun.QUAD_STRIDE;
+            putQuad(font, x + quads[q], baseline + quads[q + 1], x + quads[q + 2], baseline + quads[q + 3],
+                    quads[q + 4], quads[q + 5], quads[q + 6], quads[q + 7], rgba);
+        }
+        return run.getWidth();
+    }
+
+    /**
+     * Queues text that changes between frames, shaping it while queuing.
+     *
+     * @param x left of the text in pixels.
+     * @param y top of the first line in pixels.
+     * @param rgba color of the text as {@code 0xRRGGBBAA}.
+     * @return the advance of the last line in pixels.
+     */
+    public float draw(Font font, CharSequence text, float x, float y, int rgba) {
+        float penX = x, baseline = y + font.getAscent();
+        int previous = -1;
+        for (int i = 0; i < text.length(); ) {
+            int codepoint = Character.codePointAt(text, i);
+            i += Character.charCount(codepoint);
+            if (codepoint == '\n') {
+                penX = x;
+                baseline += font.getLineHeight();
+                previous = -1;
+                continue;
+            }
+            penX = putGlyph(font, previous, codepoint, penX, baseline, rgba);
+            previous = codepoint;
+        }
+        return penX - x;
+    }
+
+    /**
+     * Queues an integer without converting it to a String first.
+     *
+     * @param x left of the number in pixels.
+     * @param y top of the number in pixels.
+     * @param rgba color of the number as {@code 0xRRGGBBAA}.
+     * @return the advance of the number in pixels.
+     */
+    public float drawInt(Font font, int value, float x, float y, int rgba) {
+        long remaining = Math.abs((long) value);
+        int start = digits.length;
+        do {
+            digits[--start] = (char) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        if (value < 0) digits[--start] = '-';
+
+        float penX = x, baseline = y + font.getAscent();
+        int previous = -1;
+        for (int i = start; i < digits.length; i++) {
+            penX = putGlyph(font, previous, digits[i], penX, baseline, rgba);
+            previous = digits[i];
+        }
+        return penX - x;
+    }
+
+    private float putGlyph(Font font, int previous, int codepoint, float penX, float baseline, int rgba) {
+        penX += font.kerning(previous, codepoint);
+        int g = font.glyph(codepoint) * Font.GLYPH_STRIDE;
+        float[] glyphs = font.glyphData();
+        if (glyphs[g + 2] > glyphs[g])
+            putQuad(font, penX + glyphs[g], baseline + glyphs[g + 1], penX + glyphs[g + 2], baseline + glyphs[g + 3],
+                    glyphs[g + 4], glyphs[g + 5], glyphs[g + 6], glyphs[g + 7], rgba);
+        return penX + glyphs[g + 8];
+    }
+
+    private void putQuad(Font font, float x0, float y0, float x1, float y1,
+                         float s0, float t0, float s1, float t1, int rgba) {
+        if (font.quadCount == MAX_GLYPHS_PER_DRAW) flush(font);
+        if (!font.queued) {
+            font.queued = true;
+            queued.add(font);
+        }
+        ByteBuffer vertices = font.vertices;
+        putVertex(vertices, x0, y0, s0, t0, rgba);
+        putVertex(vertices, x1, y0, s1, t0, rgba);
+        putVertex(vertices, x1, y1, s1, t1, rgba);
+        putVertex(vertices, x0, y1, s0, t1, rgba);
+        font.quadCount++;
+    }
+
+    private static void putVertex(ByteBuffer vertices, float x, float y, float s, float t, int rgba) {
+        vertices.putFloat(x).putFloat(y).putFloat(s).putFloat(t)
+                .put((byte) (rgba >>> 24)).put((byte) (rgba >>> 16)).put((byte) (rgba >>> 8)).put((byte) rgba);
+    }
+
+    /**
+     * Draws all queued text with one draw call per font atlas.
+     */
+    public void end() {
+        for (int i = 0; i < queued.size(); i++) {
+            Font font = queued.get(i);
+            flush(font);
+            font.queued = false;
+        }
+        queued.clear();
+    }
+
+    /**
+     * Draws the quads queued for a font atlas, also called by the {@link Font} before its atlas is cleared.
+     */
+    void flush(Font font) {
+        if (font.quadCount == 0) return;
+        shader.use();
+        shader.loadScreenSize(width, height);
+        boolean blend = GL11.glIsEnabled(GL11.GL_BLEND);
+        int srcRgb = GL11.glGetInteger(GL14.GL_BLEND_SRC_RGB), dstRgb = GL11.glGetInteger(GL14.GL_BLEND_DST_RGB);
+        int srcAlpha = GL11.glGetInteger(GL14.GL_BLEND_SRC_ALPHA), dstAlpha = GL11.glGetInteger(GL14.GL_BLEND_DST_ALPHA);
+        GL11.glEnable(GL11.GL_BLEND);
+        GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+
+        GL30.glBindVertexArray(vao);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, vbo);
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, font.vertices.flip());
+        GL13.glActiveTexture(GL13.GL_TEXTURE0);
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, font.getAtlasTexture());
+        GL11.glDrawElements(GL11.GL_TRIANGLES, font.quadCount * 6, GL11.GL_UNSIGNED_SHORT, 0);
+
+        GL30.glBindVertexArray(0);
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, 0);
+        GL14.glBlendFuncSeparate(srcRgb, dstRgb, srcAlpha, dstAlpha);
+        if (!blend) GL11.glDisable(GL11.GL_BLEND);
+        shader.disable();
+        font.vertices.clear();
+        font.quadCount = 0;
+    }
+
+    public void destroy() {
+        for (Font font : fonts) font.destroy();
+        fonts.clear();
+        GL15.glDeleteBuffers(vbo);
+        GL15.glDeleteBuffers(ebo);
+        GL30.glDeleteVertexArrays(vao);
+        // Deleting 0 is ignored, so destroying twice never deletes objects which reuse the names.
+        vbo = ebo = vao = 0;
+    }
+}
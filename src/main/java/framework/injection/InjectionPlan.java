@@ -0,0 +1,194 @@
+package framework.injection;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pre-resolved injection graph: for every class an {@link Injector} created, the constructor, {@code Inject}
+ * fields and {@code PostConstruct} methods it resolved, in resolution order.
+ * <p>
+ * An Injector using a plan looks these members up by name and type instead of scanning the annotations of all
+ * declared members, which skips creating the reflection data of the classes. Plans are recorded by a training run with {@link Injector#getPlan()} and picked up
+ * from the {@link #RESOURCE} on the classpath.
+ * <p>
+ * A plan records the id of the build it was recorded by, read from the {@link #BUILD_RESOURCE} the build stamps
+ * on every run. {@link #loadResource()} ignores the plan of any other build, so classes changed since the
+ * training run never miss members annotated since. This is a single check per startup instead of one per class.
+ * Entries whose members cannot be found anymore are still scanned as without a plan.
+ * <p>
+ * The plan is stored as text: a header with the build id or {@code -} if unknown, followed by one class per
+ * line with tab separated columns: the class name, the parameter types of its {@code Inject} constructor or
+ * {@code -} for the no-args constructor, its {@code Inject} fields, their types and its {@code PostConstruct}
+ * methods. Lists are comma separated and {@code -} when empty.
+ */
+public final class InjectionPlan {
+
+    /**
+     * Classpath resource an {@link Injector} of an application loads its plan from.
+     */
+    public static final String RESOURCE = "/injection.plan";
+    /**
+     * Classpath resource holding the id of the build, written by the build on every run.
+     */
+    public static final String BUILD_RESOURCE = "/injection.build";
+    private static final String HEADER = "# injection plan v3 ";
+    private static final String NONE = "-";
+
+    /**
+     * Resolved members of a single class.
+     *
+     * @param className binary name of the class.
+     * @param constructorParameters parameter types of the {@code Inject} constructor, or {@code null} if the
+     *                              no-args constructor is used.
+     * @param fields names of the {@code Inject} fields.
+     * @param fieldTypes types of the {@code Inject} fields.
+     * @param postConstructs names of the {@code PostConstruct} methods.
+     */
+    public record Entry(String className, List<String> constructorParameters, List<String> fields, List<String> fieldTypes, List<String> postConstructs) {
+
+        /**
+         * @throws IllegalArgumentException if the class name is empty or the amount of fields and types differ.
+         */
+        public Entry {
+            if (className == null || className.isEmpty()) throw new IllegalArgumentException("Class name cannot be empty");
+            if (fields.size() != fieldTypes.size()) throw new IllegalArgumentException("Every field needs a type: " + className);
+            constructorParameters = constructorParameters == null ? null : List.copyOf(constructorParameters);
+            fields = List.copyOf(fields);
+            fieldTypes = List.copyOf(fieldTypes);
+            postConstructs = List.copyOf(postConstructs);
+        }
+    }
+
+    private final String buildId;
+    private final Map<String, Entry> entries = new LinkedHashMap<>();
+
+    /**
+     * Creates a new instance of an {@link InjectionPlan}.
+     *
+     * @param buildId id of the build the plan was recorded by, or {@code null} if unknown.
+     * @param entries the resolved classes in resolution order.
+     */
+    public InjectionPlan(String buildId, List<Entry> entries) {
+        this.buildId = buildId == null || buildId.isEmpty() || buildId.equals(NONE) ? null : buildId;
+        for (Entry entry : entries) this.entries.put(entry.className(), entry);
+    }
+
+    /**
+     * @return the id of the build the plan was recorded by, or {@code null} if unknown.
+     */
+    public String getBuildId() {
+        return buildId;
+    }
+
+    /**
+     * @param buildId the id of a build, or {@code null} if unknown.
+     * @return {@code true} if the plan was recorded by the given build, never for unknown builds.
+     */
+    public boolean isRecordedBy(String buildId) {
+        return this.buildId != null && this.buildId.equals(buildId);
+    }
+
+    /**
+     * @return the entry of a class, or {@code null} if the plan does not contain the class.
+     */
+    public Entry get(String className) {
+        return entries.get(className);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return Unmodifiable {@code List<Entry>} of all entries in resolution order.
+     */
+    public List<Entry> getEntries() {
+        return Collections.unmodifiableList(new ArrayList<>(entries.values()));
+    }
+
+
+    // ------------------------ Serialization ------------------------ //
+    /**
+     * Loads the plan of the application from the {@link #RESOURCE} on the classpath.
+     *
+     * @return the plan, or {@code null} if there is no plan resource or it was recorded by another build.
+     * @throws UncheckedIOException if a resource could not be read.
+     * @throws IllegalArgumentException if the resource is not a valid plan.
+     */
+    public static InjectionPlan loadResource() {
+        try (InputStream in = InjectionPlan.class.getResourceAsStream(RESOURCE)) {
+            if (in == null) return null;
+            InjectionPlan plan = read(in);
+            return plan.isRecordedBy(currentBuildId()) ? plan : null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return the id of the running build from the {@link #BUILD_RESOURCE}, or {@code null} if there is none,
+     * e.g. when the classes were not built by the build that stamps it.
+     * @throws UncheckedIOException if the resource could not be read.
+     */
+    public static String currentBuildId() {
+        try (InputStream in = InjectionPlan.class.getResourceAsStream(BUILD_RESOURCE)) {
+            if (in == null) return null;
+            String id = new String(in.readAllBytes(), StandardCharsets.UTF_8).strip();
+            // An unfiltered resource still holds the build property instead of its value.
+            return id.isEmpty() || id.startsWith("${") ? null : id;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if the stream is not a valid plan.
+     */
+    public static InjectionPlan read(InputStream in) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        String header = reader.readLine();
+        if (header == null || !header.startsWith(HEADER)) throw new IllegalArgumentException("Not an injection plan");
+        List<Entry> entries = new ArrayList<>();
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.isBlank()) continue;
+            String[] columns = line.split("\t", -1);
+            if (columns.length != 5) throw new IllegalArgumentException("Invalid injection plan entry: " + line);
+            List<String> parameters = columns[1].equals(NONE) ? null : split(columns[1].substring(1));
+            entries.add(new Entry(columns[0], parameters, split(columns[2]), split(columns[3]), split(columns[4])));
+        }
+        return new InjectionPlan(header.substring(HEADER.length()).strip(), entries);
+    }
+
+    public void write(Path path) throws IOException {
+        StringBuilder builder = new StringBuilder(HEADER).append(buildId == null ? NONE : buildId).append('\n');
+        for (Entry entry : entries.values()) {
+            builder.append(entry.className()).append('\t')
+                    // Prefixed, so an Inject constructor without parameters differs from the no-args constructor.
+                    .append(entry.constructorParameters() == null ? NONE : "(" + String.join(",", entry.constructorParameters())).append('\t')
+                    .append(join(entry.fields())).append('\t')
+                    .append(join(entry.fieldTypes())).append('\t')
+                    .append(join(entry.postConstructs())).append('\n');
+        }
+        Files.writeString(path, builder, StandardCharsets.UTF_8);
+    }
+
+    private static List<String> split(String column) {
+        return column.isEmpty() || column.equals(NONE) ? List.of() : Arrays.asList(column.split(","));
+    }
+
+    private static String join(List<String> names) {
+        return names.isEmpty() ? NONE : String.join(",", names);
+    }
+}
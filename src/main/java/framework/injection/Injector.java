@@ -3,20 +3,51 @@ package framework.injection;
 import framework.injection.annotations.Inject;
 import framework.injection.annotations.PostConstruct;
 import framework.injection.annotations.Singleton;
+import framework.profiling.jfr.InjectionEvent;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Class for managing dependency injection, keeping track of Singletons and handling PostConstruct methods.
  * Note that Singleton classes are automatically bound and do not have to be registered.
+ * <p>
+ * The constructor, Inject fields and PostConstruct methods of a class are resolved once into method handles and
+ * cached. The resolved graph can be saved as an {@link InjectionPlan}, which lets a later Injector look up the
+ * handles by name, without the reflection data of all declared members an annotation scan needs.
  */
 public final class Injector {
 
+    private static final Map<String, Class<?>> PRIMITIVES = Map.of(
+            "boolean", boolean.class, "byte", byte.class, "char", char.class, "short", short.class,
+            "int", int.class, "long", long.class, "float", float.class, "double", double.class);
     private final Map<Class<?>, Object> singletons = new HashMap<>();
+    private final Map<Class<?>, Resolution> resolutions = new LinkedHashMap<>();
+    private InjectionPlan plan;
+    private long createTime;
+
+    /**
+     * Resolved members used to create instances of a class.
+     *
+     * @param parameters parameter types of the constructor.
+     * @param constructor the Inject constructor, or the no-args constructor.
+     * @param inject whether the constructor is annotated with Inject.
+     * @param fields the Inject fields, with their setters.
+     * @param postConstructs the PostConstruct methods.
+     */
+    private record Resolution(Class<?>[] parameters, MethodHandle constructor, boolean inject, Member[] fields, Member[] postConstructs) {}
+
+    /**
+     * @param type the field type, or {@code null} for methods.
+     */
+    private record Member(String name, Class<?> type, MethodHandle handle) {}
 
     /**
      * Getter for a Singleton class within the Injector's Singleton map.
@@ -32,6 +63,17 @@ public final class Injector {
         return (T) singletons.get(cls);
     }
 
+    /**
+     * Getter for an instance within the Injector's Singleton map, without creating Singletons not bound yet.
+     *
+     * @param cls The class to retrieve from the Singleton map.
+     * @return The bound instance, or {@code null} if the class is not bound.
+     * @param <T> The type of the class to retrieve from the Singleton map.
+     */
+    public <T> T getBound(Class<T> cls) {
+        return cls.cast(singletons.get(cls));
+    }
+
     /**
      * Manually bind an instance of a class to a class in the Singleton map (for testing purposes).
      *
@@ -53,7 +95,57 @@ public final class Injector {
      * @throws CircularDependencyException if the given class contains circular dependencies.
      */
     public <T> T create(Class<T> cls) {
-        return create(cls, new ArrayDeque<>());
+        long start = System.nanoTime();
+        try {
+            return create(cls, new ArrayDeque<>());
+        } finally {
+            createTime += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Uses a pre-resolved {@link InjectionPlan} for all classes not resolved yet. The plan must be recorded by
+     * the same build as the classes, as {@link InjectionPlan#loadResource()} ensures.
+     *
+     * @param plan the plan to use, cannot be null.
+     * @throws IllegalArgumentException if provided plan is {@code null}.
+     */
+    public void usePlan(InjectionPlan plan) {
+        if (plan == null) throw new IllegalArgumentException("InjectionPlan cannot be null");
+        this.plan = plan;
+    }
+
+    /**
+     * @return {@code true} if an {@link InjectionPlan} is used.
+     */
+    public boolean hasPlan() {
+        return plan != null;
+    }
+
+    /**
+     * Getter for the graph resolved so far, to be saved by a training run and used by later runs.
+     *
+     * @return an {@link InjectionPlan} of all resolved classes in resolution order.
+     */
+    public InjectionPlan getPlan() {
+        List<InjectionPlan.Entry> entries = new ArrayList<>();
+        for (Map.Entry<Class<?>, Resolution> entry : resolutions.entrySet()) {
+            Resolution resolution = entry.getValue();
+            List<String> parameters = null;
+            if (resolution.inject()) parameters = Arrays.stream(resolution.parameters()).map(Class::getName).toList();
+            entries.add(new InjectionPlan.Entry(entry.getKey().getName(), parameters,
+                    Arrays.stream(resolution.fields()).map(Member::name).toList(),
+                    Arrays.stream(resolution.fields()).map(field -> field.type().getName()).toList(),
+                    Arrays.stream(resolution.postConstructs()).map(Member::name).toList()));
+        }
+        return new InjectionPlan(InjectionPlan.currentBuildId(), entries);
+    }
+
+    /**
+     * @return the total time in nanoseconds spent in {@link #create(Class)}, including dependencies.
+     */
+    public long getCreateTime() {
+        return createTime;
     }
 
     /**
@@ -73,24 +165,33 @@ public final class Injector {
         if (singletons.containsKey(cls))
             return cls.cast(singletons.get(cls));
         stack.push(cls);
+        InjectionEvent event = new InjectionEvent();
+        event.begin();
 
         try {
-            T instance = createInstance(cls, stack);
-            if (cls.isAnnotationPresent(Singleton.class))
+            Resolution resolution = resolve(cls);
+            T instance = createInstance(cls, resolution, stack);
+            boolean singleton = cls.isAnnotationPresent(Singleton.class);
+            if (singleton)
                 singletons.put(cls, instance);
 
-            for (Field field : cls.getDeclaredFields()) {
-                if (field.isAnnotationPresent(Inject.class)) {
-                    Object dependency = create(field.getType(), stack);
-                    field.setAccessible(true);
-                    field.set(instance, dependency);
-                }
+            for (Member field : resolution.fields())
+                field.handle().invoke(instance, create(field.type(), stack));
+            for (Member method : resolution.postConstructs())
+                method.handle().invoke(instance);
+            event.end();
+            if (event.shouldCommit()) {
+                event.className = cls.getName();
+                event.singleton = singleton;
+                event.depth = stack.size() - 1;
+                event.commit();
             }
-            invokePostConstructMethods(cls, instance);
             return instance;
         } catch (CircularDependencyException e) {
             throw new CircularDependencyException(stack.stream().map(Class::getSimpleName).collect(Collectors.joining(" → ")));
-        } catch (Exception e) {
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
             throw new RuntimeException(e.getMessage());
         } finally {
             stack.pop();
@@ -98,15 +199,43 @@ public final class Injector {
     }
 
     /**
-     * Instantiates an instance of the given class with the correct constructor.
+     * Instantiates an instance of the given class with its resolved constructor.
      *
      * @param cls The class to instantiate.
+     * @param resolution The resolved members of the class.
      * @param stack The current construction stack to detect circular dependencies.
      * @return An instance of the class, created using the correct constructor.
      * @param <T> The type of the class to instantiate.
-     * @throws Exception when something went wrong instantiating an instance of the class.
+     * @throws Throwable when something went wrong instantiating an instance of the class.
      */
-    private <T> T createInstance(Class<T> cls, Deque<Class<?>> stack) throws Exception {
+    private <T> T createInstance(Class<T> cls, Resolution resolution, Deque<Class<?>> stack) throws Throwable {
+        Class<?>[] paramTypes = resolution.parameters();
+        Object[] args = new Object[paramTypes.length];
+        for (int i = 0; i < paramTypes.length; i++) {
+            args[i] = create(paramTypes[i], stack);
+        }
+        return cls.cast(resolution.constructor().invokeWithArguments(args));
+    }
+
+    /**
+     * Resolves the members used to create instances of a class, from the {@link InjectionPlan} if it has a
+     * matching entry, or else by scanning the annotations of all declared members.
+     *
+     * @param cls The class to resolve.
+     * @return The cached or newly resolved members.
+     * @throws Exception when the class has multiple Inject constructors or no usable constructor.
+     */
+    private Resolution resolve(Class<?> cls) throws Exception {
+        Resolution resolution = resolutions.get(cls);
+        if (resolution != null) return resolution;
+        InjectionPlan.Entry entry = plan == null ? null : plan.get(cls.getName());
+        if (entry != null) resolution = resolvePlanned(cls, entry);
+        if (resolution == null) resolution = resolveDeclared(cls);
+        resolutions.put(cls, resolution);
+        return resolution;
+    }
+
+    private Resolution resolveDeclared(Class<?> cls) throws Exception {
         Constructor<?> injectConstructor = null;
         for (Constructor<?> constructor : cls.getDeclaredConstructors()) {
             if (constructor.isAnnotationPresent(Inject.class)) {
@@ -115,36 +244,70 @@ public final class Injector {
                 injectConstructor = constructor;
             }
         }
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        List<Member> fields = new ArrayList<>();
+        for (Field field : cls.getDeclaredFields()) {
+            if (!field.isAnnotationPresent(Inject.class)) continue;
+            field.setAccessible(true);
+            fields.add(new Member(field.getName(), field.getType(), onInstance(lookup.unreflectSetter(field), field.getModifiers())));
+        }
+        List<Member> postConstructs = new ArrayList<>();
+        for (Method method : cls.getDeclaredMethods()) {
+            if (!method.isAnnotationPresent(PostConstruct.class)) continue;
+            method.setAccessible(true);
+            postConstructs.add(new Member(method.getName(), null, onInstance(lookup.unreflect(method), method.getModifiers())));
+        }
 
-        T instance;
-        if (injectConstructor != null) {
-            Class<?>[] paramTypes = injectConstructor.getParameterTypes();
-            Object[] args = new Object[paramTypes.length];
-            for (int i = 0; i < paramTypes.length; i++) {
-                args[i] = create(paramTypes[i], stack);
-            }
-
-            injectConstructor.setAccessible(true);
-            instance = cls.cast(injectConstructor.newInstance(args));
-        } else instance = cls.getDeclaredConstructor().newInstance();
-
-        return instance;
+        // The no-args constructor keeps its regular access checks.
+        Constructor<?> constructor = injectConstructor != null ? injectConstructor : cls.getDeclaredConstructor();
+        if (injectConstructor != null) constructor.setAccessible(true);
+        return new Resolution(constructor.getParameterTypes(), lookup.unreflectConstructor(constructor),
+                injectConstructor != null, fields.toArray(Member[]::new), postConstructs.toArray(Member[]::new));
     }
 
     /**
-     * Invokes all methods marked by the {@code PostConstruct} annotation in a given class.
+     * Looks up the members of a plan entry by name and type. The plan is trusted to match the class, as it was
+     * recorded by the same build, only members which are gone make the class fall back to a scan.
      *
-     * @param cls The class to scan for {@code PostConstruct} methods.
-     * @param instance The instance of the class to invoke the methods for.
-     * @param <T> The type of the class to invoke the methods for.
-     * @throws Exception when the method is inaccessible.
+     * @return the resolution, or {@code null} if a member of the entry does not exist anymore.
      */
-    private <T> void invokePostConstructMethods(Class<T> cls, T instance) throws Exception {
-        for (Method method : cls.getDeclaredMethods()) {
-            if (method.isAnnotationPresent(PostConstruct.class)) {
-                method.setAccessible(true);
-                method.invoke(instance);
+    private Resolution resolvePlanned(Class<?> cls, InjectionPlan.Entry entry) {
+        try {
+            ClassLoader loader = cls.getClassLoader();
+            MethodHandles.Lookup lookup = MethodHandles.privateLookupIn(cls, MethodHandles.lookup());
+            boolean inject = entry.constructorParameters() != null;
+            Class<?>[] parameters = new Class<?>[inject ? entry.constructorParameters().size() : 0];
+            for (int i = 0; i < parameters.length; i++) parameters[i] = type(entry.constructorParameters().get(i), loader);
+            MethodType constructorType = MethodType.methodType(void.class, parameters);
+            // The no-args constructor keeps its regular access checks.
+            MethodHandle constructor = (inject ? lookup : MethodHandles.lookup()).findConstructor(cls, constructorType);
+            Member[] fields = new Member[entry.fields().size()];
+            for (int i = 0; i < fields.length; i++) {
+                String name = entry.fields().get(i);
+                Class<?> type = type(entry.fieldTypes().get(i), loader);
+                fields[i] = new Member(name, type, lookup.findSetter(cls, name, type));
             }
+            Member[] postConstructs = new Member[entry.postConstructs().size()];
+            for (int i = 0; i < postConstructs.length; i++) {
+                String name = entry.postConstructs().get(i);
+                postConstructs[i] = new Member(name, null, lookup.findVirtual(cls, name, MethodType.methodType(void.class)));
+            }
+            return new Resolution(parameters, constructor, inject, fields, postConstructs);
+        } catch (ReflectiveOperationException e) {
+            return null;
         }
     }
+
+    /**
+     * Lets the handle of a static member be invoked on an instance like its instance members, as reflection does.
+     */
+    private static MethodHandle onInstance(MethodHandle handle, int modifiers) {
+        return Modifier.isStatic(modifiers) ? MethodHandles.dropArguments(handle, 0, Object.class) : handle;
+    }
+
+    private static Class<?> type(String name, ClassLoader loader) throws ClassNotFoundException {
+        // Class.forName only knows reference and array types.
+        Class<?> primitive = PRIMITIVES.get(name);
+        return primitive != null ? primitive : Class.forName(name, false, loader);
+    }
 }
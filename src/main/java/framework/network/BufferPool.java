@@ -0,0 +1,86 @@
+package framework.network;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Pool of direct {@link ByteBuffer}s of one size, so sessions coming and going reuse the same native memory.
+ * <p>
+ * Buffers are created on demand and kept forever once released, so after warming up the pool holds as many
+ * buffers as were in use at the peak and {@link #acquire()} no longer allocates. The pool is not thread-safe,
+ * it belongs to the thread running the {@link NetworkServer}.
+ */
+public class BufferPool {
+
+    private final int bufferSize;
+    private ByteBuffer[] free;
+    private int freeCount;
+    private int created;
+
+    /**
+     * Creates a new {@link BufferPool}.
+     *
+     * @param bufferSize capacity of every buffer in bytes, must be positive.
+     * @param preallocate amount of buffers created up front, cannot be negative.
+     * @throws IllegalArgumentException if a provided size is out of range.
+     */
+    public BufferPool(int bufferSize, int preallocate) {
+        if (bufferSize <= 0) throw new IllegalArgumentException("Buffer size must be positive: " + bufferSize);
+        if (preallocate < 0) throw new IllegalArgumentException("Preallocated buffers cannot be negative: " + preallocate);
+        this.bufferSize = bufferSize;
+        this.free = new ByteBuffer[Math.max(8, preallocate)];
+        for (int i = 0; i < preallocate; i++) free[freeCount++] = create();
+    }
+
+    private ByteBuffer create() {
+        created++;
+        return ByteBuffer.allocateDirect(bufferSize);
+    }
+
+    /**
+     * @return a cleared buffer, a released one if available.
+     */
+    public ByteBuffer acquire() {
+        if (freeCount == 0) return create();
+        ByteBuffer buffer = free[--freeCount];
+        free[freeCount] = null;
+        return buffer.clear();
+    }
+
+    /**
+     * Returns a buffer to the pool. It must not be used afterwards.
+     *
+     * @throws IllegalArgumentException if the buffer was not created by a pool of this size.
+     */
+    public void release(ByteBuffer buffer) {
+        if (buffer == null || !buffer.isDirect() || buffer.capacity() != bufferSize)
+            throw new IllegalArgumentException("Buffer does not belong to this pool");
+        if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+        free[freeCount++] = buffer;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return the amount of buffers created so far, constant once traffic reached a steady state.
+     */
+    public int getCreated() {
+        return created;
+    }
+
+    /**
+     * @return the amount of released buffers ready to be acquired.
+     */
+    public int getAvailable() {
+        return freeCount;
+    }
+
+    @Override
+    public String toString() {
+        return "BufferPool(size=" + bufferSize + ", created=" + created + ", available=" + freeCount + ")";
+    }
+}
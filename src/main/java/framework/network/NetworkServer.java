@@ -0,0 +1,384 @@
+package framework.network;
+
+import framework.util.IntList;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Non-blocking TCP endpoint multiplexing thousands of {@link Session}s on one {@link Selector}.
+ * <p>
+ * Messages are framed with a 2 byte big-endian payload length. Everything happens on the thread calling
+ * {@link #poll(long)}: it accepts and connects sessions, reads them, and hands every complete payload to the
+ * {@link Listener}, typically a game loop queuing commands for its next tick. {@link #send(Session, ByteBuffer)}
+ * appends a frame to the session's output buffer, and {@link #flush()} writes the output of every session sent
+ * to since the last flush, so a tick's messages leave in as few writes as possible.
+ * <p>
+ * Input and output buffers are direct buffers from a {@link BufferPool}, so established sessions neither
+ * allocate nor copy through the heap. A session whose output does not fit its buffer, a client not reading
+ * fast enough, is closed instead of buffering without bound. Loopback clients and load generators connect
+ * through the same class with {@link #connect(InetSocketAddress)}.
+ */
+public class NetworkServer implements AutoCloseable {
+
+    public static final int HEADER_SIZE = Short.BYTES;
+    public static final int MAX_PAYLOAD = 0xFFFF;
+
+    /**
+     * Receiver of the events of a {@link NetworkServer}, called on the polling thread.
+     */
+    public interface Listener {
+
+        /**
+         * A session was accepted or finished connecting and can be sent to.
+         */
+        void onConnect(Session session);
+
+        /**
+         * A complete message arrived.
+         *
+         * @param payload the payload from its position to its limit, only valid during the call.
+         */
+        void onMessage(Session session, ByteBuffer payload);
+
+        /**
+         * A session was closed by either side, or failed to connect. Its buffers are back in the pool.
+         */
+        void onDisconnect(Session session);
+    }
+
+    private final Listener listener;
+    private final Selector selector;
+    private final BufferPool pool;
+    private final int maxPayload;
+    private final Consumer<SelectionKey> handler = this::handle;
+    private final IntList freeIds = new IntList();
+    private Session[] sessions = new Session[64];
+    private Session[] dirty = new Session[64];
+    private int dirtyCount;
+    private int nextId;
+    private int sessionCount;
+    private long slowSessions;
+    private ServerSocketChannel server;
+    private boolean closed;
+
+    /**
+     * Creates a new {@link NetworkServer} without any sessions.
+     *
+     * @param listener receiver of the session events, cannot be null.
+     * @param bufferSize size of the input and output buffer of every session in bytes, which limits the
+     *                   largest payload and how much output may be pending.
+     * @throws IllegalArgumentException if provided listener is {@code null} or the buffer size is too small.
+     * @throws IOException if the selector could not be opened.
+     */
+    public NetworkServer(Listener listener, int bufferSize) throws IOException {
+        if (listener == null) throw new IllegalArgumentException("Listener cannot be null");
+        if (bufferSize <= HEADER_SIZE) throw new IllegalArgumentException("Buffer size too small: " + bufferSize);
+        this.listener = listener;
+        this.pool = new BufferPool(bufferSize, 0);
+        this.maxPayload = Math.min(MAX_PAYLOAD, bufferSize - HEADER_SIZE);
+        this.selector = Selector.open();
+    }
+
+    /**
+     * Starts accepting sessions.
+     *
+     * @param address the local address, port {@code 0} picks a free port.
+     * @return the bound address.
+     * @throws IllegalStateException if the server is already bound.
+     * @throws IOException if the address could not be bound.
+     */
+    public InetSocketAddress bind(InetSocketAddress address) throws IOException {
+        checkOpen();
+        if (server != null) throw new IllegalStateException("NetworkServer is already bound");
+        server = ServerSocketChannel.open();
+        server.configureBlocking(false);
+        server.bind(address, 1024);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        return getLocalAddress();
+    }
+
+    /**
+     * Opens a session to another endpoint. {@link Listener#onConnect(Session)} is called once it is established,
+     * possibly before this returns.
+     *
+     * @throws IOException if the connection could not be started.
+     */
+    public Session connect(InetSocketAddress address) throws IOException {
+        checkOpen();
+        SocketChannel channel = SocketChannel.open();
+        try {
+            configure(channel);
+            boolean connected = channel.connect(address);
+            Session session = register(channel, connected ? SelectionKey.OP_READ : SelectionKey.OP_CONNECT);
+            if (connected) connected(session);
+            return session;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void configure(SocketChannel channel) throws IOException {
+        channel.configureBlocking(false);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+    }
+
+    private Session register(SocketChannel channel, int ops) throws ClosedChannelException {
+        int id = freeIds.isEmpty() ? nextId++ : freeIds.removeLast();
+        if (id == sessions.length) sessions = Arrays.copyOf(sessions, id * 2);
+        SelectionKey key = channel.register(selector, ops);
+        Session session = new Session(id, channel, key);
+        key.attach(session);
+        session.input = pool.acquire();
+        session.output = pool.acquire();
+        session.payload = session.input.duplicate();
+        sessions[id] = session;
+        sessionCount++;
+        return session;
+    }
+
+    private void connected(Session session) {
+        session.connected = true;
+        listener.onConnect(session);
+    }
+
+
+    // ------------------------ Polling ------------------------ //
+    /**
+     * Handles all pending network events, waiting for the first one up to a timeout.
+     *
+     * @param timeoutMillis the longest time to wait, {@code 0} to only handle events already pending.
+     * @return the amount of handled channels.
+     * @throws IOException if the selector failed.
+     */
+    public int poll(long timeoutMillis) throws IOException {
+        checkOpen();
+        return timeoutMillis > 0 ? selector.select(handler, timeoutMillis) : selector.selectNow(handler);
+    }
+
+    /**
+     * Makes a {@link #poll(long)} blocked in another thread return early.
+     */
+    public void wakeup() {
+        selector.wakeup();
+    }
+
+    private void handle(SelectionKey key) {
+        if (key.attachment() == null) {
+            accept();
+            return;
+        }
+        Session session = (Session) key.attachment();
+        try {
+            if (key.isValid() && key.isConnectable()) {
+                if (!session.channel.finishConnect()) return;
+                key.interestOps(SelectionKey.OP_READ);
+                connected(session);
+            }
+            if (session.open && key.isValid() && key.isWritable()) writeOutput(session);
+            if (session.open && key.isValid() && key.isReadable()) read(session);
+        } catch (IOException e) {
+            close(session);
+        }
+    }
+
+    private void accept() {
+        try {
+            for (SocketChannel channel; (channel = server.accept()) != null; ) {
+                try {
+                    configure(channel);
+                    connected(register(channel, SelectionKey.OP_READ));
+                } catch (IOException e) {
+                    channel.close();
+                }
+            }
+        } catch (IOException e) {
+            // Accepting fails e.g. when running out of file descriptors, the pending connections stay queued.
+        }
+    }
+
+    private void read(Session session) throws IOException {
+        int read = session.channel.read(session.input);
+        if (read < 0) {
+            close(session);
+            return;
+        }
+        session.bytesIn += read;
+        ByteBuffer input = session.input.flip();
+        while (input.remaining() >= HEADER_SIZE) {
+            int start = input.position();
+            int length = input.getShort(start) & 0xFFFF;
+            if (length > maxPayload) {
+                close(session);
+                return;
+            }
+            if (input.remaining() < HEADER_SIZE + length) break;
+            int end = start + HEADER_SIZE + length;
+            input.position(end);
+            session.messagesIn++;
+            listener.onMessage(session, session.payload.limit(end).position(start + HEADER_SIZE));
+            if (!session.open) return;
+        }
+        input.compact();
+    }
+
+
+    // ------------------------ Sending ------------------------ //
+    /**
+     * Queues a message until the next {@link #flush()}. The payload is copied, so one encoded message can be
+     * sent to many sessions.
+     *
+     * @param payload the bytes from its position to its limit, its position is left unchanged.
+     * @return {@code false} if the session is not connected, or was closed because its output is full.
+     * @throws IllegalArgumentException if the payload is larger than {@link #getMaxPayload()}.
+     */
+    public boolean send(Session session, ByteBuffer payload) {
+        int length = payload.remaining();
+        if (length > maxPayload) throw new IllegalArgumentException("Payload too large: " + length + " bytes");
+        if (!session.open || !session.connected) return false;
+        ByteBuffer output = session.output;
+        if (output.remaining() < HEADER_SIZE + length) {
+            try {
+                writeOutput(session);
+            } catch (IOException e) {
+                close(session);
+                return false;
+            }
+            if (output.remaining() < HEADER_SIZE + length) {
+                slowSessions++;
+                close(session);
+                return false;
+            }
+        }
+        output.putShort((short) length);
+        output.put(output.position(), payload, payload.position(), length);
+        output.position(output.position() + length);
+        session.messagesOut++;
+        if (!session.dirty) {
+            session.dirty = true;
+            if (dirtyCount == dirty.length) dirty = Arrays.copyOf(dirty, dirtyCount * 2);
+            dirty[dirtyCount++] = session;
+        }
+        return true;
+    }
+
+    /**
+     * Writes the queued messages of every session sent to since the last flush. Output the socket does not
+     * take right away is written once the session becomes writable.
+     */
+    public void flush() {
+        for (int i = 0; i < dirtyCount; i++) {
+            Session session = dirty[i];
+            dirty[i] = null;
+            session.dirty = false;
+            if (!session.open) continue;
+            try {
+                writeOutput(session);
+            } catch (IOException e) {
+                close(session);
+            }
+        }
+        dirtyCount = 0;
+    }
+
+    private void writeOutput(Session session) throws IOException {
+        ByteBuffer output = session.output.flip();
+        if (output.hasRemaining()) session.bytesOut += session.channel.write(output);
+        output.compact();
+        boolean pending = output.position() > 0;
+        int ops = pending ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+        if (session.key.interestOps() != ops) session.key.interestOps(ops);
+    }
+
+
+    // ------------------------ Closing ------------------------ //
+    /**
+     * Closes a session, dropping its pending output, and calls {@link Listener#onDisconnect(Session)}.
+     */
+    public void close(Session session) {
+        if (!session.open) return;
+        session.open = false;
+        session.key.cancel();
+        try {
+            session.channel.close();
+        } catch (IOException ignored) {
+            // The session is gone either way.
+        }
+        pool.release(session.input);
+        pool.release(session.output);
+        session.input = session.output = session.payload = null;
+        sessions[session.id] = null;
+        freeIds.add(session.id);
+        sessionCount--;
+        listener.onDisconnect(session);
+    }
+
+    /**
+     * Closes every session and stops accepting.
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        for (Session session : sessions) if (session != null) close(session);
+        closed = true;
+        try {
+            if (server != null) server.close();
+        } finally {
+            selector.close();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) throw new IllegalStateException("NetworkServer is closed");
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    /**
+     * @return the bound address, or {@code null} if the server is not bound.
+     */
+    public InetSocketAddress getLocalAddress() throws IOException {
+        return server == null ? null : (InetSocketAddress) server.getLocalAddress();
+    }
+
+    /**
+     * @return the open session with an id, or {@code null} if there is none.
+     */
+    public Session getSession(int id) {
+        return id >= 0 && id < sessions.length ? sessions[id] : null;
+    }
+
+    public int getSessionCount() {
+        return sessionCount;
+    }
+
+    public int getMaxPayload() {
+        return maxPayload;
+    }
+
+    /**
+     * @return the amount of sessions closed because they did not read their output fast enough.
+     */
+    public long getSlowSessions() {
+        return slowSessions;
+    }
+
+    public BufferPool getPool() {
+        return pool;
+    }
+
+    @Override
+    public String toString() {
+        return "NetworkServer(sessions=" + sessionCount + ", slow=" + slowSessions + ", " + pool + ")";
+    }
+}
@@ -0,0 +1,88 @@
+package framework.network;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+
+/**
+ * Connection of a {@link NetworkServer}, either accepted or opened with {@link NetworkServer#connect}.
+ * <p>
+ * A session owns a pooled input and output buffer while it is open. Its id is unique among the open sessions
+ * of its server and reused after it closed. Sessions belong to the thread running the server.
+ */
+public final class Session {
+
+    final int id;
+    final SocketChannel channel;
+    final SelectionKey key;
+    ByteBuffer input;
+    ByteBuffer output;
+    /**
+     * View of the input buffer handed to the {@link NetworkServer.Listener}, limited to one payload.
+     */
+    ByteBuffer payload;
+    boolean connected;
+    boolean open = true;
+    boolean dirty;
+    long messagesIn, messagesOut;
+    long bytesIn, bytesOut;
+    private Object attachment;
+
+    Session(int id, SocketChannel channel, SelectionKey key) {
+        this.id = id;
+        this.channel = channel;
+        this.key = key;
+    }
+
+    /**
+     * @return {@code true} until the session is closed by either side.
+     */
+    public boolean isOpen() {
+        return open;
+    }
+
+    /**
+     * @return {@code true} once the connection is established and messages can be sent.
+     */
+    public boolean isConnected() {
+        return connected;
+    }
+
+    /**
+     * Attaches game state to the session, e.g. the player it belongs to.
+     */
+    public void setAttachment(Object attachment) {
+        this.attachment = attachment;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public int getId() {
+        return id;
+    }
+
+    public Object getAttachment() {
+        return attachment;
+    }
+
+    public long getMessagesIn() {
+        return messagesIn;
+    }
+
+    public long getMessagesOut() {
+        return messagesOut;
+    }
+
+    public long getBytesIn() {
+        return bytesIn;
+    }
+
+    public long getBytesOut() {
+        return bytesOut;
+    }
+
+    @Override
+    public String toString() {
+        return "Session(id=" + id + ", open=" + open + ", in=" + messagesIn + ", out=" + messagesOut + ")";
+    }
+}
@@ -0,0 +1,135 @@
+package framework.profiling;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures the bytes allocated on the heap by the current thread per frame and per named scope.
+ * <p>
+ * Uses the cumulative per-thread allocation counter of {@link com.sun.management.ThreadMXBean}, which reads a
+ * thread-local value and never allocates itself, so measuring does not disturb the measurement. Scopes follow the
+ * same begin/end nesting as the {@link GpuProfiler} scopes, and a nested scope also counts towards its parents.
+ * <p>
+ * When the JVM does not provide the counter, all measurements are ignored and {@link #isSupported()} is false.
+ */
+public class AllocationTracker {
+
+    public static final int MAX_DEPTH = 64;
+    private static final int WINDOW = 120;
+    private static final com.sun.management.ThreadMXBean THREADS = threadBean();
+
+    private final Map<String, RollingStatistics> scopes = new LinkedHashMap<>();
+    private final RollingStatistics frameBytes = new RollingStatistics(WINDOW);
+    private final RollingStatistics[] openScopes = new RollingStatistics[MAX_DEPTH];
+    private final long[] openBytes = new long[MAX_DEPTH];
+    private int depth;
+    private long frameStart = -1;
+
+    private static com.sun.management.ThreadMXBean threadBean() {
+        if (!(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean bean)) return null;
+        if (!bean.isThreadAllocatedMemorySupported()) return null;
+        if (!bean.isThreadAllocatedMemoryEnabled()) bean.setThreadAllocatedMemoryEnabled(true);
+        return bean;
+    }
+
+    /**
+     * @return {@code true} if the JVM can measure the allocations of a thread.
+     */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Getter for the total amount of bytes the current thread allocated since it started.
+     *
+     * @return the allocated bytes, or {@code -1} if allocations cannot be measured.
+     */
+    public static long allocatedBytes() {
+        return THREADS == null ? -1 : THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Records the bytes allocated since the previous call as one frame and starts the next frame.
+     */
+    public void beginFrame() {
+        if (THREADS == null) return;
+        long now = allocatedBytes();
+        if (frameStart >= 0) frameBytes.add(now - frameStart);
+        frameStart = now;
+        depth = 0;
+    }
+
+    /**
+     * Opens a named allocation scope. Scopes can be nested and must be closed with {@link #end()}.
+     *
+     * @param name the name of the scope, cannot be null.
+     * @throws IllegalArgumentException if the provided name is {@code null}.
+     * @throws IllegalStateException if more than {@link #MAX_DEPTH} scopes are open.
+     */
+    public void begin(String name) {
+        if (name == null) throw new IllegalArgumentException("Scope name cannot be null");
+        if (depth == MAX_DEPTH) throw new IllegalStateException("Too many nested allocation scopes");
+        if (THREADS == null) {
+            depth++;
+            return;
+        }
+        RollingStatistics scope = scopes.get(name);
+        if (scope == null) scopes.put(name, scope = new RollingStatistics(WINDOW));
+        openScopes[depth] = scope;
+        // Read last, so the lookup above is not counted towards the scope.
+        openBytes[depth++] = allocatedBytes();
+    }
+
+    /**
+     * Closes the most recently opened allocation scope.
+     *
+     * @throws IllegalStateException if no scope is open.
+     */
+    public void end() {
+        if (depth == 0) throw new IllegalStateException("No allocation scope is open");
+        long now = allocatedBytes();
+        depth--;
+        if (THREADS != null) openScopes[depth].add(now - openBytes[depth]);
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    /**
+     * Getter for the rolling amount of bytes allocated between the start of two consecutive frames.
+     *
+     * @return the statistics of the allocated bytes per frame.
+     */
+    public RollingStatistics getFrameStatistics() {
+        return frameBytes;
+    }
+
+    /**
+     * Getter for the rolling amount of bytes allocated within a named scope.
+     *
+     * @param name the name of the scope.
+     * @return the statistics of the scope, or {@code null} if the scope was never measured.
+     */
+    public RollingStatistics getStatistics(String name) {
+        return scopes.get(name);
+    }
+
+    /**
+     * Getter for the names of all scopes measured so far, in order of first use.
+     *
+     * @return Unmodifiable {@code Collection<String>} with all scope names.
+     */
+    public Collection<String> getScopeNames() {
+        return Collections.unmodifiableCollection(scopes.keySet());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("AllocationTracker(frame bytes: ").append(frameBytes);
+        for (Map.Entry<String, RollingStatistics> scope : scopes.entrySet())
+            builder.append(", ").append(scope.getKey()).append(" bytes: ").append(scope.getValue());
+        return builder.append(")").toString();
+    }
+}
@@ -0,0 +1,228 @@
+package framework.profiling;
+
+import framework.application.IHandler;
+import framework.injection.annotations.PostConstruct;
+import framework.injection.annotations.Singleton;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL33;
+import org.lwjgl.opengl.GLCapabilities;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Measures GPU time of named render scopes using {@code GL_TIMESTAMP} queries.
+ * <p>
+ * Every frame writes its timestamps into its own slot of a query pool. A slot is only read back
+ * {@link #FRAME_LATENCY} frames later, when the GPU has (almost always) finished with it, so reading
+ * the results never stalls the pipeline. Results which are still unavailable at that point are dropped.
+ * Timestamps are used instead of {@code GL_TIME_ELAPSED} because elapsed-time queries cannot be nested.
+ * <p>
+ * When timer queries are not supported by the context, all scopes are ignored and only the CPU frame
+ * time is recorded. Every scope is also passed on to an {@link AllocationTracker}, which measures the heap
+ * allocations of the frames and scopes independently of timer query support.
+ */
+@Singleton
+public class GpuProfiler implements IHandler {
+
+    /**
+     * Amount of frames between issuing the queries of a frame and reading them back.
+     */
+    public static final int FRAME_LATENCY = 4;
+    public static final int MAX_SCOPES_PER_FRAME = 64;
+    private static final int WINDOW = 120;
+    private static final String FRAME_SCOPE = "frame";
+
+    private final Map<String, Scope> scopes = new LinkedHashMap<>();
+    private final RollingStatistics cpuFrameTime = new RollingStatistics(WINDOW);
+    private final AllocationTracker allocations = new AllocationTracker();
+
+    private final int[][] queries = new int[FRAME_LATENCY][MAX_SCOPES_PER_FRAME * 2];
+    private final Scope[][] recordScopes = new Scope[FRAME_LATENCY][MAX_SCOPES_PER_FRAME];
+    private final int[] recordCounts = new int[FRAME_LATENCY];
+    private final int[] openRecords = new int[MAX_SCOPES_PER_FRAME];
+    private int depth;
+
+    private boolean supported;
+    private long frame;
+    private int slot;
+    private long frameStart;
+    private long droppedFrames;
+
+    /**
+     * Package private scope keeping track of the rolling GPU time of a single named section.
+     */
+    static final class Scope {
+        final String name;
+        final RollingStatistics gpuTime = new RollingStatistics(WINDOW);
+
+        Scope(String name) {
+            this.name = name;
+        }
+    }
+
+    @PostConstruct
+    private void init() {
+        GLCapabilities caps = GL.getCapabilities();
+        supported = caps.OpenGL33 || caps.GL_ARB_timer_query;
+        if (!supported) return;
+        for (int[] slotQueries : queries)
+            GL15.glGenQueries(slotQueries);
+    }
+
+    /**
+     * Starts a new frame: reads back the slot issued {@link #FRAME_LATENCY} frames ago, reuses it for
+     * the current frame and opens the root {@code frame} scope.
+     */
+    public void beginFrame() {
+        long now = System.nanoTime();
+        if (frameStart != 0) cpuFrameTime.add((now - frameStart) / 1_000_000.0);
+        frameStart = now;
+        allocations.beginFrame();
+
+        slot = (int) (frame % FRAME_LATENCY);
+        if (supported && frame >= FRAME_LATENCY) collect(slot);
+        recordCounts[slot] = 0;
+        depth = 0;
+        begin(FRAME_SCOPE);
+    }
+
+    /**
+     * Ends the current frame by closing the root {@code frame} scope and any scope left open.
+     */
+    public void endFrame() {
+        while (depth > 0) end();
+        frame++;
+    }
+
+    /**
+     * Opens a named GPU timing scope. Scopes can be nested and must be closed with {@link #end()}.
+     *
+     * @param name the name of the scope, cannot be null.
+     * @throws IllegalArgumentException if the provided name is {@code null}.
+     */
+    public void begin(String name) {
+        if (name == null) throw new IllegalArgumentException("Scope name cannot be null");
+        if (depth == openRecords.length) throw new IllegalStateException("Too many nested GPU scopes");
+        allocations.begin(name);
+        int record = recordCounts[slot];
+        if (!supported || record == MAX_SCOPES_PER_FRAME) {
+            openRecords[depth++] = -1;
+            return;
+        }
+        recordScopes[slot][record] = scopes.computeIfAbsent(name, Scope::new);
+        GL33.glQueryCounter(queries[slot][record * 2], GL33.GL_TIMESTAMP);
+        recordCounts[slot] = record + 1;
+        openRecords[depth++] = record;
+    }
+
+    /**
+     * Closes the most recently opened GPU timing scope.
+     *
+     * @throws IllegalStateException if no scope is open.
+     */
+    public void end() {
+        if (depth == 0) throw new IllegalStateException("No GPU scope is open");
+        int record = openRecords[--depth];
+        if (record >= 0) GL33.glQueryCounter(queries[slot][record * 2 + 1], GL33.GL_TIMESTAMP);
+        allocations.end();
+    }
+
+    /**
+     * Reads back all results of a slot if the GPU finished with it, without ever waiting for it.
+     *
+     * @param slot the slot of the query pool to read back.
+     */
+    private void collect(int slot) {
+        int count = recordCounts[slot];
+        if (count == 0) return;
+        // Timestamps complete in order, the end of the root scope is the last query written by the frame.
+        int last = queries[slot][1];
+        if (GL15.glGetQueryObjecti(last, GL15.GL_QUERY_RESULT_AVAILABLE) == 0) {
+            droppedFrames++;
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            long start = GL33.glGetQueryObjecti64(queries[slot][i * 2], GL15.GL_QUERY_RESULT);
+            long end = GL33.glGetQueryObjecti64(queries[slot][i * 2 + 1], GL15.GL_QUERY_RESULT);
+            recordScopes[slot][i].gpuTime.add((end - start) / 1_000_000.0);
+            recordScopes[slot][i] = null;
+        }
+    }
+
+    /**
+     * Deletes all queries of the pool.
+     */
+    public void destroy() {
+        if (!supported) return;
+        for (int[] slotQueries : queries)
+            GL15.glDeleteQueries(slotQueries);
+        supported = false;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public boolean isSupported() {
+        return supported;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    /**
+     * Getter for the {@link AllocationTracker} measuring the heap allocations of the profiled frames and scopes.
+     */
+    public AllocationTracker getAllocationTracker() {
+        return allocations;
+    }
+
+    /**
+     * Getter for the rolling GPU time in milliseconds of a named scope.
+     *
+     * @param name the name of the scope.
+     * @return the statistics of the scope, or {@code null} if the scope was never measured.
+     */
+    public RollingStatistics getGpuStatistics(String name) {
+        Scope scope = scopes.get(name);
+        return scope == null ? null : scope.gpuTime;
+    }
+
+    /**
+     * Getter for the rolling GPU time in milliseconds of a whole frame.
+     *
+     * @return the statistics of the root {@code frame} scope.
+     */
+    public RollingStatistics getGpuFrameStatistics() {
+        return scopes.computeIfAbsent(FRAME_SCOPE, Scope::new).gpuTime;
+    }
+
+    /**
+     * Getter for the rolling CPU time in milliseconds between the start of two consecutive frames.
+     *
+     * @return the statistics of the CPU frame time.
+     */
+    public RollingStatistics getCpuFrameStatistics() {
+        return cpuFrameTime;
+    }
+
+    /**
+     * Getter for the names of all scopes measured so far, in order of first use.
+     *
+     * @return Unmodifiable {@code Collection<String>} with all scope names.
+     */
+    public Collection<String> getScopeNames() {
+        return Collections.unmodifiableCollection(scopes.keySet());
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("GpuProfiler(cpu frame ms: ").append(cpuFrameTime);
+        for (Scope scope : scopes.values())
+            builder.append(", gpu ").append(scope.name).append(" ms: ").append(scope.gpuTime);
+        return builder.append(", dropped=").append(droppedFrames).append(", ").append(allocations).append(")").toString();
+    }
+}
@@ -0,0 +1,104 @@
+package framework.profiling;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size rolling window of samples, used to aggregate per-frame and per-scope measurements.
+ * <p>
+ * Adding a sample is O(1) and never allocates, which makes it safe to feed from the frame loop. Percentiles
+ * sort a copy of the window, which is allocated by the first query and reused after.
+ */
+public class RollingStatistics {
+
+    private final double[] samples;
+    private double[] sorted;
+    private int next;
+    private int count;
+    private double sum;
+    private double last;
+
+    /**
+     * Creates a new instance of a {@link RollingStatistics} keeping track of the most recent samples.
+     *
+     * @param window the amount of samples kept in the window, must be positive.
+     * @throws IllegalArgumentException if the provided window is not positive.
+     */
+    public RollingStatistics(int window) {
+        if (window <= 0) throw new IllegalArgumentException("Window must be positive: " + window);
+        this.samples = new double[window];
+    }
+
+    /**
+     * Adds a new sample to the window, evicting the oldest sample if the window is full.
+     *
+     * @param sample the sample to add.
+     */
+    public void add(double sample) {
+        if (count == samples.length) sum -= samples[next];
+        else count++;
+        samples[next] = sample;
+        sum += sample;
+        last = sample;
+        next = (next + 1) % samples.length;
+    }
+
+    /**
+     * Removes all samples from the window.
+     */
+    public void clear() {
+        next = 0;
+        count = 0;
+        sum = 0;
+        last = 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public double getLast() {
+        return last;
+    }
+
+    public double getAverage() {
+        return count == 0 ? 0.0 : sum / count;
+    }
+
+    public double getMin() {
+        if (count == 0) return 0.0;
+        double min = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < count; i++) min = Math.min(min, samples[i]);
+        return min;
+    }
+
+    public double getMax() {
+        if (count == 0) return 0.0;
+        double max = Double.NEGATIVE_INFINITY;
+        for (int i = 0; i < count; i++) max = Math.max(max, samples[i]);
+        return max;
+    }
+
+    /**
+     * Getter for a percentile of the samples in the window, using the nearest-rank method: the smallest
+     * sample which at least the given percentage of all samples is less than or equal to.
+     *
+     * @param percentile the percentile, between 0 and 100 inclusive, where 0 is the minimum.
+     * @return the sample at the percentile, or {@code 0} if the window is empty.
+     * @throws IllegalArgumentException if provided percentile is not between 0 and 100.
+     */
+    public double getPercentile(double percentile) {
+        if (!(percentile >= 0 && percentile <= 100))
+            throw new IllegalArgumentException("Percentile must be between 0 and 100: " + percentile);
+        if (count == 0) return 0.0;
+        if (sorted == null) sorted = new double[samples.length];
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int rank = (int) Math.ceil(percentile * count / 100);
+        return sorted[Math.max(rank, 1) - 1];
+    }
+
+    @Override
+    public String toString() {
+        return String.format("avg=%.3f, min=%.3f, max=%.3f, n=%d", getAverage(), getMin(), getMax(), count);
+    }
+}
@@ -0,0 +1,42 @@
+package framework.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event spanning one frame of a {@link framework.application.GraphicApplication}, split into
+ * its update, render and present phases.
+ * <p>
+ * Like all engine events it is only committed while a recording enables it, and costs nothing otherwise.
+ * Record together with the GC and JIT events using the bundled settings, e.g.
+ * {@code -XX:StartFlightRecording:settings=profile,src/main/resources/jfr/engine.jfc}.
+ */
+@Name("framework.Frame")
+@Label("Frame")
+@Category({"Engine", "Frame"})
+@Description("One frame of the application loop")
+@StackTrace(false)
+public class FrameEvent extends jdk.jfr.Event {
+
+    @Label("Frame")
+    public long frame;
+
+    @Label("Update Time")
+    @Description("Time spent in onUpdate")
+    @Timespan(Timespan.NANOSECONDS)
+    public long updateTime;
+
+    @Label("Render Time")
+    @Description("Time spent clearing and in onRender")
+    @Timespan(Timespan.NANOSECONDS)
+    public long renderTime;
+
+    @Label("Present Time")
+    @Description("Time spent swapping buffers and polling events")
+    @Timespan(Timespan.NANOSECONDS)
+    public long presentTime;
+}
@@ -0,0 +1,29 @@
+package framework.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event for an instance created by the {@link framework.injection.Injector}. The duration includes
+ * the creation of its dependencies, which are recorded as separate events with a higher depth.
+ */
+@Name("framework.Injection")
+@Label("Injection")
+@Category({"Engine", "Injection"})
+@Description("Creation of an instance by the Injector")
+@StackTrace(false)
+public class InjectionEvent extends jdk.jfr.Event {
+
+    @Label("Class")
+    public String className;
+
+    @Label("Singleton")
+    public boolean singleton;
+
+    @Label("Depth")
+    @Description("Amount of instances whose dependencies were being created")
+    public int depth;
+}
@@ -0,0 +1,31 @@
+package framework.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for a mesh created by the {@link framework.graphics.MeshHandler}.
+ */
+@Name("framework.MeshUpload")
+@Label("Mesh Upload")
+@Category({"Engine", "Assets"})
+@Description("Upload of mesh vertex and index data to the GPU")
+public class MeshUploadEvent extends jdk.jfr.Event {
+
+    @Label("Vertices")
+    public int vertices;
+
+    @Label("Indices")
+    public int indices;
+
+    @Label("Vertex Bytes")
+    @DataAmount
+    public long vertexBytes;
+
+    @Label("Index Bytes")
+    @DataAmount
+    public long indexBytes;
+}
@@ -0,0 +1,30 @@
+package framework.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event for the compilation of a single shader stage by the driver.
+ */
+@Name("framework.ShaderCompile")
+@Label("Shader Compile")
+@Category({"Engine", "Graphics"})
+@Description("Compilation of a shader stage")
+public class ShaderCompileEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Stage")
+    public String stage;
+
+    @Label("Source Size")
+    @DataAmount
+    public long sourceBytes;
+
+    @Label("Success")
+    public boolean success;
+}
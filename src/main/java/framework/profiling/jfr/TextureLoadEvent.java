@@ -0,0 +1,45 @@
+package framework.profiling.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for a texture loaded by the {@link framework.graphics.TextureHandler}, with the time split
+ * into decoding the image and uploading it to the GPU. Packed textures are not decoded.
+ */
+@Name("framework.TextureLoad")
+@Label("Texture Load")
+@Category({"Engine", "Assets"})
+@Description("Loading of a texture from a file or asset archive")
+public class TextureLoadEvent extends jdk.jfr.Event {
+
+    @Label("Path")
+    public String path;
+
+    @Label("Packed")
+    @Description("Uploaded pre-decoded from an asset archive")
+    public boolean packed;
+
+    @Label("Width")
+    public int width;
+
+    @Label("Height")
+    public int height;
+
+    @Label("Size")
+    @Description("Uploaded bytes, including all mip levels of packed textures")
+    @DataAmount
+    public long bytes;
+
+    @Label("Decode Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long decodeTime;
+
+    @Label("Upload Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long uploadTime;
+}
@@ -0,0 +1,146 @@
+package framework.scene;
+
+import framework.graphics.Mesh;
+import framework.graphics.ShaderTextureArray;
+import framework.graphics.Texture;
+import framework.util.IntList;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+
+import java.util.Arrays;
+
+/**
+ * Layer of 2D scene objects drawn through a {@link SpatialHashGrid}.
+ * <p>
+ * Only objects overlapping the viewport are submitted to {@code glDrawElements}, in ascending id order,
+ * and picking only tests the objects in the cell under the cursor. Objects with a higher id are drawn
+ * on top and are picked first.
+ * <p>
+ * Objects sharing an array {@link Texture}, like every card face of a deck, only differ in their layer, which is
+ * passed as a constant vertex attribute at {@link ShaderTextureArray#LAYER_LOCATION}, so they draw without any
+ * texture rebind.
+ */
+public class SceneLayer {
+
+    private static final int NONE = -1;
+
+    private final SpatialHashGrid grid;
+    private final IntList visible = new IntList();
+    private final IntList picked = new IntList();
+    private Mesh[] meshes = new Mesh[16];
+    private Texture[] textures = new Texture[16];
+    private int[] layers = new int[16];
+
+    /**
+     * Creates a new instance of a {@link SceneLayer}.
+     *
+     * @param cellSize cell size of the underlying {@link SpatialHashGrid}, ideally close to the object size.
+     */
+    public SceneLayer(float cellSize) {
+        this.grid = new SpatialHashGrid(cellSize);
+    }
+
+    /**
+     * Adds an object drawn with the first layer of its texture to the layer.
+     *
+     * @see #add(int, Mesh, Texture, int, float, float, float, float)
+     */
+    public void add(int id, Mesh mesh, Texture texture, float minX, float minY, float maxX, float maxY) {
+        add(id, mesh, texture, 0, minX, minY, maxX, maxY);
+    }
+
+    /**
+     * Adds an object to the layer.
+     *
+     * @param id non-negative identifier of the object.
+     * @param mesh {@link Mesh} drawn for the object, cannot be null.
+     * @param texture texture bound while drawing the object, cannot be null.
+     * @param layer layer of the texture drawn for the object.
+     * @throws IllegalArgumentException if provided mesh or texture is {@code null}, the layer is not within the
+     *                                  texture, or the id is invalid or already present.
+     */
+    public void add(int id, Mesh mesh, Texture texture, int layer, float minX, float minY, float maxX, float maxY) {
+        if (mesh == null) throw new IllegalArgumentException("Mesh cannot be null");
+        if (texture == null) throw new IllegalArgumentException("Texture cannot be null");
+        if (layer < 0 || layer >= texture.getLayers())
+            throw new IllegalArgumentException("Layer " + layer + " outside of texture with " + texture.getLayers() + " layers");
+        grid.insert(id, minX, minY, maxX, maxY);
+        if (id >= meshes.length) {
+            int capacity = Math.max(id + 1, meshes.length * 2);
+            meshes = Arrays.copyOf(meshes, capacity);
+            textures = Arrays.copyOf(textures, capacity);
+            layers = Arrays.copyOf(layers, capacity);
+        }
+        meshes[id] = mesh;
+        textures[id] = texture;
+        layers[id] = layer;
+    }
+
+    public void move(int id, float minX, float minY, float maxX, float maxY) {
+        grid.move(id, minX, minY, maxX, maxY);
+    }
+
+    public boolean remove(int id) {
+        if (!grid.remove(id)) return false;
+        meshes[id] = null;
+        textures[id] = null;
+        return true;
+    }
+
+    public SpatialHashGrid getGrid() {
+        return grid;
+    }
+
+    /**
+     * Draws all objects overlapping the viewport, skipping redundant VAO, texture and layer changes.
+     *
+     * @return the amount of objects submitted to {@code glDrawElements}.
+     */
+    public int render(float minX, float minY, float maxX, float maxY) {
+        visible.clear();
+        int count = grid.query(minX, minY, maxX, maxY, visible);
+        if (count == 0) return 0;
+        visible.sort();
+
+        int boundVao = NONE;
+        Texture boundTexture = null;
+        int boundLayer = NONE;
+        GL13.glActiveTexture(GL13.GL_TEXTURE0);
+        for (int i = 0; i < count; i++) {
+            int id = visible.get(i);
+            Mesh mesh = meshes[id];
+            if (mesh.getVaoID() != boundVao) {
+                boundVao = mesh.getVaoID();
+                GL30.glBindVertexArray(boundVao);
+                GL20.glEnableVertexAttribArray(0);
+                GL20.glEnableVertexAttribArray(1);
+            }
+            if (textures[id] != boundTexture) {
+                boundTexture = textures[id];
+                GL11.glBindTexture(boundTexture.getTarget(), boundTexture.getID());
+            }
+            if (layers[id] != boundLayer) {
+                boundLayer = layers[id];
+                GL20.glVertexAttrib1f(ShaderTextureArray.LAYER_LOCATION, boundLayer);
+            }
+            GL11.glDrawElements(GL11.GL_TRIANGLES, mesh.getVertexCount(), mesh.getIndexType(), 0);
+        }
+        GL30.glBindVertexArray(0);
+        return count;
+    }
+
+    /**
+     * Finds the top-most object containing a point.
+     *
+     * @return the id of the picked object, or {@code -1} if no object contains the point.
+     */
+    public int pick(float x, float y) {
+        picked.clear();
+        int count = grid.query(x, y, picked);
+        int top = NONE;
+        for (int i = 0; i < count; i++) top = Math.max(top, picked.get(i));
+        return top;
+    }
+}
@@ -0,0 +1,451 @@
+package framework.scene;
+
+import framework.util.IntList;
+
+import java.util.Arrays;
+
+/**
+ * Uniform spatial hash grid indexing axis-aligned 2D bounds by non-negative integer ids.
+ * <p>
+ * Every object is linked into each cell its bounds overlap. Cells are stored in an open-addressing hash
+ * table keyed by cell coordinates, so the world does not need fixed dimensions. All bookkeeping lives in
+ * primitive arrays: inserting, moving, removing and querying do not allocate once the arrays reached
+ * their working size.
+ * <p>
+ * Objects should be roughly the size of a cell or smaller; larger objects are linked into more cells. Objects
+ * covering more than {@link #MAX_CELLS_PER_OBJECT} cells are not linked at all, but kept in an oversized list
+ * every query checks, so huge bounds cost neither memory nor time per cell.
+ */
+public class SpatialHashGrid {
+
+    /**
+     * Largest amount of cells an object is linked into, larger objects are kept in the oversized list.
+     */
+    public static final int MAX_CELLS_PER_OBJECT = 256;
+
+    private static final int NONE = -1;
+    /**
+     * Marks a table slot that was never used, as opposed to {@code NONE} marking a known but empty cell.
+     */
+    private static final int EMPTY_SLOT = -2;
+    /**
+     * First entry of objects in the oversized list instead of the cells.
+     */
+    private static final int OVERSIZED = -3;
+
+    private final float cellSize;
+    private final float inverseCellSize;
+
+    // Objects, indexed by id.
+    private float[] minX = new float[0];
+    private float[] minY = new float[0];
+    private float[] maxX = new float[0];
+    private float[] maxY = new float[0];
+    private int[] cellRange = new int[0];
+    private int[] firstEntry = new int[0];
+    private int[] stamps = new int[0];
+    private int stamp;
+    private int objectCount;
+    private final IntList oversized = new IntList();
+
+    // Entries linking an object into a cell, chained per cell and per object.
+    private int[] entryObject = new int[64];
+    private int[] entrySlot = new int[64];
+    private int[] entryPrev = new int[64];
+    private int[] entryNext = new int[64];
+    private int[] entryNextOfObject = new int[64];
+    private int freeEntry = NONE;
+    private int entryCount;
+
+    // Cells, open-addressing table from packed cell coordinates to the first entry of the cell.
+    private long[] cellKeys;
+    private int[] cellHeads;
+    private int usedSlots;
+
+    /**
+     * Creates a new instance of a {@link SpatialHashGrid}.
+     *
+     * @param cellSize width and height of a single cell in world units, must be positive.
+     * @throws IllegalArgumentException if provided cell size is not positive.
+     */
+    public SpatialHashGrid(float cellSize) {
+        if (!(cellSize > 0)) throw new IllegalArgumentException("Cell size must be positive: " + cellSize);
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1f / cellSize;
+        allocateCells(64);
+    }
+
+
+    // ------------------------ Mutation ------------------------ //
+    /**
+     * Inserts an object into the grid.
+     *
+     * @param id non-negative identifier of the object.
+     * @throws IllegalArgumentException if provided id is negative, already present, or the bounds are inverted
+     * or not finite.
+     */
+    public void insert(int id, float minX, float minY, float maxX, float maxY) {
+        if (id < 0) throw new IllegalArgumentException("Object identifier cannot be negative: " + id);
+        checkBounds(id, minX, minY, maxX, maxY);
+        ensureObjectCapacity(id + 1);
+        if (firstEntry[id] != NONE) throw new IllegalArgumentException("Object already present in grid: " + id);
+        setBounds(id, minX, minY, maxX, maxY);
+        link(id);
+        objectCount++;
+    }
+
+    /**
+     * Inserts many objects into the grid at once.
+     *
+     * @param ids identifiers of the objects.
+     * @param bounds {@code minX, minY, maxX, maxY} of every object, packed in order of the ids.
+     * @param count amount of objects to insert.
+     * @throws IllegalArgumentException if any id is negative or already present.
+     */
+    public void insertAll(int[] ids, float[] bounds, int count) {
+        int maxId = 0;
+        for (int i = 0; i < count; i++) maxId = Math.max(maxId, ids[i]);
+        ensureObjectCapacity(maxId + 1);
+        for (int i = 0; i < count; i++)
+            insert(ids[i], bounds[i * 4], bounds[i * 4 + 1], bounds[i * 4 + 2], bounds[i * 4 + 3]);
+    }
+
+    /**
+     * Moves an object to new bounds. The cells are only relinked if the object crossed a cell border.
+     *
+     * @param id identifier of a present object.
+     * @throws IllegalArgumentException if the object is not present, or the bounds are inverted or not finite.
+     */
+    public void move(int id, float minX, float minY, float maxX, float maxY) {
+        if (!contains(id)) throw new IllegalArgumentException("Object not present in grid: " + id);
+        checkBounds(id, minX, minY, maxX, maxY);
+        int r = id * 4;
+        boolean sameCells = cellRange[r] == cell(minX) && cellRange[r + 1] == cell(minY)
+                && cellRange[r + 2] == cell(maxX) && cellRange[r + 3] == cell(maxY);
+        if (!sameCells) unlink(id);
+        setBounds(id, minX, minY, maxX, maxY);
+        if (!sameCells) link(id);
+    }
+
+    /**
+     * Removes an object from the grid.
+     *
+     * @param id identifier of the object.
+     * @return {@code true} if the object was present.
+     */
+    public boolean remove(int id) {
+        if (!contains(id)) return false;
+        unlink(id);
+        objectCount--;
+        return true;
+    }
+
+    /**
+     * Removes many objects from the grid at once.
+     *
+     * @param ids identifiers of the objects.
+     * @param count amount of objects to remove.
+     */
+    public void removeAll(int[] ids, int count) {
+        for (int i = 0; i < count; i++) remove(ids[i]);
+    }
+
+    /**
+     * Removes all objects from the grid, keeping the allocated capacity.
+     */
+    public void clear() {
+        Arrays.fill(firstEntry, NONE);
+        Arrays.fill(cellHeads, EMPTY_SLOT);
+        oversized.clear();
+        usedSlots = 0;
+        entryCount = 0;
+        freeEntry = NONE;
+        objectCount = 0;
+    }
+
+
+    // ------------------------ Queries ------------------------ //
+    /**
+     * Collects the ids of all objects overlapping a rectangle, for example the visible viewport.
+     * Every object is reported once, in no particular order. Infinite bounds query the whole grid.
+     *
+     * @param out list the ids are appended to.
+     * @return the amount of ids appended.
+     */
+    public int query(float minX, float minY, float maxX, float maxY, IntList out) {
+        int start = out.size();
+        int current = nextStamp();
+        int cx0 = cell(minX), cy0 = cell(minY), cx1 = cell(maxX), cy1 = cell(maxY);
+        long columns = (long) cx1 - cx0 + 1, rows = (long) cy1 - cy0 + 1;
+
+        // Compares each side first, the product of two sides spanning all ints overflows a long.
+        if (columns > usedSlots || rows > usedSlots || columns * rows > usedSlots) {
+            // The rectangle spans more cells than exist, visit the existing cells instead.
+            for (int slot = 0; slot < cellKeys.length; slot++) {
+                if (cellHeads[slot] < 0) continue;
+                int cx = (int) (cellKeys[slot] >> 32), cy = (int) cellKeys[slot];
+                if (cx >= cx0 && cx <= cx1 && cy >= cy0 && cy <= cy1)
+                    collect(cellHeads[slot], current, minX, minY, maxX, maxY, out);
+            }
+        } else {
+            // Long counters, a range ending at the last cell would otherwise overflow and never end.
+            for (long cy = cy0; cy <= cy1; cy++) {
+                for (long cx = cx0; cx <= cx1; cx++) {
+                    int slot = findSlot(key((int) cx, (int) cy));
+                    if (slot != NONE) collect(cellHeads[slot], current, minX, minY, maxX, maxY, out);
+                }
+            }
+        }
+        // Oversized objects are in no cell, so never reported twice.
+        for (int i = 0; i < oversized.size(); i++) {
+            int id = oversized.get(i);
+            if (this.minX[id] <= maxX && this.maxX[id] >= minX && this.minY[id] <= maxY && this.maxY[id] >= minY) out.add(id);
+        }
+        return out.size() - start;
+    }
+
+    /**
+     * Collects the ids of all objects containing a point, for example for mouse picking.
+     *
+     * @param out list the ids are appended to.
+     * @return the amount of ids appended.
+     */
+    public int query(float x, float y, IntList out) {
+        int start = out.size();
+        int slot = findSlot(key(cell(x), cell(y)));
+        // A single cell never links the same object twice, no stamping required.
+        for (int e = slot == NONE ? NONE : cellHeads[slot]; e != NONE; e = entryNext[e]) {
+            int id = entryObject[e];
+            if (x >= minX[id] && x <= maxX[id] && y >= minY[id] && y <= maxY[id]) out.add(id);
+        }
+        for (int i = 0; i < oversized.size(); i++) {
+            int id = oversized.get(i);
+            if (x >= minX[id] && x <= maxX[id] && y >= minY[id] && y <= maxY[id]) out.add(id);
+        }
+        return out.size() - start;
+    }
+
+    private void collect(int head, int current, float qMinX, float qMinY, float qMaxX, float qMaxY, IntList out) {
+        for (int e = head; e != NONE; e = entryNext[e]) {
+            int id = entryObject[e];
+            if (stamps[id] == current) continue;
+            stamps[id] = current;
+            if (minX[id] <= qMaxX && maxX[id] >= qMinX && minY[id] <= qMaxY && maxY[id] >= qMinY) out.add(id);
+        }
+    }
+
+    private int nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    public boolean contains(int id) {
+        return id >= 0 && id < firstEntry.length && firstEntry[id] != NONE;
+    }
+
+    public int size() {
+        return objectCount;
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    public float getMinX(int id) {
+        return minX[id];
+    }
+
+    public float getMinY(int id) {
+        return minY[id];
+    }
+
+    public float getMaxX(int id) {
+        return maxX[id];
+    }
+
+    public float getMaxY(int id) {
+        return maxY[id];
+    }
+
+
+    // ------------------------ Object & Entry Bookkeeping ------------------------ //
+    private static void checkBounds(int id, float minX, float minY, float maxX, float maxY) {
+        if (!Float.isFinite(minX) || !Float.isFinite(minY) || !Float.isFinite(maxX) || !Float.isFinite(maxY))
+            throw new IllegalArgumentException("Object bounds are not finite: " + id);
+        if (minX > maxX || minY > maxY) throw new IllegalArgumentException("Object bounds are inverted: " + id);
+    }
+
+    /**
+     * @return the cell of a coordinate, saturated to the {@code int} range for coordinates beyond it.
+     */
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    private void setBounds(int id, float minX, float minY, float maxX, float maxY) {
+        this.minX[id] = minX;
+        this.minY[id] = minY;
+        this.maxX[id] = maxX;
+        this.maxY[id] = maxY;
+    }
+
+    private void link(int id) {
+        int r = id * 4;
+        int cx0 = cellRange[r] = cell(minX[id]);
+        int cy0 = cellRange[r + 1] = cell(minY[id]);
+        int cx1 = cellRange[r + 2] = cell(maxX[id]);
+        int cy1 = cellRange[r + 3] = cell(maxY[id]);
+        long columns = (long) cx1 - cx0 + 1, rows = (long) cy1 - cy0 + 1;
+        if (columns > MAX_CELLS_PER_OBJECT || rows > MAX_CELLS_PER_OBJECT || columns * rows > MAX_CELLS_PER_OBJECT) {
+            firstEntry[id] = OVERSIZED;
+            oversized.add(id);
+            return;
+        }
+
+        int previous = NONE;
+        for (long cy = cy0; cy <= cy1; cy++) {
+            for (long cx = cx0; cx <= cx1; cx++) {
+                int slot = findOrCreateSlot(key((int) cx, (int) cy));
+                int e = allocateEntry();
+                entryObject[e] = id;
+                entrySlot[e] = slot;
+                entryPrev[e] = NONE;
+                entryNext[e] = cellHeads[slot];
+                if (cellHeads[slot] != NONE) entryPrev[cellHeads[slot]] = e;
+                cellHeads[slot] = e;
+                entryNextOfObject[e] = previous;
+                previous = e;
+            }
+        }
+        firstEntry[id] = previous;
+    }
+
+    private void unlink(int id) {
+        if (firstEntry[id] == OVERSIZED) {
+            // Oversized objects are rare, a linear search keeps the bookkeeping out of every object.
+            int i = 0;
+            while (oversized.get(i) != id) i++;
+            oversized.set(i, oversized.get(oversized.size() - 1));
+            oversized.removeLast();
+            firstEntry[id] = NONE;
+            return;
+        }
+        int e = firstEntry[id];
+        while (e != NONE) {
+            int prev = entryPrev[e], next = entryNext[e];
+            if (prev == NONE) cellHeads[entrySlot[e]] = next;
+            else entryNext[prev] = next;
+            if (next != NONE) entryPrev[next] = prev;
+
+            int nextOfObject = entryNextOfObject[e];
+            entryNext[e] = freeEntry;
+            freeEntry = e;
+            e = nextOfObject;
+        }
+        firstEntry[id] = NONE;
+    }
+
+    private int allocateEntry() {
+        if (freeEntry != NONE) {
+            int e = freeEntry;
+            freeEntry = entryNext[e];
+            return e;
+        }
+        if (entryCount == entryObject.length) {
+            int capacity = entryCount * 2;
+            entryObject = Arrays.copyOf(entryObject, capacity);
+            entrySlot = Arrays.copyOf(entrySlot, capacity);
+            entryPrev = Arrays.copyOf(entryPrev, capacity);
+            entryNext = Arrays.copyOf(entryNext, capacity);
+            entryNextOfObject = Arrays.copyOf(entryNextOfObject, capacity);
+        }
+        return entryCount++;
+    }
+
+    private void ensureObjectCapacity(int capacity) {
+        int old = firstEntry.length;
+        if (capacity <= old) return;
+        capacity = Math.max(capacity, Math.max(16, old * 2));
+        minX = Arrays.copyOf(minX, capacity);
+        minY = Arrays.copyOf(minY, capacity);
+        maxX = Arrays.copyOf(maxX, capacity);
+        maxY = Arrays.copyOf(maxY, capacity);
+        cellRange = Arrays.copyOf(cellRange, capacity * 4);
+        stamps = Arrays.copyOf(stamps, capacity);
+        firstEntry = Arrays.copyOf(firstEntry, capacity);
+        Arrays.fill(firstEntry, old, capacity, NONE);
+    }
+
+
+    // ------------------------ Cell Table ------------------------ //
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    private static int hash(long key) {
+        key ^= key >>> 33;
+        key *= 0xFF51AFD7ED558CCDL;
+        key ^= key >>> 33;
+        return (int) key;
+    }
+
+    /**
+     * @return the slot of a non-empty cell, or {@code NONE} if the cell has no entries.
+     */
+    private int findSlot(long key) {
+        int mask = cellKeys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            int head = cellHeads[slot];
+            if (head == EMPTY_SLOT) return NONE;
+            if (cellKeys[slot] == key) return head == NONE ? NONE : slot;
+        }
+    }
+
+    private int findOrCreateSlot(long key) {
+        if (usedSlots * 2 >= cellKeys.length) rehash();
+        int mask = cellKeys.length - 1;
+        for (int slot = hash(key) & mask; ; slot = (slot + 1) & mask) {
+            if (cellHeads[slot] == EMPTY_SLOT) {
+                cellKeys[slot] = key;
+                cellHeads[slot] = NONE;
+                usedSlots++;
+                return slot;
+            }
+            if (cellKeys[slot] == key) return slot;
+        }
+    }
+
+    private void allocateCells(int capacity) {
+        cellKeys = new long[capacity];
+        cellHeads = new int[capacity];
+        Arrays.fill(cellHeads, EMPTY_SLOT);
+        usedSlots = 0;
+    }
+
+    /**
+     * Rebuilds the cell table, dropping cells that became empty and growing it if needed.
+     */
+    private void rehash() {
+        long[] oldKeys = cellKeys;
+        int[] oldHeads = cellHeads;
+        int live = 0;
+        for (int head : oldHeads) if (head >= 0) live++;
+        allocateCells(Math.max(64, Integer.highestOneBit(Math.max(1, live * 4) - 1) << 1));
+
+        int mask = cellKeys.length - 1;
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldHeads[old] < 0) continue;
+            int slot = hash(oldKeys[old]) & mask;
+            while (cellHeads[slot] != EMPTY_SLOT) slot = (slot + 1) & mask;
+            cellKeys[slot] = oldKeys[old];
+            cellHeads[slot] = oldHeads[old];
+            usedSlots++;
+            for (int e = oldHeads[old]; e != NONE; e = entryNext[e]) entrySlot[e] = slot;
+        }
+    }
+}
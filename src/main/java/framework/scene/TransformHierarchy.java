@@ -0,0 +1,349 @@
+package framework.scene;
+
+import framework.util.IntList;
+import org.joml.Matrix4f;
+
+import java.util.Arrays;
+
+/**
+ * Parent/child hierarchy of 2D transforms with cached world matrices.
+ * <p>
+ * Nodes are addressed by stable handles, but their data lives in flat arrays ordered by depth, so every parent
+ * precedes its children and {@link #update()} recomputes all dirty subtrees in a single forward pass. World
+ * matrices are stored column-major, 16 floats per slot, in {@link #worldMatrices()}; the slots written by the
+ * last update form the range {@link #getChangedFrom()} to {@link #getChangedTo()}, which can be uploaded in
+ * one call with a {@link framework.graphics.MatrixBuffer}.
+ */
+public class TransformHierarchy {
+
+    public static final int NO_PARENT = -1;
+    public static final int MATRIX_FLOATS = 16;
+
+    private final Matrix4f scratch = new Matrix4f();
+    private final IntList freeHandles = new IntList();
+    private final IntList removed = new IntList();
+
+    // Indexed by handle.
+    private int[] parentOf = new int[0];
+    private int[] slotOf = new int[0];
+    private boolean[] alive = new boolean[0];
+    private int handleCount;
+
+    // Indexed by slot, ordered by depth.
+    private int[] handleAt = new int[0];
+    private int[] parentSlot = new int[0];
+    private int[] depth = new int[0];
+    private float[] x = new float[0], y = new float[0], z = new float[0];
+    private float[] rotation = new float[0];
+    private float[] scaleX = new float[0], scaleY = new float[0];
+    private boolean[] dirty = new boolean[0];
+    private boolean[] changed = new boolean[0];
+    private float[] world = new float[0];
+    private int size;
+
+    private int firstDirty = Integer.MAX_VALUE;
+    private boolean reorder;
+    private int changedFrom, changedTo;
+    private boolean reordered;
+
+    // ------------------------ Structure ------------------------ //
+    /**
+     * Creates a node with an identity local transform.
+     *
+     * @param parent the handle of the parent node, or {@link #NO_PARENT} for a root node.
+     * @return the handle of the new node.
+     * @throws IllegalArgumentException if provided parent is not a node of this hierarchy.
+     */
+    public int create(int parent) {
+        if (parent != NO_PARENT) checkNode(parent);
+        int handle = freeHandles.isEmpty() ? handleCount++ : freeHandles.removeLast();
+        if (handle == alive.length) {
+            int capacity = Math.max(16, handle * 2);
+            parentOf = Arrays.copyOf(parentOf, capacity);
+            slotOf = Arrays.copyOf(slotOf, capacity);
+            alive = Arrays.copyOf(alive, capacity);
+        }
+        if (size == handleAt.length) growSlots(Math.max(16, size * 2));
+
+        int slot = size++;
+        int nodeDepth = parent == NO_PARENT ? 0 : depth[slotOf[parent]] + 1;
+        if (slot > 0 && nodeDepth < depth[slot - 1]) reorder = true;
+        alive[handle] = true;
+        parentOf[handle] = parent;
+        slotOf[handle] = slot;
+        handleAt[slot] = handle;
+        parentSlot[slot] = parent == NO_PARENT ? NO_PARENT : slotOf[parent];
+        depth[slot] = nodeDepth;
+        x[slot] = y[slot] = z[slot] = rotation[slot] = 0;
+        scaleX[slot] = scaleY[slot] = 1;
+        markDirty(slot);
+        return handle;
+    }
+
+    /**
+     * Removes a node together with all of its descendants. Their handles may be reused by nodes created
+     * after the next {@link #update()}.
+     *
+     * @param node the handle of the node to remove.
+     * @throws IllegalArgumentException if provided node is not a node of this hierarchy.
+     */
+    public void remove(int node) {
+        checkNode(node);
+        alive[node] = false;
+        removed.add(node);
+        reorder = true;
+    }
+
+    /**
+     * Moves a node and its subtree below a new parent, keeping its local transform.
+     *
+     * @param node the handle of the node to move.
+     * @param parent the handle of the new parent, or {@link #NO_PARENT}.
+     * @throws IllegalArgumentException if a node is not part of this hierarchy, or the parent is the node
+     *                                  itself or one of its descendants.
+     */
+    public void setParent(int node, int parent) {
+        checkNode(node);
+        if (parent != NO_PARENT) {
+            checkNode(parent);
+            for (int p = parent; p != NO_PARENT; p = parentOf[p])
+                if (p == node) throw new IllegalArgumentException("Node cannot be parented to its own subtree: " + node);
+        }
+        parentOf[node] = parent;
+        reorder = true;
+        markDirty(slotOf[node]);
+    }
+
+    public int getParent(int node) {
+        checkNode(node);
+        return parentOf[node];
+    }
+
+    public boolean contains(int node) {
+        return node >= 0 && node < handleCount && alive[node];
+    }
+
+    private void checkNode(int node) {
+        if (!contains(node)) throw new IllegalArgumentException("Unknown transform node: " + node);
+    }
+
+
+    // ------------------------ Local Transforms ------------------------ //
+    public void setPosition(int node, float x, float y, float z) {
+        checkNode(node);
+        int slot = slotOf[node];
+        this.x[slot] = x;
+        this.y[slot] = y;
+        this.z[slot] = z;
+        markDirty(slot);
+    }
+
+    public void translate(int node, float dx, float dy) {
+        checkNode(node);
+        int slot = slotOf[node];
+        x[slot] += dx;
+        y[slot] += dy;
+        markDirty(slot);
+    }
+
+    /**
+     * @param radians counter-clockwise rotation around the z axis.
+     */
+    public void setRotation(int node, float radians) {
+        checkNode(node);
+        int slot = slotOf[node];
+        rotation[slot] = radians;
+        markDirty(slot);
+    }
+
+    public void setScale(int node, float scaleX, float scaleY) {
+        checkNode(node);
+        int slot = slotOf[node];
+        this.scaleX[slot] = scaleX;
+        this.scaleY[slot] = scaleY;
+        markDirty(slot);
+    }
+
+    private void markDirty(int slot) {
+        dirty[slot] = true;
+        firstDirty = Math.min(firstDirty, slot);
+    }
+
+
+    // ------------------------ Update ------------------------ //
+    /**
+     * Recomputes the world matrices of all dirty nodes and their descendants in one pass over the slots.
+     *
+     * @return the amount of recomputed world matrices.
+     */
+    public int update() {
+        reordered = false;
+        if (reorder) rebuild();
+        if (firstDirty == Integer.MAX_VALUE) {
+            changedFrom = changedTo = 0;
+            return 0;
+        }
+
+        int recomputed = 0;
+        int from = firstDirty, to = from;
+        Matrix4f matrix = scratch;
+        for (int slot = firstDirty; slot < size; slot++) {
+            int parent = parentSlot[slot];
+            boolean recompute = dirty[slot] || parent != NO_PARENT && changed[parent];
+            changed[slot] = recompute;
+            if (!recompute) continue;
+
+            if (parent == NO_PARENT) matrix.identity();
+            else matrix.set(world, parent * MATRIX_FLOATS);
+            matrix.translate(x[slot], y[slot], z[slot])
+                    .rotateZ(rotation[slot])
+                    .scale(scaleX[slot], scaleY[slot], 1)
+                    .get(world, slot * MATRIX_FLOATS);
+            dirty[slot] = false;
+            to = slot + 1;
+            recomputed++;
+        }
+        Arrays.fill(changed, from, to, false);
+        changedFrom = from;
+        changedTo = to;
+        firstDirty = Integer.MAX_VALUE;
+        return recomputed;
+    }
+
+    /**
+     * Drops removed nodes and sorts the slots by depth, keeping the current order within a depth.
+     */
+    private void rebuild() {
+        reorder = false;
+        reordered = true;
+        int[] order = new int[size];
+        int count = 0, maxDepth = 0;
+        int[] newDepth = new int[handleCount];
+        for (int slot = 0; slot < size; slot++) {
+            int handle = handleAt[slot];
+            int nodeDepth = 0;
+            boolean detached = false;
+            for (int p = handle; p != NO_PARENT; p = parentOf[p], nodeDepth++)
+                if (!alive[p]) detached = true;
+            if (detached) {
+                // Descendants of a removed node are freed together with it.
+                if (alive[handle]) {
+                    alive[handle] = false;
+                    freeHandles.add(handle);
+                }
+                continue;
+            }
+            newDepth[handle] = nodeDepth - 1;
+            maxDepth = Math.max(maxDepth, nodeDepth - 1);
+            order[count++] = handle;
+        }
+
+        int[] starts = new int[maxDepth + 2];
+        for (int i = 0; i < count; i++) starts[newDepth[order[i]] + 1]++;
+        for (int d = 1; d < starts.length; d++) starts[d] += starts[d - 1];
+        int[] sorted = new int[count];
+        for (int i = 0; i < count; i++) sorted[starts[newDepth[order[i]]]++] = order[i];
+
+        int[] oldSlot = new int[count];
+        for (int i = 0; i < count; i++) oldSlot[i] = slotOf[sorted[i]];
+        x = permute(x, oldSlot);
+        y = permute(y, oldSlot);
+        z = permute(z, oldSlot);
+        rotation = permute(rotation, oldSlot);
+        scaleX = permute(scaleX, oldSlot);
+        scaleY = permute(scaleY, oldSlot);
+        for (int slot = 0; slot < count; slot++) {
+            int handle = sorted[slot];
+            slotOf[handle] = slot;
+            handleAt[slot] = handle;
+            depth[slot] = newDepth[handle];
+        }
+        for (int slot = 0; slot < count; slot++) {
+            int parent = parentOf[handleAt[slot]];
+            parentSlot[slot] = parent == NO_PARENT ? NO_PARENT : slotOf[parent];
+        }
+        for (int i = 0; i < removed.size(); i++) freeHandles.add(removed.get(i));
+        removed.clear();
+        size = count;
+        // Every slot may hold a different node now, so the whole range is recomputed and uploaded.
+        Arrays.fill(dirty, 0, size, true);
+        Arrays.fill(changed, false);
+        firstDirty = size == 0 ? Integer.MAX_VALUE : 0;
+    }
+
+    private static float[] permute(float[] values, int[] oldSlot) {
+        float[] result = new float[values.length];
+        for (int i = 0; i < oldSlot.length; i++) result[i] = values[oldSlot[i]];
+        return result;
+    }
+
+    private void growSlots(int capacity) {
+        handleAt = Arrays.copyOf(handleAt, capacity);
+        parentSlot = Arrays.copyOf(parentSlot, capacity);
+        depth = Arrays.copyOf(depth, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        z = Arrays.copyOf(z, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+        scaleX = Arrays.copyOf(scaleX, capacity);
+        scaleY = Arrays.copyOf(scaleY, capacity);
+        dirty = Arrays.copyOf(dirty, capacity);
+        changed = Arrays.copyOf(changed, capacity);
+        world = Arrays.copyOf(world, capacity * MATRIX_FLOATS);
+    }
+
+
+    // ------------------------ Getters ------------------------ //
+    /**
+     * Copies the world matrix of a node computed by the last {@link #update()}.
+     *
+     * @param node the handle of the node.
+     * @param dest the matrix to store the result in.
+     * @return {@code dest}.
+     */
+    public Matrix4f getWorldMatrix(int node, Matrix4f dest) {
+        checkNode(node);
+        return dest.set(world, slotOf[node] * MATRIX_FLOATS);
+    }
+
+    /**
+     * Getter for the slot of a node, which is also the index of its matrix in {@link #worldMatrices()} and in
+     * an uploaded {@link framework.graphics.MatrixBuffer}. Slots change when the structure changes.
+     */
+    public int getSlot(int node) {
+        checkNode(node);
+        return slotOf[node];
+    }
+
+    /**
+     * @return the backing array of world matrices, 16 floats per slot. Only {@code [0, size * 16)} is valid.
+     */
+    public float[] worldMatrices() {
+        return world;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the first slot written by the last {@link #update()}.
+     */
+    public int getChangedFrom() {
+        return changedFrom;
+    }
+
+    /**
+     * @return one past the last slot written by the last {@link #update()}.
+     */
+    public int getChangedTo() {
+        return changedTo;
+    }
+
+    /**
+     * @return {@code true} if the last {@link #update()} changed the slot of any node.
+     */
+    public boolean wasReordered() {
+        return reordered;
+    }
+}
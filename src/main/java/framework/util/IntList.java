@@ -0,0 +1,86 @@
+package framework.util;
+
+import java.util.Arrays;
+
+/**
+ * Growable list of primitive ints, avoiding the boxing of a {@code List<Integer>}.
+ * <p>
+ * Clearing keeps the backing array, so a reused list stops allocating once it reached its working size.
+ */
+public class IntList {
+
+    private int[] elements;
+    private int size;
+
+    public IntList() {
+        this(16);
+    }
+
+    /**
+     * Creates a new instance of an {@link IntList} with an initial capacity.
+     *
+     * @param capacity initial capacity of the list, cannot be negative.
+     * @throws IllegalArgumentException if provided capacity is negative.
+     */
+    public IntList(int capacity) {
+        if (capacity < 0) throw new IllegalArgumentException("Capacity cannot be negative: " + capacity);
+        this.elements = new int[capacity];
+    }
+
+    public void add(int value) {
+        if (size == elements.length) elements = Arrays.copyOf(elements, Math.max(16, size * 2));
+        elements[size++] = value;
+    }
+
+    /**
+     * Removes and returns the last element of the list.
+     *
+     * @return the removed element.
+     * @throws IndexOutOfBoundsException if the list is empty.
+     */
+    public int removeLast() {
+        if (size == 0) throw new IndexOutOfBoundsException("List is empty");
+        return elements[--size];
+    }
+
+    public int get(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        return elements[index];
+    }
+
+    public void set(int index, int value) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException(index);
+        elements[index] = value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Sorts the elements of the list in ascending order.
+     */
+    public void sort() {
+        Arrays.sort(elements, 0, size);
+    }
+
+    /**
+     * @return a copy of the elements of the list.
+     */
+    public int[] toArray() {
+        return Arrays.copyOf(elements, size);
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+}
@@ -0,0 +1,159 @@
+package framework.util;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing hash map from non-negative {@code long} keys to {@code int} values, avoiding the boxing and
+ * per-entry objects of a {@code HashMap<Long, Integer>}.
+ * <p>
+ * Keys and values are stored in two parallel arrays with linear probing; removal shifts the following
+ * entries back instead of leaving tombstones, so lookups never slow down after many removals.
+ */
+public class LongIntHashMap {
+
+    private static final long EMPTY = -1;
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private int[] values;
+    private int mask;
+    private int size;
+    private final int missingValue;
+
+    /**
+     * Creates a new instance of a {@link LongIntHashMap}.
+     *
+     * @param expectedSize amount of entries the map can hold before growing, cannot be negative.
+     * @param missingValue value returned by {@link #get(long)} for absent keys.
+     * @throws IllegalArgumentException if provided size is negative.
+     */
+    public LongIntHashMap(int expectedSize, int missingValue) {
+        if (expectedSize < 0) throw new IllegalArgumentException("Expected size cannot be negative: " + expectedSize);
+        int capacity = Integer.highestOneBit(Math.max(8, (int) Math.ceil(expectedSize / LOAD_FACTOR)) * 2 - 1);
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.mask = capacity - 1;
+        this.missingValue = missingValue;
+        Arrays.fill(keys, EMPTY);
+    }
+
+    /**
+     * @param key a key, negative keys are never present.
+     * @return the value of the key, or the missing value if the key is absent.
+     */
+    public int get(long key) {
+        if (key < 0) return missingValue;
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == key) return values[i];
+            if (k == EMPTY) return missingValue;
+            i = (i + 1) & mask;
+        }
+    }
+
+    public boolean containsKey(long key) {
+        if (key < 0) return false;
+        int i = slot(key);
+        while (true) {
+            long k = keys[i];
+            if (k == key) return true;
+            if (k == EMPTY) return false;
+            i = (i + 1) & mask;
+        }
+    }
+
+    /**
+     * Associates a value with a key.
+     *
+     * @param key a non-negative key.
+     * @return the previous value of the key, or the missing value if the key was absent.
+     * @throws IllegalArgumentException if provided key is negative.
+     */
+    public int put(long key, int value) {
+        if (key < 0) throw new IllegalArgumentException("Key cannot be negative: " + key);
+        int i = slot(key);
+        while (keys[i] != EMPTY) {
+            if (keys[i] == key) {
+                int previous = values[i];
+                values[i] = value;
+                return previous;
+            }
+            i = (i + 1) & mask;
+        }
+        keys[i] = key;
+        values[i] = value;
+        if (++size > keys.length * LOAD_FACTOR) rehash(keys.length * 2);
+        return missingValue;
+    }
+
+    /**
+     * Removes a key.
+     *
+     * @param key a key, negative keys are never present.
+     * @return the value of the removed key, or the missing value if the key was absent.
+     */
+    public int remove(long key) {
+        if (key < 0) return missingValue;
+        int i = slot(key);
+        while (keys[i] != key) {
+            if (keys[i] == EMPTY) return missingValue;
+            i = (i + 1) & mask;
+        }
+        int removed = values[i];
+        size--;
+        // Shift back every following entry of the probe run whose home slot is not between the gap and itself.
+        int gap = i;
+        for (int j = (gap + 1) & mask; keys[j] != EMPTY; j = (j + 1) & mask) {
+            int home = slot(keys[j]);
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                keys[gap] = keys[j];
+                values[gap] = values[j];
+                gap = j;
+            }
+        }
+        keys[gap] = EMPTY;
+        return removed;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * @return the amount of slots of the backing arrays.
+     */
+    public int capacity() {
+        return keys.length;
+    }
+
+    private int slot(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32)) & mask;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        Arrays.fill(keys, EMPTY);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] == EMPTY) continue;
+            int j = slot(oldKeys[i]);
+            while (keys[j] != EMPTY) j = (j + 1) & mask;
+            keys[j] = oldKeys[i];
+            values[j] = oldValues[i];
+        }
+    }
+}
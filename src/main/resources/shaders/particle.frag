@@ -0,0 +1,11 @@
+#version 330 core
+
+in vec2 pass_offset;
+in vec4 pass_color;
+
+out vec4 out_Color;
+
+void main(){
+    float falloff = 1.0 - smoothstep(0.5, 1.0, length(pass_offset));
+    out_Color = vec4(pass_color.rgb, pass_color.a * falloff);
+}
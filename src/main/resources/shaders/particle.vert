@@ -0,0 +1,17 @@
+#version 330 core
+
+in vec2 corner;
+in vec3 center;
+in vec4 color;
+
+out vec2 pass_offset;
+out vec4 pass_color;
+
+uniform vec2 screenScale;
+
+void main(void){
+    vec2 position = center.xy + corner * center.z;
+    gl_Position = vec4(position.x * screenScale.x - 1.0, 1.0 - position.y * screenScale.y, 0.0, 1.0);
+    pass_offset = corner * 2.0;
+    pass_color = color;
+}
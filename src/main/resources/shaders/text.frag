@@ -0,0 +1,12 @@
+#version 330 core
+
+in vec2 pass_uvs;
+in vec4 pass_color;
+
+out vec4 out_Color;
+
+uniform sampler2D atlas;
+
+void main(){
+    out_Color = vec4(pass_color.rgb, pass_color.a * texture(atlas, pass_uvs).r);
+}
@@ -0,0 +1,16 @@
+#version 330 core
+
+in vec2 position;
+in vec2 uvs;
+in vec4 color;
+
+out vec2 pass_uvs;
+out vec4 pass_color;
+
+uniform vec2 screenScale;
+
+void main(void){
+    gl_Position = vec4(position.x * screenScale.x - 1.0, 1.0 - position.y * screenScale.y, 0.0, 1.0);
+    pass_uvs = uvs;
+    pass_color = color;
+}
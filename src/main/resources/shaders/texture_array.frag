@@ -0,0 +1,12 @@
+#version 330 core
+
+in vec2 pass_uvs;
+flat in float pass_layer;
+
+out vec4 out_Color;
+
+uniform sampler2DArray textures;
+
+void main(){
+    out_Color = texture(textures, vec3(pass_uvs, pass_layer));
+}
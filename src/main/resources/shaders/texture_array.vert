@@ -0,0 +1,14 @@
+#version 330 core
+
+in vec3 position;
+in vec2 uvs;
+in float layer;
+
+out vec2 pass_uvs;
+flat out float pass_layer;
+
+void main(void){
+    gl_Position = vec4(position, 1.0);
+    pass_uvs = uvs;
+    pass_layer = layer;
+}
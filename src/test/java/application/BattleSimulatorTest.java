@@ -0,0 +1,69 @@
+package application;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class BattleSimulatorTest {
+
+    @Test
+    void sameSeedGivesSameStatisticsOnAnyPoolTest() {
+        BattleSimulator simulator = new BattleSimulator(deck(0, 0), deck(100, 1));
+        ForkJoinPool single = new ForkJoinPool(1), quad = new ForkJoinPool(4);
+        try {
+            BattleStatistics expected = simulator.run(50_000, 7, single);
+
+            assertThat(simulator.run(50_000, 7, quad)).isEqualTo(expected);
+            assertThat(simulator.run(50_000, 7)).isEqualTo(expected);
+            assertThat(simulator.run(50_000, 8, quad)).isNotEqualTo(expected);
+        } finally {
+            single.shutdown();
+            quad.shutdown();
+        }
+    }
+
+    @Test
+    void strongerDeckWinsMoreTest() {
+        BattleStatistics statistics = new BattleSimulator(deck(0, 0), deck(100, 3)).run(20_000, 1);
+
+        assertThat(statistics.getMatches()).isEqualTo(20_000);
+        assertThat(statistics.getWinsA() + statistics.getWinsB() + statistics.getDraws()).isEqualTo(20_000);
+        assertThat(statistics.getWinRateB()).isGreaterThan(statistics.getWinRateA());
+    }
+
+    @Test
+    void harmlessDecksDrawTest() {
+        CardStack a = new CardStack.Builder().addCard(new Card.Builder(1).setHp(1).build()).build();
+        CardStack b = new CardStack.Builder().addCard(new Card.Builder(2).setHp(1).build()).build();
+        BattleStatistics statistics = new BattleSimulator(a, b).run(10, 1);
+
+        assertThat(statistics.getDraws()).isEqualTo(10);
+        assertThat(statistics.getAverageRounds()).isEqualTo(BattleSimulator.MAX_ROUNDS);
+    }
+
+    @Test
+    void emptyDeckTest() {
+        assertThatThrownBy(() -> new BattleSimulator(new CardStack(), deck(0, 0)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void typeAdvantageCycleTest() {
+        assertThat(BattleSimulator.hasAdvantage(CardType.HEARTS, CardType.SPADES)).isTrue();
+        assertThat(BattleSimulator.hasAdvantage(CardType.SPADES, CardType.HEARTS)).isFalse();
+        assertThat(BattleSimulator.hasAdvantage(CardType.CLUBS, CardType.HEARTS)).isTrue();
+        assertThat(BattleSimulator.hasAdvantage(CardType.NONE, CardType.NONE)).isFalse();
+    }
+
+    private static CardStack deck(long firstId, int bonusDmg) {
+        CardStack.Builder builder = new CardStack.Builder();
+        CardType[] suits = {CardType.HEARTS, CardType.DIAMONDS, CardType.SPADES, CardType.CLUBS};
+        for (int i = 0; i < 20; i++)
+            builder.addCard(new Card.Builder(firstId + i).setType(suits[i % 4]).setHp(5 + i % 7)
+                    .setDmg(1 + i % 5 + bonusDmg).build());
+        return builder.build();
+    }
+}
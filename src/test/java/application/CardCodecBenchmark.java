@@ -0,0 +1,101 @@
+package application;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Manual benchmark comparing the size and encode/decode speed of the {@link CardCodec} against Java
+ * serialization and a line-based text format, for 10k stacks of 52 Cards. Run the main method with a
+ * warmed-up JVM; it is not part of the test suite.
+ */
+public final class CardCodecBenchmark {
+
+    private static final int STACKS = 10_000;
+    private static final int CARDS = 52;
+    private static final int ROUNDS = 5;
+
+    private record SerialCard(long id, CardType type, int hp, int dmg) implements Serializable {}
+
+    public static void main(String[] args) throws Exception {
+        SplittableRandom random = new SplittableRandom(42);
+        CardType[] types = CardType.values();
+        CardStack[] stacks = new CardStack[STACKS];
+        for (int s = 0; s < STACKS; s++) {
+            stacks[s] = new CardStack();
+            for (int c = 0; c < CARDS; c++)
+                stacks[s].pushTop(new Card.Builder(random.nextLong(1_000_000)).setType(types[random.nextInt(types.length)])
+                        .setHp(random.nextInt(1, 30)).setDmg(random.nextInt(1, 13)).build());
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect(STACKS * CARDS * 16);
+        CardStack target = new CardStack();
+
+        for (int round = 0; round < ROUNDS; round++) {
+            long t0 = System.nanoTime();
+            buffer.clear();
+            CardCodec.writeHeader(buffer);
+            for (CardStack stack : stacks) CardCodec.writeStack(buffer, stack);
+            int binarySize = buffer.flip().remaining();
+            long t1 = System.nanoTime();
+            CardCodec.readHeader(buffer);
+            long checksum = 0;
+            while (buffer.hasRemaining()) {
+                CardCodec.readStack(buffer, null, target);
+                checksum += target.peekTop().getHp();
+            }
+            long t2 = System.nanoTime();
+
+            ByteArrayOutputStream serialBytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(serialBytes)) {
+                for (CardStack stack : stacks) {
+                    List<SerialCard> cards = new ArrayList<>(stack.size());
+                    for (Card card : stack) cards.add(new SerialCard(card.getId(), card.getType(), card.getHp(), card.getDmg()));
+                    out.writeObject(cards);
+                }
+            }
+            long t3 = System.nanoTime();
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(serialBytes.toByteArray()))) {
+                for (int s = 0; s < STACKS; s++) {
+                    @SuppressWarnings("unchecked")
+                    List<SerialCard> cards = (List<SerialCard>) in.readObject();
+                    checksum -= cards.getLast().hp();
+                }
+            }
+            long t4 = System.nanoTime();
+
+            StringBuilder text = new StringBuilder();
+            for (CardStack stack : stacks) {
+                text.append(stack.size()).append('\n');
+                for (Card card : stack)
+                    text.append(card.getId()).append(',').append(card.getType()).append(',')
+                            .append(card.getHp()).append(',').append(card.getDmg()).append('\n');
+            }
+            byte[] textBytes = text.toString().getBytes(StandardCharsets.UTF_8);
+            long t5 = System.nanoTime();
+            try (BufferedReader in = new BufferedReader(new InputStreamReader(new ByteArrayInputStream(textBytes),
+                    StandardCharsets.UTF_8))) {
+                for (int s = 0; s < STACKS; s++) {
+                    int size = Integer.parseInt(in.readLine());
+                    target.clear();
+                    for (int c = 0; c < size; c++) {
+                        String[] fields = in.readLine().split(",");
+                        target.pushTop(new Card.Builder(Long.parseLong(fields[0])).setType(CardType.valueOf(fields[1]))
+                                .setHp(Integer.parseInt(fields[2])).setDmg(Integer.parseInt(fields[3])).build());
+                    }
+                    checksum += target.peekTop().getHp();
+                }
+            }
+            long t6 = System.nanoTime();
+
+            System.out.printf("round %d: binary %d KB, encode %.1f ms, decode %.1f ms | " +
+                            "java serialization %d KB, encode %.1f ms, decode %.1f ms | " +
+                            "text %d KB, encode %.1f ms, decode %.1f ms | checksum %d%n",
+                    round, binarySize / 1024, (t1 - t0) / 1e6, (t2 - t1) / 1e6,
+                    serialBytes.size() / 1024, (t3 - t2) / 1e6, (t4 - t3) / 1e6,
+                    textBytes.length / 1024, (t5 - t4) / 1e6, (t6 - t5) / 1e6, checksum);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package application;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.LongRange;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CardCodecTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property
+    void cardRoundTrip(@ForAll @LongRange(min = 0, max = Long.MAX_VALUE) long id,
+                       @ForAll @IntRange(min = 0, max = Integer.MAX_VALUE) int hp,
+                       @ForAll @IntRange(min = 0, max = Integer.MAX_VALUE) int dmg,
+                       @ForAll CardType type) {
+        Card card = new Card.Builder(id).setType(type).setHp(hp).setDmg(dmg).build();
+        ByteBuffer buffer = ByteBuffer.allocate(CardCodec.encodedSize(card));
+        CardCodec.writeCard(buffer, card);
+
+        assertThat(buffer.hasRemaining()).isFalse();
+        assertThat(CardCodec.readCard(buffer.flip())).hasToString(card.toString());
+    }
+
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void stackRoundTripWithModifiersTest() {
+        ModifierRegistry registry = registry();
+        CardStack stack = stack(new Random(1), 40, registry);
+        ByteBuffer buffer = ByteBuffer.allocate(CardCodec.encodedSize(stack));
+        CardCodec.writeStack(buffer, stack);
+
+        assertThat(buffer.hasRemaining()).isFalse();
+        assertSameStack(CardCodec.readStack(buffer.flip(), registry), stack);
+    }
+
+    @Test
+    void memorySegmentRoundTripTest() {
+        ModifierRegistry registry = registry();
+        CardStack first = stack(new Random(2), 10, registry), second = stack(new Random(3), 5, registry);
+        try (Arena arena = Arena.ofConfined()) {
+            MemorySegment segment = arena.allocate(1024);
+            long offset = CardCodec.writeStack(segment, 0, first);
+            CardCodec.writeStack(segment, offset, second);
+
+            assertSameStack(CardCodec.readStack(segment, 0, registry), first);
+            assertSameStack(CardCodec.readStack(segment, offset, registry), second);
+        }
+    }
+
+    @Test
+    void streamingManyStacksTest() throws Exception {
+        ModifierRegistry registry = registry();
+        Random random = new Random(4);
+        CardStack[] stacks = new CardStack[200];
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (CardCodec.Writer writer = new CardCodec.Writer(Channels.newChannel(bytes), 256)) {
+            for (int i = 0; i < stacks.length; i++) {
+                stacks[i] = stack(random, random.nextInt(100), registry);
+                writer.write(stacks[i]);
+            }
+        }
+
+        CardStack target = new CardStack();
+        try (CardCodec.Reader reader = new CardCodec.Reader(
+                Channels.newChannel(new ByteArrayInputStream(bytes.toByteArray())), registry, 128)) {
+            for (CardStack expected : stacks) {
+                assertThat(reader.next(target)).isTrue();
+                assertSameStack(target, expected);
+            }
+            assertThat(reader.next(target)).isFalse();
+        }
+    }
+
+    @Test
+    void unsupportedVersionTest() {
+        ByteBuffer buffer = ByteBuffer.allocate(8).putInt(CardCodec.MAGIC).put((byte) (CardCodec.VERSION + 1));
+
+        assertThatThrownBy(() -> CardCodec.readHeader(buffer.flip())).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void unknownModifierTest() {
+        ModifierRegistry registry = registry();
+        CardStack stack = stack(new Random(5), 3, registry);
+        ByteBuffer buffer = ByteBuffer.allocate(CardCodec.encodedSize(stack));
+        CardCodec.writeStack(buffer, stack);
+
+        assertThatThrownBy(() -> CardCodec.readStack(buffer.flip(), new ModifierRegistry()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void corruptStreamTest() throws Exception {
+        ModifierRegistry registry = registry();
+        CardStack stack = stack(new Random(6), 5, registry);
+        int size = CardCodec.encodedSize(stack);
+        CardStack target = new CardStack();
+
+        // A frame length which is negative as an int, beyond the frame limit, longer than the stream, or
+        // shorter than its CardStack.
+        ByteBuffer negative = header();
+        CardCodec.putVarLong(negative, 0xFFFF_FFF0L);
+        ByteBuffer tooLarge = header();
+        CardCodec.putVarLong(tooLarge, CardCodec.MAX_FRAME + 1);
+        ByteBuffer truncated = header();
+        CardCodec.putVarLong(truncated, size);
+        CardCodec.writeStack(truncated, stack);
+        truncated.position(truncated.position() - 1);
+        ByteBuffer tooShort = header();
+        CardCodec.putVarLong(tooShort, size - 1);
+        CardCodec.writeStack(tooShort, stack);
+        ByteBuffer cutLength = header().put((byte) 0x80);
+
+        for (ByteBuffer stream : new ByteBuffer[]{negative, tooLarge, truncated, tooShort, cutLength}) {
+            try (CardCodec.Reader reader = reader(stream, registry)) {
+                assertThatThrownBy(() -> reader.next(target)).isInstanceOf(IllegalArgumentException.class);
+            }
+        }
+    }
+
+    private static ByteBuffer header() {
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        CardCodec.writeHeader(buffer);
+        return buffer;
+    }
+
+    private static CardCodec.Reader reader(ByteBuffer stream, ModifierRegistry registry) throws Exception {
+        byte[] bytes = Arrays.copyOf(stream.array(), stream.position());
+        return new CardCodec.Reader(Channels.newChannel(new ByteArrayInputStream(bytes)), registry, 64);
+    }
+
+    private static ModifierRegistry registry() {
+        ModifierRegistry registry = new ModifierRegistry();
+        for (int i = 0; i < 70; i++) registry.register(new Modifier.Builder("Modifier " + i).addHp(i));
+        return registry;
+    }
+
+    private static CardStack stack(Random random, int cards, ModifierRegistry registry) {
+        CardStack stack = new CardStack();
+        CardType[] types = CardType.values();
+        for (int i = 0; i < cards; i++)
+            stack.pushTop(new Card.Builder(random.nextLong(Long.MAX_VALUE)).setType(types[random.nextInt(types.length)])
+                    .setHp(random.nextInt(1_000)).setDmg(random.nextInt(100)).build());
+        stack.addModifier(registry.get(random.nextInt(64)));
+        stack.addModifier(registry.get(64 + random.nextInt(6)));
+        return stack;
+    }
+
+    private static void assertSameStack(CardStack actual, CardStack expected) {
+        assertThat(actual.size()).isEqualTo(expected.size());
+        for (int i = 0; i < expected.size(); i++) assertThat(actual.get(i)).hasToString(expected.get(i).toString());
+        assertThat(actual.getModifiers()).containsExactlyElementsOf(expected.getModifiers());
+    }
+}
@@ -0,0 +1,65 @@
+package application;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Manual benchmark comparing the {@link CardRegistry} with a {@code HashMap<Long, Card>} at 1M cards, for
+ * retained heap and random lookup throughput. Run the main method with a warmed-up JVM and a fixed heap
+ * (for example {@code -Xms2g -Xmx2g}); it is not part of the test suite.
+ */
+public final class CardRegistryBenchmark {
+
+    private static final int CARDS = 1_000_000;
+    private static final int LOOKUPS = 10_000_000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        SplittableRandom random = new SplittableRandom(42);
+        long[] ids = new long[CARDS];
+        for (int i = 0; i < CARDS; i++) ids[i] = random.nextLong(Long.MAX_VALUE);
+        long[] queries = new long[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) queries[i] = ids[random.nextInt(CARDS)];
+
+        for (int round = 0; round < ROUNDS; round++) runRound(round, ids, queries);
+    }
+
+    private static void runRound(int round, long[] ids, long[] queries) {
+        CardType[] types = CardType.values();
+        long before = usedMemory();
+        CardRegistry registry = new CardRegistry(CARDS);
+        for (int i = 0; i < CARDS; i++)
+            registry.register(ids[i], registry.intern(types[i % types.length], 10 + i % 20, i % 7));
+        long registryBytes = usedMemory() - before;
+
+        before = usedMemory();
+        Map<Long, Card> map = new HashMap<>();
+        for (int i = 0; i < CARDS; i++)
+            map.put(ids[i], new Card.Builder(ids[i]).setType(types[i % types.length])
+                    .setHp(10 + i % 20).setDmg(i % 7).build());
+        long mapBytes = usedMemory() - before;
+
+        long t0 = System.nanoTime();
+        long registrySum = 0;
+        for (long id : queries) registrySum += registry.getHp(registry.indexOf(id));
+        long t1 = System.nanoTime();
+        long mapSum = 0;
+        for (long id : queries) mapSum += map.get(id).getHp();
+        long t2 = System.nanoTime();
+        int[] batch = new int[LOOKUPS];
+        registry.hpOf(queries, batch);
+        long t3 = System.nanoTime();
+
+        System.out.printf("round %d: registry %.1f MB, %.1f M lookups/s (batch %.1f M/s) | " +
+                        "HashMap<Long, Card> %.1f MB, %.1f M lookups/s | checksum %b%n",
+                round, registryBytes / 1e6, LOOKUPS / ((t1 - t0) / 1e3), LOOKUPS / ((t3 - t2) / 1e3),
+                mapBytes / 1e6, LOOKUPS / ((t2 - t1) / 1e3), registrySum == mapSum);
+    }
+
+    private static long usedMemory() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,101 @@
+package application;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CardRegistryTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property(tries = 50)
+    void lookupsMatchHashMap(@ForAll long seed) {
+        Random random = new Random(seed);
+        CardRegistry registry = new CardRegistry();
+        Map<Long, Integer> model = new HashMap<>();
+        CardTemplate template = registry.intern(CardType.HEARTS, 10, 3);
+
+        for (int step = 0; step < 2_000; step++) {
+            long id = random.nextInt(500) * 1_000_003L;
+            if (random.nextInt(20) == 0) {
+                // Negative ids share the bit pattern of empty slots and must never match one.
+                long negative = -1 - random.nextInt(3);
+                assertThat(registry.contains(negative)).isFalse();
+                assertThat(registry.indexOf(negative)).isEqualTo(CardRegistry.NOT_FOUND);
+                assertThat(registry.remove(negative)).isFalse();
+                assertThat(registry.size()).isEqualTo(model.size());
+                continue;
+            }
+            if (model.containsKey(id)) {
+                if (random.nextBoolean()) {
+                    assertThat(registry.remove(id)).isTrue();
+                    model.remove(id);
+                } else {
+                    int hp = random.nextInt(10);
+                    registry.setHp(registry.indexOf(id), hp);
+                    model.put(id, hp);
+                }
+            } else {
+                registry.register(id, template);
+                model.put(id, template.baseHp());
+            }
+        }
+
+        assertThat(registry.size()).isEqualTo(model.size());
+        for (long id = 0; id < 500 * 1_000_003L; id += 1_000_003L) {
+            int slot = registry.indexOf(id);
+            if (model.containsKey(id)) assertThat(registry.getHp(slot)).isEqualTo(model.get(id));
+            else assertThat(slot).isEqualTo(CardRegistry.NOT_FOUND);
+        }
+    }
+
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void equalTemplatesAreInternedTest() {
+        CardRegistry registry = new CardRegistry();
+        registry.register(new Card.Builder(1).setType(CardType.SPADES).setHp(5).setDmg(2).build());
+        registry.register(new Card.Builder(2).setType(CardType.SPADES).setHp(5).setDmg(2).build());
+
+        assertThat(registry.getTemplateCount()).isEqualTo(1);
+        assertThat(registry.getTemplate(registry.indexOf(1))).isSameAs(registry.getTemplate(registry.indexOf(2)));
+    }
+
+    @Test
+    void batchLookupTest() {
+        CardRegistry registry = new CardRegistry();
+        CardTemplate template = registry.intern(CardType.CLUBS, 7, 1);
+        registry.register(10, template);
+        registry.register(20, template);
+        int[] hp = new int[3];
+
+        assertThat(registry.hpOf(new long[]{10, 15, 20}, hp)).isEqualTo(2);
+        assertThat(hp).containsExactly(7, CardRegistry.NOT_FOUND, 7);
+    }
+
+    @Test
+    void getCreatesCardWithCurrentStateTest() {
+        CardRegistry registry = new CardRegistry();
+        int slot = registry.register(3, registry.intern(CardType.DIAMONDS, 9, 4));
+        registry.setHp(slot, 1);
+
+        assertThat(registry.get(3)).hasToString("Card(id=3, type=DIAMONDS, hp=1, dmg=4)");
+        assertThat(registry.get(4)).isNull();
+    }
+
+    @Test
+    void duplicateRegistrationTest() {
+        CardRegistry registry = new CardRegistry();
+        CardTemplate template = registry.intern(CardType.NONE, 1, 1);
+        registry.register(1, template);
+
+        assertThatThrownBy(() -> registry.register(1, template)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> registry.register(-1, template)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
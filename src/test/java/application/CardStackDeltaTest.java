@@ -0,0 +1,145 @@
+package application;
+
+import framework.profiling.AllocationBudget;
+import framework.profiling.AllocationProbe;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CardStackDeltaTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property(tries = 100)
+    void appliedDeltasMirrorStack(@ForAll long seed) {
+        Random random = new Random(seed);
+        CardStack stack = new CardStack();
+        CardStack mirror = new CardStack();
+        CardStackDelta delta = new CardStackDelta();
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long nextId = 0;
+
+        for (int step = 0; step < 200; step++) {
+            int changes = random.nextInt(3);
+            for (int change = 0; change < changes; change++) {
+                switch (random.nextInt(5)) {
+                    case 0 -> stack.insertAt(random.nextInt(stack.size() + 1), card(nextId++, random));
+                    case 1 -> {
+                        if (!stack.isEmpty()) stack.removeAt(random.nextInt(stack.size()));
+                    }
+                    case 2 -> {
+                        if (!stack.isEmpty()) {
+                            int index = random.nextInt(stack.size());
+                            stack.set(index, card(stack.get(index).getId(), random));
+                        }
+                    }
+                    case 3 -> stack.shuffle(random);
+                    default -> stack.pushTop(card(nextId++, random));
+                }
+            }
+            int expectedSize = delta.encodedSize(stack);
+            boolean written = delta.write(buffer.clear(), stack);
+
+            assertThat(buffer.position()).isEqualTo(expectedSize);
+            assertThat(written).isEqualTo(expectedSize > 0);
+            if (written) {
+                CardStackDelta.apply(buffer.flip(), mirror);
+                assertThat(buffer.hasRemaining()).isFalse();
+            }
+            assertSameCards(mirror, stack);
+        }
+    }
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void damagingOneCardOnlyEncodesThatCardTest() {
+        CardStack stack = new CardStack();
+        for (int i = 0; i < 40; i++) stack.pushTop(new Card.Builder(i).setType(CardType.HEARTS).setHp(10).setDmg(3).build());
+        CardStackDelta delta = new CardStackDelta();
+        ByteBuffer buffer = ByteBuffer.allocate(1024);
+        delta.write(buffer, stack);
+        int full = buffer.position();
+
+        stack.set(17, new Card.Builder(17).setType(CardType.HEARTS).setHp(4).setDmg(3).build());
+        assertThat(delta.write(buffer.clear(), stack)).isTrue();
+
+        assertThat(buffer.position()).isEqualTo(3 + CardCodec.encodedSize(stack.get(17)));
+        assertThat(buffer.position()).isLessThan(full / 20);
+        assertThat(delta.write(buffer.clear(), stack)).isFalse();
+    }
+
+    @Test
+    void resetWritesWholeStackAgainTest() {
+        CardStack stack = new CardStack.Builder().addCard(new Card.Builder(1).build()).addCard(new Card.Builder(2).build()).build();
+        CardStackDelta delta = new CardStackDelta();
+        ByteBuffer buffer = ByteBuffer.allocate(64);
+        delta.write(buffer, stack);
+        delta.reset();
+
+        assertThat(delta.write(buffer.clear(), stack)).isTrue();
+        CardStack mirror = new CardStack();
+        CardStackDelta.apply(buffer.flip(), mirror);
+        assertSameCards(mirror, stack);
+    }
+
+    @Test
+    void deltaForDifferentStackIsRejectedTest() {
+        ByteBuffer buffer = ByteBuffer.allocate(16);
+        CardCodec.putVarLong(buffer, 3);
+        CardCodec.putVarLong(buffer, 0);
+        CardCodec.putVarLong(buffer, 0);
+
+        assertThatThrownBy(() -> CardStackDelta.apply(buffer.flip(), new CardStack()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void overflowingDeltaIsRejectedTest() {
+        CardStack target = new CardStack();
+        Random random = new Random(7);
+        for (int i = 0; i < 4; i++) target.pushTop(card(i, random));
+        ByteBuffer buffer = ByteBuffer.allocate(32);
+        // The sum of both lengths wraps around to a negative long, which fits any stack.
+        CardCodec.putVarLong(buffer, 2);
+        CardCodec.putVarLong(buffer, Long.MAX_VALUE);
+        CardCodec.putVarLong(buffer, 0);
+
+        assertThatThrownBy(() -> CardStackDelta.apply(buffer.flip(), target))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(target.size()).isEqualTo(4);
+    }
+
+    @Test
+    @AllocationBudget
+    void writeDoesNotAllocateTest(AllocationProbe probe) {
+        Random random = new Random(3);
+        CardStack stack = new CardStack();
+        for (int i = 0; i < 30; i++) stack.pushTop(card(i, random));
+        Card[] alternatives = {card(100, random), card(101, random)};
+        CardStackDelta delta = new CardStackDelta();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(1024);
+        int[] step = new int[1];
+
+        probe.measure(() -> {
+            stack.set(step[0]++ % stack.size(), alternatives[step[0] & 1]);
+            delta.write(buffer.clear(), stack);
+        });
+        assertThat(step[0]).isPositive();
+    }
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    private static Card card(long id, Random random) {
+        return new Card.Builder(id).setType(CardType.values()[random.nextInt(CardType.values().length)])
+                .setHp(random.nextInt(1000)).setDmg(random.nextInt(300)).build();
+    }
+
+    private static void assertSameCards(CardStack actual, CardStack expected) {
+        assertThat(actual.size()).isEqualTo(expected.size());
+        for (int i = 0; i < expected.size(); i++) assertThat(actual.get(i)).usingRecursiveComparison().isEqualTo(expected.get(i));
+    }
+}
@@ -0,0 +1,240 @@
+package application;
+
+import framework.profiling.AllocationBudget;
+import framework.profiling.AllocationProbe;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CardStackTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property(tries = 100)
+    void operationsMatchListModel(@ForAll long seed) {
+        Random random = new Random(seed);
+        CardStack stack = new CardStack();
+        List<Card> model = new ArrayList<>();
+        long nextId = 0;
+
+        for (int step = 0; step < 300; step++) {
+            switch (random.nextInt(10)) {
+                case 0 -> {
+                    Card card = card(nextId++);
+                    stack.pushTop(card);
+                    model.add(card);
+                }
+                case 1 -> {
+                    Card card = card(nextId++);
+                    stack.pushBottom(card);
+                    model.addFirst(card);
+                }
+                case 2 -> {
+                    if (!model.isEmpty()) assertThat(stack.popTop()).isEqualTo(model.removeLast());
+                }
+                case 3 -> {
+                    if (!model.isEmpty()) assertThat(stack.popBottom()).isEqualTo(model.removeFirst());
+                }
+                case 4 -> {
+                    int index = random.nextInt(model.size() + 1);
+                    Card card = card(nextId++);
+                    stack.insertAt(index, card);
+                    model.add(index, card);
+                }
+                case 5 -> {
+                    int index = random.nextInt(model.size() + 1);
+                    CardStack top = stack.split(index);
+                    List<Card> modelTop = new ArrayList<>(model.subList(index, model.size()));
+                    model.subList(index, model.size()).clear();
+                    assertThat(top).containsExactlyElementsOf(modelTop);
+                    int at = random.nextInt(model.size() + 1);
+                    stack.insertAt(at, top);
+                    model.addAll(at, modelTop);
+                    assertThat(top.isEmpty()).isTrue();
+                }
+                case 6 -> {
+                    int count = random.nextInt(model.size() + 1);
+                    CardStack hand = new CardStack();
+                    hand.pushTop(card(nextId++));
+                    List<Card> modelHand = new ArrayList<>(List.of(hand.peekTop()));
+                    stack.drawN(count, hand);
+                    modelHand.addAll(model.subList(model.size() - count, model.size()));
+                    model.subList(model.size() - count, model.size()).clear();
+                    assertThat(hand).containsExactlyElementsOf(modelHand);
+                    stack.merge(hand);
+                    model.addAll(modelHand);
+                }
+                case 7 -> {
+                    if (!model.isEmpty()) {
+                        int index = random.nextInt(model.size());
+                        Card card = card(nextId++);
+                        assertThat(stack.set(index, card)).isEqualTo(model.set(index, card));
+                    }
+                }
+                case 8 -> {
+                    if (!model.isEmpty()) {
+                        int index = random.nextInt(model.size());
+                        assertThat(stack.removeAt(index)).isEqualTo(model.remove(index));
+                    }
+                }
+                default -> {
+                    long shuffleSeed = random.nextLong();
+                    stack.shuffle(new SplittableRandom(shuffleSeed));
+                    shuffleModel(model, new SplittableRandom(shuffleSeed));
+                }
+            }
+            assertThat(stack.size()).isEqualTo(model.size());
+            assertThat(stack).containsExactlyElementsOf(model);
+        }
+    }
+
+    private static void shuffleModel(List<Card> model, SplittableRandom random) {
+        for (int i = model.size() - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            model.set(i, model.set(j, model.get(i)));
+        }
+    }
+
+
+    @Property(tries = 5)
+    void shuffledEffectiveStatsDoNotAllocate(@ForAll @IntRange(min = 1, max = 200) int size, @ForAll long seed) {
+        ModifierRegistry registry = new ModifierRegistry();
+        CardStack.Builder builder = new CardStack.Builder()
+                .addModifier(registry.register(new Modifier.Builder("Flat").addHp(3)))
+                .addModifier(registry.register(new Modifier.Builder("Double").scaleDmg(200).setTarget(CardType.SPADES)));
+        for (int i = 0; i < size; i++) builder.addCard(card(i));
+        CardStack stack = builder.build();
+        SplittableRandom random = new SplittableRandom(seed);
+        int[] sum = new int[1];
+
+        AllocationProbe.of(0, 5_000, 2_000).measure(() -> {
+            stack.shuffle(random);
+            for (int i = 0; i < stack.size(); i++) sum[0] += stack.getEffectiveHp(i) + stack.getEffectiveDmg(i);
+        });
+        assertThat(sum[0]).isPositive();
+    }
+
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void builderAddsCardsBottomToTopTest() {
+        CardStack stack = new CardStack.Builder().addCard(card(1)).addCard(card(2)).addCard(card(3)).build();
+
+        assertThat(stack.peekBottom()).isEqualTo(card(1));
+        assertThat(stack.peekTop()).isEqualTo(card(3));
+        assertThat(stack.get(1)).isEqualTo(card(2));
+    }
+
+    @Test
+    void sameSeedGivesSameShuffleTest() {
+        CardStack a = new CardStack(), b = new CardStack();
+        for (int i = 0; i < 52; i++) {
+            a.pushTop(card(i));
+            b.pushTop(card(i));
+        }
+        a.shuffle(new SplittableRandom(42));
+        b.shuffle(new SplittableRandom(42));
+
+        assertThat(a).containsExactlyElementsOf(b);
+    }
+
+    @Test
+    void emptyStackPopTest() {
+        assertThatThrownBy(() -> new CardStack().popTop()).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new CardStack().peekBottom()).isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    void drawMoreThanSizeTest() {
+        CardStack stack = new CardStack.Builder().addCard(card(1)).build();
+
+        assertThatThrownBy(() -> stack.drawN(2)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> stack.merge(stack)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void modifyingDuringForEachTest() {
+        CardStack stack = new CardStack.Builder().addCard(card(1)).addCard(card(2)).build();
+
+        assertThatThrownBy(() -> stack.forEach(_ -> stack.pushTop(card(3))))
+                .isInstanceOf(ConcurrentModificationException.class);
+    }
+
+    @Test
+    void modifiersApplyInPriorityOrderToTargetedCardsTest() {
+        ModifierRegistry registry = new ModifierRegistry();
+        Modifier flat = registry.register(new Modifier.Builder("Flat").addHp(5).setPriority(1));
+        Modifier doubled = registry.register(new Modifier.Builder("Doubled").scaleHp(200).setTarget(CardType.HEARTS));
+        CardStack stack = new CardStack.Builder()
+                .addCard(new Card.Builder(1).setType(CardType.HEARTS).setHp(10).setDmg(2).build())
+                .addCard(new Card.Builder(2).setType(CardType.SPADES).setHp(10).setDmg(2).build())
+                .addModifier(flat).addModifier(doubled)
+                .build();
+
+        assertThat(stack.getModifiers()).containsExactly(doubled, flat);
+        assertThat(stack.getEffectiveHp(0)).isEqualTo(25);
+        assertThat(stack.getEffectiveHp(1)).isEqualTo(15);
+        assertThat(stack.getEffectiveDmg(0)).isEqualTo(2);
+    }
+
+    @Test
+    void effectiveStatsFollowCardAndModifierChangesTest() {
+        ModifierRegistry registry = new ModifierRegistry();
+        Modifier weaken = registry.register(new Modifier.Builder("Weaken").addDmg(-5));
+        CardStack stack = new CardStack.Builder().addCard(card(1)).build();
+        stack.addModifier(weaken);
+        assertThat(stack.getEffectiveDmg(0)).isZero();
+
+        stack.pushBottom(new Card.Builder(2).setDmg(9).build());
+        assertThat(stack.getEffectiveDmg(0)).isEqualTo(4);
+
+        assertThat(stack.removeModifier(weaken)).isTrue();
+        assertThat(stack.hasModifier(weaken)).isFalse();
+        assertThat(stack.getEffectiveDmg(0)).isEqualTo(9);
+    }
+
+    @Test
+    void modifiersFromDifferentRegistriesTest() {
+        Modifier a = new ModifierRegistry().register(new Modifier.Builder("A"));
+        Modifier b = new ModifierRegistry().register(new Modifier.Builder("B"));
+        CardStack stack = new CardStack();
+        stack.addModifier(a);
+
+        assertThatThrownBy(() -> stack.addModifier(a)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> stack.addModifier(b)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @AllocationBudget
+    void hotPathsDoNotAllocateTest(AllocationProbe probe) {
+        CardStack stack = new CardStack();
+        for (int i = 0; i < 52; i++) stack.pushTop(card(i));
+        CardStack hand = new CardStack();
+        SplittableRandom random = new SplittableRandom(1);
+        long[] ids = new long[1];
+        Consumer<Card> sumIds = card -> ids[0] += card.getId();
+
+        probe.measure(() -> {
+            stack.shuffle(random);
+            stack.drawN(5, hand);
+            hand.forEach(sumIds);
+            while (!hand.isEmpty()) stack.pushBottom(hand.popTop());
+        });
+        assertThat(stack.size()).isEqualTo(52);
+        assertThat(ids[0]).isPositive();
+    }
+
+    private static Card card(long id) {
+        return new Card.Builder(id).setHp(10).setDmg(2).build();
+    }
+}
@@ -0,0 +1,188 @@
+package application;
+
+import framework.network.NetworkServer;
+import framework.network.Session;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Manual load generator for the {@link MatchServer}. It opens thousands of loopback sessions on one
+ * {@link NetworkServer}, pairs them into matches, and sends commands at a fixed rate per session. It measures
+ * the latency from sending a command to receiving the state that acknowledges it, which includes waiting for
+ * the next tick, and the throughput of commands and state messages.
+ * <p>
+ * Arguments: {@code [sessions] [seconds] [commands per second per session] [host:port]}, defaults
+ * {@code 2000 10 10}. Without an address a MatchServer is started in-process.
+ * Run the main method with a warmed-up JVM; it is not part of the test suite.
+ */
+public final class MatchLoadGenerator implements NetworkServer.Listener {
+
+    private static final int SEQUENCE_RING = 1024;
+    private static final long WARMUP_NANOS = 2_000_000_000L;
+
+    private final ByteBuffer command = ByteBuffer.allocateDirect(MatchProtocol.MAX_COMMAND_SIZE);
+    private final long intervalNanos;
+    private NetworkServer clients;
+    private long[] latencies = new long[1 << 20];
+    private int latencyCount;
+    private long measureFrom;
+    private long commandsSent, statesReceived, matchesStarted;
+
+    private MatchLoadGenerator(int commandsPerSecond) {
+        this.intervalNanos = 1_000_000_000L / commandsPerSecond;
+    }
+
+    /**
+     * Client state of one session.
+     */
+    private static final class Player {
+        final MatchView view = new MatchView();
+        final long[] sentAt = new long[SEQUENCE_RING];
+        long sequence;
+        long acknowledged;
+        long nextSend;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 2_000;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        int rate = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+
+        MatchServer server = null;
+        Thread serverThread = null;
+        InetSocketAddress address;
+        if (args.length > 3) {
+            String[] hostPort = args[3].split(":");
+            address = new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1]));
+        } else {
+            server = new MatchServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                    MatchServer.DEFAULT_TICK_RATE, MatchServer.DEFAULT_DECK_SIZE, 42);
+            serverThread = Thread.ofPlatform().name("match-server").start(server::run);
+            address = server.getAddress();
+        }
+
+        MatchLoadGenerator generator = new MatchLoadGenerator(rate);
+        generator.run(address, sessions, seconds);
+        if (server != null) {
+            server.stop();
+            serverThread.join();
+            System.out.println(server);
+        }
+    }
+
+    private void run(InetSocketAddress address, int sessions, int seconds) throws IOException {
+        try (NetworkServer clients = new NetworkServer(this, MatchServer.BUFFER_SIZE)) {
+            this.clients = clients;
+            long start = System.nanoTime();
+            for (int i = 0; i < sessions; i++) {
+                clients.connect(address);
+                // Keep the accept backlog of the server from overflowing.
+                if (i % 256 == 255) clients.poll(1);
+            }
+            measureFrom = System.nanoTime() + WARMUP_NANOS;
+            long end = measureFrom + seconds * 1_000_000_000L;
+            long measuredCommands = 0, measuredStates = 0;
+            while (true) {
+                long now = System.nanoTime();
+                if (now - end >= 0) break;
+                if (measuredCommands == 0 && now - measureFrom >= 0) {
+                    measuredCommands = commandsSent;
+                    measuredStates = statesReceived;
+                    System.out.printf("connected %d sessions in %.0f ms, %d matches started%n",
+                            clients.getSessionCount(), (measureFrom - WARMUP_NANOS - start) / 1e6, matchesStarted);
+                }
+                clients.poll(1);
+                sendDue(System.nanoTime());
+                clients.flush();
+            }
+            report(seconds, commandsSent - measuredCommands, statesReceived - measuredStates);
+        }
+    }
+
+    private void sendDue(long now) {
+        for (int id = 0; ; id++) {
+            Session session = clients.getSession(id);
+            if (session == null) {
+                if (id >= clients.getSessionCount() * 2 + 64) return;
+                continue;
+            }
+            Player player = (Player) session.getAttachment();
+            if (player == null || !player.view.isStarted() || player.view.isEnded() || now - player.nextSend < 0)
+                continue;
+            // Leave the sequence ring room so unacknowledged send times are never overwritten.
+            if (player.sequence - player.acknowledged >= SEQUENCE_RING) continue;
+            long sequence = ++player.sequence;
+            command.clear();
+            if (sequence % 4 == 1) MatchProtocol.writeDraw(command, sequence);
+            else MatchProtocol.writeAttack(command, sequence, (int) (sequence % Match.HAND_LIMIT),
+                    (int) (sequence * 7 % Match.HAND_LIMIT));
+            player.sentAt[(int) (sequence % SEQUENCE_RING)] = now;
+            player.nextSend = Math.max(player.nextSend + intervalNanos, now - intervalNanos);
+            if (clients.send(session, command.flip())) commandsSent++;
+        }
+    }
+
+    private void report(int seconds, long commands, long states) {
+        long[] sorted = Arrays.copyOf(latencies, latencyCount);
+        Arrays.sort(sorted);
+        System.out.printf("%d sessions: %.0f commands/s, %.0f states/s received%n",
+                clients.getSessionCount(), commands / (double) seconds, states / (double) seconds);
+        if (sorted.length == 0) return;
+        System.out.printf("command -> state latency: p50 %.2f ms, p90 %.2f ms, p99 %.2f ms, max %.2f ms (%d samples)%n",
+                percentile(sorted, 0.5), percentile(sorted, 0.9), percentile(sorted, 0.99),
+                sorted[sorted.length - 1] / 1e6, sorted.length);
+        System.out.println("client " + clients);
+    }
+
+    private static double percentile(long[] sorted, double percentile) {
+        return sorted[(int) Math.min(sorted.length - 1, Math.round(percentile * (sorted.length - 1)))] / 1e6;
+    }
+
+
+    // ------------------------ Network Events ------------------------ //
+    @Override
+    public void onConnect(Session session) {
+        session.setAttachment(new Player());
+        sendJoin(session);
+    }
+
+    private void sendJoin(Session session) {
+        command.clear();
+        MatchProtocol.writeJoin(command);
+        clients.send(session, command.flip());
+    }
+
+    @Override
+    public void onMessage(Session session, ByteBuffer payload) {
+        Player player = (Player) session.getAttachment();
+        byte type = player.view.read(payload);
+        long now = System.nanoTime();
+        switch (type) {
+            case MatchProtocol.START -> {
+                matchesStarted++;
+                player.sequence = player.acknowledged = 0;
+                player.nextSend = now;
+            }
+            case MatchProtocol.STATE -> {
+                statesReceived++;
+                long ack = player.view.getAck(player.view.getPlayer());
+                for (long sequence = player.acknowledged + 1; sequence <= ack; sequence++) {
+                    if (now - measureFrom < 0) continue;
+                    if (latencyCount == latencies.length) latencies = Arrays.copyOf(latencies, latencyCount * 2);
+                    latencies[latencyCount++] = now - player.sentAt[(int) (sequence % SEQUENCE_RING)];
+                }
+                player.acknowledged = Math.max(player.acknowledged, ack);
+            }
+            case MatchProtocol.END -> sendJoin(session);
+            default -> {
+            }
+        }
+    }
+
+    @Override
+    public void onDisconnect(Session session) {}
+}
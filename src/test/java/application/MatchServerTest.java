@@ -0,0 +1,190 @@
+package application;
+
+import framework.network.NetworkServer;
+import framework.network.Session;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MatchServerTest {
+
+    private static final int DECK_SIZE = 12;
+
+    private MatchServer server;
+    private Thread thread;
+    private NetworkServer clients;
+    private final ByteBuffer command = ByteBuffer.allocate(MatchProtocol.MAX_COMMAND_SIZE);
+
+    @BeforeEach
+    void start() throws IOException {
+        server = new MatchServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 200, DECK_SIZE, 42);
+        thread = Thread.ofPlatform().name("match-server").start(server::run);
+        clients = new NetworkServer(new Players(), MatchServer.BUFFER_SIZE);
+    }
+
+    @AfterEach
+    void stop() throws Exception {
+        clients.close();
+        server.stop();
+        thread.join();
+    }
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void playersMirrorServerStateOverLoopbackTest() throws IOException {
+        Session first = join(), second = join();
+        awaitStart(first, second);
+
+        for (int i = 1; i <= 5; i++) {
+            sendDraw(first, i);
+            sendDraw(second, i);
+        }
+        clients.flush();
+        pollUntil(() -> view(first).getAck(0) == 5 && view(first).getAck(1) == 5
+                && view(second).getAck(0) == 5 && view(second).getAck(1) == 5);
+
+        assertThat(view(first).getMatchId()).isEqualTo(view(second).getMatchId());
+        assertThat(view(first).getPlayer() + view(second).getPlayer()).isEqualTo(1);
+        for (int player = 0; player < 2; player++) {
+            assertThat(view(first).getStack(player, Match.HAND).size()).isEqualTo(Match.HAND_LIMIT);
+            assertThat(view(first).getStack(player, Match.DECK).size()).isEqualTo(DECK_SIZE - Match.HAND_LIMIT);
+        }
+        assertSameViews(view(first), view(second));
+    }
+
+    @Test
+    void randomMatchEndsWithSameResultForBothPlayersTest() throws IOException {
+        Session first = join(), second = join();
+        awaitStart(first, second);
+        Random random = new Random(7);
+
+        long sequence = 0;
+        while (!view(first).isEnded() || !view(second).isEnded()) {
+            sequence++;
+            for (Session session : new Session[]{first, second}) {
+                command.clear();
+                if (random.nextInt(3) == 0) MatchProtocol.writeDraw(command, sequence);
+                else MatchProtocol.writeAttack(command, sequence, random.nextInt(5), random.nextInt(5));
+                clients.send(session, command.flip());
+            }
+            clients.flush();
+            long sent = sequence;
+            pollUntil(() -> view(first).isEnded() && view(second).isEnded()
+                    || view(first).getAck(0) == sent && view(first).getAck(1) == sent);
+            assertThat(sequence).isLessThan(10_000);
+        }
+
+        assertThat(view(first).getWinner()).isEqualTo(view(second).getWinner());
+        assertSameViews(view(first), view(second));
+    }
+
+    @Test
+    void disconnectForfeitsMatchTest() throws IOException {
+        Session first = join(), second = join();
+        awaitStart(first, second);
+
+        clients.close(first);
+        pollUntil(() -> view(second).isEnded());
+
+        assertThat(view(second).getWinner()).isEqualTo(view(second).getPlayer());
+    }
+
+    @Test
+    void invalidCommandClosesSessionTest() throws IOException {
+        Session session = clients.connect(server.getAddress());
+        pollUntil(session::isConnected);
+
+        clients.send(session, ByteBuffer.wrap(new byte[]{99}));
+        clients.flush();
+
+        pollUntil(() -> !session.isOpen());
+    }
+
+    @Test
+    void floodingCommandsClosesSessionTest() throws IOException {
+        Session session = clients.connect(server.getAddress());
+        pollUntil(session::isConnected);
+
+        for (int i = 0; i < MatchServer.MAX_COMMANDS_PER_TICK * 4; i++) {
+            MatchProtocol.writeJoin(command.clear());
+            clients.send(session, command.flip());
+        }
+        clients.flush();
+
+        pollUntil(() -> !session.isOpen());
+    }
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    private Session join() throws IOException {
+        Session session = clients.connect(server.getAddress());
+        pollUntil(session::isConnected);
+        MatchProtocol.writeJoin(command.clear());
+        clients.send(session, command.flip());
+        clients.flush();
+        return session;
+    }
+
+    private void awaitStart(Session first, Session second) {
+        pollUntil(() -> view(first).isStarted() && view(second).isStarted());
+    }
+
+    private void sendDraw(Session session, long sequence) {
+        MatchProtocol.writeDraw(command.clear(), sequence);
+        clients.send(session, command.flip());
+    }
+
+    private static MatchView view(Session session) {
+        return (MatchView) session.getAttachment();
+    }
+
+    private void pollUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        try {
+            while (!condition.getAsBoolean()) {
+                if (System.nanoTime() > deadline) throw new AssertionError("Condition not met in time");
+                clients.poll(1);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void assertSameViews(MatchView actual, MatchView expected) {
+        for (int player = 0; player < 2; player++) {
+            for (int kind : new int[]{Match.DECK, Match.HAND}) {
+                CardStack a = actual.getStack(player, kind), b = expected.getStack(player, kind);
+                assertThat(a.size()).isEqualTo(b.size());
+                for (int i = 0; i < a.size(); i++) assertThat(a.get(i)).usingRecursiveComparison().isEqualTo(b.get(i));
+            }
+        }
+    }
+
+    /**
+     * Client side of the loopback players, mirroring the match of every session in its {@link MatchView}.
+     */
+    private static class Players implements NetworkServer.Listener {
+
+        @Override
+        public void onConnect(Session session) {
+            session.setAttachment(new MatchView());
+        }
+
+        @Override
+        public void onMessage(Session session, ByteBuffer payload) {
+            ((MatchView) session.getAttachment()).read(payload);
+        }
+
+        @Override
+        public void onDisconnect(Session session) {}
+    }
+}
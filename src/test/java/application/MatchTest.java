@@ -0,0 +1,91 @@
+package application;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class MatchTest {
+
+    private static final int DECK_SIZE = 12;
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property(tries = 20)
+    void matchRulesKeepCardsConsistent(@ForAll long seed) {
+        Random random = new Random(seed);
+        Match match = new Match(0, null, null, deck(0, random), deck(100, random));
+        long sequence = 0;
+        while (!match.isEnded() && sequence < 10_000) {
+            int player = random.nextInt(2);
+            byte type = random.nextInt(3) == 0 ? MatchProtocol.DRAW : MatchProtocol.ATTACK;
+            match.apply(player, type, ++sequence, random.nextInt(6), random.nextInt(6));
+
+            for (int p = 0; p < 2; p++) {
+                assertThat(match.getStack(p, Match.HAND).size()).isLessThanOrEqualTo(Match.HAND_LIMIT);
+                assertThat(match.getStack(p, Match.DECK).size() + match.getStack(p, Match.HAND).size())
+                        .isLessThanOrEqualTo(DECK_SIZE);
+                for (Card card : match.getStack(p, Match.HAND)) assertThat(card.getHp()).isPositive();
+            }
+        }
+        assertThat(match.isEnded()).isTrue();
+        int loser = 1 - match.getWinner();
+        assertThat(match.getStack(loser, Match.DECK).size() + match.getStack(loser, Match.HAND).size()).isZero();
+    }
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void attackWithAdvantageDealsDoubleDamageTest() {
+        CardStack first = new CardStack.Builder().addCard(new Card.Builder(1).setType(CardType.HEARTS).setHp(5).setDmg(3).build()).build();
+        CardStack second = new CardStack.Builder()
+                .addCard(new Card.Builder(2).setType(CardType.SPADES).setHp(7).setDmg(1).build())
+                .addCard(new Card.Builder(3).setType(CardType.CLUBS).setHp(7).setDmg(1).build()).build();
+        Match match = new Match(0, null, null, first, second);
+        match.apply(0, MatchProtocol.DRAW, 1, 0, 0);
+        match.apply(1, MatchProtocol.DRAW, 1, 0, 0);
+        match.apply(1, MatchProtocol.DRAW, 2, 0, 0);
+
+        // Drawing takes the top Card, so the hand holds the clubs below the spades.
+        match.apply(0, MatchProtocol.ATTACK, 2, 0, 1);
+        assertThat(match.getStack(1, Match.HAND).get(1).getHp()).isEqualTo(1);
+        match.apply(0, MatchProtocol.ATTACK, 3, 0, 0);
+        assertThat(match.getStack(1, Match.HAND).get(0).getHp()).isEqualTo(4);
+        match.apply(0, MatchProtocol.ATTACK, 4, 0, 1);
+        assertThat(match.getStack(1, Match.HAND)).extracting(Card::getId).containsExactly(3L);
+        assertThat(match.getAck(0)).isEqualTo(4);
+        assertThat(match.isEnded()).isFalse();
+    }
+
+    @Test
+    void emptyDeckIsRejectedTest() {
+        assertThatThrownBy(() -> new Match(0, null, null, new CardStack(), deck(0, new Random(1))))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void forfeitEndsMatchForOtherPlayerTest() {
+        Random random = new Random(1);
+        Match match = new Match(0, null, null, deck(0, random), deck(100, random));
+
+        match.forfeit(1);
+        match.apply(1, MatchProtocol.DRAW, 1, 0, 0);
+
+        assertThat(match.isEnded()).isTrue();
+        assertThat(match.getWinner()).isZero();
+        assertThat(match.getStack(1, Match.HAND).isEmpty()).isTrue();
+        assertThat(match.getAck(1)).isEqualTo(1);
+    }
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    private static CardStack deck(long firstId, Random random) {
+        CardStack deck = new CardStack();
+        for (int i = 0; i < DECK_SIZE; i++) {
+            deck.pushTop(new Card.Builder(firstId + i).setType(CardType.values()[1 + random.nextInt(4)])
+                    .setHp(1 + random.nextInt(20)).setDmg(1 + random.nextInt(8)).build());
+        }
+        return deck;
+    }
+}
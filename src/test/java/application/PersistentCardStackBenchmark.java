@@ -0,0 +1,62 @@
+package application;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Manual benchmark comparing branching a {@link PersistentCardStack} against deep-copying a {@link CardStack},
+ * as done per node of a game-tree search: every branch draws one Card and pushes another. Reports time and
+ * allocated bytes per branch, nearly all of which stay reachable through the kept branches. Run the main
+ * method with a warmed-up JVM; it is not part of the test suite.
+ */
+public final class PersistentCardStackBenchmark {
+
+    private static final int[] SIZES = {52, 1_000, 10_000};
+    private static final int BRANCHES = 5_000;
+    private static final int ROUNDS = 3;
+    private static final ThreadMXBean THREADS = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    public static void main(String[] args) {
+        for (int round = 0; round < ROUNDS; round++) {
+            for (int size : SIZES) runRound(round, size);
+        }
+    }
+
+    private static void runRound(int round, int size) {
+        CardStack base = new CardStack();
+        for (int i = 0; i < size; i++) base.pushTop(new Card.Builder(i).setHp(10).setDmg(2).build());
+        PersistentCardStack persistentBase = PersistentCardStack.of(base);
+        Card card = new Card.Builder(size).setHp(5).setDmg(5).build();
+
+        long before = allocatedBytes();
+        long t0 = System.nanoTime();
+        PersistentCardStack[] versions = new PersistentCardStack[BRANCHES];
+        for (int b = 0; b < BRANCHES; b++) versions[b] = persistentBase.popTop().pushTop(card);
+        long t1 = System.nanoTime();
+        long persistentBytes = allocatedBytes() - before;
+
+        before = allocatedBytes();
+        long t2 = System.nanoTime();
+        CardStack[] copies = new CardStack[BRANCHES];
+        for (int b = 0; b < BRANCHES; b++) {
+            CardStack copy = new CardStack();
+            base.forEach(copy::pushTop);
+            copy.popTop();
+            copy.pushTop(card);
+            copies[b] = copy;
+        }
+        long t3 = System.nanoTime();
+        long copyBytes = allocatedBytes() - before;
+
+        System.out.printf("round %d, %d cards: persistent %.0f ns/branch, %.1f KB allocated/branch | " +
+                        "deep copy %.0f ns/branch, %.1f KB allocated/branch | check %b%n",
+                round, size, (t1 - t0) / (double) BRANCHES, persistentBytes / 1024.0 / BRANCHES,
+                (t3 - t2) / (double) BRANCHES, copyBytes / 1024.0 / BRANCHES,
+                versions[BRANCHES - 1].peekTop() == copies[BRANCHES - 1].peekTop());
+    }
+
+    private static long allocatedBytes() {
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+}
@@ -0,0 +1,123 @@
+package application;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PersistentCardStackTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property(tries = 50)
+    void versionsMatchListModels(@ForAll long seed) {
+        Random random = new Random(seed);
+        List<PersistentCardStack> versions = new ArrayList<>(List.of(PersistentCardStack.empty()));
+        List<List<Card>> models = new ArrayList<>(List.of(List.of()));
+        long nextId = 0;
+
+        for (int step = 0; step < 400; step++) {
+            int from = random.nextInt(versions.size());
+            PersistentCardStack version = versions.get(from);
+            List<Card> model = new ArrayList<>(models.get(from));
+            switch (random.nextInt(5)) {
+                case 0, 1 -> {
+                    int count = 1 + random.nextInt(random.nextBoolean() ? 3 : 100);
+                    for (int i = 0; i < count; i++) {
+                        Card card = card(nextId++);
+                        version = version.pushTop(card);
+                        model.add(card);
+                    }
+                }
+                case 2 -> {
+                    int count = random.nextInt(model.size() + 1);
+                    version = version.drawN(count);
+                    model.subList(model.size() - count, model.size()).clear();
+                }
+                case 3 -> {
+                    if (model.isEmpty()) continue;
+                    int index = random.nextInt(model.size());
+                    Card card = card(nextId++);
+                    version = version.set(index, card);
+                    model.set(index, card);
+                }
+                default -> {
+                    PersistentCardStack.Transient builder = version.asTransient();
+                    int pushes = random.nextInt(80), pops = random.nextInt(80);
+                    for (int i = 0; i < pushes; i++) {
+                        Card card = card(nextId++);
+                        builder.pushTop(card);
+                        model.add(card);
+                    }
+                    for (int i = 0; i < pops && !model.isEmpty(); i++)
+                        assertThat(builder.popTop()).isEqualTo(model.removeLast());
+                    if (!model.isEmpty()) {
+                        int index = random.nextInt(model.size());
+                        Card card = card(nextId++);
+                        builder.set(index, card);
+                        model.set(index, card);
+                    }
+                    version = builder.persistent();
+                }
+            }
+            versions.add(version);
+            models.add(model);
+        }
+
+        for (int i = 0; i < versions.size(); i++) {
+            PersistentCardStack version = versions.get(i);
+            assertThat(version.size()).isEqualTo(models.get(i).size());
+            assertThat(version).containsExactlyElementsOf(models.get(i));
+            for (int j = 0; j < version.size(); j++) assertThat(version.get(j)).isEqualTo(models.get(i).get(j));
+        }
+    }
+
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void modifierVersionsShareCardsTest() {
+        ModifierRegistry registry = new ModifierRegistry();
+        Modifier buff = registry.register(new Modifier.Builder("Buff").addHp(1));
+        PersistentCardStack base = PersistentCardStack.empty().pushTop(card(1)).pushTop(card(2));
+        PersistentCardStack buffed = base.withModifier(buff);
+
+        assertThat(base.hasModifier(buff)).isFalse();
+        assertThat(buffed.hasModifier(buff)).isTrue();
+        assertThat(buffed.withoutModifier(buff).getModifierCount()).isZero();
+        assertThat(buffed.toCardStack().getEffectiveHp(1)).isEqualTo(11);
+    }
+
+    @Test
+    void cardStackConversionTest() {
+        CardStack stack = new CardStack();
+        for (int i = 0; i < 100; i++) stack.pushTop(card(i));
+
+        PersistentCardStack persistent = PersistentCardStack.of(stack);
+
+        assertThat(persistent).containsExactlyElementsOf(stack);
+        assertThat(persistent.peekTop()).isEqualTo(card(99));
+    }
+
+    @Test
+    void transientCannotBeReusedTest() {
+        PersistentCardStack.Transient builder = PersistentCardStack.empty().asTransient();
+        builder.persistent();
+
+        assertThatThrownBy(() -> builder.pushTop(card(1))).isInstanceOf(ConcurrentModificationException.class);
+    }
+
+    @Test
+    void popEmptyTest() {
+        assertThatThrownBy(() -> PersistentCardStack.empty().popTop()).isInstanceOf(IllegalStateException.class);
+    }
+
+    private static Card card(long id) {
+        return new Card.Builder(id).setHp(10).setDmg(2).build();
+    }
+}
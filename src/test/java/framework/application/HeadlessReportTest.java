@@ -0,0 +1,156 @@
+package framework.application;
+
+import framework.graphics.HeadlessContext;
+import framework.profiling.RollingStatistics;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lwjgl.BufferUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.lwjgl.opengl.GL11.*;
+
+class HeadlessReportTest {
+
+    private static final int WIDTH = 64, HEIGHT = 32;
+    private static final int BACKGROUND = 0x000066FF, RECTANGLE = 0xFF3300FF;
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property
+    void singleChannelDifferenceIsToleratedUpToTolerance(@ForAll @IntRange(min = 0, max = 255) int value,
+                                                         @ForAll @IntRange(min = -255, max = 255) int difference,
+                                                         @ForAll @IntRange(min = 0, max = 16) int tolerance,
+                                                         @ForAll @IntRange(min = 0, max = 4 * 16 - 1) int channel) {
+        int changed = Math.clamp(value + difference, 0, 255);
+        ByteBuffer expected = BufferUtils.createByteBuffer(4 * 16);
+        for (int i = 0; i < expected.capacity(); i++) expected.put(i, (byte) value);
+        ByteBuffer actual = BufferUtils.createByteBuffer(4 * 16).put(expected.duplicate()).flip();
+        actual.put(channel, (byte) changed);
+
+        int mismatches = HeadlessReport.countMismatches(expected, actual, tolerance);
+
+        assertThat(mismatches).isEqualTo(Math.abs(changed - value) > tolerance ? 1 : 0);
+        assertThat(HeadlessReport.countMismatches(actual, expected, tolerance)).isEqualTo(mismatches);
+    }
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void invalidComparisonThrowsTest() {
+        ByteBuffer image = BufferUtils.createByteBuffer(16);
+        assertThatThrownBy(() -> HeadlessReport.countMismatches(image, BufferUtils.createByteBuffer(12), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HeadlessReport.countMismatches(image, BufferUtils.createByteBuffer(16), -1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void goldenImageComparisonTest(@TempDir Path directory) throws Exception {
+        Path golden = golden();
+
+        assertThat(report(scene(false)).matchesGolden(golden, 0)).isTrue();
+        // Bottom-up rows move the rectangle, which covers 24 columns of rows 16-27 instead of rows 4-15.
+        assertThat(report(scene(true)).countMismatches(golden, 0)).isEqualTo(2 * 12 * 24);
+        assertThatThrownBy(() -> new HeadlessReport(WIDTH, WIDTH, BufferUtils.createByteBuffer(WIDTH * WIDTH * 4),
+                new RollingStatistics(1), new RollingStatistics(1)).countMismatches(golden, 0))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        Path written = directory.resolve("frame.png");
+        report(scene(false)).writePng(written);
+        assertThat(report(scene(false)).countMismatches(written, 0)).isZero();
+    }
+
+    @Test
+    void headlessFrameMatchesGoldenImageTest() throws Exception {
+        // Skips the test on machines without an OpenGL context, like the application would fail to start.
+        try (HeadlessContext _ = HeadlessContext.create(1, 1)) {
+            // Only probes for a context, the application creates its own.
+        }
+
+        HeadlessReport report = new ScissorApplication().runHeadless(3);
+
+        assertThat(report.width()).isEqualTo(WIDTH);
+        assertThat(report.height()).isEqualTo(HEIGHT);
+        assertThat(report.cpuFrameTime().getCount()).isEqualTo(3);
+        assertThat(report.countMismatches(golden(), 1)).isZero();
+    }
+
+    @Test
+    void headlessSettingsRunUntilQuitTest() {
+        try (HeadlessContext _ = HeadlessContext.create(1, 1)) {
+            // Only probes for a context, the application creates its own.
+        }
+        int[] rendered = new int[1];
+
+        new ScissorApplication() {
+            @Override
+            protected void onRender() {
+                super.onRender();
+                if (++rendered[0] == 5) quit();
+            }
+        }.run();
+
+        assertThat(rendered[0]).isEqualTo(5);
+    }
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    /**
+     * Renders the golden scene: a blue background with an orange rectangle scissored at {@code (8, 4)} from
+     * the bottom-left corner. All channel values are exact in 8 bits.
+     */
+    public static class ScissorApplication extends GraphicApplication {
+
+        public ScissorApplication() {
+            super(new WindowSettings(WIDTH, HEIGHT, "golden", true));
+        }
+
+        @Override
+        protected void onStart() {}
+
+        @Override
+        protected void onUpdate() {}
+
+        @Override
+        protected void onRender() {
+            glClearColor(0, 0, 0.4f, 1);
+            glClear(GL_COLOR_BUFFER_BIT);
+            glEnable(GL_SCISSOR_TEST);
+            glScissor(8, 4, 24, 12);
+            glClearColor(1, 0.2f, 0, 1);
+            glClear(GL_COLOR_BUFFER_BIT);
+            glDisable(GL_SCISSOR_TEST);
+        }
+
+        @Override
+        protected void onExit() {}
+    }
+
+    private static Path golden() throws Exception {
+        return Path.of(HeadlessReportTest.class.getResource("/golden/scissor.png").toURI());
+    }
+
+    /**
+     * @param bottomUp whether the rows are in OpenGL order instead of the top-down order of a report.
+     */
+    private static ByteBuffer scene(boolean bottomUp) {
+        ByteBuffer pixels = BufferUtils.createByteBuffer(WIDTH * HEIGHT * 4).order(ByteOrder.BIG_ENDIAN);
+        for (int y = 0; y < HEIGHT; y++) {
+            int fromBottom = bottomUp ? y : HEIGHT - 1 - y;
+            for (int x = 0; x < WIDTH; x++) {
+                boolean inside = x >= 8 && x < 32 && fromBottom >= 4 && fromBottom < 16;
+                pixels.putInt((y * WIDTH + x) * 4, inside ? RECTANGLE : BACKGROUND);
+            }
+        }
+        return pixels;
+    }
+
+    private static HeadlessReport report(ByteBuffer pixels) {
+        return new HeadlessReport(WIDTH, HEIGHT, pixels, new RollingStatistics(1), new RollingStatistics(1));
+    }
+}
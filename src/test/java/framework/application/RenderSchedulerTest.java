@@ -0,0 +1,84 @@
+package framework.application;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class RenderSchedulerTest {
+
+    @Test
+    void requestRenderDirtiesOnlyNextFrameTest() {
+        RenderScheduler scheduler = new RenderScheduler();
+        assertThat(scheduler.poll(0)).as("first frame").isTrue();
+        assertThat(scheduler.poll(1)).isFalse();
+        assertThat(scheduler.timeUntilDue(1)).isEqualTo(Long.MAX_VALUE);
+
+        scheduler.requestRender();
+        assertThat(scheduler.timeUntilDue(2)).isZero();
+        assertThat(scheduler.poll(2)).isTrue();
+        assertThat(scheduler.poll(3)).isFalse();
+    }
+
+    @Test
+    void animationKeepsFramesDirtyUntilItEndsTest() {
+        RenderScheduler scheduler = new RenderScheduler();
+        scheduler.poll(0);
+        scheduler.animate(100, 50);
+        scheduler.animate(100, 20);
+
+        assertThat(scheduler.poll(120)).isTrue();
+        assertThat(scheduler.poll(149)).isTrue();
+        assertThat(scheduler.poll(150)).isFalse();
+        assertThatThrownBy(() -> scheduler.animate(0, -1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void deadlinesWakeUpInOrderTest() {
+        RenderScheduler scheduler = new RenderScheduler();
+        scheduler.poll(0);
+        for (long deadline = 1000; deadline > 0; deadline -= 100) scheduler.schedule(deadline);
+
+        assertThat(scheduler.timeUntilDue(50)).isEqualTo(50);
+        assertThat(scheduler.poll(99)).isFalse();
+        assertThat(scheduler.poll(250)).isTrue();
+        assertThat(scheduler.getPendingDeadlines()).isEqualTo(8);
+        assertThat(scheduler.timeUntilDue(250)).isEqualTo(50);
+        assertThat(scheduler.poll(260)).isFalse();
+    }
+
+    @Test
+    void requestRenderFromOtherThreadIsNeverLostTest() throws InterruptedException {
+        RenderScheduler scheduler = new RenderScheduler();
+        scheduler.poll(0);
+        AtomicInteger frames = new AtomicInteger();
+        AtomicInteger lost = new AtomicInteger();
+        Thread requester = new Thread(() -> {
+            for (int i = 0; i < 5_000; i++) {
+                int before = frames.get();
+                scheduler.requestRender();
+                // Each request has to be consumed by a later poll, a lost one never renders a frame.
+                long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+                while (frames.get() == before) {
+                    if (System.nanoTime() - deadline > 0) {
+                        lost.incrementAndGet();
+                        return;
+                    }
+                    Thread.yield();
+                }
+            }
+        });
+        requester.start();
+        while (requester.isAlive()) {
+            if (scheduler.poll(1)) frames.incrementAndGet();
+            Thread.yield();
+        }
+        requester.join();
+
+        assertThat(lost.get()).isZero();
+        assertThat(frames.get()).isGreaterThanOrEqualTo(5_000);
+    }
+}
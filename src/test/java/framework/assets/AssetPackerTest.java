@@ -0,0 +1,227 @@
+package framework.assets;
+
+import framework.graphics.mesh.MeshData;
+import framework.graphics.mesh.MeshFormat;
+import framework.graphics.mesh.ObjLoader;
+import framework.injection.Injector;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AssetPackerTest {
+
+    private static final String SHADER = "#version 330 core\nvoid main() {}\n";
+    private static final String OBJ = """
+            v 0 0 0
+            v 1 0 0
+            v 1 1 0
+            v 0 1 0
+            f 1 2 3
+            f 3 4 1
+            """;
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void packedArchiveRoundTripsTest(@TempDir Path source) throws IOException {
+        int[][] argb = {
+                {0xFF102030, 0x80FFFFFF, 0xFF000000, 0x00ABCDEF},
+                {0xFF405060, 0xFF0000FF, 0x40112233, 0xFFFEDCBA}};
+        writeSources(source, argb);
+        Path file = source.resolve("assets.pak");
+
+        // The archive itself lies in the packed directory and is skipped.
+        assertThat(AssetPacker.pack(source, file)).isEqualTo(6);
+
+        try (AssetArchive archive = AssetArchive.open(file)) {
+            assertThat(archive.size()).isEqualTo(6);
+            // Sorted by UTF-8 bytes, so upper case comes first and "~" last.
+            String[] names = new String[archive.size()];
+            for (int i = 0; i < names.length; i++) names[i] = archive.getName(i);
+            assertThat(names).containsExactly("Z.txt", "a.txt", "quad.obj", "shaders/test.vert", "textures/tile.png", "~.txt");
+            for (int i = 0; i < names.length; i++) assertThat(archive.find(names[i])).isEqualTo(i);
+            assertThat(archive.find("b.txt")).isEqualTo(-1);
+            assertThat(archive.find("shaders")).isEqualTo(-1);
+            assertThat(archive.find("")).isEqualTo(-1);
+
+            assertThat(text(archive.getData(archive.find("~.txt")))).isEqualTo("last");
+            int shader = archive.find("shaders/test.vert");
+            assertThat(archive.getType(shader)).isEqualTo(AssetType.SHADER);
+            assertThat(text(archive.getData(shader))).isEqualTo(SHADER);
+
+            int texture = archive.find("textures/tile.png");
+            assertThat(archive.getType(texture)).isEqualTo(AssetType.TEXTURE);
+            assertThat(archive.getWidth(texture)).isEqualTo(4);
+            assertThat(archive.getHeight(texture)).isEqualTo(2);
+            assertThat(archive.getMipLevels(texture)).isEqualTo(3);
+            byte[] level0 = rgba(argb);
+            byte[] level1 = downsample(level0, 4, 2);
+            byte[] level2 = downsample(level1, 2, 1);
+            assertThat(bytes(archive.getMipLevel(texture, 0))).isEqualTo(level0);
+            assertThat(bytes(archive.getMipLevel(texture, 1))).isEqualTo(level1);
+            assertThat(bytes(archive.getMipLevel(texture, 2))).isEqualTo(level2);
+            assertThat(archive.getData(texture).remaining()).isEqualTo(level0.length + level1.length + level2.length);
+
+            int mesh = archive.find("quad.obj");
+            assertThat(archive.getType(mesh)).isEqualTo(AssetType.MESH);
+            assertThat(archive.getData(mesh).getInt(0)).isEqualTo(MeshFormat.MAGIC);
+            MeshData packed = MeshFormat.read(archive.getData(mesh));
+            MeshData loaded = ObjLoader.load(source.resolve("quad.obj"));
+            assertThat(packed.vertexCount()).isEqualTo(loaded.vertexCount());
+            assertThat(packed.getTriangleCount()).isEqualTo(loaded.getTriangleCount());
+        }
+    }
+
+    @Test
+    void handlerFallsBackToLooseFilesTest(@TempDir Path source) throws IOException {
+        writeSources(source, new int[][]{{0xFFFFFFFF}});
+        Path file = source.resolve("assets.pak");
+        AssetPacker.pack(source, file);
+        Path loose = source.resolve("loose.txt");
+        Files.writeString(loose, "loose");
+
+        System.setProperty("jengine.assets", file.toString());
+        try {
+            assertThat(AssetHandler.locateArchive()).isEqualTo(file);
+            AssetHandler assets = new Injector().get(AssetHandler.class);
+            assertThat(assets.hasArchive()).isTrue();
+
+            assertThat(assets.find("./resources/shaders/test.vert", AssetType.SHADER)).isNotNegative();
+            assertThat(assets.find("resources/shaders/test.vert", AssetType.TEXTURE)).isEqualTo(-1);
+            assertThat(text(assets.load("./resources/shaders/test.vert"))).isEqualTo(SHADER);
+            // Paths outside the resource directory and assets missing from the archive are read as loose files.
+            assertThat(text(assets.load(loose.toString()))).isEqualTo("loose");
+            assertThatThrownBy(() -> assets.load("resources/missing.txt")).isInstanceOf(UncheckedIOException.class);
+            assets.destroy();
+            assertThat(assets.hasArchive()).isFalse();
+        } finally {
+            System.clearProperty("jengine.assets");
+        }
+    }
+
+    @Test
+    void corruptArchiveIsRejectedTest(@TempDir Path source) throws IOException {
+        writeSources(source, new int[][]{{0xFFFFFFFF, 0xFF000000}, {0xFF000000, 0xFFFFFFFF}});
+        Path file = source.resolve("assets.pak");
+        AssetPacker.pack(source, file);
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer archive = ByteBuffer.wrap(bytes).order(ByteOrder.LITTLE_ENDIAN);
+        int entries = archive.getInt(8);
+        long dataEnd = 0;
+        for (int i = 0; i < entries; i++) {
+            int entry = AssetArchive.HEADER_SIZE + i * AssetArchive.ENTRY_SIZE;
+            dataEnd = Math.max(dataEnd, archive.getLong(entry + 24) + archive.getLong(entry + 32));
+        }
+        Path corrupt = source.resolve("corrupt.pak");
+
+        // Truncated within the header, the index, the string table and the data of the last asset.
+        int strings = AssetArchive.HEADER_SIZE + entries * AssetArchive.ENTRY_SIZE;
+        for (long length : new long[]{0, 8, AssetArchive.HEADER_SIZE + 4, strings - 1, strings + 1, dataEnd - 1}) {
+            Files.write(corrupt, Arrays.copyOf(bytes, (int) length));
+            assertThatThrownBy(() -> AssetArchive.open(corrupt)).as("length %d", length).isInstanceOf(IOException.class);
+        }
+        // Entries pointing outside of the file or to an unknown type.
+        for (int[] field : new int[][]{{24, Integer.MAX_VALUE}, {32, -1}, {8, AssetType.values().length}, {4, Integer.MAX_VALUE}}) {
+            byte[] changed = bytes.clone();
+            ByteBuffer.wrap(changed).order(ByteOrder.LITTLE_ENDIAN).putInt(AssetArchive.HEADER_SIZE + field[0], field[1]);
+            Files.write(corrupt, changed);
+            assertThatThrownBy(() -> AssetArchive.open(corrupt)).isInstanceOf(IOException.class);
+        }
+
+        Files.write(corrupt, Arrays.copyOf(bytes, (int) dataEnd - 1));
+        System.setProperty("jengine.assets", corrupt.toString());
+        try {
+            AssetHandler assets = new Injector().get(AssetHandler.class);
+            assertThat(assets.hasArchive()).isFalse();
+        } finally {
+            System.clearProperty("jengine.assets");
+        }
+    }
+
+    @Test
+    void archiveDefaultsToResourceDirectoryTest() {
+        // The test classpath has no packed archive.
+        assertThat(AssetHandler.class.getResource(AssetHandler.ARCHIVE_RESOURCE)).isNull();
+        assertThat(AssetHandler.locateArchive()).isEqualTo(Path.of(AssetHandler.DEFAULT_ARCHIVE));
+    }
+
+    @Test
+    void toAssetNameTest() {
+        assertThat(AssetHandler.toAssetName("./resources/shaders/shader.vert")).isEqualTo("shaders/shader.vert");
+        assertThat(AssetHandler.toAssetName("resources/texture.png")).isEqualTo("texture.png");
+        assertThat(AssetHandler.toAssetName("textures/texture.png")).isNull();
+        assertThat(AssetHandler.toAssetName("resources/../texture.png")).isNull();
+    }
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    private static void writeSources(Path source, int[][] argb) throws IOException {
+        Files.writeString(source.resolve("a.txt"), "first");
+        Files.writeString(source.resolve("Z.txt"), "upper");
+        Files.writeString(source.resolve("~.txt"), "last");
+        Files.createDirectories(source.resolve("shaders"));
+        Files.writeString(source.resolve("shaders/test.vert"), SHADER);
+        Files.writeString(source.resolve("quad.obj"), OBJ);
+
+        BufferedImage image = new BufferedImage(argb[0].length, argb.length, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < argb.length; y++)
+            for (int x = 0; x < argb[y].length; x++) image.setRGB(x, y, argb[y][x]);
+        Files.createDirectories(source.resolve("textures"));
+        ImageIO.write(image, "png", source.resolve("textures/tile.png").toFile());
+    }
+
+    private static byte[] rgba(int[][] argb) {
+        byte[] pixels = new byte[argb.length * argb[0].length * 4];
+        int i = 0;
+        for (int[] row : argb) {
+            for (int pixel : row) {
+                pixels[i++] = (byte) (pixel >>> 16);
+                pixels[i++] = (byte) (pixel >>> 8);
+                pixels[i++] = (byte) pixel;
+                pixels[i++] = (byte) (pixel >>> 24);
+            }
+        }
+        return pixels;
+    }
+
+    /**
+     * Reference 2x2 box filter, clamping at the last row and column of odd sizes.
+     */
+    private static byte[] downsample(byte[] level, int width, int height) {
+        int w = Math.max(1, width / 2), h = Math.max(1, height / 2);
+        byte[] next = new byte[w * h * 4];
+        for (int y = 0; y < h; y++) {
+            for (int x = 0; x < w; x++) {
+                for (int c = 0; c < 4; c++) {
+                    int sum = 0;
+                    for (int dy = 0; dy < 2; dy++)
+                        for (int dx = 0; dx < 2; dx++)
+                            sum += level[(Math.min(y * 2 + dy, height - 1) * width + Math.min(x * 2 + dx, width - 1)) * 4 + c] & 0xFF;
+                    next[(y * w + x) * 4 + c] = (byte) ((sum + 2) / 4);
+                }
+            }
+        }
+        return next;
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static String text(ByteBuffer buffer) {
+        return new String(bytes(buffer), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,111 @@
+package framework.ecs;
+
+import framework.ecs.components.SpriteStore;
+import framework.ecs.components.TransformStore;
+import framework.profiling.AllocationBudget;
+import framework.profiling.AllocationProbe;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WorldTest {
+
+    @Test
+    void destroyedEntityIsNotAliveAfterIndexReuseTest() {
+        World world = new World();
+        int first = world.create();
+        world.destroy(first);
+        int second = world.create();
+
+        assertThat(World.index(second)).isEqualTo(World.index(first));
+        assertThat(world.isAlive(first)).isFalse();
+        assertThat(world.isAlive(second)).isTrue();
+        assertThat(world.destroy(first)).isFalse();
+    }
+
+    @Test
+    void removeKeepsColumnsContiguousTest() {
+        World world = new World();
+        TransformStore transforms = world.register(new TransformStore());
+        int a = world.create(), b = world.create(), c = world.create();
+        transforms.add(a, 1, 1);
+        transforms.add(b, 2, 2);
+        transforms.add(c, 3, 3);
+
+        world.destroy(a);
+
+        assertThat(transforms.size()).isEqualTo(2);
+        assertThat(transforms.has(a)).isFalse();
+        assertThat(transforms.x[transforms.indexOf(b)]).isEqualTo(2);
+        assertThat(transforms.x[transforms.indexOf(c)]).isEqualTo(3);
+    }
+
+    @Test
+    void staleEntityDoesNotMatchComponentOfReusedIndexTest() {
+        World world = new World();
+        TransformStore transforms = world.register(new TransformStore());
+        int stale = world.create();
+        world.destroy(stale);
+        transforms.add(world.create(), 0, 0);
+
+        assertThat(transforms.has(stale)).isFalse();
+    }
+
+    @Test
+    void queryMatchesOnlyEntitiesWithAllComponentsTest() {
+        World world = new World();
+        TransformStore transforms = world.register(new TransformStore());
+        SpriteStore sprites = world.register(new SpriteStore());
+        for (int i = 0; i < 100; i++) {
+            int entity = world.create();
+            transforms.add(entity, i, 0);
+            if (i % 3 == 0) sprites.add(entity, 1, 1, 10, 10);
+        }
+
+        Query query = world.query(transforms, sprites);
+        AtomicInteger sum = new AtomicInteger();
+        query.forEach((entity, indices) -> {
+            assertThat(transforms.entityAt(indices[0])).isEqualTo(entity);
+            assertThat(sprites.entityAt(indices[1])).isEqualTo(entity);
+            sum.addAndGet((int) transforms.x[indices[0]]);
+        });
+
+        assertThat(query.count()).isEqualTo(34);
+        assertThat(sum.get()).isEqualTo(99 * 34 / 2);
+    }
+
+    @Test
+    void parallelForEachVisitsEveryEntityOnceTest() {
+        World world = new World();
+        TransformStore transforms = world.register(new TransformStore());
+        for (int i = 0; i < 100_000; i++) transforms.add(world.create(), 0, 0);
+
+        world.query(transforms).parallelForEach((_, indices) -> transforms.x[indices[0]] += 1);
+
+        for (int i = 0; i < transforms.size(); i++) assertThat(transforms.x[i]).isEqualTo(1);
+    }
+
+    @Test
+    @AllocationBudget
+    void queryDoesNotAllocateTest(AllocationProbe probe) {
+        World world = new World();
+        TransformStore transforms = world.register(new TransformStore());
+        SpriteStore sprites = world.register(new SpriteStore());
+        for (int i = 0; i < 100; i++) {
+            int entity = world.create();
+            transforms.add(entity, i, 0);
+            if (i % 2 == 0) sprites.add(entity, 1, 1, 10, 10);
+        }
+        Query query = world.query(transforms, sprites);
+        EntityConsumer move = (_, indices) -> transforms.x[indices[0]] += sprites.width[indices[1]];
+        int[] count = new int[1];
+
+        probe.measure(() -> {
+            query.forEach(move);
+            count[0] = query.count();
+        });
+        assertThat(count[0]).isEqualTo(50);
+    }
+}
@@ -0,0 +1,69 @@
+package framework.graphics;
+
+import org.junit.jupiter.api.Assumptions;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.system.Configuration;
+import org.lwjgl.system.Platform;
+
+import static org.lwjgl.glfw.GLFW.*;
+import static org.lwjgl.system.MemoryUtil.NULL;
+
+/**
+ * Hidden window with a current OpenGL context for tests which need one, created like the window of a
+ * headless application: without a display server it uses the GLFW null platform with an OSMesa context.
+ * <p>
+ * Tests using it are skipped when no context can be created, e.g. on a machine without OpenGL drivers.
+ */
+public final class HeadlessContext implements AutoCloseable {
+
+    private final long window;
+
+    private HeadlessContext(long window) {
+        this.window = window;
+    }
+
+    /**
+     * Creates a context and makes it current on the calling thread, or aborts the test if that is not possible.
+     *
+     * @param width the width of the default framebuffer in pixels.
+     * @param height the height of the default framebuffer in pixels.
+     * @return the current context, to be closed by the test.
+     */
+    public static HeadlessContext create(int width, int height) {
+        boolean initialized = false;
+        long window = NULL;
+        try {
+            if (Platform.get() == Platform.LINUX
+                    && System.getenv("DISPLAY") == null && System.getenv("WAYLAND_DISPLAY") == null) {
+                glfwInitHint(GLFW_PLATFORM, GLFW_PLATFORM_NULL);
+                Configuration.OPENGL_LIBRARY_NAME.set("libOSMesa.so.8");
+            }
+            initialized = glfwInit();
+            if (initialized) {
+                glfwDefaultWindowHints();
+                glfwWindowHint(GLFW_VISIBLE, GLFW_FALSE);
+                if (glfwGetPlatform() == GLFW_PLATFORM_NULL)
+                    glfwWindowHint(GLFW_CONTEXT_CREATION_API, GLFW_OSMESA_CONTEXT_API);
+                window = glfwCreateWindow(width, height, "test", NULL, NULL);
+            }
+            if (window != NULL) {
+                glfwMakeContextCurrent(window);
+                GL.createCapabilities();
+                return new HeadlessContext(window);
+            }
+        } catch (RuntimeException | LinkageError e) {
+            // Missing native libraries, handled like any other missing context below.
+        }
+        if (window != NULL) glfwDestroyWindow(window);
+        if (initialized) glfwTerminate();
+        return Assumptions.abort("No OpenGL context available");
+    }
+
+    @Override
+    public void close() {
+        GL.setCapabilities(null);
+        glfwMakeContextCurrent(NULL);
+        glfwDestroyWindow(window);
+        glfwTerminate();
+    }
+}
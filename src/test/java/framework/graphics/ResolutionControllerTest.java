@@ -0,0 +1,66 @@
+package framework.graphics;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.DoubleRange;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.offset;
+
+class ResolutionControllerTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    /**
+     * Simulates a fill-rate bound scene, whose frame time grows with the pixel count plus noise.
+     */
+    @Property(tries = 50)
+    void settlesWithoutOscillating(@ForAll @DoubleRange(min = 5, max = 40) double fullResolutionMillis, @ForAll long seed) {
+        Random random = new Random(seed);
+        ResolutionController controller = new ResolutionController.Builder(14).setScaleRange(0.5f, 1f).build();
+
+        int changes = 0;
+        for (int frame = 0; frame < 3000; frame++) {
+            double millis = fullResolutionMillis * controller.getScale() * controller.getScale() * (0.95 + random.nextDouble() * 0.1);
+            if (controller.update(millis) && frame >= 1500) changes++;
+        }
+
+        assertThat(changes).isZero();
+        float scale = controller.getScale();
+        double settled = fullResolutionMillis * scale * scale;
+        if (scale > 0.5f) assertThat(settled).isLessThan(14 * 1.1 * 1.05);
+        if (scale < 1f) assertThat(fullResolutionMillis * Math.pow(scale + 0.05, 2)).isGreaterThan(14 * 0.9 * 0.95);
+    }
+
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void dropsQuicklyAndRecoversStepwiseTest() {
+        ResolutionController controller = new ResolutionController.Builder(10).setCooldown(0).setSmoothing(1).build();
+
+        assertThat(controller.update(40)).isTrue();
+        assertThat(controller.getScale()).isEqualTo(0.5f);
+
+        assertThat(controller.update(2)).isTrue();
+        assertThat(controller.getScale()).isCloseTo(0.55f, offset(1e-6f));
+    }
+
+    @Test
+    void staysWithinHysteresisBandTest() {
+        ResolutionController controller = new ResolutionController.Builder(10).setCooldown(0).build();
+        for (int i = 0; i < 100; i++) assertThat(controller.update(10.5)).isFalse();
+        assertThat(controller.getScale()).isEqualTo(1f);
+    }
+
+    @Test
+    void invalidSettingsThrowTest() {
+        assertThatThrownBy(() -> new ResolutionController.Builder(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ResolutionController.Builder(10).setScaleRange(1, 0.5f))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ResolutionController.Builder(10).setSmoothing(0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,60 @@
+package framework.graphics;
+
+import framework.injection.Injector;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.opengl.GL11;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TextureTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property
+    void mipChainEndsAtOnePixel(@ForAll @IntRange(min = 1, max = 16384) int width,
+                                @ForAll @IntRange(min = 1, max = 16384) int height) {
+        int levels = Texture.mipLevelsFor(width, height);
+
+        int w = width, h = height;
+        for (int level = 1; level < levels; level++) {
+            w = Math.max(1, w / 2);
+            h = Math.max(1, h / 2);
+        }
+        assertThat(Math.max(w, h)).isEqualTo(1);
+        assertThat(Math.max(width, height) >> (levels - 1)).isEqualTo(1);
+    }
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void mipLevelsTest() {
+        assertThat(Texture.mipLevelsFor(1, 1)).isEqualTo(1);
+        assertThat(Texture.mipLevelsFor(256, 256)).isEqualTo(9);
+        assertThat(Texture.mipLevelsFor(300, 20)).isEqualTo(9);
+        assertThat(Texture.mipLevelsFor(1, 1024)).isEqualTo(11);
+    }
+
+    @Test
+    void samplerMipmapUsageTest() {
+        assertThat(Texture.Sampler.DEFAULT.usesMipmaps()).isTrue();
+        assertThat(Texture.Sampler.CLAMPED.usesMipmaps()).isTrue();
+        assertThat(Texture.Sampler.PIXEL.usesMipmaps()).isFalse();
+        assertThat(new Texture.Sampler(GL11.GL_LINEAR, GL11.GL_LINEAR, GL11.GL_REPEAT).usesMipmaps()).isFalse();
+    }
+
+    @Test
+    void missingImageThrowsTest() {
+        try (HeadlessContext _ = HeadlessContext.create(16, 16)) {
+            TextureHandler textures = new Injector().get(TextureHandler.class);
+
+            // Both loaders report a missing image the same way.
+            assertThatThrownBy(() -> textures.loadTexture("./resources/missing.png"))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> textures.loadTextureArray("./resources/missing.png"))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(textures::loadTextureArray).isInstanceOf(IllegalArgumentException.class);
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package framework.graphics.capture;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.stb.STBImage;
+import org.lwjgl.system.MemoryStack;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FrameWriterTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property(tries = 20)
+    void rawFramesAreWrittenInOrderTopRowFirst(@ForAll @IntRange(min = 1, max = 40) int width,
+                                               @ForAll @IntRange(min = 1, max = 40) int height,
+                                               @ForAll @IntRange(min = 1, max = 12) int frames) throws IOException {
+        Path file = Files.createTempFile("capture", ".rgba");
+        try (FrameWriter writer = new FrameWriter(width, height, 2)) {
+            ByteBuffer[] buffers = {BufferUtils.createByteBuffer(width * height * 4), BufferUtils.createByteBuffer(width * height * 4)};
+            List<ByteBuffer> free = new ArrayList<>(List.of(buffers));
+            for (int frame = 0; frame < frames; frame++) {
+                while (free.isEmpty()) {
+                    ByteBuffer released = writer.pollReleased();
+                    if (released != null) free.add(released);
+                }
+                ByteBuffer pixels = free.removeLast();
+                fill(pixels, width, height, frame);
+                assertThat(writer.submit(pixels, file, FrameWriter.Format.RAW)).isTrue();
+            }
+            writer.close();
+
+            byte[] raw = Files.readAllBytes(file);
+            assertThat(raw).hasSize(frames * width * height * 4);
+            for (int frame = 0; frame < frames; frame++) {
+                int offset = frame * width * height * 4;
+                // The first stored row is the last row read from the GPU.
+                assertThat(raw[offset] & 0xFF).isEqualTo(height - 1);
+                assertThat(raw[offset + 2] & 0xFF).isEqualTo(frame);
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void writesPngTopRowFirstTest(@TempDir Path directory) throws IOException {
+        Path png = directory.resolve("shots/frame.png");
+        try (FrameWriter writer = new FrameWriter(4, 3, 1)) {
+            ByteBuffer pixels = BufferUtils.createByteBuffer(4 * 3 * 4);
+            fill(pixels, 4, 3, 7);
+            assertThat(writer.submit(pixels, png, FrameWriter.Format.PNG)).isTrue();
+            writer.flush();
+            assertThat(writer.getWrittenFrames()).isEqualTo(1);
+        }
+
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer w = stack.mallocInt(1), h = stack.mallocInt(1), channels = stack.mallocInt(1);
+            ByteBuffer image = STBImage.stbi_load(png.toString(), w, h, channels, 4);
+            assertThat(image).isNotNull();
+            assertThat(w.get(0)).isEqualTo(4);
+            assertThat(h.get(0)).isEqualTo(3);
+            for (int row = 0; row < 3; row++) assertThat(image.get(row * 16) & 0xFF).isEqualTo(2 - row);
+            assertThat(image.get(5) & 0xFF).isEqualTo(1);
+            STBImage.stbi_image_free(image);
+        }
+    }
+
+    @Test
+    void dropsFramesInsteadOfWaitingTest(@TempDir Path directory) throws IOException {
+        try (FrameWriter writer = new FrameWriter(64, 64, 2)) {
+            ByteBuffer a = BufferUtils.createByteBuffer(64 * 64 * 4), b = BufferUtils.createByteBuffer(64 * 64 * 4);
+            assertThat(writer.submit(a, directory.resolve("a.png"), FrameWriter.Format.PNG)).isTrue();
+            assertThat(writer.submit(b, directory.resolve("b.png"), FrameWriter.Format.PNG)).isTrue();
+            assertThat(writer.submit(a, directory.resolve("c.png"), FrameWriter.Format.PNG)).isFalse();
+            assertThat(writer.getOutstanding()).isEqualTo(2);
+
+            writer.flush();
+            List<ByteBuffer> released = new ArrayList<>();
+            for (ByteBuffer buffer; (buffer = writer.pollReleased()) != null; ) released.add(buffer);
+            assertThat(released).containsExactly(a, b);
+            assertThat(writer.getOutstanding()).isZero();
+            assertThat(writer.submit(a, directory.resolve("c.png"), FrameWriter.Format.PNG)).isTrue();
+        }
+        assertThat(directory.resolve("c.png")).exists();
+    }
+
+    @Test
+    void reportsErrorsAndRejectsAfterCloseTest(@TempDir Path directory) throws IOException {
+        FrameWriter writer = new FrameWriter(2, 2, 1);
+        Files.createDirectories(directory.resolve("taken"));
+        writer.submit(BufferUtils.createByteBuffer(16), directory.resolve("taken"), FrameWriter.Format.RAW);
+
+        assertThatThrownBy(writer::close).isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> writer.submit(BufferUtils.createByteBuffer(16), directory.resolve("x.png"),
+                FrameWriter.Format.PNG)).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> new FrameWriter(0, 2, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    /**
+     * Fills bottom-up pixels with the row in red, the column in green and the frame in blue.
+     */
+    private static void fill(ByteBuffer pixels, int width, int height, int frame) {
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                int i = (y * width + x) * 4;
+                pixels.put(i, (byte) y).put(i + 1, (byte) x).put(i + 2, (byte) frame).put(i + 3, (byte) 255);
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package framework.graphics.mesh;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Manual benchmark loading a grid of one million triangles with texture coordinates and normals, comparing
+ * the streaming {@link ObjLoader} against a String-splitting baseline and the binary {@link MeshFormat}, and
+ * reporting what the {@link MeshOptimizer} saves on it.
+ * Run the main method with a warmed-up JVM; it is not part of the test suite.
+ */
+public final class MeshLoadBenchmark {
+
+    private static final int GRID = 708;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) throws IOException {
+        Path obj = Files.createTempFile("grid", ".obj");
+        Path mesh = Files.createTempFile("grid", ".mesh");
+        try {
+            writeGrid(obj);
+            MeshData data = ObjLoader.load(obj);
+            MeshFormat.write(data, mesh);
+            System.out.printf("%d vertices, %d triangles, obj %.1f MB, mesh %.1f MB%n", data.vertexCount(),
+                    data.getTriangleCount(), Files.size(obj) / 1e6, Files.size(mesh) / 1e6);
+            long start = System.nanoTime();
+            MeshOptimizer.Result result = MeshOptimizer.optimize(data);
+            System.out.printf("optimized in %.1f ms: %s%n", millis(start, System.nanoTime()), result);
+
+            for (int round = 0; round < ROUNDS; round++) {
+                long t0 = System.nanoTime();
+                int baseline = loadBaseline(obj);
+                long t1 = System.nanoTime();
+                int streamed = ObjLoader.load(obj).indexCount();
+                long t2 = System.nanoTime();
+                int binary = MeshFormat.read(mesh).indexCount();
+                long t3 = System.nanoTime();
+                if (baseline != streamed || streamed != binary) throw new IllegalStateException("Index counts differ");
+
+                System.out.printf("round %d: baseline %7.1f ms (%6.1f MB/s), ObjLoader %7.1f ms (%6.1f MB/s), " +
+                                "MeshFormat %6.1f ms (%7.1f MB/s)%n", round,
+                        millis(t0, t1), Files.size(obj) / 1e3 / millis(t0, t1),
+                        millis(t1, t2), Files.size(obj) / 1e3 / millis(t1, t2),
+                        millis(t2, t3), Files.size(mesh) / 1e3 / millis(t2, t3));
+            }
+        } finally {
+            Files.deleteIfExists(obj);
+            Files.deleteIfExists(mesh);
+        }
+    }
+
+    private static double millis(long from, long to) {
+        return (to - from) / 1e6;
+    }
+
+    private static void writeGrid(Path path) throws IOException {
+        try (Writer out = Files.newBufferedWriter(path)) {
+            for (int y = 0; y <= GRID; y++) {
+                for (int x = 0; x <= GRID; x++) {
+                    out.write("v " + x * 0.125f + " " + (float) Math.sin(x * 0.1) * Math.cos(y * 0.1) + " " + y * 0.125f + "\n");
+                    out.write("vt " + (float) x / GRID + " " + (float) y / GRID + "\n");
+                }
+            }
+            out.write("vn 0 1 0\n");
+            for (int y = 0; y < GRID; y++) {
+                for (int x = 0; x < GRID; x++) {
+                    int i = y * (GRID + 1) + x + 1, j = i + GRID + 1;
+                    out.write("f " + i + "/" + i + "/1 " + (i + 1) + "/" + (i + 1) + "/1 " + (j + 1) + "/" + (j + 1) + "/1\n");
+                    out.write("f " + i + "/" + i + "/1 " + (j + 1) + "/" + (j + 1) + "/1 " + j + "/" + j + "/1\n");
+                }
+            }
+        }
+    }
+
+    /**
+     * Typical line-based loader: one String per line and token, deduplication keyed by the face token.
+     *
+     * @return the amount of indices.
+     */
+    private static int loadBaseline(Path path) throws IOException {
+        float[] positions = new float[0], uvs = new float[0], normals = new float[0];
+        int positionCount = 0, uvCount = 0, normalCount = 0;
+        Map<String, Integer> vertexOf = new HashMap<>();
+        float[] vertices = new float[1024];
+        int[] indices = new int[1024];
+        int indexCount = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path)) {
+            for (String line; (line = reader.readLine()) != null; ) {
+                String[] tokens = line.trim().split("\\s+");
+                switch (tokens[0]) {
+                    case "v" -> {
+                        if (positions.length < positionCount * 3 + 3) positions = Arrays.copyOf(positions, positionCount * 6 + 3);
+                        for (int i = 0; i < 3; i++) positions[positionCount * 3 + i] = Float.parseFloat(tokens[i + 1]);
+                        positionCount++;
+                    }
+                    case "vt" -> {
+                        if (uvs.length < uvCount * 2 + 2) uvs = Arrays.copyOf(uvs, uvCount * 4 + 2);
+                        for (int i = 0; i < 2; i++) uvs[uvCount * 2 + i] = Float.parseFloat(tokens[i + 1]);
+                        uvCount++;
+                    }
+                    case "vn" -> {
+                        if (normals.length < normalCount * 3 + 3) normals = Arrays.copyOf(normals, normalCount * 6 + 3);
+                        for (int i = 0; i < 3; i++) normals[normalCount * 3 + i] = Float.parseFloat(tokens[i + 1]);
+                        normalCount++;
+                    }
+                    case "f" -> {
+                        for (int i = 1; i < tokens.length; i++) {
+                            Integer vertex = vertexOf.get(tokens[i]);
+                            if (vertex == null) {
+                                String[] parts = tokens[i].split("/");
+                                vertex = vertexOf.size();
+                                if (vertices.length < (vertex + 1) * 8) vertices = Arrays.copyOf(vertices, vertices.length * 2);
+                                System.arraycopy(positions, (Integer.parseInt(parts[0]) - 1) * 3, vertices, vertex * 8, 3);
+                                System.arraycopy(uvs, (Integer.parseInt(parts[1]) - 1) * 2, vertices, vertex * 8 + 3, 2);
+                                System.arraycopy(normals, (Integer.parseInt(parts[2]) - 1) * 3, vertices, vertex * 8 + 5, 3);
+                                vertexOf.put(tokens[i], vertex);
+                            }
+                            if (indices.length == indexCount) indices = Arrays.copyOf(indices, indexCount * 2);
+                            indices[indexCount++] = vertex;
+                        }
+                    }
+                    default -> {}
+                }
+            }
+        }
+        return indexCount;
+    }
+}
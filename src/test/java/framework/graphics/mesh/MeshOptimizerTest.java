@@ -0,0 +1,139 @@
+package framework.graphics.mesh;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MeshOptimizerTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property(tries = 50)
+    void optimizationKeepsTrianglesAndWinding(@ForAll @IntRange(min = 1, max = 40) int size, @ForAll long seed) {
+        MeshData mesh = shuffledGrid(size, seed);
+
+        MeshOptimizer.Result result = MeshOptimizer.optimize(mesh);
+
+        assertThat(triangles(result.mesh())).containsExactlyInAnyOrderElementsOf(triangles(mesh));
+        assertThat(result.acmrAfter()).isLessThanOrEqualTo(result.acmrBefore());
+        assertThat(result.bytesAfter()).isLessThan(result.bytesBefore());
+    }
+
+    @Property(tries = 50)
+    void verticesAreInFetchOrder(@ForAll @IntRange(min = 1, max = 40) int size, @ForAll long seed) {
+        MeshData mesh = MeshOptimizer.optimize(shuffledGrid(size, seed)).mesh();
+
+        int next = 0;
+        for (int i = 0; i < mesh.indexCount(); i++) {
+            assertThat(mesh.getIndex(i)).isLessThanOrEqualTo(next);
+            if (mesh.getIndex(i) == next) next++;
+        }
+        assertThat(next).isEqualTo(mesh.vertexCount());
+    }
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void weldMergesIdenticalVerticesTest() {
+        float[] vertices = new float[4 * MeshData.VERTEX_FLOATS];
+        vertices[MeshData.VERTEX_FLOATS] = 1;
+        vertices[3 * MeshData.VERTEX_FLOATS] = 1;
+        vertices[3 * MeshData.VERTEX_FLOATS + MeshData.UV_OFFSET] = 0.5f;
+        int[] indices = {0, 1, 2, 2, 1, 3};
+
+        int count = MeshOptimizer.weld(vertices, 4, indices);
+
+        assertThat(count).isEqualTo(3);
+        assertThat(indices).containsExactly(0, 1, 0, 0, 1, 2);
+        assertThat(vertices[2 * MeshData.VERTEX_FLOATS + MeshData.UV_OFFSET]).isEqualTo(0.5f);
+    }
+
+    @Test
+    void picksSmallestIndexSizeTest() {
+        assertThat(MeshOptimizer.optimize(shuffledGrid(15, 1)).mesh().indexSize()).isEqualTo(1);
+        assertThat(MeshOptimizer.optimize(shuffledGrid(16, 1)).mesh().indexSize()).isEqualTo(2);
+        assertThat(MeshOptimizer.optimize(shuffledGrid(255, 1)).mesh().indexSize()).isEqualTo(2);
+        assertThat(MeshOptimizer.optimize(shuffledGrid(256, 1)).mesh().indexSize()).isEqualTo(4);
+    }
+
+    @Test
+    void cacheOrderBeatsShuffledOrderTest() {
+        MeshOptimizer.Result result = MeshOptimizer.optimize(shuffledGrid(100, 7));
+
+        assertThat(result.acmrBefore()).isGreaterThan(2.5);
+        assertThat(result.acmrAfter()).isLessThan(0.8);
+    }
+
+    @Test
+    void compactIndicesRoundTripThroughMeshFormatTest() {
+        MeshData mesh = MeshOptimizer.optimize(shuffledGrid(20, 3)).mesh();
+
+        MeshData read = MeshFormat.read(MeshFormat.encode(mesh));
+
+        assertThat(read.indexSize()).isEqualTo(2);
+        assertThat(read.getIndices()).containsExactly(mesh.getIndices());
+        assertThat(read.getVertices()).containsExactly(mesh.getVertices());
+    }
+
+    @Test
+    void acmrOfSingleTriangleTest() {
+        assertThat(MeshOptimizer.acmr(new int[]{0, 1, 2, 0, 1, 2}, 3, 16)).isEqualTo(1.5);
+        assertThat(MeshOptimizer.acmr(new int[]{0, 1, 2, 0, 1, 2}, 3, 2)).isEqualTo(3);
+    }
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    /**
+     * Grid of quads with shuffled triangles, where every triangle has its own unwelded vertices.
+     */
+    private static MeshData shuffledGrid(int size, long seed) {
+        List<int[]> quads = new ArrayList<>();
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                quads.add(new int[]{x, y, x + 1, y, x + 1, y + 1});
+                quads.add(new int[]{x, y, x + 1, y + 1, x, y + 1});
+            }
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = quads.size() - 1; i > 0; i--) quads.set(i, quads.set(random.nextInt(i + 1), quads.get(i)));
+
+        float[] vertices = new float[quads.size() * 3 * MeshData.VERTEX_FLOATS];
+        int[] indices = new int[quads.size() * 3];
+        for (int t = 0; t < quads.size(); t++) {
+            for (int k = 0; k < 3; k++) {
+                int v = t * 3 + k;
+                vertices[v * MeshData.VERTEX_FLOATS] = quads.get(t)[k * 2];
+                vertices[v * MeshData.VERTEX_FLOATS + 1] = quads.get(t)[k * 2 + 1];
+                vertices[v * MeshData.VERTEX_FLOATS + MeshData.NORMAL_OFFSET + 2] = 1;
+                indices[v] = v;
+            }
+        }
+        return MeshData.of(vertices, indices.length, indices, indices.length);
+    }
+
+    /**
+     * @return every triangle as its vertex attributes, rotated to start at its smallest vertex.
+     */
+    private static List<List<Float>> triangles(MeshData mesh) {
+        List<List<Float>> triangles = new ArrayList<>();
+        for (int t = 0; t < mesh.getTriangleCount(); t++) {
+            float[][] corners = new float[3][];
+            for (int k = 0; k < 3; k++) {
+                int v = mesh.getIndex(t * 3 + k);
+                corners[k] = new float[MeshData.VERTEX_FLOATS];
+                for (int c = 0; c < MeshData.VERTEX_FLOATS; c++) corners[k][c] = mesh.get(v, c);
+            }
+            int first = 0;
+            for (int k = 1; k < 3; k++) if (Arrays.compare(corners[k], corners[first]) < 0) first = k;
+            List<Float> triangle = new ArrayList<>();
+            for (int k = 0; k < 3; k++) for (float value : corners[(first + k) % 3]) triangle.add(value);
+            triangles.add(triangle);
+        }
+        return triangles;
+    }
+}
@@ -0,0 +1,190 @@
+package framework.graphics.mesh;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.FloatRange;
+import net.jqwik.api.constraints.IntRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ObjLoaderTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property(tries = 200)
+    void floatsMatchJdkParsing(@ForAll @FloatRange(min = -1e6f, max = 1e6f) float x,
+                               @ForAll @IntRange(min = -20, max = 20) int exponent) {
+        String text = x + "e" + exponent;
+        MeshData mesh = parse("v " + text + " 0 0\nf 1 1 1\n");
+
+        float expected = Float.parseFloat(text);
+        assertThat(mesh.get(0, MeshData.POSITION_OFFSET)).isCloseTo(expected, within(Math.abs(expected) * 1e-6f));
+    }
+
+    @Property(tries = 50)
+    void gridDeduplicatesSharedVertices(@ForAll @IntRange(min = 1, max = 20) int size) {
+        StringBuilder obj = new StringBuilder();
+        for (int y = 0; y <= size; y++)
+            for (int x = 0; x <= size; x++) obj.append("v ").append(x).append(' ').append(y).append(" 0\n");
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                int i = y * (size + 1) + x + 1;
+                obj.append("f ").append(i).append(' ').append(i + 1).append(' ')
+                        .append(i + size + 2).append(' ').append(i + size + 1).append('\n');
+            }
+        }
+        MeshData mesh = parse(obj.toString());
+
+        assertThat(mesh.vertexCount()).isEqualTo((size + 1) * (size + 1));
+        assertThat(mesh.getTriangleCount()).isEqualTo(size * size * 2);
+    }
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void parsesInterleavedAttributesTest() {
+        MeshData mesh = parse("""
+                # a comment
+                o triangle
+                v 1.5 -2 3e1
+                v 0 1 0
+                v 0 0 1
+                vt 0.25 0.75
+                vn 0 0 -1
+                usemtl none
+                f 1/1/1 2/1/1 3/1/1
+                """);
+
+        assertThat(mesh.vertexCount()).isEqualTo(3);
+        assertThat(mesh.indexCount()).isEqualTo(3);
+        assertThat(new float[]{mesh.get(0, 0), mesh.get(0, 1), mesh.get(0, 2)}).containsExactly(1.5f, -2f, 30f);
+        assertThat(mesh.get(1, MeshData.UV_OFFSET)).isEqualTo(0.25f);
+        assertThat(mesh.get(1, MeshData.UV_OFFSET + 1)).isEqualTo(0.75f);
+        assertThat(mesh.get(2, MeshData.NORMAL_OFFSET + 2)).isEqualTo(-1f);
+    }
+
+    @Test
+    void missingAttributesAreZeroTest() {
+        MeshData mesh = parse("v 1 2 3\nv 4 5 6\nv 7 8 9\nvn 0 1 0\nf 1//1 2//1 3//1\n");
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(mesh.get(i, MeshData.UV_OFFSET)).isZero();
+            assertThat(mesh.get(i, MeshData.NORMAL_OFFSET + 1)).isEqualTo(1f);
+        }
+    }
+
+    @Test
+    void splitsVerticesWithDifferentAttributesTest() {
+        MeshData mesh = parse("v 0 0 0\nv 1 0 0\nv 0 1 0\nvt 0 0\nvt 1 1\nf 1/1 2/1 3/1\nf 1/2 3/1 2/1\n");
+
+        assertThat(mesh.vertexCount()).isEqualTo(4);
+        assertThat(new int[]{mesh.getIndex(3), mesh.getIndex(4), mesh.getIndex(5)}).containsExactly(3, 2, 1);
+    }
+
+    @Test
+    void resolvesNegativeIndicesTest() {
+        MeshData mesh = parse("v 0 0 0\nv 1 0 0\nv 0 1 0\nf -3 -2 -1\nv 5 5 5\nf -4 -1 -2\n");
+
+        assertThat(mesh.vertexCount()).isEqualTo(4);
+        assertThat(mesh.get(3, 0)).isEqualTo(5f);
+        assertThat(new int[]{mesh.getIndex(3), mesh.getIndex(4), mesh.getIndex(5)}).containsExactly(0, 3, 2);
+    }
+
+    @Test
+    void triangulatesPolygonsAsFansTest() {
+        MeshData mesh = parse("v 0 0 0\nv 1 0 0\nv 1 1 0\nv 0 1 0\nv -1 1 0\r\nf 1 2 3 4 5 # pentagon\r\n");
+
+        assertThat(mesh.getTriangleCount()).isEqualTo(3);
+        int[] indices = new int[mesh.indexCount()];
+        for (int i = 0; i < indices.length; i++) indices[i] = mesh.getIndex(i);
+        assertThat(indices).containsExactly(0, 1, 2, 0, 2, 3, 0, 3, 4);
+    }
+
+    @Test
+    void rejectsInvalidInputTest() {
+        assertThatThrownBy(() -> parse("v 0 0 0\nf 1 2 3\n"))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("line 2");
+        assertThatThrownBy(() -> parse("v 0 0 0\nf 1 1\n")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parse("v 0 x 0\n")).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> parse("v 0 0 0\nf 0 1 1\n")).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void meshFormatRoundTripsTest(@TempDir Path directory) throws Exception {
+        Path obj = directory.resolve("quad.obj");
+        Files.writeString(obj, "v 0 0 0\nv 1 0 0\nv 1 1 0\nv 0 1 0\nvt 0 0\nvt 1 0\nvt 1 1\nvt 0 1\nf 1/1 2/2 3/3 4/4\n");
+        MeshData mesh = ObjLoader.load(obj);
+        Path file = directory.resolve("quad.mesh");
+        MeshFormat.write(mesh, file);
+
+        MeshData read = MeshFormat.read(file);
+        MeshData decoded = MeshFormat.read(MeshFormat.encode(mesh));
+
+        assertThat(Files.size(file)).isEqualTo(MeshFormat.size(mesh));
+        for (MeshData copy : new MeshData[]{read, decoded}) {
+            assertThat(copy.vertexCount()).isEqualTo(4);
+            assertThat(copy.indexCount()).isEqualTo(6);
+            assertThat(copy.vertices().slice(0, 4 * MeshData.VERTEX_BYTES))
+                    .isEqualTo(mesh.vertices().slice(0, 4 * MeshData.VERTEX_BYTES));
+            assertThat(copy.indices().slice(0, 6 * Integer.BYTES)).isEqualTo(mesh.indices().slice(0, 6 * Integer.BYTES));
+        }
+    }
+
+    @Test
+    void meshFormatRejectsCorruptDataTest() {
+        MeshData mesh = parse("v 0 0 0\nv 1 0 0\nv 0 1 0\nf 1 2 3\n");
+        var encoded = MeshFormat.encode(mesh);
+
+        assertThatThrownBy(() -> MeshFormat.read(encoded.slice(0, encoded.limit() - 1)))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("Truncated");
+        encoded.putInt(0, 0);
+        assertThatThrownBy(() -> MeshFormat.read(encoded)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void meshFormatRejectsIndexOutsideVerticesTest(@TempDir Path directory) throws Exception {
+        MeshData mesh = MeshData.of(new float[3 * MeshData.VERTEX_FLOATS], 3, new int[]{0, 1, 2}, 3, 2);
+        ByteBuffer encoded = MeshFormat.encode(mesh).order(ByteOrder.LITTLE_ENDIAN);
+        int lastIndex = encoded.limit() - 2;
+        assertThat(MeshFormat.read(encoded).getIndex(2)).isEqualTo(2);
+
+        encoded.putShort(lastIndex, (short) 3);
+        assertThatThrownBy(() -> MeshFormat.read(encoded)).isInstanceOf(IllegalArgumentException.class);
+        encoded.putShort(lastIndex, (short) 0xFFFF);
+        assertThatThrownBy(() -> MeshFormat.read(encoded)).isInstanceOf(IllegalArgumentException.class);
+
+        Path file = directory.resolve("corrupt.mesh");
+        Files.write(file, Arrays.copyOf(encoded.array(), encoded.limit()));
+        assertThatThrownBy(() -> MeshFormat.read(file)).isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void meshWithoutIndicesRoundTripsTest(@TempDir Path directory) throws Exception {
+        MeshData mesh = MeshData.of(new float[]{1, 2, 3, 0, 1, 0, 0, 1}, 1, new int[0], 0, 1);
+        Path file = directory.resolve("point.mesh");
+        MeshFormat.write(mesh, file);
+
+        MeshData read = MeshFormat.read(file);
+
+        assertThat(Files.size(file)).isEqualTo(MeshFormat.size(mesh));
+        assertThat(read.vertexCount()).isEqualTo(1);
+        assertThat(read.indexCount()).isZero();
+        assertThat(read.get(0, 2)).isEqualTo(3);
+    }
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    private static MeshData parse(String obj) {
+        return ObjLoader.parse(MemorySegment.ofArray(obj.getBytes(StandardCharsets.UTF_8)));
+    }
+}
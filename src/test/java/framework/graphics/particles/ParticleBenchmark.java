@@ -0,0 +1,56 @@
+package framework.graphics.particles;
+
+import java.util.SplittableRandom;
+
+/**
+ * Manual benchmark of the {@link ParticleSystem} update at 100k particles, comparing the vectorized kernel
+ * against the scalar one. Needs {@code --add-modules jdk.incubator.vector} for the vectorized kernel.
+ * Run the main method with a warmed-up JVM; it is not part of the test suite.
+ */
+public final class ParticleBenchmark {
+
+    private static final int PARTICLES = 100_000;
+    private static final int FRAMES = 1_000;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        ParticleSystem scalar = filled(false);
+        ParticleSystem vector = ParticleKernel.isVectorSupported() ? filled(true) : null;
+        if (vector == null) System.out.println("jdk.incubator.vector is not available, only running the scalar kernel");
+
+        for (int round = 0; round < ROUNDS; round++) {
+            double scalarNanos = run(scalar);
+            if (vector == null) {
+                System.out.printf("round %d: scalar %.2f ns/particle%n", round, scalarNanos);
+                continue;
+            }
+            double vectorNanos = run(vector);
+            System.out.printf("round %d: scalar %.2f ns/particle, vector %.2f ns/particle (%.1fx)%n",
+                    round, scalarNanos, vectorNanos, scalarNanos / vectorNanos);
+        }
+    }
+
+    /**
+     * Runs the kernel over the same particles every frame, so compaction never removes any.
+     */
+    private static double run(ParticleSystem particles) {
+        long start = System.nanoTime();
+        for (int frame = 0; frame < FRAMES; frame++) {
+            particles.update(1e-6f);
+            if (particles.getCount() != PARTICLES) throw new IllegalStateException("Particles died during benchmark");
+        }
+        return (System.nanoTime() - start) / (double) FRAMES / PARTICLES;
+    }
+
+    private static ParticleSystem filled(boolean vectorized) {
+        ParticleSystem particles = new ParticleSystem.Builder(PARTICLES)
+                .setGravity(0, 200).setDrag(0.3f).setVectorized(vectorized).build();
+        SplittableRandom random = new SplittableRandom(42);
+        for (int i = 0; i < PARTICLES; i++) {
+            particles.emit((float) random.nextDouble(1920), (float) random.nextDouble(1080),
+                    (float) random.nextDouble(-300, 300), (float) random.nextDouble(-300, 300),
+                    1e3f, (float) random.nextDouble(2, 16), random.nextInt(), random.nextInt());
+        }
+        return particles;
+    }
+}
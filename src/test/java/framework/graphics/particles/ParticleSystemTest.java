@@ -0,0 +1,159 @@
+package framework.graphics.particles;
+
+import framework.profiling.AllocationBudget;
+import framework.profiling.AllocationProbe;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.BufferUtils;
+
+import java.nio.FloatBuffer;
+import java.util.SplittableRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ParticleSystemTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property(tries = 100)
+    void vectorizedMatchesScalar(@ForAll @IntRange(min = 0, max = 500) int count, @ForAll long seed) {
+        assumeTrue(ParticleKernel.isVectorSupported());
+        ParticleSystem scalar = system(count, false, seed);
+        ParticleSystem vector = system(count, true, seed);
+
+        for (int frame = 0; frame < 60; frame++) {
+            scalar.update(1 / 60f);
+            vector.update(1 / 60f);
+        }
+
+        assertThat(vector.getCount()).isEqualTo(scalar.getCount());
+        assertThat(instances(vector)).isEqualTo(instances(scalar));
+    }
+
+    @Property(tries = 100)
+    void updateKeepsExactlyLiveParticles(@ForAll @IntRange(min = 0, max = 500) int count, @ForAll long seed) {
+        ParticleSystem particles = system(count, false, seed);
+        float[] lifetimes = new float[count];
+        for (int i = 0; i < count; i++) lifetimes[i] = 1 / particles.inverseLifetime[i];
+
+        float time = 0;
+        for (int frame = 0; frame < 30; frame++) {
+            particles.update(0.05f);
+            time += 0.05f;
+            int alive = 0;
+            for (float lifetime : lifetimes) if (lifetime > time + 1e-3f) alive++;
+            assertThat(particles.getCount()).isBetween(alive, countAlive(lifetimes, time - 1e-3f));
+            for (int i = 0; i < particles.getCount(); i++)
+                assertThat(particles.age[i] * particles.inverseLifetime[i]).isLessThan(1);
+        }
+    }
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void integratesGravityAndFadesColorTest() {
+        ParticleSystem particles = new ParticleSystem.Builder(4).setGravity(0, 10).setVectorized(false).build();
+        particles.emit(0, 0, 2, 0, 2, 4, 0xFF0000FF, 0x0000FF00);
+
+        particles.update(1);
+
+        assertThat(particles.getX(0)).isEqualTo(2);
+        assertThat(particles.getY(0)).isEqualTo(10);
+        assertThat(particles.getColor(0)).isEqualTo(0x80008080);
+    }
+
+    @Test
+    void dragSlowsParticlesTest() {
+        ParticleSystem particles = new ParticleSystem.Builder(1).setDrag(0.5f).build();
+        particles.emit(0, 0, 10, 0, 5, 1, -1, -1);
+
+        particles.update(1);
+        particles.update(1);
+
+        assertThat(particles.getX(0)).isCloseTo(7.5f, Offset.offset(1e-4f));
+    }
+
+    @Test
+    void compactionMovesLastParticleIntoDeadSlotTest() {
+        ParticleSystem particles = new ParticleSystem.Builder(3).build();
+        particles.emit(0, 0, 0, 0, 0.5f, 1, -1, -1);
+        particles.emit(1, 0, 0, 0, 2, 1, -1, -1);
+        particles.emit(2, 0, 0, 0, 2, 1, -1, -1);
+
+        particles.update(1);
+
+        assertThat(particles.getCount()).isEqualTo(2);
+        assertThat(particles.getX(0)).isEqualTo(2);
+        assertThat(particles.getX(1)).isEqualTo(1);
+    }
+
+    @Test
+    void emitFailsWhenFullTest() {
+        ParticleSystem particles = new ParticleSystem.Builder(1).build();
+
+        assertThat(particles.emit(0, 0, 0, 0, 1, 1, -1, -1)).isTrue();
+        assertThat(particles.emit(0, 0, 0, 0, 1, 1, -1, -1)).isFalse();
+        assertThatThrownBy(() -> particles.emit(0, 0, 0, 0, 0, 1, -1, -1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ParticleSystem.Builder(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void writesInstancesOfLiveParticlesTest() {
+        ParticleSystem particles = new ParticleSystem.Builder(8).build();
+        particles.emit(3, 4, 0, 0, 1, 6, 0xFFFFFFFF, 0xFFFFFFFF);
+        FloatBuffer buffer = BufferUtils.createFloatBuffer(8 * ParticleSystem.INSTANCE_FLOATS);
+
+        assertThat(particles.writeInstances(buffer)).isEqualTo(1);
+
+        assertThat(buffer.position()).isEqualTo(ParticleSystem.INSTANCE_FLOATS);
+        assertThat(buffer.get(0)).isEqualTo(3);
+        assertThat(buffer.get(1)).isEqualTo(4);
+        assertThat(buffer.get(2)).isEqualTo(6);
+        assertThat(buffer.get(6)).isEqualTo(1);
+    }
+
+    @Test
+    @AllocationBudget(warmup = 2_000, operations = 1_000)
+    void updateDoesNotAllocateTest(AllocationProbe probe) {
+        ParticleSystem particles = new ParticleSystem.Builder(4096).setGravity(0, 100).build();
+        SplittableRandom random = new SplittableRandom(7);
+
+        probe.measure(() -> {
+            for (int i = 0; i < 64; i++) emitRandom(particles, random);
+            particles.update(1 / 60f);
+        });
+        assertThat(particles.getCount()).isPositive();
+    }
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    private static ParticleSystem system(int count, boolean vectorized, long seed) {
+        ParticleSystem particles = new ParticleSystem.Builder(Math.max(1, count))
+                .setGravity(0, 200).setDrag(0.3f).setVectorized(vectorized).build();
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < count; i++) emitRandom(particles, random);
+        return particles;
+    }
+
+    private static void emitRandom(ParticleSystem particles, SplittableRandom random) {
+        particles.emit((float) random.nextDouble(1920), (float) random.nextDouble(1080),
+                (float) random.nextDouble(-300, 300), (float) random.nextDouble(-300, 300),
+                (float) random.nextDouble(0.05, 1.5), (float) random.nextDouble(2, 16), random.nextInt(), random.nextInt());
+    }
+
+    private static float[] instances(ParticleSystem particles) {
+        FloatBuffer buffer = BufferUtils.createFloatBuffer(particles.getCapacity() * ParticleSystem.INSTANCE_FLOATS);
+        particles.writeInstances(buffer);
+        float[] result = new float[buffer.flip().remaining()];
+        buffer.get(result);
+        return result;
+    }
+
+    private static int countAlive(float[] lifetimes, float time) {
+        int alive = 0;
+        for (float lifetime : lifetimes) if (lifetime > time) alive++;
+        return alive;
+    }
+}
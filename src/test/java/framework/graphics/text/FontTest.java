@@ -0,0 +1,148 @@
+package framework.graphics.text;
+
+import framework.graphics.HeadlessContext;
+import framework.profiling.AllocationBudget;
+import framework.profiling.AllocationProbe;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.lwjgl.BufferUtils;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Fonts need an OpenGL context for their atlas and a TrueType file of the system, the tests are skipped
+ * without either.
+ */
+class FontTest {
+
+    private static final List<String> SYSTEM_FONTS = List.of(
+            "/usr/share/fonts/truetype/dejavu/DejaVuSans.ttf",
+            "/usr/share/fonts/TTF/DejaVuSans.ttf",
+            "/System/Library/Fonts/Supplemental/Arial.ttf",
+            "C:/Windows/Fonts/arial.ttf");
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void glyphRunsAreCachedTest() {
+        ByteBuffer ttf = systemFont();
+        try (HeadlessContext _ = HeadlessContext.create(64, 64)) {
+            Font font = new Font(ttf, 24);
+            GlyphRun run = font.run("hp 100");
+
+            assertThat(font.run("hp 100")).isSameAs(run);
+            assertThat(run.getGlyphCount()).isEqualTo(5);
+            assertThat(run.getWidth()).isEqualTo(font.measure("hp 100"));
+
+            font.clearRuns();
+            assertThat(font.run("hp 100")).isNotSameAs(run);
+            font.destroy();
+        }
+    }
+
+    @Test
+    void runIsReshapedAfterAtlasResetTest() {
+        ByteBuffer ttf = systemFont();
+        try (HeadlessContext _ = HeadlessContext.create(64, 64)) {
+            Font font = new Font(ttf, 96);
+            GlyphRun run = font.run("Hello");
+            float[] shaped = Arrays.copyOf(run.quads(), run.getGlyphCount() * GlyphRun.QUAD_STRIDE);
+            int generation = font.getGeneration();
+
+            // Bakes other glyphs until the atlas is full and cleared, then "Hello" is baked at other positions.
+            for (int codepoint = 'a'; font.getGeneration() == generation; codepoint++) font.glyph(codepoint);
+            run.validate();
+
+            float[] reshaped = Arrays.copyOf(run.quads(), run.getGlyphCount() * GlyphRun.QUAD_STRIDE);
+            assertThat(reshaped).isNotEqualTo(shaped);
+            for (int q = 0; q < reshaped.length; q += GlyphRun.QUAD_STRIDE)
+                assertThat(Arrays.copyOfRange(reshaped, q, q + 4)).isEqualTo(Arrays.copyOfRange(shaped, q, q + 4));
+            assertThat(run.getWidth()).isEqualTo(font.measure("Hello"));
+            font.destroy();
+        }
+    }
+
+    @Test
+    void textExceedingAtlasThrowsTest() {
+        ByteBuffer ttf = systemFont();
+        try (HeadlessContext _ = HeadlessContext.create(64, 64)) {
+            Font font = new Font(ttf, 400);
+
+            assertThatThrownBy(() -> font.run("ABCDEFGHIJKLMNOPQRSTUVWXYZ")).isInstanceOf(IllegalStateException.class);
+            font.destroy();
+        }
+    }
+
+    @Test
+    void glyphLargerThanAtlasThrowsTest() {
+        ByteBuffer ttf = systemFont();
+        try (HeadlessContext _ = HeadlessContext.create(64, 64)) {
+            Font font = new Font(ttf, 2 * Font.ATLAS_SIZE);
+
+            assertThatThrownBy(() -> font.glyph('M')).isInstanceOf(IllegalStateException.class);
+            assertThat(font.measure(" ")).isPositive();
+            font.destroy();
+        }
+    }
+
+    @Test
+    void runCacheIsBoundedTest() {
+        ByteBuffer ttf = systemFont();
+        try (HeadlessContext _ = HeadlessContext.create(64, 64)) {
+            Font font = new Font(ttf, 12);
+            GlyphRun first = font.run("0");
+            GlyphRun used = font.run("1");
+
+            for (int i = 2; i <= Font.MAX_RUNS; i++) {
+                font.run(Integer.toString(i));
+                // Keeps "1" recently used, so "0" is the least recently used run.
+                font.run("1");
+            }
+
+            assertThat(font.run("1")).isSameAs(used);
+            assertThat(font.run("0")).isNotSameAs(first);
+            font.destroy();
+        }
+    }
+
+    @Test
+    @AllocationBudget(warmup = 2_000, operations = 1_000)
+    void drawingCachedRunDoesNotAllocateTest(AllocationProbe probe) {
+        ByteBuffer ttf = systemFont();
+        try (HeadlessContext _ = HeadlessContext.create(64, 64)) {
+            Font font = new Font(ttf, 24);
+            font.vertices = BufferUtils.createByteBuffer(1 << 16);
+            TextRenderer renderer = new TextRenderer();
+            GlyphRun run = font.run("Score: 1200");
+
+            probe.measure(() -> {
+                renderer.draw(font.run("Score: 1200"), 10, 10, 0xFFFFFFFF);
+                // Drops the batch instead of drawing it, which needs the text shader.
+                font.vertices.clear();
+                font.quadCount = 0;
+            });
+            assertThat(font.run("Score: 1200")).isSameAs(run);
+            font.destroy();
+        }
+    }
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    private static ByteBuffer systemFont() {
+        for (String path : SYSTEM_FONTS) {
+            try {
+                byte[] bytes = Files.readAllBytes(Path.of(path));
+                return BufferUtils.createByteBuffer(bytes.length).put(bytes).flip();
+            } catch (IOException ignored) {
+                // Not installed, try the next one.
+            }
+        }
+        return Assumptions.abort("No TrueType font installed");
+    }
+}
@@ -0,0 +1,112 @@
+package framework.injection;
+
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Manual benchmark of the startup cost an {@link InjectionPlan} saves. Compiles a graph of singletons, each
+ * with an Inject constructor, field and PostConstruct method among plain members, and creates it in fresh
+ * JVMs with and without a recorded plan, as an application does once at startup. The planned time includes
+ * reading the plan and checking its build.
+ * Run the main method; it is not part of the test suite.
+ */
+public final class InjectionPlanBenchmark {
+
+    private static final int CLASSES = 40;
+    private static final int METHODS = 30;
+    private static final int FIELDS = 10;
+    private static final int ROUNDS = 15;
+
+    public static void main(String[] args) throws Exception {
+        if (args.length > 0) {
+            run(args);
+            return;
+        }
+        Path directory = Files.createTempDirectory("injection");
+        try {
+            compileGraph(directory);
+            String classpath = directory + java.io.File.pathSeparator + System.getProperty("java.class.path");
+            // The graph directory doubles as the classpath root of the plan and build resources.
+            Files.writeString(directory.resolve(InjectionPlan.BUILD_RESOURCE.substring(1)), "benchmark\n");
+            Path plan = directory.resolve(InjectionPlan.RESOURCE.substring(1));
+            child(classpath, "train", plan.toString());
+
+            long[] scanned = new long[ROUNDS], planned = new long[ROUNDS];
+            for (int round = 0; round < ROUNDS; round++) {
+                scanned[round] = child(classpath, "scan");
+                planned[round] = child(classpath, "plan");
+            }
+            Arrays.sort(scanned);
+            Arrays.sort(planned);
+            System.out.printf("%d classes with %d methods and %d fields, median of %d fresh JVMs:%n",
+                    CLASSES, METHODS, FIELDS, ROUNDS);
+            System.out.printf("scanned %.2f ms, planned %.2f ms (min %.2f / %.2f ms)%n", scanned[ROUNDS / 2] / 1e6,
+                    planned[ROUNDS / 2] / 1e6, scanned[0] / 1e6, planned[0] / 1e6);
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Creates the graph once in this JVM and prints the nanoseconds it took.
+     */
+    private static void run(String[] args) throws Exception {
+        // Loads the graph, the Injector and the resource lookup up front, an application pays for loading them
+        // with and without a plan, e.g. for the asset archive on the classpath.
+        for (int i = 0; i < CLASSES; i++) Class.forName("bench.C" + i, false, InjectionPlanBenchmark.class.getClassLoader());
+        new Injector().create(Object.class);
+        InjectionPlanBenchmark.class.getResourceAsStream("InjectionPlanBenchmark.class").close();
+        long start = System.nanoTime();
+        Injector injector = new Injector();
+        if (args[0].equals("plan")) {
+            InjectionPlan plan = InjectionPlan.loadResource();
+            if (plan == null) throw new IllegalStateException("Plan of the benchmark build not found");
+            injector.usePlan(plan);
+        }
+        injector.create(Class.forName("bench.C" + (CLASSES - 1)));
+        long time = System.nanoTime() - start;
+        if (args[0].equals("train")) injector.getPlan().write(Path.of(args[1]));
+        System.out.println(time);
+    }
+
+    private static long child(String classpath, String... args) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>(List.of(Path.of(System.getProperty("java.home"), "bin", "java").toString(),
+                "-cp", classpath, InjectionPlanBenchmark.class.getName()));
+        command.addAll(List.of(args));
+        Process process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.INHERIT).start();
+        String output = new String(process.getInputStream().readAllBytes()).strip();
+        if (process.waitFor() != 0) throw new IllegalStateException("Benchmark run failed: " + output);
+        return Long.parseLong(output);
+    }
+
+    private static void compileGraph(Path directory) throws IOException {
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < CLASSES; i++) {
+            StringBuilder source = new StringBuilder("package bench;\n")
+                    .append("import framework.injection.annotations.*;\n")
+                    .append("@Singleton public class C").append(i).append(" {\n");
+            if (i > 1) source.append("    @Inject C").append(i - 2).append(" field;\n");
+            for (int f = 0; f < FIELDS; f++) source.append("    private int f").append(f).append(";\n");
+            if (i > 0) source.append("    @Inject C").append(i).append("(C").append(i - 1).append(" previous) {}\n");
+            source.append("    @PostConstruct void init() { f0 = ").append(i).append("; }\n");
+            for (int m = 0; m < METHODS; m++)
+                source.append("    public int m").append(m).append("(int x) { return x * ").append(m).append(" + f").append(m % FIELDS).append("; }\n");
+            Path file = directory.resolve("C" + i + ".java");
+            Files.writeString(file, source.append("}\n"));
+            files.add(file.toString());
+        }
+        List<String> arguments = new ArrayList<>(List.of("-d", directory.toString(), "-cp", System.getProperty("java.class.path")));
+        arguments.addAll(files);
+        if (ToolProvider.getSystemJavaCompiler().run(null, null, null, arguments.toArray(String[]::new)) != 0)
+            throw new IllegalStateException("Compiling the benchmark graph failed");
+    }
+}
@@ -0,0 +1,142 @@
+package framework.injection;
+
+import framework.injection.annotations.Inject;
+import framework.injection.annotations.PostConstruct;
+import framework.injection.annotations.Singleton;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class InjectionPlanTest {
+
+    @Singleton
+    public static class Settings {}
+
+    @Singleton
+    public static class Service {
+        final Settings settings;
+        boolean started;
+
+        @Inject
+        Service(Settings settings) {
+            this.settings = settings;
+        }
+
+        @PostConstruct
+        private void start() {
+            started = true;
+        }
+    }
+
+    public static class Client {
+        @Inject
+        private Service service;
+    }
+
+    public static class Counter {
+        static int created;
+
+        @PostConstruct
+        private static void count() {
+            created++;
+        }
+    }
+
+    @Test
+    void recordedPlanRoundTripsTest(@TempDir Path directory) throws Exception {
+        Injector training = new Injector();
+        training.create(Client.class);
+        Path file = directory.resolve("injection.plan");
+        training.getPlan().write(file);
+
+        InjectionPlan plan;
+        try (InputStream in = Files.newInputStream(file)) {
+            plan = InjectionPlan.read(in);
+        }
+
+        assertThat(plan.getBuildId()).isEqualTo(InjectionPlan.currentBuildId());
+        assertThat(plan.getEntries()).extracting(InjectionPlan.Entry::className).containsExactly(
+                Client.class.getName(), Service.class.getName(), Settings.class.getName());
+        assertThat(plan.get(Client.class.getName()).constructorParameters()).isNull();
+        assertThat(plan.get(Client.class.getName()).fields()).containsExactly("service");
+        assertThat(plan.get(Client.class.getName()).fieldTypes()).containsExactly(Service.class.getName());
+        assertThat(plan.get(Service.class.getName()).constructorParameters()).containsExactly(Settings.class.getName());
+        assertThat(plan.get(Service.class.getName()).postConstructs()).containsExactly("start");
+    }
+
+    @Test
+    void plannedInjectorCreatesSameGraphTest() {
+        Injector training = new Injector();
+        training.create(Client.class);
+
+        Injector injector = new Injector();
+        injector.usePlan(training.getPlan());
+        Client client = injector.create(Client.class);
+
+        assertThat(injector.hasPlan()).isTrue();
+        assertThat(client.service.started).isTrue();
+        assertThat(client.service.settings).isSameAs(injector.get(Settings.class));
+        assertThat(injector.getPlan().getEntries()).isEqualTo(training.getPlan().getEntries());
+    }
+
+    @Test
+    void staleEntriesFallBackToReflectionTest() {
+        InjectionPlan stale = new InjectionPlan(null, List.of(
+                new InjectionPlan.Entry(Service.class.getName(), List.of(), List.of("removed"), List.of(Settings.class.getName()), List.of()),
+                new InjectionPlan.Entry("framework.injection.Missing", null, List.of(), List.of(), List.of())));
+        Injector injector = new Injector();
+        injector.usePlan(stale);
+
+        Service service = injector.create(Service.class);
+
+        assertThat(service.started).isTrue();
+        assertThat(service.settings).isNotNull();
+    }
+
+    @Test
+    void planOfOtherBuildIsNotUsedTest(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("injection.plan");
+        new InjectionPlan("20260101120000000", List.of(new InjectionPlan.Entry(Service.class.getName(),
+                List.of(Settings.class.getName()), List.of(), List.of(), List.of("start")))).write(file);
+
+        InjectionPlan plan;
+        try (InputStream in = Files.newInputStream(file)) {
+            plan = InjectionPlan.read(in);
+        }
+
+        assertThat(plan.getBuildId()).isEqualTo("20260101120000000");
+        assertThat(plan.isRecordedBy("20260101120000000")).isTrue();
+        assertThat(plan.isRecordedBy("20260101120000001")).isFalse();
+        assertThat(plan.isRecordedBy(null)).isFalse();
+        assertThat(new InjectionPlan(null, List.of()).isRecordedBy(null)).isFalse();
+    }
+
+    @Test
+    void plannedStaticMemberFallsBackToReflectionTest() {
+        Counter.created = 0;
+        Injector training = new Injector();
+        training.create(Counter.class);
+        assertThat(training.getPlan().get(Counter.class.getName()).postConstructs()).containsExactly("count");
+
+        Injector injector = new Injector();
+        injector.usePlan(training.getPlan());
+        injector.create(Counter.class);
+
+        assertThat(Counter.created).isEqualTo(2);
+    }
+
+    @Test
+    void invalidPlanThrowsTest() {
+        assertThatThrownBy(() -> InjectionPlan.read(InputStream.nullInputStream()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new InjectionPlan.Entry(Client.class.getName(), null, List.of("service"), List.of(), List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
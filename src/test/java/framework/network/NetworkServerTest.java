@@ -0,0 +1,198 @@
+package framework.network;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class NetworkServerTest {
+
+    private final Recorder serverEvents = new Recorder();
+    private final Recorder clientEvents = new Recorder();
+    private NetworkServer server;
+    private NetworkServer client;
+
+    @AfterEach
+    void close() throws IOException {
+        if (client != null) client.close();
+        if (server != null) server.close();
+    }
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property(tries = 30)
+    void messagesArriveWholeAndInOrder(@ForAll @Size(min = 1, max = 200) List<@IntRange(min = 0, max = 600) Integer> sizes)
+            throws IOException {
+        Session session = connect(1024);
+        for (int i = 0; i < sizes.size(); i++) {
+            ByteBuffer payload = ByteBuffer.allocate(sizes.get(i));
+            while (payload.hasRemaining()) payload.put((byte) (i + payload.position()));
+            assertThat(client.send(session, payload.flip())).isTrue();
+            // Small buffers force partial frames and several flushes.
+            if (i % 3 == 0) client.flush();
+            pollUntil(() -> true);
+        }
+        client.flush();
+        pollUntil(() -> serverEvents.messages.size() == sizes.size());
+
+        for (int i = 0; i < sizes.size(); i++) {
+            byte[] message = serverEvents.messages.get(i);
+            assertThat(message).hasSize(sizes.get(i));
+            for (int b = 0; b < message.length; b++) assertThat(message[b]).isEqualTo((byte) (i + b));
+        }
+        close();
+    }
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void broadcastSendsSameBytesToEverySessionTest() throws IOException {
+        connect(256);
+        for (int i = 0; i < 9; i++) client.connect(server.getLocalAddress());
+        pollUntil(() -> serverEvents.connected.size() == 10 && clientEvents.connected.size() == 10);
+
+        ByteBuffer payload = ByteBuffer.wrap(new byte[]{1, 2, 3});
+        for (Session session : serverEvents.connected) assertThat(server.send(session, payload)).isTrue();
+        server.flush();
+        pollUntil(() -> clientEvents.messages.size() == 10);
+
+        assertThat(payload.position()).isZero();
+        assertThat(clientEvents.messages).allSatisfy(message -> assertThat(message).containsExactly(1, 2, 3));
+    }
+
+    @Test
+    void disconnectsAreReportedAndBuffersReusedTest() throws IOException {
+        connect(256);
+        for (int round = 0; round < 5; round++) {
+            Session session = client.connect(server.getLocalAddress());
+            pollUntil(session::isConnected);
+            client.close(session);
+            int disconnected = round + 1;
+            pollUntil(() -> serverEvents.disconnected.size() == disconnected);
+        }
+
+        assertThat(clientEvents.disconnected).hasSize(5);
+        // One client and one server session at a time after the first connection.
+        assertThat(server.getPool().getCreated()).isEqualTo(4);
+        assertThat(server.getSessionCount()).isEqualTo(1);
+    }
+
+    @Test
+    void slowSessionIsClosedInsteadOfBufferingTest() throws IOException {
+        Session session = connect(64);
+        Session accepted = serverEvents.connected.getFirst();
+        ByteBuffer payload = ByteBuffer.allocate(60);
+        // The client never polls, so the socket buffers fill up and the output overflows eventually.
+        while (server.send(accepted, payload)) server.flush();
+
+        assertThat(accepted.isOpen()).isFalse();
+        assertThat(server.getSlowSessions()).isEqualTo(1);
+        assertThat(serverEvents.disconnected).containsExactly(accepted);
+        assertThat(session.isOpen()).isTrue();
+    }
+
+    @Test
+    void oversizedFrameClosesSessionTest() throws IOException {
+        connect(64);
+        Session raw = client.connect(server.getLocalAddress());
+        pollUntil(() -> serverEvents.connected.size() == 2);
+        // A header announcing more than fits the receiving buffer.
+        raw.output.putShort((short) 100);
+        client.send(raw, ByteBuffer.allocate(0));
+        client.flush();
+
+        pollUntil(() -> serverEvents.disconnected.size() == 1);
+        assertThat(serverEvents.messages).isEmpty();
+        assertThatThrownBy(() -> client.send(raw, ByteBuffer.allocate(63))).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void bufferPoolReusesReleasedBuffersTest() {
+        BufferPool pool = new BufferPool(32, 1);
+        ByteBuffer first = pool.acquire();
+        ByteBuffer second = pool.acquire();
+        first.putInt(7);
+        pool.release(first);
+
+        assertThat(pool.acquire()).isSameAs(first).satisfies(buffer -> assertThat(buffer.position()).isZero());
+        assertThat(pool.getCreated()).isEqualTo(2);
+        assertThatThrownBy(() -> pool.release(ByteBuffer.allocateDirect(16))).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> pool.release(ByteBuffer.allocate(32))).isInstanceOf(IllegalArgumentException.class);
+        pool.release(second);
+        assertThat(pool.getAvailable()).isEqualTo(1);
+    }
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    /**
+     * Starts a loopback server and connects one client session to it.
+     */
+    private Session connect(int bufferSize) throws IOException {
+        serverEvents.clear();
+        clientEvents.clear();
+        server = new NetworkServer(serverEvents, bufferSize);
+        client = new NetworkServer(clientEvents, bufferSize);
+        server.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+        Session session = client.connect(server.getLocalAddress());
+        pollUntil(() -> session.isConnected() && serverEvents.connected.size() == 1);
+        return session;
+    }
+
+    private void pollUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        try {
+            do {
+                server.poll(0);
+                client.poll(0);
+                server.flush();
+                client.flush();
+                if (condition.getAsBoolean()) return;
+                Thread.onSpinWait();
+            } while (System.nanoTime() < deadline);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        throw new AssertionError("Condition not met in time");
+    }
+
+    private static class Recorder implements NetworkServer.Listener {
+
+        final List<Session> connected = new ArrayList<>();
+        final List<Session> disconnected = new ArrayList<>();
+        final List<byte[]> messages = new ArrayList<>();
+
+        @Override
+        public void onConnect(Session session) {
+            connected.add(session);
+        }
+
+        @Override
+        public void onMessage(Session session, ByteBuffer payload) {
+            byte[] message = new byte[payload.remaining()];
+            payload.get(message);
+            messages.add(message);
+        }
+
+        @Override
+        public void onDisconnect(Session session) {
+            disconnected.add(session);
+        }
+
+        void clear() {
+            connected.clear();
+            disconnected.clear();
+            messages.clear();
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package framework.profiling;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares the heap allocation budget of a test. The test receives an {@link AllocationProbe} parameter
+ * configured with this budget, and fails when an operation measured with it allocates more on average.
+ * <p>
+ * Tests are skipped when the JVM cannot measure per-thread allocations.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(AllocationBudgetExtension.class)
+public @interface AllocationBudget {
+
+    /**
+     * @return the maximum average amount of bytes a single operation may allocate.
+     */
+    long bytesPerOperation() default 0;
+
+    /**
+     * @return the amount of unmeasured operations run first, so the JIT has compiled the hot path.
+     */
+    int warmup() default 20_000;
+
+    /**
+     * @return the amount of measured operations.
+     */
+    int operations() default 10_000;
+}
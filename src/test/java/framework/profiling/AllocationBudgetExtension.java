@@ -0,0 +1,34 @@
+package framework.profiling;
+
+import org.junit.jupiter.api.extension.ConditionEvaluationResult;
+import org.junit.jupiter.api.extension.ExecutionCondition;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.jupiter.api.extension.ParameterContext;
+import org.junit.jupiter.api.extension.ParameterResolver;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * Resolves {@link AllocationProbe} parameters from the {@link AllocationBudget} of the test method or class.
+ */
+public class AllocationBudgetExtension implements ParameterResolver, ExecutionCondition {
+
+    @Override
+    public ConditionEvaluationResult evaluateExecutionCondition(ExtensionContext context) {
+        return AllocationTracker.isSupported()
+                ? ConditionEvaluationResult.enabled("Thread allocations can be measured")
+                : ConditionEvaluationResult.disabled("JVM cannot measure thread allocations");
+    }
+
+    @Override
+    public boolean supportsParameter(ParameterContext parameter, ExtensionContext context) {
+        return parameter.getParameter().getType() == AllocationProbe.class;
+    }
+
+    @Override
+    public Object resolveParameter(ParameterContext parameter, ExtensionContext context) {
+        AllocationBudget budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), AllocationBudget.class)
+                .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), AllocationBudget.class))
+                .orElseThrow(() -> new IllegalStateException("AllocationProbe requires an @AllocationBudget"));
+        return new AllocationProbe(budget.bytesPerOperation(), budget.warmup(), budget.operations());
+    }
+}
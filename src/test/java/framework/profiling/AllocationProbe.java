@@ -0,0 +1,68 @@
+package framework.profiling;
+
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Runs an operation repeatedly and fails when it allocates more than a budget, so zero-allocation hot paths
+ * stay that way.
+ * <p>
+ * JUnit tests get a probe injected through {@link AllocationBudget}. jqwik properties do not run JUnit
+ * extensions and create one with {@link #of(long, int, int)} instead.
+ */
+public final class AllocationProbe {
+
+    public static final int ROUNDS = 5;
+
+    private final long bytesPerOperation;
+    private final int warmup;
+    private final int operations;
+    private long lastBytes;
+
+    AllocationProbe(long bytesPerOperation, int warmup, int operations) {
+        if (bytesPerOperation < 0) throw new IllegalArgumentException("Budget cannot be negative: " + bytesPerOperation);
+        if (warmup < 0) throw new IllegalArgumentException("Warmup cannot be negative: " + warmup);
+        if (operations <= 0) throw new IllegalArgumentException("Operations must be positive: " + operations);
+        this.bytesPerOperation = bytesPerOperation;
+        this.warmup = warmup;
+        this.operations = operations;
+    }
+
+    /**
+     * Creates a probe outside of the {@link AllocationBudgetExtension}.
+     *
+     * @see AllocationBudget
+     */
+    public static AllocationProbe of(long bytesPerOperation, int warmup, int operations) {
+        return new AllocationProbe(bytesPerOperation, warmup, operations);
+    }
+
+    /**
+     * Runs the warmup operations, then measures the bytes allocated by the measured operations in
+     * {@link #ROUNDS} rounds. Only the round allocating least is held against the budget: one-off allocations
+     * of the JVM, e.g. when the JIT deoptimizes a method, hit a single round, while an operation which
+     * allocates itself does so in every round.
+     *
+     * @param operation the operation to run, created once before the call so it is not counted itself.
+     * @throws AssertionFailedError if the operation allocated more than the budget on average.
+     */
+    public void measure(Runnable operation) {
+        for (int i = 0; i < warmup; i++) operation.run();
+        int perRound = Math.max(1, operations / ROUNDS);
+        lastBytes = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = AllocationTracker.allocatedBytes();
+            for (int i = 0; i < perRound; i++) operation.run();
+            lastBytes = Math.min(lastBytes, AllocationTracker.allocatedBytes() - start);
+        }
+        if (lastBytes > bytesPerOperation * perRound)
+            throw new AssertionFailedError(String.format("Allocated %d bytes in %d operations (%.1f per operation), budget is %d per operation",
+                    lastBytes, perRound, (double) lastBytes / perRound, bytesPerOperation));
+    }
+
+    /**
+     * @return the bytes allocated by the measured round allocating least in the last {@link #measure(Runnable)}.
+     */
+    public long getLastBytes() {
+        return lastBytes;
+    }
+}
@@ -0,0 +1,46 @@
+package framework.profiling;
+
+import org.junit.jupiter.api.Test;
+import org.opentest4j.AssertionFailedError;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class AllocationTrackerTest {
+
+    private static Object sink;
+
+    @Test
+    void scopesMeasureNestedAllocationsTest() {
+        AllocationTracker tracker = new AllocationTracker();
+        tracker.beginFrame();
+        tracker.begin("outer");
+        sink = new byte[100_000];
+        tracker.begin("inner");
+        sink = new byte[50_000];
+        tracker.end();
+        tracker.end();
+        tracker.beginFrame();
+
+        assertThat(tracker.getStatistics("inner").getLast()).isBetween(50_000.0, 60_000.0);
+        assertThat(tracker.getStatistics("outer").getLast()).isBetween(150_000.0, 170_000.0);
+        assertThat(tracker.getFrameStatistics().getLast()).isGreaterThanOrEqualTo(150_000.0);
+        assertThat(tracker.getScopeNames()).containsExactly("outer", "inner");
+    }
+
+    @Test
+    void unbalancedEndThrowsTest() {
+        AllocationTracker tracker = new AllocationTracker();
+        assertThatThrownBy(tracker::end).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> tracker.begin(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @AllocationBudget(bytesPerOperation = 16, warmup = 100, operations = 1_000)
+    void probeFailsOverBudgetTest(AllocationProbe probe) {
+        assertThatThrownBy(() -> probe.measure(() -> sink = new long[64]))
+                .isInstanceOf(AssertionFailedError.class)
+                .hasMessageContaining("budget is 16");
+        assertThat(probe.getLastBytes()).isGreaterThanOrEqualTo(1_000L / AllocationProbe.ROUNDS * 64 * Long.BYTES);
+    }
+}
@@ -0,0 +1,96 @@
+package framework.profiling;
+
+import framework.graphics.HeadlessContext;
+import framework.injection.Injector;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.lwjgl.opengl.GL11.*;
+
+class GpuProfilerTest {
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void unsupportedProfilerOnlyMeasuresCpuTest() {
+        // Not initialized, like a context without timer queries.
+        GpuProfiler profiler = new GpuProfiler();
+        for (int frame = 0; frame < GpuProfiler.FRAME_LATENCY * 2; frame++) {
+            profiler.beginFrame();
+            profiler.begin("scene");
+            profiler.end();
+            profiler.endFrame();
+        }
+
+        assertThat(profiler.isSupported()).isFalse();
+        assertThat(profiler.getCpuFrameStatistics().getCount()).isEqualTo(GpuProfiler.FRAME_LATENCY * 2 - 1);
+        assertThat(profiler.getGpuStatistics("scene")).isNull();
+        assertThat(profiler.getGpuFrameStatistics().getCount()).isZero();
+        assertThat(profiler.getAllocationTracker().getScopeNames()).contains("scene");
+        assertThatThrownBy(profiler::end).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> profiler.begin(null)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void resultsAreReadBackFrameLatencyLaterTest() {
+        try (HeadlessContext _ = HeadlessContext.create(16, 16)) {
+            GpuProfiler profiler = supportedProfiler();
+            for (int frame = 0; frame < GpuProfiler.FRAME_LATENCY; frame++) {
+                renderFrame(profiler, 1);
+                // Finishes the frame on the GPU, so the results are available once read back.
+                glFinish();
+            }
+            assertThat(profiler.getGpuFrameStatistics().getCount()).isZero();
+            assertThat(profiler.getGpuStatistics("scope0").getCount()).isZero();
+
+            // Reuses the slot of the first frame, which reads back its results.
+            profiler.beginFrame();
+            RollingStatistics frame = profiler.getGpuFrameStatistics(), scope = profiler.getGpuStatistics("scope0");
+            assertThat(frame.getCount()).isEqualTo(1);
+            assertThat(scope.getCount()).isEqualTo(1);
+            assertThat(scope.getLast()).isNotNegative().isLessThanOrEqualTo(frame.getLast());
+            assertThat(profiler.getDroppedFrames()).isZero();
+            profiler.endFrame();
+            profiler.destroy();
+        }
+    }
+
+    @Test
+    void exhaustedQueryPoolSkipsScopesTest() {
+        try (HeadlessContext _ = HeadlessContext.create(16, 16)) {
+            GpuProfiler profiler = supportedProfiler();
+            for (int frame = 0; frame <= GpuProfiler.FRAME_LATENCY; frame++) {
+                renderFrame(profiler, GpuProfiler.MAX_SCOPES_PER_FRAME * 2);
+                glFinish();
+            }
+
+            // The root scope takes the first record of a frame, scopes beyond the pool are not measured.
+            int measured = GpuProfiler.MAX_SCOPES_PER_FRAME - 1;
+            assertThat(profiler.getGpuFrameStatistics().getCount()).isEqualTo(1);
+            assertThat(profiler.getGpuStatistics("scope" + (measured - 1)).getCount()).isEqualTo(1);
+            assertThat(profiler.getGpuStatistics("scope" + measured)).isNull();
+            assertThat(profiler.getScopeNames()).hasSize(GpuProfiler.MAX_SCOPES_PER_FRAME);
+            // Allocations are still measured for every scope.
+            assertThat(profiler.getAllocationTracker().getScopeNames()).hasSize(GpuProfiler.MAX_SCOPES_PER_FRAME * 2 + 1);
+            profiler.destroy();
+        }
+    }
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    private static GpuProfiler supportedProfiler() {
+        GpuProfiler profiler = new Injector().get(GpuProfiler.class);
+        Assumptions.assumeTrue(profiler.isSupported(), "Timer queries are not supported");
+        return profiler;
+    }
+
+    private static void renderFrame(GpuProfiler profiler, int scopes) {
+        profiler.beginFrame();
+        for (int i = 0; i < scopes; i++) {
+            profiler.begin("scope" + i);
+            glClear(GL_COLOR_BUFFER_BIT);
+            profiler.end();
+        }
+        profiler.endFrame();
+    }
+}
@@ -0,0 +1,121 @@
+package framework.profiling;
+
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import net.jqwik.api.constraints.DoubleRange;
+import net.jqwik.api.constraints.IntRange;
+import net.jqwik.api.constraints.Size;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class RollingStatisticsTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property
+    void windowKeepsMostRecentSamples(@ForAll @Size(min = 1, max = 200) List<@DoubleRange(min = -1e3, max = 1e3) Double> samples,
+                                      @ForAll @IntRange(min = 1, max = 64) int window) {
+        RollingStatistics statistics = new RollingStatistics(window);
+        for (double sample : samples) statistics.add(sample);
+
+        List<Double> kept = samples.subList(Math.max(0, samples.size() - window), samples.size());
+        assertThat(statistics.getCount()).isEqualTo(kept.size());
+        assertThat(statistics.getLast()).isEqualTo(samples.getLast());
+        assertThat(statistics.getAverage()).isCloseTo(kept.stream().mapToDouble(Double::doubleValue).average().orElseThrow(), within(1e-6));
+        assertThat(statistics.getMin()).isEqualTo(kept.stream().mapToDouble(Double::doubleValue).min().orElseThrow());
+        assertThat(statistics.getMax()).isEqualTo(kept.stream().mapToDouble(Double::doubleValue).max().orElseThrow());
+    }
+
+    @Property
+    void percentileIsNearestRank(@ForAll @Size(min = 1, max = 200) List<@DoubleRange(min = -1e3, max = 1e3) Double> samples,
+                                 @ForAll @IntRange(min = 1, max = 64) int window,
+                                 @ForAll @DoubleRange(min = 0, max = 100) double percentile) {
+        RollingStatistics statistics = new RollingStatistics(window);
+        for (double sample : samples) statistics.add(sample);
+        List<Double> kept = samples.subList(Math.max(0, samples.size() - window), samples.size());
+
+        double value = statistics.getPercentile(percentile);
+
+        // At least the percentage of samples is less than or equal to the value, but not to any smaller sample.
+        long atMost = kept.stream().filter(sample -> sample <= value).count();
+        long below = kept.stream().filter(sample -> sample < value).count();
+        assertThat(kept).contains(value);
+        assertThat(atMost * 100.0).isGreaterThanOrEqualTo(percentile * kept.size());
+        if (percentile > 0) assertThat(below * 100.0).isLessThan(percentile * kept.size());
+    }
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void evictionTest() {
+        RollingStatistics statistics = new RollingStatistics(4);
+        for (int sample = 1; sample <= 10; sample++) statistics.add(sample);
+
+        assertThat(statistics.getCount()).isEqualTo(4);
+        assertThat(statistics.getLast()).isEqualTo(10);
+        assertThat(statistics.getAverage()).isEqualTo(8.5);
+        assertThat(statistics.getMin()).isEqualTo(7);
+        assertThat(statistics.getMax()).isEqualTo(10);
+    }
+
+    @Test
+    void percentilesTest() {
+        RollingStatistics statistics = new RollingStatistics(100);
+        // Added out of order, percentiles do not depend on the order of the window.
+        for (int i = 0; i < 100; i++) statistics.add((i * 37) % 100 + 1);
+
+        assertThat(statistics.getPercentile(0)).isEqualTo(1);
+        assertThat(statistics.getPercentile(50)).isEqualTo(50);
+        assertThat(statistics.getPercentile(95)).isEqualTo(95);
+        assertThat(statistics.getPercentile(99)).isEqualTo(99);
+        assertThat(statistics.getPercentile(99.5)).isEqualTo(100);
+        assertThat(statistics.getPercentile(100)).isEqualTo(100);
+        // Sorting a copy leaves the window intact.
+        assertThat(statistics.getLast()).isEqualTo((99 * 37) % 100 + 1);
+        statistics.add(1000);
+        assertThat(statistics.getPercentile(100)).isEqualTo(1000);
+    }
+
+    @Test
+    void emptyAndClearedTest() {
+        RollingStatistics statistics = new RollingStatistics(3);
+        assertThat(statistics.getAverage()).isZero();
+        assertThat(statistics.getMin()).isZero();
+        assertThat(statistics.getMax()).isZero();
+        assertThat(statistics.getPercentile(50)).isZero();
+
+        statistics.add(5);
+        statistics.add(-5);
+        statistics.clear();
+        statistics.add(2);
+        assertThat(statistics.getCount()).isEqualTo(1);
+        assertThat(statistics.getMin()).isEqualTo(2);
+        assertThat(statistics.getMax()).isEqualTo(2);
+        assertThat(statistics.getPercentile(90)).isEqualTo(2);
+    }
+
+    @Test
+    void invalidArgumentsThrowTest() {
+        RollingStatistics statistics = new RollingStatistics(1);
+        assertThatThrownBy(() -> new RollingStatistics(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> statistics.getPercentile(-1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> statistics.getPercentile(100.5)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> statistics.getPercentile(Double.NaN)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @AllocationBudget(warmup = 2_000, operations = 2_000)
+    void addAndPercentileDoNotAllocateTest(AllocationProbe probe) {
+        RollingStatistics statistics = new RollingStatistics(120);
+        double[] sample = {0};
+
+        probe.measure(() -> {
+            statistics.add(sample[0]++ % 17);
+            statistics.getPercentile(99);
+        });
+        assertThat(statistics.getCount()).isEqualTo(120);
+    }
+}
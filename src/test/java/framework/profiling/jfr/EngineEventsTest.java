@@ -0,0 +1,56 @@
+package framework.profiling.jfr;
+
+import framework.injection.Injector;
+import framework.injection.annotations.Inject;
+import framework.injection.annotations.Singleton;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class EngineEventsTest {
+
+    @Singleton
+    public static class Dependency {}
+
+    public static class Dependent {
+        @Inject
+        Dependency dependency;
+    }
+
+    @Test
+    void injectorRecordsNestedCreationsTest(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("injection.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(InjectionEvent.class).withThreshold(Duration.ZERO);
+            recording.start();
+            new Injector().create(Dependent.class);
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        assertThat(events).extracting(event -> event.getString("className"))
+                .containsExactly(Dependency.class.getName(), Dependent.class.getName());
+        assertThat(events).extracting(event -> event.getInt("depth")).containsExactly(1, 0);
+        assertThat(events).extracting(event -> event.getBoolean("singleton")).containsExactly(true, false);
+    }
+
+    @Test
+    void bundledSettingsEnableEngineEventsTest() throws Exception {
+        Configuration configuration = Configuration.create(Path.of("src/main/resources/jfr/engine.jfc"));
+
+        assertThat(configuration.getSettings())
+                .containsEntry("framework.Frame#enabled", "true")
+                .containsEntry("framework.ShaderCompile#enabled", "true")
+                .containsEntry("jdk.GarbageCollection#enabled", "true");
+    }
+}
@@ -0,0 +1,77 @@
+package framework.scene;
+
+import framework.util.IntList;
+
+import java.util.SplittableRandom;
+
+/**
+ * Manual benchmark of the {@link SpatialHashGrid} at 100k objects, compared against a linear scan.
+ * Run the main method with a warmed-up JVM; it is not part of the test suite.
+ */
+public final class SpatialHashGridBenchmark {
+
+    private static final int OBJECTS = 100_000;
+    private static final float WORLD = 20_000f;
+    private static final int ROUNDS = 10;
+
+    public static void main(String[] args) {
+        SplittableRandom random = new SplittableRandom(42);
+        int[] ids = new int[OBJECTS];
+        float[] bounds = new float[OBJECTS * 4];
+        for (int i = 0; i < OBJECTS; i++) {
+            ids[i] = i;
+            float x = (float) random.nextDouble(WORLD), y = (float) random.nextDouble(WORLD);
+            float w = (float) random.nextDouble(10, 60), h = (float) random.nextDouble(10, 90);
+            bounds[i * 4] = x;
+            bounds[i * 4 + 1] = y;
+            bounds[i * 4 + 2] = x + w;
+            bounds[i * 4 + 3] = y + h;
+        }
+
+        IntList out = new IntList(OBJECTS);
+        for (int round = 0; round < ROUNDS; round++) {
+            SpatialHashGrid grid = new SpatialHashGrid(64);
+            long t0 = System.nanoTime();
+            grid.insertAll(ids, bounds, OBJECTS);
+            long t1 = System.nanoTime();
+
+            for (int i = 0; i < OBJECTS; i++) {
+                float dx = (float) random.nextDouble(-8, 8), dy = (float) random.nextDouble(-8, 8);
+                grid.move(i, bounds[i * 4] + dx, bounds[i * 4 + 1] + dy, bounds[i * 4 + 2] + dx, bounds[i * 4 + 3] + dy);
+            }
+            long t2 = System.nanoTime();
+
+            int viewports = 1_000, visible = 0;
+            for (int q = 0; q < viewports; q++) {
+                float x = (float) random.nextDouble(WORLD), y = (float) random.nextDouble(WORLD);
+                out.clear();
+                visible += grid.query(x, y, x + 1920, y + 1080, out);
+            }
+            long t3 = System.nanoTime();
+
+            int points = 100_000, hits = 0;
+            for (int q = 0; q < points; q++) {
+                out.clear();
+                hits += grid.query((float) random.nextDouble(WORLD), (float) random.nextDouble(WORLD), out);
+            }
+            long t4 = System.nanoTime();
+
+            int scanned = 0;
+            for (int q = 0; q < 100; q++) {
+                float x = (float) random.nextDouble(WORLD), y = (float) random.nextDouble(WORLD);
+                for (int i = 0; i < OBJECTS; i++)
+                    if (bounds[i * 4] <= x + 1920 && bounds[i * 4 + 2] >= x
+                            && bounds[i * 4 + 1] <= y + 1080 && bounds[i * 4 + 3] >= y) scanned++;
+            }
+            long t5 = System.nanoTime();
+
+            grid.removeAll(ids, OBJECTS);
+            long t6 = System.nanoTime();
+
+            System.out.printf("round %d: insert %.2f ms, move %.2f ms, viewport query %.1f us (%d visible), " +
+                            "point query %.0f ns (%d hits), linear scan %.1f us (%d), remove %.2f ms%n",
+                    round, (t1 - t0) / 1e6, (t2 - t1) / 1e6, (t3 - t2) / 1e3 / viewports, visible / viewports,
+                    (t4 - t3) / (double) points, hits, (t5 - t4) / 1e3 / 100, scanned / 100, (t6 - t5) / 1e6);
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package framework.scene;
+
+import framework.util.IntList;
+import net.jqwik.api.ForAll;
+import net.jqwik.api.Property;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SpatialHashGridTest {
+
+    // ------------------------ PROPERTY TESTS ------------------------ //
+    @Property(tries = 50)
+    void queriesMatchBruteForce(@ForAll long seed) {
+        Random random = new Random(seed);
+        SpatialHashGrid grid = new SpatialHashGrid(8 + random.nextInt(32));
+        int objects = 200;
+        float[][] bounds = new float[objects][];
+
+        for (int id = 0; id < objects; id++) {
+            bounds[id] = randomBounds(random);
+            grid.insert(id, bounds[id][0], bounds[id][1], bounds[id][2], bounds[id][3]);
+        }
+        for (int step = 0; step < 400; step++) {
+            int id = random.nextInt(objects);
+            if (bounds[id] == null) {
+                bounds[id] = randomBounds(random);
+                grid.insert(id, bounds[id][0], bounds[id][1], bounds[id][2], bounds[id][3]);
+            } else if (random.nextInt(4) == 0) {
+                assertThat(grid.remove(id)).isTrue();
+                bounds[id] = null;
+            } else {
+                bounds[id] = randomBounds(random);
+                grid.move(id, bounds[id][0], bounds[id][1], bounds[id][2], bounds[id][3]);
+            }
+        }
+
+        for (int query = 0; query < 50; query++) {
+            float[] area = randomBounds(random);
+            IntList found = new IntList();
+            grid.query(area[0], area[1], area[2], area[3], found);
+            found.sort();
+            int[] expected = IntStream.range(0, objects)
+                    .filter(id -> bounds[id] != null && overlaps(bounds[id], area))
+                    .toArray();
+            assertThat(found.toArray()).isEqualTo(expected);
+
+            float x = area[0], y = area[1];
+            IntList hit = new IntList();
+            grid.query(x, y, hit);
+            hit.sort();
+            int[] expectedHit = IntStream.range(0, objects)
+                    .filter(id -> bounds[id] != null && overlaps(bounds[id], new float[]{x, y, x, y}))
+                    .toArray();
+            assertThat(hit.toArray()).isEqualTo(expectedHit);
+        }
+        assertThat(grid.size()).isEqualTo((int) Arrays.stream(bounds).filter(b -> b != null).count());
+    }
+
+
+    // ------------------------ UNIT TESTS ------------------------ //
+    @Test
+    void duplicateInsertTest() {
+        SpatialHashGrid grid = new SpatialHashGrid(10);
+        grid.insert(3, 0, 0, 1, 1);
+        assertThatThrownBy(() -> grid.insert(3, 0, 0, 1, 1)) //
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void negativeIdInsertTest() {
+        SpatialHashGrid grid = new SpatialHashGrid(10);
+        assertThatThrownBy(() -> grid.insert(-1, 0, 0, 1, 1)) //
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void nonFiniteBoundsThrowTest() {
+        SpatialHashGrid grid = new SpatialHashGrid(10);
+        assertThatThrownBy(() -> grid.insert(0, 0, 0, Float.POSITIVE_INFINITY, 1)) //
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> grid.insert(0, Float.NaN, 0, 1, 1)) //
+                .isInstanceOf(IllegalArgumentException.class);
+        grid.insert(0, 0, 0, 1, 1);
+        assertThatThrownBy(() -> grid.move(0, 0, Float.NEGATIVE_INFINITY, 1, 1)) //
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(grid.getMinY(0)).isZero();
+    }
+
+    @Test
+    void boundsAtLastCellTest() {
+        // Cells of these coordinates saturate at the largest int, the loops over them must still end.
+        SpatialHashGrid grid = new SpatialHashGrid(1);
+        grid.insert(0, Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE);
+        grid.insert(1, -Float.MAX_VALUE, 0, -Float.MAX_VALUE, 0);
+        IntList found = new IntList();
+
+        assertThat(grid.query(Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE, Float.MAX_VALUE, found)).isEqualTo(1);
+        assertThat(found.get(0)).isZero();
+        assertThat(grid.query(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY,
+                Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, found)).isEqualTo(2);
+        grid.move(0, 3e9f, 0, 3e9f, 0);
+        assertThat(grid.query(3e9f, 0, found)).isEqualTo(1);
+    }
+
+    @Test
+    void hugeFiniteBoundsTest() {
+        // Billions of cells per side, linked cell by cell these would never finish.
+        SpatialHashGrid grid = new SpatialHashGrid(1);
+        grid.insert(0, -1e9f, -1e9f, 1e9f, 1e9f);
+        grid.insert(1, 0, 0, 1, 1);
+        grid.insert(2, 5e8f, 0, 6e8f, 1e6f);
+
+        assertThat(grid.query(0.5f, 0.5f, new IntList())).isEqualTo(2);
+        assertThat(grid.query(5.5e8f, 10, new IntList())).isEqualTo(2);
+        assertThat(grid.query(-10, -10, 10, 10, new IntList())).isEqualTo(2);
+        assertThat(grid.query(2e9f, 2e9f, 3e9f, 3e9f, new IntList())).isZero();
+        assertThat(grid.query(Float.NEGATIVE_INFINITY, Float.NEGATIVE_INFINITY,
+                Float.POSITIVE_INFINITY, Float.POSITIVE_INFINITY, new IntList())).isEqualTo(3);
+
+        grid.move(0, 10, 10, 11, 11);
+        assertThat(grid.query(-1e8f, -1e8f, -1e7f, -1e7f, new IntList())).isZero();
+        assertThat(grid.query(10.5f, 10.5f, new IntList())).isEqualTo(1);
+        assertThat(grid.remove(2)).isTrue();
+        assertThat(grid.contains(2)).isFalse();
+        assertThat(grid.query(5.5e8f, 10, new IntList())).isZero();
+        grid.move(1, -1e9f, 0, 1e9f, 1);
+        assertThat(grid.query(-9e8f, 0.5f, new IntList())).isEqualTo(1);
+        assertThat(grid.size()).isEqualTo(2);
+    }
+
+    @Test
+    void clearTest() {
+        SpatialHashGrid grid = new SpatialHashGrid(10);
+        grid.insert(0, 0, 0, 25, 25);
+        grid.clear();
+        IntList found = new IntList();
+        assertThat(grid.query(-100, -100, 100, 100, found)).isZero();
+        grid.insert(0, 0, 0, 1, 1);
+        assertThat(grid.query(0.5f, 0.5f, found)).isEqualTo(1);
+    }
+
+
+    // ------------------------ HELPER METHODS ------------------------ //
+    private static float[] randomBounds(Random random) {
+        float x = random.nextFloat() * 400 - 200;
+        float y = random.nextFloat() * 400 - 200;
+        // Some objects are large enough to exceed the cells an object is linked into.
+        float size = random.nextInt(10) == 0 ? 800 : 40;
+        return new float[]{x, y, x + random.nextFloat() * size, y + random.nextFloat() * size};
+    }
+
+    private static boolean overlaps(float[] a, float[] b) {
+        return a[0] <= b[2] && a[2] >= b[0] && a[1] <= b[3] && a[3] >= b[1];
+    }
+}
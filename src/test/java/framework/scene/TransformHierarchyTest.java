@@ -0,0 +1,101 @@
+package framework.scene;
+
+import framework.profiling.AllocationBudget;
+import framework.profiling.AllocationProbe;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+import org.assertj.core.data.Offset;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TransformHierarchyTest {
+
+    @Test
+    void movingHandRecomputesOnlyHandSubtreeTest() {
+        TransformHierarchy hierarchy = new TransformHierarchy();
+        int table = hierarchy.create(TransformHierarchy.NO_PARENT);
+        int deck = hierarchy.create(table);
+        int hand = hierarchy.create(table);
+        int[] cards = new int[50];
+        for (int i = 0; i < cards.length; i++) {
+            cards[i] = hierarchy.create(hand);
+            hierarchy.setPosition(cards[i], i * 10, 0, 0);
+        }
+        hierarchy.create(deck);
+        hierarchy.update();
+
+        hierarchy.translate(hand, 5, 7);
+        assertThat(hierarchy.update()).isEqualTo(51);
+        assertThat(hierarchy.getChangedTo() - hierarchy.getChangedFrom()).isEqualTo(51);
+        assertThat(hierarchy.update()).isZero();
+
+        Vector3f position = hierarchy.getWorldMatrix(cards[49], new Matrix4f()).getTranslation(new Vector3f());
+        assertThat(position).isEqualTo(new Vector3f(495, 7, 0));
+    }
+
+    @Test
+    void worldMatrixCombinesParentTransformsTest() {
+        TransformHierarchy hierarchy = new TransformHierarchy();
+        int parent = hierarchy.create(TransformHierarchy.NO_PARENT);
+        int child = hierarchy.create(parent);
+        hierarchy.setPosition(parent, 10, 0, 0);
+        hierarchy.setRotation(parent, (float) Math.PI / 2);
+        hierarchy.setScale(parent, 2, 2);
+        hierarchy.setPosition(child, 1, 0, 0);
+        hierarchy.update();
+
+        Vector3f position = hierarchy.getWorldMatrix(child, new Matrix4f()).getTranslation(new Vector3f());
+        assertThat(position.x).isCloseTo(10, Offset.offset(1e-5f));
+        assertThat(position.y).isCloseTo(2, Offset.offset(1e-5f));
+    }
+
+    @Test
+    void reparentingKeepsParentsBeforeChildrenTest() {
+        TransformHierarchy hierarchy = new TransformHierarchy();
+        int a = hierarchy.create(TransformHierarchy.NO_PARENT);
+        int b = hierarchy.create(a);
+        int c = hierarchy.create(TransformHierarchy.NO_PARENT);
+        hierarchy.setPosition(c, 3, 0, 0);
+        hierarchy.setPosition(a, 1, 0, 0);
+        hierarchy.setParent(a, c);
+        hierarchy.update();
+
+        assertThat(hierarchy.wasReordered()).isTrue();
+        assertThat(hierarchy.getSlot(c)).isLessThan(hierarchy.getSlot(a));
+        assertThat(hierarchy.getSlot(a)).isLessThan(hierarchy.getSlot(b));
+        assertThat(hierarchy.getWorldMatrix(b, new Matrix4f()).getTranslation(new Vector3f()).x).isEqualTo(4);
+        assertThatThrownBy(() -> hierarchy.setParent(c, b)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void removingNodeRemovesSubtreeTest() {
+        TransformHierarchy hierarchy = new TransformHierarchy();
+        int root = hierarchy.create(TransformHierarchy.NO_PARENT);
+        int hand = hierarchy.create(root);
+        int card = hierarchy.create(hand);
+        int other = hierarchy.create(root);
+        hierarchy.remove(hand);
+        hierarchy.update();
+
+        assertThat(hierarchy.size()).isEqualTo(2);
+        assertThat(hierarchy.contains(card)).isFalse();
+        assertThat(hierarchy.contains(other)).isTrue();
+    }
+
+    @Test
+    @AllocationBudget
+    void updateDoesNotAllocateTest(AllocationProbe probe) {
+        TransformHierarchy hierarchy = new TransformHierarchy();
+        int hand = hierarchy.create(TransformHierarchy.NO_PARENT);
+        for (int i = 0; i < 50; i++) hierarchy.create(hand);
+        hierarchy.update();
+
+        probe.measure(() -> {
+            hierarchy.translate(hand, 1, 0);
+            hierarchy.update();
+        });
+        assertThat(hierarchy.getChangedTo()).isEqualTo(51);
+    }
+}